@@ -16,6 +16,7 @@
 
 package com.ait.lienzo.client.core;
 
+import com.ait.lienzo.client.core.shape.ILevelOfDetailPolicy;
 import com.ait.lienzo.client.core.types.DashArray;
 import com.ait.lienzo.client.core.types.ImageData;
 import com.ait.lienzo.client.core.types.ImageDataPixelColor;
@@ -44,6 +45,12 @@ public class Context2D
 {
     private final INativeContext2D m_jso;
 
+    private ILevelOfDetailPolicy   m_lod;
+
+    private double                 m_lod_scale = 1;
+
+    private int                    m_lod_flags = ILevelOfDetailPolicy.FULL;
+
     public Context2D(final CanvasElement element)
     {
         this(NativeContext2D.make(element));
@@ -334,6 +341,10 @@ public class Context2D
     {
         if (null != list)
         {
+            if (0 != (m_lod_flags & ILevelOfDetailPolicy.SIMPLIFY))
+            {
+                return m_jso.path(list.simplify(m_lod.getSimplifyTolerance() / m_lod_scale).getJSO());
+            }
             return m_jso.path(list.getJSO());
         }
         return false;
@@ -453,6 +464,53 @@ public class Context2D
         return new Path2D(m_jso.getCurrentPath());
     }
 
+    public ILevelOfDetailPolicy getLevelOfDetailPolicy()
+    {
+        return m_lod;
+    }
+
+    /**
+     * Sets the level of detail policy of the shapes drawn on this context, or null to draw them in full.
+     * Used internally by {@link com.ait.lienzo.client.core.shape.Layer} while it draws.
+     *
+     * @param policy
+     * @param scale the number of screen pixels per unit of the current transform
+     */
+    public void setLevelOfDetailPolicy(final ILevelOfDetailPolicy policy, final double scale)
+    {
+        m_lod = policy;
+
+        m_lod_scale = scale;
+
+        m_lod_flags = ILevelOfDetailPolicy.FULL;
+    }
+
+    /**
+     * Returns the number of screen pixels per unit of the current transform, as far as the nodes drawn so far have told.
+     */
+    public double getLevelOfDetailScale()
+    {
+        return m_lod_scale;
+    }
+
+    public void setLevelOfDetailScale(final double scale)
+    {
+        m_lod_scale = scale;
+    }
+
+    /**
+     * Returns the {@link ILevelOfDetailPolicy} flags of the shape being drawn.
+     */
+    public int getLevelOfDetail()
+    {
+        return m_lod_flags;
+    }
+
+    public void setLevelOfDetail(final int flags)
+    {
+        m_lod_flags = flags;
+    }
+
     public boolean isSelection()
     {
         return false;
@@ -83,6 +83,8 @@ public final class LienzoCore
 
     private boolean                        m_enableBlobIfSupported          = true;
 
+    private boolean                        m_dragLayerBlitting              = true;
+
     private boolean                        m_nativeLineDashExamine          = false;
 
     private Cursor                         m_normal_cursor                  = Cursor.DEFAULT;
@@ -315,6 +317,22 @@ public final class LienzoCore
         return this;
     }
 
+    /**
+     * Whether a node dragged in {@link com.ait.lienzo.shared.core.types.DragMode#DRAG_LAYER} mode is drawn to a bitmap once,
+     * when the drag starts, and the bitmap is drawn on every move instead of the node. It is on by default.
+     */
+    public final LienzoCore setDragLayerBlitting(final boolean enabled)
+    {
+        m_dragLayerBlitting = enabled;
+
+        return this;
+    }
+
+    public final boolean isDragLayerBlitting()
+    {
+        return m_dragLayerBlitting;
+    }
+
     public final LienzoCore setScaledCanvasForRetina(final boolean enabled)
     {
         m_scaledCanvasForRetina = enabled;
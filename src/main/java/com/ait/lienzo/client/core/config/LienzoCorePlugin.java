@@ -29,6 +29,7 @@ import com.ait.lienzo.client.core.image.filter.EmbossImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.ExposureImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.GainImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.GammaImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.GaussianBlurImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.HueImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.ImageDataFilterChain;
 import com.ait.lienzo.client.core.image.filter.InvertColorImageDataFilter;
@@ -498,6 +499,14 @@ final class LienzoCorePlugin extends AbstractLienzoCorePlugin
                 return new GammaImageDataFilter.GammaImageDataFilterFactory();
             }
         });
+        addFactorySupplier(ImageFilterType.GaussianBlurImageDataFilterType, new Supplier<IFactory<?>>()
+        {
+            @Override
+            public IFactory<?> get()
+            {
+                return new GaussianBlurImageDataFilter.GaussianBlurImageDataFilterFactory();
+            }
+        });
         addFactorySupplier(ImageFilterType.HueImageDataFilterType, new Supplier<IFactory<?>>()
         {
             @Override
@@ -19,10 +19,26 @@ package com.ait.lienzo.client.core.image;
 import java.util.Collection;
 
 import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.image.filter.AbstractConvolveImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.AbstractRGBImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.AbstractTableImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.AbstractValueTableImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.AverageGrayScaleImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.BrightnessImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.EdgeDetectImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.EmbossImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.GaussianBlurImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.HueImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.ImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.ImageDataFilterChain;
+import com.ait.lienzo.client.core.image.filter.ImageDataFilterTileScheduler;
+import com.ait.lienzo.client.core.image.filter.ImageDataFilterTileScheduler.ITileProcessor;
 import com.ait.lienzo.client.core.image.filter.ImageDataFilterable;
+import com.ait.lienzo.client.core.image.filter.InvertColorImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.LightnessGrayScaleImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.LuminosityGrayScaleImageDataFilter;
 import com.ait.lienzo.client.core.image.filter.RGBIgnoreAlphaImageDataFilter;
+import com.ait.lienzo.client.core.image.filter.StackBlurImageDataFilter;
 import com.ait.lienzo.client.core.shape.AbstractImageShape;
 import com.ait.lienzo.client.core.shape.Layer;
 import com.ait.lienzo.client.core.shape.json.IFactory;
@@ -31,6 +47,8 @@ import com.ait.lienzo.client.core.types.ImageData;
 import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.shared.core.types.ImageFilterType;
 import com.ait.lienzo.shared.core.types.ImageSelectionMode;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
 import com.google.gwt.dom.client.ImageElement;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.resources.client.ImageResource;
@@ -40,6 +58,8 @@ import com.google.gwt.resources.client.ImageResource;
  */
 public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFilterable<ImageProxy<T>>
 {
+    public static final long           DEFAULT_FILTER_FRAME_MILLIS = 8;
+
     private final T                    m_image;
 
     private ImageElement               m_jsimg;
@@ -80,6 +100,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
 
     private ImageClipBounds            m_obounds     = null;
 
+    private FilterJob                  m_job         = null;
+
     /**
      * Creates an ImageProxy for the specified {@link AbstractImageShape}.
      *
@@ -288,6 +310,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
 
     public void reFilter(final ImageShapeFilteredHandler<T> handler)
     {
+        cancelFiltering();
+
         if ((false == (m_filters.isActive())) && (ImageSelectionMode.SELECT_BOUNDS == m_image.getImageSelectionMode()))
         {
             m_fastout = true;
@@ -335,6 +359,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
 
     public void unFilter(final ImageShapeFilteredHandler<T> handler)
     {
+        cancelFiltering();
+
         if ((false == (m_filters.isActive())) && (ImageSelectionMode.SELECT_BOUNDS == m_image.getImageSelectionMode()))
         {
             m_fastout = true;
@@ -376,9 +402,146 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
         }
     }
 
+    /**
+     * Re-applies the filters like {@link #reFilter(ImageShapeFilteredHandler)}, but processes the image
+     * in bands of {@link ImageDataFilterTileScheduler#DEFAULT_TILE_ROWS} rows spread over as many animation
+     * frames as needed, so large images do not block the UI thread.
+     *
+     * @param handler notified when filtering completes; if it is an {@link ImageShapeFilterProgressHandler} it is also told about progress and cancellation
+     */
+    public void reFilterAsync(final ImageShapeFilteredHandler<T> handler)
+    {
+        reFilterAsync(handler, ImageDataFilterTileScheduler.DEFAULT_TILE_ROWS, DEFAULT_FILTER_FRAME_MILLIS);
+    }
+
+    /**
+     * Re-applies the filters asynchronously. Any filtering still in progress is cancelled, as is this one
+     * if the filters are changed before it completes.
+     *
+     * @param handler notified when filtering completes
+     * @param rows number of rows in each tile
+     * @param millis time budget per animation frame
+     */
+    public void reFilterAsync(final ImageShapeFilteredHandler<T> handler, final int rows, final long millis)
+    {
+        cancelFiltering();
+
+        if ((false == (m_filters.isActive())) && (ImageSelectionMode.SELECT_BOUNDS == m_image.getImageSelectionMode()))
+        {
+            m_fastout = true;
+
+            handler.onImageShapeFiltered(m_image);
+        }
+        else
+        {
+            if (m_fastout)
+            {
+                m_normalImage.setPixelSize(m_dest_wide, m_dest_high);
+
+                m_filterImage.setPixelSize(m_dest_wide, m_dest_high);
+
+                m_selectImage.setPixelSize(m_dest_wide, m_dest_high);
+
+                m_normalImage.clear();
+
+                m_normalImage.getContext().drawImage(m_jsimg, m_clip_xpos, m_clip_ypos, m_clip_wide, m_clip_high, 0, 0, m_dest_wide, m_dest_high);
+
+                m_fastout = false;
+            }
+            final boolean did_xform = m_x_forms;
+
+            m_x_forms = m_filters.isTransforming();
+
+            m_job = new FilterJob(handler, rows, millis, did_xform || m_x_forms);
+
+            m_job.start();
+        }
+    }
+
+    /**
+     * Returns true if an asynchronous re-filter is in progress.
+     *
+     * @return boolean
+     */
+    public boolean isFiltering()
+    {
+        return ((null != m_job) && (m_job.isRunning()));
+    }
+
+    /**
+     * Cancels any asynchronous re-filter in progress.
+     */
+    public void cancelFiltering()
+    {
+        if (null != m_job)
+        {
+            final FilterJob job = m_job;
+
+            m_job = null;
+
+            job.cancel();
+        }
+    }
+
+    private static final int getTileHalo(final ImageDataFilter<?> filter)
+    {
+        if ((null == filter) || (false == filter.isActive()))
+        {
+            return 0;
+        }
+        if (filter instanceof ImageDataFilterChain)
+        {
+            int halo = 0;
+
+            for (final ImageDataFilter<?> each : ((ImageDataFilterChain) filter).getFilters())
+            {
+                final int size = getTileHalo(each);
+
+                if (size < 0)
+                {
+                    return -1;
+                }
+                halo += size;
+            }
+            return halo;
+        }
+        if (filter instanceof AbstractConvolveImageDataFilter)
+        {
+            return (((int) Math.sqrt(((AbstractConvolveImageDataFilter<?>) filter).getMatrix().size())) / 2);
+        }
+        if (filter instanceof StackBlurImageDataFilter)
+        {
+            return ((int) ((StackBlurImageDataFilter) filter).getValue()) + 1;
+        }
+        if (filter instanceof GaussianBlurImageDataFilter)
+        {
+            return ((GaussianBlurImageDataFilter) filter).getRadius() + 1;
+        }
+        if ((filter instanceof EdgeDetectImageDataFilter) || (filter instanceof EmbossImageDataFilter))
+        {
+            return 1;
+        }
+        if ((filter instanceof AbstractTableImageDataFilter) || (filter instanceof AbstractValueTableImageDataFilter) || (filter instanceof AbstractRGBImageDataFilter))
+        {
+            return 0;
+        }
+        if ((filter instanceof AverageGrayScaleImageDataFilter) || (filter instanceof LightnessGrayScaleImageDataFilter) || (filter instanceof LuminosityGrayScaleImageDataFilter))
+        {
+            return 0;
+        }
+        if ((filter instanceof BrightnessImageDataFilter) || (filter instanceof HueImageDataFilter) || (filter instanceof InvertColorImageDataFilter))
+        {
+            return 0;
+        }
+        // transforms and unknown filters may read any pixel, so they get a single tile
+        return -1;
+    }
+
     @Override
     public ImageProxy<T> setFilters(final ImageDataFilter<?> filter, final ImageDataFilter<?>... filters)
     {
+        cancelFiltering();
+
         m_filters.setFilters(filter, filters);
 
         return this;
@@ -387,6 +550,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> addFilters(final ImageDataFilter<?> filter, final ImageDataFilter<?>... filters)
     {
+        cancelFiltering();
+
         m_filters.addFilters(filter, filters);
 
         return this;
@@ -395,6 +560,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> removeFilters(final ImageDataFilter<?> filter, final ImageDataFilter<?>... filters)
     {
+        cancelFiltering();
+
         m_filters.removeFilters(filter, filters);
 
         return this;
@@ -403,6 +570,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> clearFilters()
     {
+        cancelFiltering();
+
         m_filters.clearFilters();
 
         return this;
@@ -417,6 +586,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> setFiltersActive(final boolean active)
     {
+        cancelFiltering();
+
         m_filters.setActive(active);
 
         return this;
@@ -431,6 +602,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> setFilters(final Iterable<ImageDataFilter<?>> filters)
     {
+        cancelFiltering();
+
         m_filters.setFilters(filters);
 
         return this;
@@ -439,6 +612,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> addFilters(final Iterable<ImageDataFilter<?>> filters)
     {
+        cancelFiltering();
+
         m_filters.addFilters(filters);
 
         return this;
@@ -447,6 +622,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
     @Override
     public ImageProxy<T> removeFilters(final Iterable<ImageDataFilter<?>> filters)
     {
+        cancelFiltering();
+
         m_filters.removeFilters(filters);
 
         return this;
@@ -458,6 +635,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
 
         if (m_obounds.isDifferent(bounds))
         {
+            cancelFiltering();
+
             m_obounds = bounds;
 
             m_clip_xpos = m_obounds.getClipXPos();
@@ -670,6 +849,142 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
         return new BoundingBox(0, 0, m_dest_wide, m_dest_high);
     }
 
+    private final class FilterJob implements AnimationCallback, ITileProcessor
+    {
+        private final ImageShapeFilteredHandler<T> m_done;
+
+        private final ImageDataFilterTileScheduler m_tiles;
+
+        private final long                         m_millis;
+
+        private final boolean                      m_select;
+
+        private final int                          m_wide;
+
+        public FilterJob(final ImageShapeFilteredHandler<T> done, final int rows, final long millis, final boolean select)
+        {
+            m_done = done;
+
+            m_millis = millis;
+
+            m_select = select;
+
+            m_wide = m_dest_wide;
+
+            m_tiles = new ImageDataFilterTileScheduler(m_dest_high, rows, getTileHalo(m_filters), this);
+        }
+
+        public final boolean isRunning()
+        {
+            return m_tiles.isRunning();
+        }
+
+        public final void start()
+        {
+            AnimationScheduler.get().requestAnimationFrame(this);
+        }
+
+        public final void cancel()
+        {
+            if (m_tiles.isRunning())
+            {
+                m_tiles.cancel();
+
+                // the bands filtered so far are dropped, so the image is not left half filtered
+
+                doFiltering(m_normalImage, m_filterImage, null);
+
+                if (m_image.isVisible())
+                {
+                    final Layer layer = m_image.getLayer();
+
+                    if (null != layer)
+                    {
+                        layer.batch();
+                    }
+                }
+                final ImageShapeFilterProgressHandler<T> progress = getProgressHandler();
+
+                if (null != progress)
+                {
+                    progress.onImageShapeFilterCancelled(m_image);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private final ImageShapeFilterProgressHandler<T> getProgressHandler()
+        {
+            if (m_done instanceof ImageShapeFilterProgressHandler)
+            {
+                return (ImageShapeFilterProgressHandler<T>) m_done;
+            }
+            return null;
+        }
+
+        @Override
+        public final void process(final int tile, final int readStart, final int readEnd, final int writeStart, final int writeEnd)
+        {
+            ImageData data = m_normalImage.getContext().getImageData(0, readStart, m_wide, readEnd - readStart);
+
+            if ((m_filters.isActive()) && (null != m_filters.getType()))
+            {
+                final ImageData imdata = m_filters.filter(data, false);
+
+                if (null != imdata)
+                {
+                    data = imdata;
+                }
+            }
+            m_filterImage.getContext().putImageData(data, 0, readStart, 0, writeStart - readStart, m_wide, writeEnd - writeStart);
+        }
+
+        @Override
+        public final void execute(final double time)
+        {
+            if (m_tiles.isCancelled())
+            {
+                return;
+            }
+            final boolean more = m_tiles.stepFor(m_millis);
+
+            if (m_tiles.isCancelled())
+            {
+                return;
+            }
+            final ImageShapeFilterProgressHandler<T> progress = getProgressHandler();
+
+            if (null != progress)
+            {
+                progress.onImageShapeFilterProgress(m_image, m_tiles.getCompletedCount(), m_tiles.getTileCount());
+            }
+            if (m_image.isVisible())
+            {
+                final Layer layer = m_image.getLayer();
+
+                if (null != layer)
+                {
+                    layer.batch();
+                }
+            }
+            if (more)
+            {
+                AnimationScheduler.get().requestAnimationFrame(this);
+
+                return;
+            }
+            if (m_job == this)
+            {
+                m_job = null;
+            }
+            if ((m_image.isListening()) && (ImageSelectionMode.SELECT_BOUNDS != m_image.getImageSelectionMode()) && (m_select))
+            {
+                doFiltering(m_filterImage, m_selectImage, m_ignores);
+            }
+            m_done.onImageShapeFiltered(m_image);
+        }
+    }
+
     private static final class ClearFilter implements ImageDataFilter<ClearFilter>
     {
         @Override
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.image;
+
+import com.ait.lienzo.client.core.shape.AbstractImageShape;
+
+/**
+ * An {@link ImageShapeFilteredHandler} that is also told about the progress of an asynchronous re-filter.
+ */
+public interface ImageShapeFilterProgressHandler<T extends AbstractImageShape<T>> extends ImageShapeFilteredHandler<T>
+{
+    public void onImageShapeFilterProgress(T image, int done, int total);
+
+    public void onImageShapeFilterCancelled(T image);
+}
@@ -22,6 +22,7 @@ import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
 import com.ait.lienzo.client.core.types.ImageData;
 import com.ait.lienzo.shared.core.types.ImageFilterType;
 import com.google.gwt.canvas.dom.client.CanvasPixelArray;
+import com.google.gwt.core.client.JsArrayMixed;
 import com.google.gwt.json.client.JSONObject;
 
 public abstract class AbstractConvolveImageDataFilter<T extends AbstractConvolveImageDataFilter<T>> extends AbstractImageDataFilter<T>
@@ -97,6 +98,14 @@ public abstract class AbstractConvolveImageDataFilter<T extends AbstractConvolve
         {
             return source;
         }
+        final JsArrayMixed separable = FilterCommonOps.getSeparableVectors(matrix);
+
+        if (null != separable)
+        {
+            FilterCommonOps.doFilterConvolveSeparable(data, separable, source.getWidth(), source.getHeight());
+
+            return source;
+        }
         final ImageData result = source.create();
 
         FilterCommonOps.doFilterConvolve(data, result.getData(), matrix, source.getWidth(), source.getHeight());
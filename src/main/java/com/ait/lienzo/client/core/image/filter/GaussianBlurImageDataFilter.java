@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.client.core.image.filter;
+
+import com.ait.lienzo.client.core.shape.json.IFactory;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
+import com.ait.lienzo.client.core.types.ImageData;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+import com.google.gwt.canvas.dom.client.CanvasPixelArray;
+import com.google.gwt.json.client.JSONObject;
+
+/**
+ * Approximates a gaussian blur with a standard deviation of <code>value</code> by
+ * three successive box blurs. Each box blur is computed with running sums, so the
+ * cost per pixel does not depend on the blur radius. As with {@link StackBlurImageDataFilter},
+ * only the RGB channels are blurred.
+ */
+public class GaussianBlurImageDataFilter extends AbstractValueImageDataFilter<GaussianBlurImageDataFilter>
+{
+    public static final int BOX_BLUR_PASSES = 3;
+
+    public GaussianBlurImageDataFilter(final double value)
+    {
+        super(ImageFilterType.GaussianBlurImageDataFilterType, value);
+    }
+
+    public GaussianBlurImageDataFilter()
+    {
+        super(ImageFilterType.GaussianBlurImageDataFilterType, 1);
+    }
+
+    protected GaussianBlurImageDataFilter(final JSONObject node, final ValidationContext ctx) throws ValidationException
+    {
+        super(ImageFilterType.GaussianBlurImageDataFilterType, node, ctx);
+    }
+
+    @Override
+    public double getMinValue()
+    {
+        return 0;
+    }
+
+    @Override
+    public double getMaxValue()
+    {
+        return 100;
+    }
+
+    @Override
+    public double getRefValue()
+    {
+        return 1;
+    }
+
+    /**
+     * Returns the sum of the box radii, which is how far a pixel can be moved by this filter.
+     */
+    public final int getRadius()
+    {
+        int radius = 0;
+
+        for (final int size : getBoxRadii(getValue(), BOX_BLUR_PASSES))
+        {
+            radius += size;
+        }
+        return radius;
+    }
+
+    @Override
+    public ImageData filter(ImageData source, final boolean copy)
+    {
+        if (null == source)
+        {
+            return null;
+        }
+        if (copy)
+        {
+            source = source.copy();
+        }
+        if (false == isActive())
+        {
+            return source;
+        }
+        final CanvasPixelArray data = source.getData();
+
+        if (null == data)
+        {
+            return source;
+        }
+        final int w = source.getWidth();
+
+        final int h = source.getHeight();
+
+        for (final int radius : getBoxRadii(getValue(), BOX_BLUR_PASSES))
+        {
+            if (radius > 0)
+            {
+                FilterCommonOps.doFilterBoxBlur(data, radius, w, h);
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Returns the radii of <code>passes</code> box blurs whose combined variance is closest to <code>sigma</code> squared.
+     */
+    public static final int[] getBoxRadii(final double sigma, final int passes)
+    {
+        final int[] radii = new int[Math.max(0, passes)];
+
+        if ((passes < 1) || (false == (sigma > 0)))
+        {
+            return radii;
+        }
+        final double vars = 12 * sigma * sigma;
+
+        int lo = (int) Math.floor(Math.sqrt((vars / passes) + 1));
+
+        if ((lo % 2) == 0)
+        {
+            lo--;
+        }
+        final int hi = lo + 2;
+
+        final long count = Math.round((vars - passes * lo * lo - 4 * passes * lo - 3 * passes) / (-4.0 * lo - 4));
+
+        for (int i = 0; i < passes; i++)
+        {
+            radii[i] = (((i < count) ? lo : hi) - 1) / 2;
+        }
+        return radii;
+    }
+
+    @Override
+    public IFactory<GaussianBlurImageDataFilter> getFactory()
+    {
+        return new GaussianBlurImageDataFilterFactory();
+    }
+
+    public static class GaussianBlurImageDataFilterFactory extends ValueImageDataFilterFactory<GaussianBlurImageDataFilter>
+    {
+        public GaussianBlurImageDataFilterFactory()
+        {
+            super(ImageFilterType.GaussianBlurImageDataFilterType);
+        }
+
+        @Override
+        public GaussianBlurImageDataFilter create(final JSONObject node, final ValidationContext ctx) throws ValidationException
+        {
+            return new GaussianBlurImageDataFilter(node, ctx);
+        }
+    }
+}
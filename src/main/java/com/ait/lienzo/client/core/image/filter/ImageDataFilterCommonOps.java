@@ -22,6 +22,7 @@ import com.ait.lienzo.client.core.image.filter.ImageDataFilter.FilterTransformFu
 import com.ait.lienzo.client.core.types.ImageData;
 import com.google.gwt.canvas.dom.client.CanvasPixelArray;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayMixed;
 
 public class ImageDataFilterCommonOps extends JavaScriptObject
 {
@@ -161,6 +162,154 @@ public class ImageDataFilterCommonOps extends JavaScriptObject
                 }
             }
         };
+        this.getScratch = function(size) {
+            if ((!this.scratch) || (this.scratch.length < size)) {
+                this.scratch = new Float64Array(size);
+            }
+            return this.scratch;
+        };
+        this.separate = function(matrix) {
+            var cols = Math.sqrt(matrix.length);
+            if ((cols | 0) != cols) {
+                return null;
+            }
+            var pi = -1, pj = -1, pmax = 0;
+            for (var i = 0; i < cols; i++) {
+                for (var j = 0; j < cols; j++) {
+                    var m = Math.abs(matrix[i * cols + j]);
+                    if (m > pmax) {
+                        pmax = m;
+                        pi = i;
+                        pj = j;
+                    }
+                }
+            }
+            if (pmax == 0) {
+                return null;
+            }
+            var pivot = matrix[pi * cols + pj];
+            var vvec = [];
+            var hvec = [];
+            for (var i = 0; i < cols; i++) {
+                vvec[i] = matrix[i * cols + pj];
+                hvec[i] = matrix[pi * cols + i] / pivot;
+            }
+            var epsilon = pmax * 1e-10;
+            for (var i = 0; i < cols; i++) {
+                for (var j = 0; j < cols; j++) {
+                    if (Math.abs(matrix[i * cols + j] - vvec[i] * hvec[j]) > epsilon) {
+                        return null;
+                    }
+                }
+            }
+            return [hvec, vvec];
+        };
+        this.filterConvolveSeparable = function(data, hvec, vvec, w, h) {
+            var size = hvec.length;
+            var half = (size / 2) | 0;
+            var line = w * 3;
+            var ring = this.getScratch(line * size);
+            var next = 0;
+            var self = this;
+            var horizontal = function(iy) {
+                var roff = (iy % size) * line;
+                var doff = iy * w;
+                for (var x = 0; x < w; x++) {
+                    var r = 0, g = 0, b = 0;
+                    for (var col = -half; col <= half; col++) {
+                        var f = hvec[col + half];
+                        if (f != 0) {
+                            var ix = x + col;
+                            if (!((0 <= ix) && (ix < w))) {
+                                ix = x;
+                            }
+                            var ipix = (doff + ix) * 4;
+                            r += f * data[  ipix  ];
+                            g += f * data[ipix + 1];
+                            b += f * data[ipix + 2];
+                        }
+                    }
+                    var q = roff + x * 3;
+                    ring[  q  ] = r;
+                    ring[q + 1] = g;
+                    ring[q + 2] = b;
+                }
+            };
+            for (var y = 0; y < h; y++) {
+                var last = Math.min(h - 1, y + half);
+                while (next <= last) {
+                    horizontal(next++);
+                }
+                for (var x = 0; x < w; x++) {
+                    var r = 0, g = 0, b = 0;
+                    for (var row = -half; row <= half; row++) {
+                        var f = vvec[row + half];
+                        if (f != 0) {
+                            var iy = y + row;
+                            if (!((0 <= iy) && (iy < h))) {
+                                iy = y;
+                            }
+                            var q = (iy % size) * line + x * 3;
+                            r += f * ring[  q  ];
+                            g += f * ring[q + 1];
+                            b += f * ring[q + 2];
+                        }
+                    }
+                    var p = (y * w + x) * 4;
+                    data[  p  ] = (r + 0.5) | 0;
+                    data[p + 1] = (g + 0.5) | 0;
+                    data[p + 2] = (b + 0.5) | 0;
+                }
+            }
+        };
+        this.filterBoxBlur = function(data, w, h, radius) {
+            var line = this.getScratch(Math.max(w, h) * 3);
+            var span = radius + radius + 1;
+            for (var y = 0; y < h; y++) {
+                var off = y * w * 4;
+                for (var x = 0; x < w; x++) {
+                    var p = off + x * 4;
+                    var q = x * 3;
+                    line[  q  ] = data[  p  ];
+                    line[q + 1] = data[p + 1];
+                    line[q + 2] = data[p + 2];
+                }
+                this.boxLine(data, line, w, off, 4, radius, span);
+            }
+            for (var x = 0; x < w; x++) {
+                var off = x * 4;
+                var stride = w * 4;
+                for (var y = 0; y < h; y++) {
+                    var p = off + y * stride;
+                    var q = y * 3;
+                    line[  q  ] = data[  p  ];
+                    line[q + 1] = data[p + 1];
+                    line[q + 2] = data[p + 2];
+                }
+                this.boxLine(data, line, h, off, stride, radius, span);
+            }
+        };
+        this.boxLine = function(data, line, size, off, stride, radius, span) {
+            var last = (size - 1) * 3;
+            var r = 0, g = 0, b = 0;
+            for (var i = -radius; i <= radius; i++) {
+                var q = Math.min(Math.max(i, 0), size - 1) * 3;
+                r += line[  q  ];
+                g += line[q + 1];
+                b += line[q + 2];
+            }
+            for (var i = 0; i < size; i++) {
+                var p = off + i * stride;
+                data[  p  ] = (r / span + 0.5) | 0;
+                data[p + 1] = (g / span + 0.5) | 0;
+                data[p + 2] = (b / span + 0.5) | 0;
+                var qa = Math.min(i + radius + 1, size - 1) * 3;
+                var qr = Math.max(i - radius, 0) * 3;
+                r += line[  qa  ] - line[  qr  ];
+                g += line[qa + 1] - line[qr + 1];
+                b += line[qa + 2] - line[qr + 2];
+            }
+        };
         this.linearInterpolate = function(t, a, b) {
             return a + t * (b - a);
         };
@@ -279,6 +428,31 @@ public class ImageDataFilterCommonOps extends JavaScriptObject
 		this.filterConvolve(data, buff, matrix, w, h);
     }-*/;
 
+    /**
+     * Returns the 1D row and column vectors of a separable convolve matrix, or null if the matrix is not separable.
+     */
+    public final native JsArrayMixed getSeparableVectors(FilterConvolveMatrix matrix)
+    /*-{
+		return this.separate(matrix);
+    }-*/;
+
+    /**
+     * Convolves in place with a separable matrix as a horizontal then a vertical pass, keeping only a window of
+     * horizontally filtered rows in a scratch buffer that is shared and reused between runs.
+     */
+    public final native void doFilterConvolveSeparable(CanvasPixelArray data, JsArrayMixed separated, int w, int h)
+    /*-{
+		this.filterConvolveSeparable(data, separated[0], separated[1], w, h);
+    }-*/;
+
+    /**
+     * Box blurs the RGB channels in place, a horizontal then a vertical pass, each computed with running sums.
+     */
+    public final native void doFilterBoxBlur(CanvasPixelArray data, int radius, int w, int h)
+    /*-{
+		this.filterBoxBlur(data, w, h, radius);
+    }-*/;
+
     public final native void doFilterTransform(CanvasPixelArray data, CanvasPixelArray buff, FilterTransformFunction transform, int w, int h)
     /*-{
 		this.filterTransform(data, buff, transform, w, h);
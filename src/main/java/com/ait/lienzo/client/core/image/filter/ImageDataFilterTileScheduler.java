@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.image.filter;
+
+/**
+ * Splits an image of a given height into horizontal bands of rows and hands them,
+ * one at a time, to an {@link ITileProcessor}, so that a long running filter can be
+ * spread over several animation frames.
+ * <p>
+ * Each tile has a write range (the rows it is responsible for) and a read range, which
+ * is the write range grown by <code>halo</code> rows on either side, so neighbourhood
+ * filters (convolve, blur) see the same input they would see on the full image.
+ * A negative halo means the filter can not be tiled, and a single tile covering the
+ * whole image is produced.
+ * <p>
+ * This class has no browser dependencies, so it can be driven from a plain pixel buffer.
+ */
+public final class ImageDataFilterTileScheduler
+{
+    public static final int      DEFAULT_TILE_ROWS = 64;
+
+    private final int            m_high;
+
+    private final int            m_rows;
+
+    private final int            m_halo;
+
+    private final int            m_size;
+
+    private final ITileProcessor m_proc;
+
+    private int                  m_next;
+
+    private boolean              m_stop;
+
+    public ImageDataFilterTileScheduler(final int high, final int rows, final int halo, final ITileProcessor proc)
+    {
+        m_high = Math.max(0, high);
+
+        m_halo = halo;
+
+        m_proc = proc;
+
+        if ((m_halo < 0) || (rows < 1) || (rows >= m_high))
+        {
+            m_rows = Math.max(1, m_high);
+        }
+        else
+        {
+            m_rows = rows;
+        }
+        m_size = (m_high < 1) ? 0 : ((m_high + m_rows - 1) / m_rows);
+    }
+
+    public final int getHeight()
+    {
+        return m_high;
+    }
+
+    public final int getTileRows()
+    {
+        return m_rows;
+    }
+
+    public final int getHalo()
+    {
+        return m_halo;
+    }
+
+    public final int getTileCount()
+    {
+        return m_size;
+    }
+
+    public final int getCompletedCount()
+    {
+        return m_next;
+    }
+
+    public final boolean isDone()
+    {
+        return (m_next >= m_size);
+    }
+
+    public final boolean isCancelled()
+    {
+        return m_stop;
+    }
+
+    public final boolean isRunning()
+    {
+        return ((false == m_stop) && (false == isDone()));
+    }
+
+    public final void cancel()
+    {
+        m_stop = true;
+    }
+
+    public final int getWriteStart(final int tile)
+    {
+        return tile * m_rows;
+    }
+
+    public final int getWriteEnd(final int tile)
+    {
+        return Math.min(m_high, (tile + 1) * m_rows);
+    }
+
+    public final int getReadStart(final int tile)
+    {
+        if (m_halo <= 0)
+        {
+            return getWriteStart(tile);
+        }
+        return Math.max(0, getWriteStart(tile) - m_halo);
+    }
+
+    public final int getReadEnd(final int tile)
+    {
+        if (m_halo <= 0)
+        {
+            return getWriteEnd(tile);
+        }
+        return Math.min(m_high, getWriteEnd(tile) + m_halo);
+    }
+
+    /**
+     * Processes at most <code>tiles</code> tiles.
+     *
+     * @param tiles
+     * @return true if there are tiles left to process
+     */
+    public final boolean step(final int tiles)
+    {
+        for (int i = 0; ((i < tiles) && isRunning()); i++)
+        {
+            next();
+        }
+        return isRunning();
+    }
+
+    /**
+     * Processes tiles until the time budget is used up. At least one tile is always processed,
+     * so progress is made even if a single tile takes longer than the budget.
+     *
+     * @param millis time budget in milliseconds
+     * @return true if there are tiles left to process
+     */
+    public final boolean stepFor(final long millis)
+    {
+        final long done = System.currentTimeMillis() + Math.max(0, millis);
+
+        while (isRunning())
+        {
+            next();
+
+            if (System.currentTimeMillis() >= done)
+            {
+                break;
+            }
+        }
+        return isRunning();
+    }
+
+    /**
+     * Processes all remaining tiles.
+     */
+    public final void run()
+    {
+        while (isRunning())
+        {
+            next();
+        }
+    }
+
+    private final void next()
+    {
+        final int tile = m_next;
+
+        m_proc.process(tile, getReadStart(tile), getReadEnd(tile), getWriteStart(tile), getWriteEnd(tile));
+
+        m_next++;
+    }
+
+    public static interface ITileProcessor
+    {
+        /**
+         * Filters rows <code>[readStart, readEnd)</code> of the source and stores rows <code>[writeStart, writeEnd)</code> of the result in the target.
+         */
+        public void process(int tile, int readStart, int readEnd, int writeStart, int writeEnd);
+    }
+}
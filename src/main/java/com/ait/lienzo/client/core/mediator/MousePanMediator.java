@@ -16,16 +16,32 @@
 
 package com.ait.lienzo.client.core.mediator;
 
+import java.util.ArrayList;
+
+import com.ait.lienzo.client.core.config.LienzoCore;
 import com.ait.lienzo.client.core.event.NodeMouseDownEvent;
 import com.ait.lienzo.client.core.event.NodeMouseMoveEvent;
 import com.ait.lienzo.client.core.event.NodeMouseUpEvent;
+import com.ait.lienzo.client.core.shape.Layer;
+import com.ait.lienzo.client.core.shape.LayerChildIndex;
+import com.ait.lienzo.client.core.shape.Scene;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
 import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
 import com.google.gwt.event.shared.GwtEvent;
 
 /**
  * MousePanMediator provides pan behavior similar to dragging the mouse in Google Maps.
  * Only the zoomable Layers are affected.
+ * <p>
+ * With bitmap shifting on, the default, a pan step does not draw the layers again. What each layer already shows is
+ * moved by the pan offset, and only the strips it uncovers are drawn, with only the children that meet them.
+ * Layers that can not be drawn in parts are drawn in full. Everything is drawn in full once the pan ends,
+ * which also brings the selection layers up to date and removes any sub pixel drift.
  *
  * @see Mediators
  *
@@ -33,11 +49,25 @@ import com.google.gwt.event.shared.GwtEvent;
  */
 public class MousePanMediator extends AbstractMediator
 {
-    private Point2D   m_last             = new Point2D();
+    private static final double CULL_MARGIN        = 8;
+
+    private Point2D             m_last             = new Point2D();
+
+    private boolean             m_dragging         = false;
+
+    private Transform           m_inverseTransform = null;
+
+    private boolean             m_bitmapShift      = true;
+
+    private ArrayList<PanLayer> m_panLayers        = null;
+
+    private double              m_shiftX           = 0;
 
-    private boolean   m_dragging         = false;
+    private double              m_shiftY           = 0;
 
-    private Transform m_inverseTransform = null;
+    private boolean             m_shiftScheduled   = false;
+
+    private final ShiftCallback m_shiftCallback    = new ShiftCallback();
 
     public MousePanMediator()
     {
@@ -48,10 +78,45 @@ public class MousePanMediator extends AbstractMediator
         setEventFilter(EventFilter.and(filters));
     }
 
+    /**
+     * Turns bitmap shifting during a pan on or off.
+     */
+    public MousePanMediator setBitmapShift(final boolean shift)
+    {
+        m_bitmapShift = shift;
+
+        return this;
+    }
+
+    public boolean isBitmapShift()
+    {
+        return m_bitmapShift;
+    }
+
     @Override
     public void cancel()
     {
         m_dragging = false;
+
+        if (null != m_panLayers)
+        {
+            // the shifted pixels are only an approximation, and the selection layers were left behind
+
+            m_panLayers = null;
+
+            m_shiftX = 0;
+
+            m_shiftY = 0;
+
+            if (isBatchDraw())
+            {
+                getViewport().getScene().batch();
+            }
+            else
+            {
+                getViewport().getScene().draw();
+            }
+        }
     }
 
     @Override
@@ -106,6 +171,12 @@ public class MousePanMediator extends AbstractMediator
         m_inverseTransform = transform.getInverse();
 
         m_inverseTransform.transform(m_last, m_last);
+
+        m_shiftX = 0;
+
+        m_shiftY = 0;
+
+        m_panLayers = m_bitmapShift ? makePanLayers(getViewport().getScene(), transform) : null;
     }
 
     protected void onMouseMove(final NodeMouseMoveEvent event)
@@ -114,10 +185,35 @@ public class MousePanMediator extends AbstractMediator
 
         m_inverseTransform.transform(curr, curr);
 
-        setTransform(getTransform().copy().translate(curr.getX() - m_last.getX(), curr.getY() - m_last.getY()));
+        final Transform last = getTransform();
+
+        final Transform next = last.copy().translate(curr.getX() - m_last.getX(), curr.getY() - m_last.getY());
+
+        setTransform(next);
 
         m_last = curr;
 
+        if (null != m_panLayers)
+        {
+            m_shiftX += next.getTranslateX() - last.getTranslateX();
+
+            m_shiftY += next.getTranslateY() - last.getTranslateY();
+
+            if (isBatchDraw())
+            {
+                if (false == m_shiftScheduled)
+                {
+                    m_shiftScheduled = true;
+
+                    AnimationScheduler.get().requestAnimationFrame(m_shiftCallback);
+                }
+            }
+            else
+            {
+                shift();
+            }
+            return;
+        }
         if (isBatchDraw())
         {
             getViewport().getScene().batch();
@@ -132,4 +228,133 @@ public class MousePanMediator extends AbstractMediator
     {
         cancel();
     }
+
+    /**
+     * Shifts the pan layers by the pan offset so far, rounded to device pixels, and draws the strips they uncover.
+     * The rounding remainder is kept for the next shift.
+     */
+    private final void shift()
+    {
+        final double scale = LienzoCore.get().getDeviceScale();
+
+        final double dx = Math.round(m_shiftX * scale) / scale;
+
+        final double dy = Math.round(m_shiftY * scale) / scale;
+
+        if ((dx == 0) && (dy == 0))
+        {
+            return;
+        }
+        m_shiftX -= dx;
+
+        m_shiftY -= dy;
+
+        final Transform inverse = getTransform().getInverse();
+
+        for (int i = 0; i < m_panLayers.size(); i++)
+        {
+            final PanLayer pan = m_panLayers.get(i);
+
+            final Layer layer = pan.m_layer;
+
+            final double wide = layer.getWidth();
+
+            final double high = layer.getHeight();
+
+            if ((null == pan.m_index) || (pan.m_index.isStale()) || (Math.abs(dx) >= wide) || (Math.abs(dy) >= high))
+            {
+                layer.draw();
+
+                continue;
+            }
+            layer.shift(dx, dy);
+
+            if (dx > 0)
+            {
+                drawStrip(pan, inverse, 0, 0, dx, high);
+            }
+            else if (dx < 0)
+            {
+                drawStrip(pan, inverse, wide + dx, 0, -dx, high);
+            }
+            if (dy > 0)
+            {
+                drawStrip(pan, inverse, 0, 0, wide, dy);
+            }
+            else if (dy < 0)
+            {
+                drawStrip(pan, inverse, 0, high + dy, wide, -dy);
+            }
+        }
+    }
+
+    private final void drawStrip(final PanLayer pan, final Transform inverse, final double x, final double y, final double wide, final double high)
+    {
+        final BoundingBox area = new BoundingPoints(new BoundingBox(x, y, x + wide, y + high)).transform(inverse).getBoundingBox();
+
+        pan.m_layer.drawArea(x, y, wide, high, pan.m_index.getChildNodes(area));
+    }
+
+    /**
+     * Returns the zoomable, visible layers of the scene, with the bounds of their children indexed
+     * in layer coordinates. A layer that can not be drawn in parts has no index, and is drawn in full.
+     */
+    private static final ArrayList<PanLayer> makePanLayers(final Scene scene, final Transform transform)
+    {
+        final ArrayList<PanLayer> pans = new ArrayList<>();
+
+        if (null == scene)
+        {
+            return pans;
+        }
+        final double scale = transform.getScale();
+
+        final double margin = (scale > 0) ? (CULL_MARGIN / scale) : CULL_MARGIN;
+
+        final NFastArrayList<Layer> layers = scene.getChildNodes();
+
+        for (int i = 0; i < layers.size(); i++)
+        {
+            final Layer layer = layers.get(i);
+
+            if ((false == layer.isVisible()) || (false == layer.isTransformable()))
+            {
+                continue;
+            }
+            final PanLayer pan = new PanLayer(layer);
+
+            if (layer.isAreaDrawable())
+            {
+                pan.m_index = new LayerChildIndex(layer, margin);
+            }
+            pans.add(pan);
+        }
+        return pans;
+    }
+
+    private static final class PanLayer
+    {
+        private final Layer     m_layer;
+
+        private LayerChildIndex m_index;
+
+        private PanLayer(final Layer layer)
+        {
+            m_layer = layer;
+        }
+    }
+
+    private final class ShiftCallback implements AnimationCallback
+    {
+        @Override
+        public void execute(final double time)
+        {
+            m_shiftScheduled = false;
+
+            if (null != m_panLayers)
+            {
+                shift();
+            }
+        }
+    }
 }
@@ -16,14 +16,31 @@
 
 package com.ait.lienzo.client.core.mediator;
 
+import java.util.ArrayList;
+
+import com.ait.lienzo.client.core.Context2D;
 import com.ait.lienzo.client.core.event.NodeMouseWheelEvent;
+import com.ait.lienzo.client.core.shape.Layer;
+import com.ait.lienzo.client.core.shape.Scene;
 import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.client.widget.LienzoPanel;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.dom.client.CanvasElement;
 import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.user.client.Timer;
 
 /**
  * MouseWheelZoomMediator zooms in or out when the mouse wheel is moved.
+ * <p>
+ * In progressive mode, the layers are not drawn again on every wheel tick. The first tick takes a copy of what each
+ * zoomable layer shows, and until the wheel has been idle for {@link #getProgressiveIdleTime()} milliseconds,
+ * each animation frame shows that copy scaled to the current zoom, however many ticks came in during the frame.
+ * Then the layers are drawn again in full. They are also drawn in full, and copied again, when the zoom moves
+ * further than {@link #getProgressiveScaleLimit()} away from the copy, as a copy scaled that far looks too coarse.
  *
  * @see Mediators
  *
@@ -31,13 +48,36 @@ import com.google.gwt.event.shared.GwtEvent;
  */
 public class MouseWheelZoomMediator extends AbstractMediator
 {
-    private double  m_minScale    = 0;
+    private double                   m_minScale              = 0;
+
+    private double                   m_maxScale              = Double.MAX_VALUE;
+
+    private boolean                  m_downZoomOut           = true;
+
+    private double                   m_zoomFactor            = 0.1;
+
+    private boolean                  m_progressive           = false;
 
-    private double  m_maxScale    = Double.MAX_VALUE;
+    private int                      m_progressiveIdleTime   = 150;
 
-    private boolean m_downZoomOut = true;
+    private double                   m_progressiveScaleLimit = 4;
 
-    private double  m_zoomFactor  = 0.1;
+    private Transform                m_snapshotTransform     = null;
+
+    private ArrayList<LayerSnapshot> m_snapshots             = null;
+
+    private boolean                  m_snapshotScheduled     = false;
+
+    private final SnapshotCallback   m_snapshotCallback      = new SnapshotCallback();
+
+    private final Timer              m_idle                  = new Timer()
+    {
+        @Override
+        public void run()
+        {
+            finishProgressive();
+        }
+    };
 
     public MouseWheelZoomMediator()
     {
@@ -71,7 +111,12 @@ public class MouseWheelZoomMediator extends AbstractMediator
     @Override
     public void cancel()
     {
-        // nothing to do
+        if (null != m_snapshots)
+        {
+            m_idle.cancel();
+
+            finishProgressive();
+        }
     }
 
     /**
@@ -181,6 +226,96 @@ public class MouseWheelZoomMediator extends AbstractMediator
         return this;
     }
 
+    /**
+     * Returns whether zooming is progressive, see the class comment.
+     *
+     * The default value is false.
+     *
+     * @return boolean
+     */
+    public boolean isProgressive()
+    {
+        return m_progressive;
+    }
+
+    /**
+     * Sets whether zooming is progressive, see the class comment.
+     *
+     * The default value is false.
+     *
+     * @param progressive
+     * @return MouseWheelZoomMediator
+     */
+    public MouseWheelZoomMediator setProgressive(final boolean progressive)
+    {
+        if ((false == progressive) && (null != m_snapshots))
+        {
+            cancel();
+        }
+        m_progressive = progressive;
+
+        return this;
+    }
+
+    /**
+     * Returns how long, in milliseconds, the wheel must be idle before a progressive zoom draws the layers in full.
+     *
+     * The default value is 150.
+     *
+     * @return int
+     */
+    public int getProgressiveIdleTime()
+    {
+        return m_progressiveIdleTime;
+    }
+
+    /**
+     * Sets how long, in milliseconds, the wheel must be idle before a progressive zoom draws the layers in full.
+     *
+     * The default value is 150.
+     *
+     * @param idle int
+     * @return MouseWheelZoomMediator
+     */
+    public MouseWheelZoomMediator setProgressiveIdleTime(final int idle)
+    {
+        m_progressiveIdleTime = Math.max(0, idle);
+
+        return this;
+    }
+
+    /**
+     * Returns how far the zoom may move from the copy of the layers, as a ratio, before a progressive zoom draws them in full.
+     *
+     * The default value is 4.
+     *
+     * @return double
+     */
+    public double getProgressiveScaleLimit()
+    {
+        return m_progressiveScaleLimit;
+    }
+
+    /**
+     * Sets how far the zoom may move from the copy of the layers, as a ratio, before a progressive zoom draws them in full.
+     * Values below 1 are taken as their inverse.
+     *
+     * The default value is 4.
+     *
+     * @param limit double
+     * @return MouseWheelZoomMediator
+     */
+    public MouseWheelZoomMediator setProgressiveScaleLimit(final double limit)
+    {
+        if (false == (limit > 0))
+        {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        m_progressiveScaleLimit = (limit < 1) ? (1 / limit) : limit;
+
+        return this;
+    }
+
     protected void onMouseWheel(final NodeMouseWheelEvent event)
     {
         Transform transform = getTransform();
@@ -223,8 +358,45 @@ public class MouseWheelZoomMediator extends AbstractMediator
 
         transform.scaleAboutPoint(scaleDelta, p.getX(), p.getY());
 
+        if (m_progressive)
+        {
+            if (null == m_snapshots)
+            {
+                // the copy is taken before the new transform is set, of what is shown now
+
+                m_snapshotTransform = getTransform().copy();
+
+                m_snapshots = makeSnapshots(getViewport().getScene());
+            }
+            setTransform(transform);
+
+            final double ratio = transform.getScaleX() / m_snapshotTransform.getScaleX();
+
+            if ((ratio > m_progressiveScaleLimit) || ((ratio * m_progressiveScaleLimit) < 1))
+            {
+                m_idle.cancel();
+
+                finishProgressive();
+
+                return;
+            }
+            if (false == m_snapshotScheduled)
+            {
+                m_snapshotScheduled = true;
+
+                AnimationScheduler.get().requestAnimationFrame(m_snapshotCallback);
+            }
+            m_idle.schedule(Math.max(1, m_progressiveIdleTime));
+
+            return;
+        }
         setTransform(transform);
 
+        draw();
+    }
+
+    private final void draw()
+    {
         if (isBatchDraw())
         {
             getViewport().getScene().batch();
@@ -234,4 +406,114 @@ public class MouseWheelZoomMediator extends AbstractMediator
             getViewport().getScene().draw();
         }
     }
+
+    /**
+     * Drops the copies of the layers and draws them in full at the current zoom.
+     */
+    private final void finishProgressive()
+    {
+        m_snapshots = null;
+
+        m_snapshotTransform = null;
+
+        // not batched, so a copy taken by the next tick shows this draw
+
+        getViewport().getScene().draw();
+    }
+
+    /**
+     * Draws the copy of each layer, mapped from the zoom it was taken at to the current zoom.
+     */
+    private final void drawSnapshots()
+    {
+        final Transform mapping = getTransform().copy().multiply(m_snapshotTransform.getInverse());
+
+        for (int i = 0; i < m_snapshots.size(); i++)
+        {
+            m_snapshots.get(i).draw(mapping);
+        }
+    }
+
+    private static final ArrayList<LayerSnapshot> makeSnapshots(final Scene scene)
+    {
+        final ArrayList<LayerSnapshot> snapshots = new ArrayList<>();
+
+        if (null == scene)
+        {
+            return snapshots;
+        }
+        final NFastArrayList<Layer> layers = scene.getChildNodes();
+
+        for (int i = 0; i < layers.size(); i++)
+        {
+            final Layer layer = layers.get(i);
+
+            // the other layers do not change with the zoom
+
+            if ((layer.isVisible()) && (layer.isTransformable()) && (layer.getWidth() > 0))
+            {
+                snapshots.add(new LayerSnapshot(layer));
+            }
+        }
+        return snapshots;
+    }
+
+    private static final class LayerSnapshot
+    {
+        private final Layer      m_layer;
+
+        private final ScratchPad m_copy;
+
+        private final double     m_ratio;
+
+        private LayerSnapshot(final Layer layer)
+        {
+            m_layer = layer;
+
+            final CanvasElement element = layer.getCanvasElement();
+
+            m_ratio = ((double) element.getWidth()) / layer.getWidth();
+
+            m_copy = new ScratchPad(element.getWidth(), element.getHeight());
+
+            m_copy.getContext().drawImage(element, 0, 0);
+        }
+
+        private final void draw(final Transform mapping)
+        {
+            final Context2D context = m_layer.getContext();
+
+            context.save();
+
+            context.setTransform(1, 0, 0, 1, 0, 0);
+
+            context.clearRect(0, 0, m_copy.getWidth(), m_copy.getHeight());
+
+            // the mapping is in canvas pixels, the copy in device pixels
+
+            context.scale(m_ratio, m_ratio);
+
+            context.transform(mapping);
+
+            context.scale(1 / m_ratio, 1 / m_ratio);
+
+            context.drawImage(m_copy.getElement(), 0, 0);
+
+            context.restore();
+        }
+    }
+
+    private final class SnapshotCallback implements AnimationCallback
+    {
+        @Override
+        public void execute(final double time)
+        {
+            m_snapshotScheduled = false;
+
+            if (null != m_snapshots)
+            {
+                drawSnapshots();
+            }
+        }
+    }
 }
@@ -374,7 +374,17 @@ public abstract class AbstractMultiPointShape<T extends AbstractMultiPointShape<
 
                 m_point.setY(m_prim.getY() - m_shape.getY());
 
-                m_shape.refresh();
+                if (m_shape instanceof IMultiPointShape)
+                {
+                    // setting the points again refreshes the shape, and tells the listeners of its points
+                    final IMultiPointShape<?> multi = (IMultiPointShape<?>) m_shape;
+
+                    multi.setPoint2DArray(multi.getPoint2DArray());
+                }
+                else
+                {
+                    m_shape.refresh();
+                }
 
                 m_shape.getLayer().batch();
             }
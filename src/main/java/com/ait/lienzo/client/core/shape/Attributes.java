@@ -16,6 +16,9 @@
 
 package com.ait.lienzo.client.core.shape;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import com.ait.lienzo.client.core.Attribute;
 import com.ait.lienzo.client.core.config.LienzoCore;
 import com.ait.lienzo.client.core.event.AttributesChangedHandler;
@@ -23,6 +26,7 @@ import com.ait.lienzo.client.core.event.AttributesChangedManager;
 import com.ait.lienzo.client.core.event.IAttributesChangedBatcher;
 import com.ait.lienzo.client.core.event.ImmediateAttributesChangedBatcher;
 import com.ait.lienzo.client.core.image.filter.ImageDataFilter.FilterConvolveMatrix;
+import com.ait.lienzo.client.core.shape.SharedAttributeValues.IValueStore;
 import com.ait.lienzo.client.core.shape.json.IJSONSerializable;
 import com.ait.lienzo.client.core.types.DashArray;
 import com.ait.lienzo.client.core.types.DragBounds;
@@ -65,17 +69,20 @@ import com.ait.tooling.nativetools.client.collection.NFastDoubleArrayJSO;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArray;
 import com.google.gwt.core.client.JsArrayMixed;
+import com.google.gwt.core.client.JsArrayString;
 import com.google.gwt.event.shared.HandlerRegistration;
 
 public class Attributes
 {
-    private final IJSONSerializable<?> m_ser;
+    private final IJSONSerializable<?>              m_ser;
+
+    private final NObjectJSO                        m_jso;
 
-    private final NObjectJSO           m_jso;
+    private AttributesChangedManager                m_man;
 
-    private AttributesChangedManager   m_man;
+    private IAttributesChangedBatcher               m_bat;
 
-    private IAttributesChangedBatcher  m_bat;
+    private SharedAttributeValues<JavaScriptObject> m_share;
 
     public Attributes(final IJSONSerializable<?> ser)
     {
@@ -91,6 +98,8 @@ public class Attributes
         if ((null != jso) && (JSONType.OBJECT == Native.getNativeTypeOfJSO(jso)))
         {
             m_jso = jso.cast();
+
+            m_share = takeShare(m_jso);
         }
         else
         {
@@ -98,6 +107,12 @@ public class Attributes
         }
     }
 
+    /**
+     * Returns the attribute values, to serialize them. The values may be shared with copies of the node, see {@link #copyShared()},
+     * so they must not be changed through the returned object.
+     *
+     * @return NObjectJSO
+     */
     public final NObjectJSO getJSO()
     {
         return m_jso;
@@ -1775,6 +1790,8 @@ public class Attributes
 
     public final void put(final String name, final String value)
     {
+        release(name, false);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1782,6 +1799,8 @@ public class Attributes
 
     public final void put(final String name, final int value)
     {
+        release(name, false);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1789,6 +1808,8 @@ public class Attributes
 
     public final void put(final String name, final double value)
     {
+        release(name, false);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1796,6 +1817,8 @@ public class Attributes
 
     public final void put(final String name, final boolean value)
     {
+        release(name, false);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1803,6 +1826,8 @@ public class Attributes
 
     public final void put(final String name, final JavaScriptObject value)
     {
+        release(name, null != value);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -2050,6 +2075,8 @@ public class Attributes
     {
         if (isObject(name))
         {
+            own(name);
+
             return m_jso.getAsJSO(name);
         }
         return null;
@@ -2059,6 +2086,8 @@ public class Attributes
     {
         if (isArray(name))
         {
+            own(name);
+
             return m_jso.getAsJSO(name).cast();
         }
         return null;
@@ -2068,11 +2097,127 @@ public class Attributes
     {
         if (isArray(name))
         {
+            own(name);
+
             return m_jso.getAsJSO(name).cast();
         }
         return null;
     }
 
+    private final void own(final String name)
+    {
+        if (null != m_share)
+        {
+            m_share.own(name);
+        }
+    }
+
+    private final void release(final String name, final boolean owned)
+    {
+        if (null != m_share)
+        {
+            m_share.release(name, owned);
+        }
+    }
+
+    /**
+     * Returns a copy of the attribute values for the copy of a node, in one pass, to pass to {@link #Attributes(JavaScriptObject, IJSONSerializable)}.
+     * <p>
+     * Object values, like points, gradients and dash arrays, are shared with the copy until either node hands them out,
+     * see {@link SharedAttributeValues}. Values this node has already handed out are copied with {@link #copy(JavaScriptObject)}.
+     *
+     * @return NObjectJSO
+     */
+    public final NObjectJSO copyShared()
+    {
+        if (null == m_share)
+        {
+            m_share = new SharedAttributeValues<JavaScriptObject>(new ValueStore(m_jso), true);
+        }
+        final NObjectJSO jso = shallow(m_jso);
+
+        putShare(jso, m_share.copy(new ValueStore(jso)));
+
+        return jso;
+    }
+
+    private static final native NObjectJSO shallow(NObjectJSO jso)
+    /*-{
+        var o = {};
+        for ( var k in jso) {
+            if (Object.prototype.hasOwnProperty.call(jso, k)) {
+                o[k] = jso[k];
+            }
+        }
+        return o;
+    }-*/;
+
+    private static final native void putShare(NObjectJSO jso, SharedAttributeValues<JavaScriptObject> share)
+    /*-{
+        Object.defineProperty(jso, "__lienzo_share", {
+            value : share,
+            configurable : true,
+            enumerable : false,
+            writable : true
+        });
+    }-*/;
+
+    private static final native SharedAttributeValues<JavaScriptObject> takeShare(NObjectJSO jso)
+    /*-{
+        var share = jso.__lienzo_share;
+        if (share) {
+            delete jso.__lienzo_share;
+            return share;
+        }
+        return null;
+    }-*/;
+
+    private static final native JsArrayString getObjectNames(NObjectJSO jso)
+    /*-{
+        var names = [];
+        for ( var k in jso) {
+            if (Object.prototype.hasOwnProperty.call(jso, k)) {
+                var v = jso[k];
+                if (Array.isArray(v) || (Object.prototype.toString.call(v) === "[object Object]")) {
+                    names.push(k);
+                }
+            }
+        }
+        return names;
+    }-*/;
+
+    /**
+     * Copies a node JSON tree, as made by toJSONObject(), so the copy can be deserialized without a round trip through a JSON string.
+     * <p>
+     * Plain objects and arrays, including the points, gradients and dash arrays in "attributes", are copied all the way down,
+     * so the copy shares nothing that either node can change in place. Other objects, like image elements, are shared.
+     *
+     * @param jso the JSON tree of a node
+     * @return JavaScriptObject
+     */
+    public static final native JavaScriptObject copy(JavaScriptObject jso)
+    /*-{
+        if (Array.isArray(jso)) {
+            var a = [];
+            for (var i = 0; i < jso.length; i++) {
+                var v = jso[i];
+                a[i] = ((v !== null) && (typeof v === "object")) ? @com.ait.lienzo.client.core.shape.Attributes::copy(Lcom/google/gwt/core/client/JavaScriptObject;)(v) : v;
+            }
+            return a;
+        }
+        if (Object.prototype.toString.call(jso) !== "[object Object]") {
+            return jso;
+        }
+        var o = {};
+        for ( var k in jso) {
+            if (Object.prototype.hasOwnProperty.call(jso, k)) {
+                var v = jso[k];
+                o[k] = ((v !== null) && (typeof v === "object")) ? @com.ait.lienzo.client.core.shape.Attributes::copy(Lcom/google/gwt/core/client/JavaScriptObject;)(v) : v;
+            }
+        }
+        return o;
+    }-*/;
+
     public final boolean isNumber(final String name)
     {
         return m_jso.isNumber(name);
@@ -2110,8 +2255,54 @@ public class Attributes
 
     public final void remove(final String name)
     {
+        release(name, false);
+
         m_jso.remove(name);
 
         checkDispatchAttributesChanged(name);
     }
+
+    private static final class ValueStore implements IValueStore<JavaScriptObject>
+    {
+        private final NObjectJSO m_jso;
+
+        private ValueStore(final NObjectJSO jso)
+        {
+            m_jso = jso;
+        }
+
+        @Override
+        public Collection<String> getObjectNames()
+        {
+            final JsArrayString names = Attributes.getObjectNames(m_jso);
+
+            final int size = names.length();
+
+            final ArrayList<String> list = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++)
+            {
+                list.add(names.get(i));
+            }
+            return list;
+        }
+
+        @Override
+        public JavaScriptObject get(final String name)
+        {
+            return m_jso.getAsJSO(name);
+        }
+
+        @Override
+        public void set(final String name, final JavaScriptObject value)
+        {
+            m_jso.put(name, value);
+        }
+
+        @Override
+        public JavaScriptObject copy(final JavaScriptObject value)
+        {
+            return Attributes.copy(value);
+        }
+    }
 }
\ No newline at end of file
@@ -81,6 +81,30 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
         return node.cast();
     }
 
+    /**
+     * Adds a copy of each child of this container to a copy of this container, made with {@link #toCopyJSONObject()}.
+     *
+     * @param copy
+     * @return T
+     */
+    protected final T copyChildNodes(final T copy)
+    {
+        final NFastArrayList<M> list = getChildNodes();
+
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            final Node<?> node = list.get(i).asNode().copyUnchecked();
+
+            if (null != node)
+            {
+                copy.add(node.<M> cast());
+            }
+        }
+        return copy;
+    }
+
     /**
      * Returns a {@link NFastArrayList} containing all children.
      */
@@ -121,6 +145,8 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
         }
         m_stor = storage;
 
+        getEventMask().invalidate();
+
         return cast();
     }
 
@@ -186,11 +212,39 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T removeAll()
     {
+        getEventMask().invalidate();
+
         getStorageEngine().clear();
 
         return cast();
     }
 
+    /**
+     * Returns a handled event mask that caches the masks of the children, computed again only after a change below it.
+     */
+    @Override
+    protected HandledEventMask makeEventMask()
+    {
+        return new HandledEventMask.Container()
+        {
+            private NFastArrayList<M> m_list;
+
+            @Override
+            protected int size()
+            {
+                m_list = getChildNodes();
+
+                return m_list.size();
+            }
+
+            @Override
+            protected HandledEventMask get(final int i)
+            {
+                return m_list.get(i).asNode().getEventMask();
+            }
+        };
+    }
+
     /**
      * Used internally. Draws the node in the current Context2D
      * without applying the transformation-related attributes
@@ -22,10 +22,14 @@ import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
 import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
 import com.ait.lienzo.client.core.types.BoundingBox;
 import com.ait.lienzo.client.core.types.DashArray;
+import com.ait.lienzo.client.core.types.PatternGradient;
 import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Point2DArray;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.ScratchPad;
+import com.ait.lienzo.shared.core.types.FillRepeat;
 import com.ait.lienzo.shared.core.types.NodeType;
+import com.google.gwt.dom.client.CanvasElement;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONNull;
 import com.google.gwt.json.client.JSONNumber;
@@ -64,10 +68,22 @@ public class GridLayer extends Layer
 
     private static final int SECONDARY_Y = 3;
 
+    private static final int MIN_TILE    = 64;
+
+    private static final int MAX_TILE    = 1024;
+
     private double[]         m_sizes     = { 10, 10, 5, 5 };
 
     private Line[]           m_lines     = new Line[4];
 
+    private boolean          m_patterned = true;
+
+    private ScratchPad       m_tile;
+
+    private PatternGradient  m_pattern;
+
+    private String           m_tile_key;
+
     // NOTE: we can't put Lines in Attributes
 
     /**
@@ -331,6 +347,41 @@ public class GridLayer extends Layer
         m_lines[SECONDARY_Y] = secondaryLineY;
     }
 
+    /**
+     * Returns true if the grid is drawn by filling the layer with a pattern of one tile of the grid.
+     * The default value is true.
+     *
+     * @return boolean
+     */
+    public boolean isPatterned()
+    {
+        return m_patterned;
+    }
+
+    /**
+     * Sets whether the grid is drawn by filling the layer with a pattern of one tile of the grid, rather than line by line.
+     * The tile is drawn again only when the scale, the sizes or the line styles change. Grids with dashed lines,
+     * or with cells too large for a tile, are always drawn line by line.
+     * The default value is true.
+     *
+     * @param patterned
+     * @return this GridLayer
+     */
+    public GridLayer setPatterned(final boolean patterned)
+    {
+        m_patterned = patterned;
+
+        if (false == patterned)
+        {
+            m_tile = null;
+
+            m_pattern = null;
+
+            m_tile_key = null;
+        }
+        return this;
+    }
+
     @Override
     protected void drawWithoutTransforms(final Context2D context, final double alpha, final BoundingBox bounds)
     {
@@ -338,40 +389,228 @@ public class GridLayer extends Layer
         {
             return;
         }
-        final Viewport vp = getViewport();
+        // the grid is not picked, so it is left out of the selection layer
+
+        if (false == context.isSelection())
+        {
+            final Viewport vp = getViewport();
+
+            final int vw = vp.getWidth();
+
+            final int vh = vp.getHeight();
+
+            final Point2D a = new Point2D(0, 0);
+
+            final Point2D b = new Point2D(vw, vh);
+
+            double scaleX = 1, scaleY = 1;
+
+            Transform t = isTransformable() ? vp.getTransform() : null;
+
+            if (t != null)
+            {
+                scaleX = t.getScaleX();
+
+                scaleY = t.getScaleY();
+
+                t = t.getInverse();
+
+                t.transform(a, a);
+
+                t.transform(b, b);
+            }
+            if ((false == m_patterned) || (false == drawPattern(context, alpha, scaleX, scaleY, a.getX(), a.getY(), b.getX(), b.getY())))
+            {
+                drawLines(context, alpha, bounds, scaleX, scaleY, a.getX(), a.getY(), b.getX(), b.getY());
+            }
+        }
+        // Draw children (if any)
+        super.drawWithoutTransforms(context, alpha, bounds);
+    }
+
+    /**
+     * Fills the area with a pattern of one tile of the grid, drawn once for each scale and line style.
+     * The tile holds whole primary cells, so the lines of every level repeat with it, and it is anchored
+     * at the origin of the layer, so it follows the viewport translation.
+     *
+     * @return false if the grid can not be drawn as a pattern, because it has dashed lines or too large cells
+     */
+    private boolean drawPattern(final Context2D context, final double alpha, final double scaleX, final double scaleY, final double x1, final double y1, final double x2, final double y2)
+    {
+        final double px = m_sizes[PRIMARY_X];
+
+        final double py = m_sizes[PRIMARY_Y];
+
+        if (false == ((px > 0) && (py > 0) && (scaleX > 0) && (scaleY > 0)))
+        {
+            return false;
+        }
+        boolean lines = false;
+
+        for (int i = 0; i < 4; i++)
+        {
+            final Line line = m_lines[i];
+
+            if (null != line)
+            {
+                // dashes would not repeat with the tile
+
+                final DashArray dash = line.getDashArray();
+
+                if ((null != dash) && (dash.size() > 0))
+                {
+                    return false;
+                }
+                lines = true;
+            }
+        }
+        if (false == lines)
+        {
+            return true;
+        }
+        final double ratio = getDeviceRatio();
+
+        final double sx = scaleX * ratio;
+
+        final double sy = scaleY * ratio;
 
-        final int vw = vp.getWidth();
+        final double lw = Math.ceil(MIN_TILE / (px * sx)) * px;
 
-        final int vh = vp.getHeight();
+        final double lh = Math.ceil(MIN_TILE / (py * sy)) * py;
 
-        final Point2D a = new Point2D(0, 0);
+        final int wide = (int) Math.round(lw * sx);
 
-        final Point2D b = new Point2D(vw, vh);
+        final int high = (int) Math.round(lh * sy);
+
+        if ((wide > MAX_TILE) || (high > MAX_TILE) || (wide < 1) || (high < 1))
+        {
+            return false;
+        }
+        final StringBuilder key = new StringBuilder().append(wide).append(',').append(high).append(',').append(lw).append(',').append(lh).append(',').append(ratio);
+
+        for (int i = 0; i < 4; i++)
+        {
+            key.append(',').append(m_sizes[i]);
 
-        double scaleX = 1, scaleY = 1;
+            final Line line = m_lines[i];
 
-        Transform t = isTransformable() ? vp.getTransform() : null;
+            if (null != line)
+            {
+                key.append('|').append(line.getStrokeColor()).append(',').append(line.getStrokeWidth()).append(',').append(line.getStrokeAlpha()).append(',').append(line.getAlpha()).append(',').append(line.getX()).append(',').append(line.getY()).append(',').append(line.isVisible());
+            }
+        }
+        final String tkey = key.toString();
 
-        if (t != null)
+        if ((null == m_pattern) || (false == tkey.equals(m_tile_key)))
         {
-            scaleX = t.getScaleX();
+            if (null == m_tile)
+            {
+                m_tile = new ScratchPad(wide, high);
+            }
+            else
+            {
+                m_tile.setPixelSize(wide, high);
 
-            scaleY = t.getScaleY();
+                m_tile.clear();
+            }
+            final Context2D tile = m_tile.getContext();
 
-            t = t.getInverse();
+            if (null == tile)
+            {
+                return false;
+            }
+            tile.save();
 
-            t.transform(a, a);
+            tile.scale(wide / lw, high / lh);
 
-            t.transform(b, b);
+            drawTile(tile, lw, lh, ratio * lw / wide, ratio * lh / high);
+
+            tile.restore();
+
+            m_pattern = new PatternGradient(m_tile.getElement(), FillRepeat.REPEAT);
+
+            m_tile_key = tkey;
         }
-        final double x1 = a.getX();
+        context.save();
+
+        context.setGlobalAlpha(alpha);
+
+        context.scale(lw / wide, lh / high);
+
+        context.setFillGradient(m_pattern);
+
+        context.fillRect((x1 * wide) / lw, (y1 * high) / lh, ((x2 - x1) * wide) / lw, ((y2 - y1) * high) / lh);
+
+        context.restore();
+
+        return true;
+    }
+
+    /**
+     * Draws the lines of one tile, in grid units. The lines on the start edges are drawn again on the end edges,
+     * so that both halves of their width are in the tile.
+     */
+    private void drawTile(final Context2D context, final double lw, final double lh, final double unitX, final double unitY)
+    {
+        for (int direction = X; direction <= Y; direction++)
+        {
+            final boolean vertical = (direction == X);
+
+            for (int primSec = 0; primSec <= 1; primSec++)
+            {
+                final int index = (primSec * 2) + direction;
+
+                final Line line = m_lines[index];
+
+                if (line == null)
+                {
+                    continue;
+                }
+                final boolean isSecondary = (primSec == 1);
 
-        final double y1 = a.getY();
+                final double size = m_sizes[index];
+
+                final long count = Math.round((vertical ? lw : lh) / size);
+
+                final long n = isSecondary ? Math.round(m_sizes[direction] / size) : 1;
+
+                final double previousLineWidth = line.getStrokeWidth();
+
+                line.setStrokeWidth(previousLineWidth * (vertical ? unitX : unitY));
+
+                final Point2DArray points = line.getPoints();
+
+                final Point2D p1 = points.get(0);
+
+                final Point2D p2 = points.get(1);
+
+                for (long ni = 0; ni <= count; ni++)
+                {
+                    if (isSecondary && ((ni % n) == 0)) // skip primary lines
+                    {
+                        continue;
+                    }
+                    if (vertical)
+                    {
+                        p1.setX(ni * size).setY(0);
 
-        final double x2 = b.getX();
+                        p2.setX(ni * size).setY(lh);
+                    }
+                    else
+                    {
+                        p1.setX(0).setY(ni * size);
 
-        final double y2 = b.getY();
+                        p2.setX(lw).setY(ni * size);
+                    }
+                    line.drawWithTransforms(context, 1, null);
+                }
+                line.setStrokeWidth(previousLineWidth); // restore stroke width
+            }
+        }
+    }
 
+    private void drawLines(final Context2D context, final double alpha, final BoundingBox bounds, final double scaleX, final double scaleY, final double x1, final double y1, final double x2, final double y2)
+    {
         for (int direction = X; direction <= Y; direction++)
         {
             final boolean vertical = (direction == X);
@@ -480,8 +719,17 @@ public class GridLayer extends Layer
                 line.setDashArray(previousDashes);
             }
         }
-        // Draw children (if any)
-        super.drawWithoutTransforms(context, alpha, bounds);
+    }
+
+    private double getDeviceRatio()
+    {
+        final CanvasElement element = getCanvasElement();
+
+        if ((null != element) && (getWidth() > 0) && (element.getWidth() > 0))
+        {
+            return ((double) element.getWidth()) / getWidth();
+        }
+        return 1;
     }
 
     @Override
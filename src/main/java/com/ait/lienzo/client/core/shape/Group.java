@@ -40,6 +40,19 @@ public class Group extends GroupOf<IPrimitive<?>, Group>
         super(GroupType.GROUP, node, ctx);
     }
 
+    /**
+     * Builds the copy directly, without the factory. Subclasses are copied through their factory.
+     */
+    @Override
+    protected Node<?> copyNode(final ValidationContext ctx) throws ValidationException
+    {
+        if (Group.class != getClass())
+        {
+            return super.copyNode(ctx);
+        }
+        return copyChildNodes(new Group(toCopyJSONObject(), ctx));
+    }
+
     @Override
     public Group asGroup()
     {
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The event types handled by a {@link Node}, as a bit mask, and by the nodes below it, so picking can be skipped when nothing handles an event.
+ * <p>
+ * Each node has one, linked to the one of its parent. The mask of a node is set whenever a handler is added or removed, and
+ * the tree mask of a {@link Container} is computed again only after a change below it. A change is passed up until it
+ * reaches a container that is already dirty, as a dirty container always has dirty ancestors.
+ * <p>
+ * The event types get their bits the first time any node has a handler for them. The first 31 get a bit of their own,
+ * the others share the last bit.
+ */
+public class HandledEventMask
+{
+    public static final int                      OTHER_EVENTS = 1 << 31;
+
+    private static final HashMap<Object, Integer> ALL_EVENTS   = new HashMap<>();
+
+    private static final ArrayList<Object>        EVENT_TYPES  = new ArrayList<>();
+
+    private HandledEventMask                      m_parent;
+
+    private int                                   m_mask;
+
+    /**
+     * Returns the bit of an event type, or 0 if no node ever had a handler for it.
+     */
+    public static final int getTypeMask(final Object type)
+    {
+        if (null != type)
+        {
+            final Integer mask = ALL_EVENTS.get(type);
+
+            if (null != mask)
+            {
+                return mask;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the bit of an event type, giving it one if it has none yet.
+     */
+    public static final int makeTypeMask(final Object type)
+    {
+        final Integer mask = ALL_EVENTS.get(type);
+
+        if (null != mask)
+        {
+            return mask;
+        }
+        final int size = EVENT_TYPES.size();
+
+        final int make = (size < 31) ? (1 << size) : OTHER_EVENTS;
+
+        EVENT_TYPES.add(type);
+
+        ALL_EVENTS.put(type, make);
+
+        return make;
+    }
+
+    /**
+     * Returns the number of event types that have a bit.
+     */
+    public static final int getTypeCount()
+    {
+        return EVENT_TYPES.size();
+    }
+
+    /**
+     * Returns an event type that has a bit, in the order they got them.
+     */
+    public static final Object getType(final int i)
+    {
+        return EVENT_TYPES.get(i);
+    }
+
+    public final HandledEventMask getParent()
+    {
+        return m_parent;
+    }
+
+    /**
+     * Links this mask to the one of the new parent node. The tree masks of the old and the new parent are computed again.
+     */
+    public final void setParent(final HandledEventMask parent)
+    {
+        if (m_parent != parent)
+        {
+            if (null != m_parent)
+            {
+                m_parent.invalidate();
+            }
+            if (null != parent)
+            {
+                parent.invalidate();
+            }
+            m_parent = parent;
+        }
+    }
+
+    /**
+     * Returns the mask of the node alone.
+     */
+    public final int getMask()
+    {
+        return m_mask;
+    }
+
+    public final void setMask(final int mask)
+    {
+        if (m_mask != mask)
+        {
+            m_mask = mask;
+
+            invalidate();
+        }
+    }
+
+    /**
+     * Returns the mask of the node and the nodes below it.
+     */
+    public int getTreeMask()
+    {
+        return m_mask;
+    }
+
+    /**
+     * Returns true if the node, or a node below it, handles an event type with the bit.
+     */
+    public final boolean isHandledInTree(final int type)
+    {
+        return ((getTreeMask() & type) != 0);
+    }
+
+    /**
+     * Called when the mask of this node, or the children of a container, may have changed.
+     */
+    public void invalidate()
+    {
+        if (null != m_parent)
+        {
+            m_parent.invalidate();
+        }
+    }
+
+    /**
+     * The mask of a container node, which caches the masks of its children.
+     */
+    public static abstract class Container extends HandledEventMask
+    {
+        private int     m_tree;
+
+        private boolean m_dirty = true;
+
+        /**
+         * Returns the number of children. It is called before the children are read, each time the tree mask is computed.
+         */
+        protected abstract int size();
+
+        /**
+         * Returns the mask of a child.
+         */
+        protected abstract HandledEventMask get(int i);
+
+        public final boolean isDirty()
+        {
+            return m_dirty;
+        }
+
+        @Override
+        public int getTreeMask()
+        {
+            if (m_dirty)
+            {
+                int mask = getMask();
+
+                final int size = size();
+
+                for (int i = 0; i < size; i++)
+                {
+                    mask |= get(i).getTreeMask();
+                }
+                m_tree = mask;
+
+                m_dirty = false;
+            }
+            return m_tree;
+        }
+
+        @Override
+        public void invalidate()
+        {
+            if (false == m_dirty)
+            {
+                m_dirty = true;
+
+                super.invalidate();
+            }
+        }
+    }
+}
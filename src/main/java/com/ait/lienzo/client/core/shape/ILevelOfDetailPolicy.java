@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+/**
+ * Decides how much of a {@link Shape} is drawn, given the scale it is drawn at on the screen.
+ * It is set on a {@link Layer} with {@link Layer#setLevelOfDetailPolicy(ILevelOfDetailPolicy)}.
+ * <p>
+ * The level of detail is a set of flags. {@link #FULL} draws the shape as it is.
+ */
+public interface ILevelOfDetailPolicy
+{
+    public static final int FULL        = 0;
+
+    /**
+     * The shape is not drawn.
+     */
+    public static final int SKIP        = 1;
+
+    /**
+     * The shape is drawn as a bar filling its bounds, see {@link Shape#drawPlaceholder(com.ait.lienzo.client.core.Context2D, Attributes, double)}.
+     */
+    public static final int PLACEHOLDER = 2;
+
+    /**
+     * The shape is drawn without its shadow.
+     */
+    public static final int NO_SHADOW   = 4;
+
+    /**
+     * The shape is stroked with solid lines.
+     */
+    public static final int NO_DASH     = 8;
+
+    /**
+     * The path of the shape is drawn {@link com.ait.lienzo.client.core.types.PathPartList#simplify(double) simplified}
+     * to {@link #getSimplifyTolerance()}.
+     */
+    public static final int SIMPLIFY    = 16;
+
+    /**
+     * Returns the level of detail of a shape.
+     *
+     * @param shape the shape to draw
+     * @param scale the number of screen pixels per unit of the shape, including the viewport and the node transforms
+     * @return a combination of the flags of this interface
+     */
+    public int getLevelOfDetail(Shape<?> shape, double scale);
+
+    /**
+     * Returns how far, in screen pixels, a simplified path can be from the real one.
+     */
+    public double getSimplifyTolerance();
+}
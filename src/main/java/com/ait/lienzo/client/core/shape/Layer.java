@@ -33,6 +33,7 @@ import com.ait.lienzo.client.core.types.ImageDataPixelColor;
 import com.ait.lienzo.client.core.types.OnLayerAfterDraw;
 import com.ait.lienzo.client.core.types.OnLayerBeforeDraw;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.shared.core.types.CompositeOperation;
 import com.ait.lienzo.shared.core.types.DataURLType;
 import com.ait.lienzo.shared.core.types.LayerClearMode;
 import com.ait.lienzo.shared.core.types.NodeType;
@@ -85,6 +86,10 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 
     private final NFastStringMap<Shape<?>> m_shape_color_map = new NFastStringMap<>();
 
+    private NFastArrayList<IPrimitive<?>>  m_area            = null;
+
+    private ILevelOfDetailPolicy           m_lod             = null;
+
     /**
      * Constructor. Creates an instance of a Layer.
      */
@@ -150,6 +155,19 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
         return this;
     }
 
+    /**
+     * Builds the copy directly, without the factory. Subclasses are copied through their factory.
+     */
+    @Override
+    protected Node<?> copyNode(final ValidationContext ctx) throws ValidationException
+    {
+        if (Layer.class != getClass())
+        {
+            return super.copyNode(ctx);
+        }
+        return copyChildNodes(new Layer(toCopyJSONObject(), ctx));
+    }
+
     @Override
     public final IStorageEngine<IPrimitive<?>> getDefaultStorageEngine()
     {
@@ -741,8 +759,12 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
                     {
                         lclp.clip(context);
                     }
+                    context.setLevelOfDetailPolicy(m_lod, (null != transform) ? transform.getScale() : 1);
+
                     drawWithTransforms(context, 1, bbox);
 
+                    context.setLevelOfDetailPolicy(null, 1);
+
                     context.restore();
 
                     if (null != m_olad)
@@ -793,6 +815,194 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
         return LayerRedrawManager.get().schedule(this);
     }
 
+    /**
+     * Sets the level of detail policy used to draw the shapes of this layer, or null to draw them in full.
+     * It only applies to what is seen, picking on the selection layer is done on the shapes in full.
+     *
+     * @param policy
+     * @return Layer
+     */
+    public Layer setLevelOfDetailPolicy(final ILevelOfDetailPolicy policy)
+    {
+        m_lod = policy;
+
+        return this;
+    }
+
+    public ILevelOfDetailPolicy getLevelOfDetailPolicy()
+    {
+        return m_lod;
+    }
+
+    /**
+     * Returns true if parts of this layer can be drawn with {@link #drawArea(double, double, double, double, NFastArrayList)}
+     * and give the same pixels as a full {@link #draw()}. That is not so when it has draw handlers, or is not cleared before a draw.
+     *
+     * @return boolean
+     */
+    public boolean isAreaDrawable()
+    {
+        return ((null == m_olbd) && (null == m_olad) && (isClearLayerBeforeDraw()));
+    }
+
+    /**
+     * Moves what is drawn on the canvas by the given offset, in canvas pixels, rounded to device pixels.
+     * The uncovered part of the canvas is left clear. The selection layer is not moved,
+     * so the layer needs a full {@link #draw()} before it is used for picking again.
+     *
+     * @param dx
+     * @param dy
+     * @return Layer
+     */
+    public Layer shift(final double dx, final double dy)
+    {
+        if (LienzoCore.IS_CANVAS_SUPPORTED && (m_wide > 0))
+        {
+            final CanvasElement element = getCanvasElement();
+
+            final Context2D context = getContext();
+
+            if ((null != element) && (null != context))
+            {
+                final double scale = ((double) element.getWidth()) / m_wide;
+
+                context.save();
+
+                context.setTransform(1, 0, 0, 1, 0, 0);
+
+                context.setGlobalCompositeOperation(CompositeOperation.COPY);
+
+                context.drawImage(element, Math.round(dx * scale), Math.round(dy * scale));
+
+                context.restore();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Draws the part of the layer inside a rectangle, in canvas pixels, leaving the rest of the canvas and the selection layer as they are.
+     * The draw handlers are not called.
+     * <p>
+     * When children is not null, it is drawn instead of the children of the layer. It is meant to hold, in drawing order,
+     * only the children whose bounds meet the rectangle, so the others are not drawn just to be clipped.
+     *
+     * @param x
+     * @param y
+     * @param wide
+     * @param high
+     * @param children the children to draw, or null for all of them
+     * @return Layer
+     */
+    public Layer drawArea(final double x, final double y, final double wide, final double high, final NFastArrayList<IPrimitive<?>> children)
+    {
+        if ((LienzoCore.IS_CANVAS_SUPPORTED) && (isVisible()))
+        {
+            final Context2D context = getContext();
+
+            if (null == context)
+            {
+                return this;
+            }
+            context.save();
+
+            context.beginPath();
+
+            context.rect(x, y, wide, high);
+
+            context.clip();
+
+            context.clearRect(x, y, wide, high);
+
+            final Viewport viewport = getViewport();
+
+            double scale = 1;
+
+            if ((isTransformable()) && (null != viewport))
+            {
+                final Transform transform = viewport.getTransform();
+
+                context.transform(transform);
+
+                scale = transform.getScale();
+            }
+            if (null != viewport)
+            {
+                final IPathClipper vclp = viewport.getPathClipper();
+
+                if ((null != vclp) && (vclp.isActive()))
+                {
+                    vclp.clip(context);
+                }
+            }
+            final IPathClipper lclp = getPathClipper();
+
+            if ((null != lclp) && (lclp.isActive()))
+            {
+                lclp.clip(context);
+            }
+            m_area = children;
+
+            context.setLevelOfDetailPolicy(m_lod, scale);
+
+            try
+            {
+                drawWithTransforms(context, 1, getStorageBounds());
+            }
+            finally
+            {
+                m_area = null;
+
+                context.setLevelOfDetailPolicy(null, 1);
+
+                context.restore();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Draws the layer on another context, such as the one of a {@link com.ait.lienzo.client.core.util.ScratchPad}, with its transform,
+     * as {@link Scene#toDataURL()} does. The viewport transform and the draw handlers are left out.
+     * <p>
+     * When children is not null, it is drawn instead of the children of the layer, as with {@link #drawArea(double, double, double, double, NFastArrayList)}.
+     *
+     * @param context
+     * @param bounds
+     * @param children the children to draw, or null for all of them
+     * @return Layer
+     */
+    public Layer drawArea(final Context2D context, final BoundingBox bounds, final NFastArrayList<IPrimitive<?>> children)
+    {
+        if (isVisible())
+        {
+            m_area = children;
+
+            try
+            {
+                drawWithTransforms(context, 1, bounds);
+            }
+            finally
+            {
+                m_area = null;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the children to draw. While {@link #drawArea(double, double, double, double, NFastArrayList)} runs, they can be a subset.
+     */
+    @Override
+    public NFastArrayList<IPrimitive<?>> getChildNodes(final BoundingBox bounds)
+    {
+        if (null != m_area)
+        {
+            return m_area;
+        }
+        return super.getChildNodes(bounds);
+    }
+
     /**
      * Sets whether this object is visible.
      *
@@ -1017,6 +1227,20 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
         }
     }
 
+    /**
+     * Returns a {@link TiledExport} of an area of this layer, in layer coordinates, at a given scale.
+     * Unlike {@link #toDataURL()}, it is not limited to the canvas of the layer, and the memory it uses does not grow with the size of the image.
+     *
+     * @param area
+     * @param scale
+     * @param sink receives the pixels of each tile
+     * @return TiledExport
+     */
+    public TiledExport toTiledExport(final BoundingBox area, final double scale, final TiledExport.ITileSink sink)
+    {
+        return new TiledExport(this, area, scale, sink);
+    }
+
     /**
      * Returns the content of this {@link Layer} as an image that can be used as a source for another canvas or an HTML element
      *
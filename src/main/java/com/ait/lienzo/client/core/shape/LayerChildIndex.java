@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
+import com.ait.lienzo.client.core.util.SpatialIndex;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+
+/**
+ * Indexes the bounds of the visible children of a {@link Layer}, in layer coordinates, so the children to pass to
+ * {@link Layer#drawArea(double, double, double, double, NFastArrayList)} or {@link Layer#drawArea(Context2D, BoundingBox, NFastArrayList)}
+ * can be found without looking at every child.
+ * <p>
+ * The index is a snapshot. Once children are added to or removed from the layer it is stale, and the layer should be drawn in full.
+ */
+public final class LayerChildIndex
+{
+    private final Layer                 m_layer;
+
+    private final SpatialIndex<Integer> m_index  = new SpatialIndex<>();
+
+    private final ArrayList<Integer>    m_always = new ArrayList<>();
+
+    private final int                   m_size;
+
+    /**
+     * @param layer
+     * @param margin added around the bounds of every child, in layer coordinates
+     */
+    public LayerChildIndex(final Layer layer, final double margin)
+    {
+        m_layer = layer;
+
+        final NFastArrayList<IPrimitive<?>> list = layer.getChildNodes();
+
+        m_size = list.size();
+
+        for (int i = 0; i < m_size; i++)
+        {
+            final IPrimitive<?> prim = list.get(i);
+
+            if (false == prim.isVisible())
+            {
+                continue;
+            }
+            final BoundingPoints points = prim.getBoundingPoints();
+
+            if (null == points)
+            {
+                m_always.add(i);
+
+                continue;
+            }
+            final BoundingBox bbox = points.getBoundingBox();
+
+            final Shape<?> shape = prim.asShape();
+
+            // the bounds leave out the stroke
+
+            final double padd = margin + ((null != shape) ? shape.getStrokeWidth() : 0);
+
+            m_index.put(i, bbox.getMinX() - padd, bbox.getMinY() - padd, bbox.getMaxX() + padd, bbox.getMaxY() + padd);
+        }
+    }
+
+    public final Layer getLayer()
+    {
+        return m_layer;
+    }
+
+    /**
+     * Returns true if children have been added to or removed from the layer since it was indexed.
+     */
+    public final boolean isStale()
+    {
+        return (m_size != m_layer.getChildNodes().size());
+    }
+
+    /**
+     * Returns the children whose bounds meet the area, in layer coordinates, in drawing order.
+     * Children without bounds are always returned.
+     *
+     * @param area
+     * @return NFastArrayList
+     */
+    public final NFastArrayList<IPrimitive<?>> getChildNodes(final BoundingBox area)
+    {
+        final ArrayList<Integer> hits = m_index.query(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), new ArrayList<Integer>(m_always));
+
+        Collections.sort(hits);
+
+        final NFastArrayList<IPrimitive<?>> list = m_layer.getChildNodes();
+
+        final NFastArrayList<IPrimitive<?>> draw = new NFastArrayList<>();
+
+        for (int i = 0; i < hits.size(); i++)
+        {
+            draw.add(list.get(hits.get(i)));
+        }
+        return draw;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.HashMap;
+
+import com.ait.lienzo.client.core.Attribute;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.shared.core.types.ShapeType;
+
+/**
+ * The default {@link ILevelOfDetailPolicy}, driven by the on-screen size of the shapes and by the drawing scale.
+ * <ul>
+ * <li>A shape smaller than its {@link #getMinimumSize(ShapeType) minimum size} is skipped. The size of a {@link Text} is the
+ * height of its font, the size of any other shape is the larger side of its bounding box.</li>
+ * <li>A {@link Text} whose font is smaller than the {@link #getPlaceholderSize() placeholder size} is drawn as a bar.</li>
+ * <li>Below the minimum scale of {@link Attribute#SHADOW} shadows are dropped, and below the one of {@link Attribute#DASH_ARRAY}
+ * dashes are, see {@link #setMinimumScale(Attribute, double)}.</li>
+ * <li>Below the {@link #getSimplifyScale() simplify scale} paths are simplified.</li>
+ * </ul>
+ */
+public class LevelOfDetailPolicy implements ILevelOfDetailPolicy
+{
+    private final HashMap<ShapeType, Double> m_sizes       = new HashMap<>();
+
+    private double                           m_minsize     = 1;
+
+    private double                           m_placeholder = 4;
+
+    private double                           m_shadow      = 0.5;
+
+    private double                           m_dash        = 0.25;
+
+    private double                           m_simplify    = 0.5;
+
+    private double                           m_tolerance   = 0.5;
+
+    @Override
+    public int getLevelOfDetail(final Shape<?> shape, final double scale)
+    {
+        final Double min = m_sizes.get(shape.getShapeType());
+
+        final double minsize = (null != min) ? min : m_minsize;
+
+        int level = FULL;
+
+        if (shape instanceof Text)
+        {
+            final double size = ((Text) shape).getFontSize() * scale;
+
+            if (size < minsize)
+            {
+                return SKIP;
+            }
+            if (size < m_placeholder)
+            {
+                level |= PLACEHOLDER;
+            }
+        }
+        else if (minsize > 0)
+        {
+            final BoundingBox bbox = shape.getBoundingBox();
+
+            if ((null != bbox) && ((Math.max(bbox.getWidth(), bbox.getHeight()) * scale) < minsize))
+            {
+                return SKIP;
+            }
+        }
+        if (scale < m_shadow)
+        {
+            level |= NO_SHADOW;
+        }
+        if (scale < m_dash)
+        {
+            level |= NO_DASH;
+        }
+        if (scale < m_simplify)
+        {
+            level |= SIMPLIFY;
+        }
+        return level;
+    }
+
+    @Override
+    public double getSimplifyTolerance()
+    {
+        return m_tolerance;
+    }
+
+    /**
+     * Sets how far, in screen pixels, a simplified path can be from the real one.
+     */
+    public LevelOfDetailPolicy setSimplifyTolerance(final double tolerance)
+    {
+        m_tolerance = tolerance;
+
+        return this;
+    }
+
+    public double getMinimumSize()
+    {
+        return m_minsize;
+    }
+
+    /**
+     * Sets the on-screen size, in pixels, below which a shape is skipped, for the types without a size of their own.
+     */
+    public LevelOfDetailPolicy setMinimumSize(final double size)
+    {
+        m_minsize = size;
+
+        return this;
+    }
+
+    public double getMinimumSize(final ShapeType type)
+    {
+        final Double size = m_sizes.get(type);
+
+        return (null != size) ? size : m_minsize;
+    }
+
+    /**
+     * Sets the on-screen size, in pixels, below which a shape of the given type is skipped.
+     */
+    public LevelOfDetailPolicy setMinimumSize(final ShapeType type, final double size)
+    {
+        if (null == type)
+        {
+            throw new NullPointerException("type can not be null");
+        }
+        m_sizes.put(type, size);
+
+        return this;
+    }
+
+    /**
+     * Makes shapes of the given type use the minimum size of the other types again.
+     */
+    public LevelOfDetailPolicy clearMinimumSize(final ShapeType type)
+    {
+        m_sizes.remove(type);
+
+        return this;
+    }
+
+    public double getPlaceholderSize()
+    {
+        return m_placeholder;
+    }
+
+    /**
+     * Sets the on-screen font size, in pixels, below which a {@link Text} is drawn as a bar.
+     */
+    public LevelOfDetailPolicy setPlaceholderSize(final double size)
+    {
+        m_placeholder = size;
+
+        return this;
+    }
+
+    public double getMinimumScale(final Attribute attribute)
+    {
+        if (Attribute.SHADOW == attribute)
+        {
+            return m_shadow;
+        }
+        if (Attribute.DASH_ARRAY == attribute)
+        {
+            return m_dash;
+        }
+        throw new IllegalArgumentException("no minimum scale for attribute " + attribute);
+    }
+
+    /**
+     * Sets the scale below which an attribute is not drawn. Only {@link Attribute#SHADOW} and {@link Attribute#DASH_ARRAY} are supported.
+     */
+    public LevelOfDetailPolicy setMinimumScale(final Attribute attribute, final double scale)
+    {
+        if (Attribute.SHADOW == attribute)
+        {
+            m_shadow = scale;
+        }
+        else if (Attribute.DASH_ARRAY == attribute)
+        {
+            m_dash = scale;
+        }
+        else
+        {
+            throw new IllegalArgumentException("no minimum scale for attribute " + attribute);
+        }
+        return this;
+    }
+
+    public double getSimplifyScale()
+    {
+        return m_simplify;
+    }
+
+    /**
+     * Sets the scale below which paths are simplified.
+     */
+    public LevelOfDetailPolicy setSimplifyScale(final double scale)
+    {
+        m_simplify = scale;
+
+        return this;
+    }
+}
@@ -97,7 +97,7 @@ public class Line extends AbstractOffsetMultiPointShape<Line>
 
         if ((null != list) && (list.size() == 2))
         {
-            if (attr.isDefined(Attribute.DASH_ARRAY))
+            if ((attr.isDefined(Attribute.DASH_ARRAY)) && (0 == (context.getLevelOfDetail() & ILevelOfDetailPolicy.NO_DASH)))
             {
                 if (false == LienzoCore.get().isNativeLineDashSupported())
                 {
@@ -20,7 +20,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -109,15 +108,15 @@ import com.google.gwt.json.client.JSONValue;
  */
 public abstract class Node<T extends Node<T>> implements IDrawable<T>
 {
-    private static final HashSet<Type<?>> ALL_EVENTS = new HashSet<>();
+    private final Attributes         m_attr;
 
-    private final Attributes              m_attr;
+    private NodeType                 m_type;
 
-    private NodeType                      m_type;
+    private Node<?>                  m_parent;
 
-    private Node<?>                       m_parent;
+    private HandledEventMask         m_hmask;
 
-    private final OptionalNodeFields      m_opts     = OptionalNodeFields.make();
+    private final OptionalNodeFields m_opts = OptionalNodeFields.make();
 
     @SafeVarargs
     public static final <T> List<T> asList(final T... list)
@@ -141,11 +140,16 @@ public abstract class Node<T extends Node<T>> implements IDrawable<T>
 
     public static final boolean isEventHandledGlobally(final Type<?> type)
     {
-        if (null != type)
-        {
-            return ALL_EVENTS.contains(type);
-        }
-        return false;
+        return (HandledEventMask.getTypeMask(type) != 0);
+    }
+
+    /**
+     * Returns the bit of an event type in the handled event masks, or 0 if no node ever had a handler for it.
+     * The first 31 event types to get a handler have a bit of their own, the others share the last bit.
+     */
+    public static final int getEventTypeMask(final Type<?> type)
+    {
+        return HandledEventMask.getTypeMask(type);
     }
 
     protected Node(final NodeType type)
@@ -257,11 +261,79 @@ public abstract class Node<T extends Node<T>> implements IDrawable<T>
     	return self;
     }-*/;
 
+    /**
+     * Copies this Node without a round trip through a JSON string and without validation, see {@link #copyNode(ValidationContext)}.
+     */
     protected final Node<?> copyUnchecked()
     {
-        return (Node<?>) JSONDeserializer.get().fromString(toJSONString(), false);// don't validate
+        try
+        {
+            return copyNode(new ValidationContext().setValidate(false).setStopOnError(true));
+        }
+        catch (final ValidationException e)
+        {
+            return null;
+        }
     }
 
+    /**
+     * Returns a copy of this Node, made by its factory from its JSON tree. The attributes come from {@link Attributes#copyShared()},
+     * so the copy shares their object values with this Node until either one hands them out, and the rest of the tree is copied
+     * with {@link Attributes#copy(JavaScriptObject)}.
+     * <p>
+     * Nodes that can be built directly should override this, see {@link #toCopyJSONObject()}.
+     *
+     * @param ctx
+     * @return Node
+     * @throws ValidationException
+     */
+    protected Node<?> copyNode(final ValidationContext ctx) throws ValidationException
+    {
+        final JSONObject json = toJSONObject();
+
+        if (null == json)
+        {
+            return null;
+        }
+        return (Node<?>) JSONDeserializer.get().fromJSON(new JSONObject(copyTree(json.getJavaScriptObject(), m_attr.copyShared())), ctx);
+    }
+
+    /**
+     * Returns the JSON tree for the constructor of a copy of this Node, with only the attributes, from {@link Attributes#copyShared()}, and a copy of the meta data.
+     *
+     * @return JSONObject
+     */
+    protected final JSONObject toCopyJSONObject()
+    {
+        final JSONObject object = new JSONObject();
+
+        object.put("attributes", new JSONObject(m_attr.copyShared()));
+
+        if (hasMetaData())
+        {
+            final MetaData meta = getMetaData();
+
+            if (false == meta.isEmpty())
+            {
+                object.put("meta", new JSONObject(Attributes.copy(meta.getJSO())));
+            }
+        }
+        return object;
+    }
+
+    private static final native JavaScriptObject copyTree(JavaScriptObject jso, JavaScriptObject attributes)
+    /*-{
+        var o = {};
+        for ( var k in jso) {
+            if ((k !== "attributes") && Object.prototype.hasOwnProperty.call(jso, k)) {
+                var v = jso[k];
+                o[k] = ((v !== null) && (typeof v === "object")) ? @com.ait.lienzo.client.core.shape.Attributes::copy(Lcom/google/gwt/core/client/JavaScriptObject;)(v) : v;
+            }
+        }
+        o.attributes = attributes;
+        return o;
+    }-*/;
+
     @Override
     public final String uuid()
     {
@@ -349,6 +421,8 @@ public abstract class Node<T extends Node<T>> implements IDrawable<T>
 
     protected void setParent(final Node<?> parent)
     {
+        getEventMask().setParent((null != parent) ? parent.getEventMask() : null);
+
         m_parent = parent;
     }
 
@@ -494,12 +568,35 @@ public abstract class Node<T extends Node<T>> implements IDrawable<T>
             {
                 context.transform(xfrm);
             }
-            drawWithoutTransforms(context, alpha, bounds);
+            if (null != context.getLevelOfDetailPolicy())
+            {
+                final double scale = context.getLevelOfDetailScale();
+
+                if (null != xfrm)
+                {
+                    context.setLevelOfDetailScale(scale * xfrm.getScale());
+                }
+                drawAtLevelOfDetail(context, alpha, bounds);
 
+                context.setLevelOfDetailScale(scale);
+            }
+            else
+            {
+                drawWithoutTransforms(context, alpha, bounds);
+            }
             context.restoreContainer();
         }
     }
 
+    /**
+     * Used internally. Draws the node as {@link #drawWithoutTransforms(Context2D, double, BoundingBox)} does, when the context
+     * has an {@link ILevelOfDetailPolicy}. {@link Context2D#getLevelOfDetailScale()} is the scale of the node on the screen.
+     */
+    protected void drawAtLevelOfDetail(final Context2D context, final double alpha, final BoundingBox bounds)
+    {
+        drawWithoutTransforms(context, alpha, bounds);
+    }
+
     /**
      * Used internally. Draws the node in the current Context2D
      * without applying the transformation-related attributes
@@ -904,6 +1001,62 @@ public abstract class Node<T extends Node<T>> implements IDrawable<T>
         }
     }
 
+    /**
+     * Returns true if this node, or any node below it, may handle the event type.
+     * When it is false, the event does not need to be dispatched anywhere in this tree, so picking can be skipped.
+     * <p>
+     * It does not look at visibility or listening, see {@link #isEventHandled(Type)} for that.
+     */
+    public final boolean isEventHandledInTree(final Type<?> type)
+    {
+        return getEventMask().isHandledInTree(getEventTypeMask(type));
+    }
+
+    /**
+     * Returns the handled event mask of this node, linked to the one of its parent.
+     */
+    protected final HandledEventMask getEventMask()
+    {
+        if (null == m_hmask)
+        {
+            m_hmask = makeEventMask();
+        }
+        return m_hmask;
+    }
+
+    /**
+     * Makes the handled event mask of this node. Containers override this.
+     */
+    protected HandledEventMask makeEventMask()
+    {
+        return new HandledEventMask();
+    }
+
+    private final void updateEventHandledMask()
+    {
+        final HandlerManager hand = m_opts.getHandlerManager();
+
+        int mask = 0;
+
+        if (null != hand)
+        {
+            // a handler removed while its event fires is still counted, which only makes the mask err on the safe side
+
+            final int size = HandledEventMask.getTypeCount();
+
+            for (int i = 0; i < size; i++)
+            {
+                final Type<?> type = (Type<?>) HandledEventMask.getType(i);
+
+                if (hand.isEventHandled(type))
+                {
+                    mask |= HandledEventMask.getTypeMask(type);
+                }
+            }
+        }
+        getEventMask().setMask(mask);
+    }
+
     protected final <H extends EventHandler> HandlerRegistration addEnsureHandler(final Type<H> type, final H handler)
     {
         Objects.requireNonNull(type);
@@ -918,9 +1071,22 @@ public abstract class Node<T extends Node<T>> implements IDrawable<T>
 
             m_opts.setHandlerManager(hand);
         }
-        ALL_EVENTS.add(type);
+        final HandlerRegistration regs = hand.addHandler(type, handler);
 
-        return hand.addHandler(type, handler);
+        final HandledEventMask mask = getEventMask();
+
+        mask.setMask(mask.getMask() | HandledEventMask.makeTypeMask(type));
+
+        return new HandlerRegistration()
+        {
+            @Override
+            public void removeHandler()
+            {
+                regs.removeHandler();
+
+                updateEventHandledMask();
+            }
+        };
     }
 
     @Override
@@ -23,8 +23,10 @@ import com.ait.lienzo.client.core.Attribute;
 import com.ait.lienzo.client.core.Context2D;
 import com.ait.lienzo.client.core.config.LienzoCore;
 import com.ait.lienzo.client.core.image.ImageClipBounds;
+import com.ait.lienzo.client.core.image.ImageShapeFilterProgressHandler;
 import com.ait.lienzo.client.core.image.ImageShapeFilteredHandler;
 import com.ait.lienzo.client.core.image.ImageShapeLoadedHandler;
+import com.ait.lienzo.client.core.image.PictureFilterProgressHandler;
 import com.ait.lienzo.client.core.image.PictureFilteredHandler;
 import com.ait.lienzo.client.core.image.PictureLoadedHandler;
 import com.ait.lienzo.client.core.image.filter.ImageDataFilter;
@@ -1683,6 +1685,68 @@ public class Picture extends AbstractImageShape<Picture> implements ImageDataFil
         return this;
     }
 
+    /**
+     * Re-applies the filters over several animation frames, so large images do not block the UI thread.
+     * If the handler is a {@link PictureFilterProgressHandler}, it is also told about progress and cancellation.
+     * A cancelled run leaves the picture unfiltered.
+     *
+     * @param handler
+     * @return Picture
+     */
+    public Picture reFilterAsync(final PictureFilteredHandler handler)
+    {
+        if (handler instanceof PictureFilterProgressHandler)
+        {
+            final PictureFilterProgressHandler progress = (PictureFilterProgressHandler) handler;
+
+            getImageProxy().reFilterAsync(new ImageShapeFilterProgressHandler<Picture>()
+            {
+                @Override
+                public void onImageShapeFiltered(final Picture picture)
+                {
+                    progress.onPictureFiltered(picture);
+                }
+
+                @Override
+                public void onImageShapeFilterProgress(final Picture picture, final int done, final int total)
+                {
+                    progress.onPictureFilterProgress(picture, done, total);
+                }
+
+                @Override
+                public void onImageShapeFilterCancelled(final Picture picture)
+                {
+                    progress.onPictureFilterCancelled(picture);
+                }
+            });
+        }
+        else
+        {
+            getImageProxy().reFilterAsync(new ImageShapeFilteredHandler<Picture>()
+            {
+                @Override
+                public void onImageShapeFiltered(final Picture picture)
+                {
+                    handler.onPictureFiltered(picture);
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Re-applies the filters over several animation frames, telling the handler about progress and cancellation.
+     *
+     * @param handler
+     * @return Picture
+     */
+    public Picture reFilterAsync(final ImageShapeFilterProgressHandler<Picture> handler)
+    {
+        getImageProxy().reFilterAsync(handler);
+
+        return this;
+    }
+
     public Picture unFilter(final PictureFilteredHandler handler)
     {
         getImageProxy().unFilter(new ImageShapeFilteredHandler<Picture>()
@@ -37,6 +37,7 @@ import com.google.gwt.dom.client.DivElement;
 import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.GwtEvent.Type;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.json.client.JSONString;
@@ -321,6 +322,60 @@ public class Scene extends ContainerNode<Layer, Scene>
         return null;
     }
 
+    /**
+     * Given a set of (x,y) coordinates, returns the {@link Shape} that is matched, as {@link #findShapeAtPoint(int, int)}
+     * does, but only if a {@link Layer} at or below the one it is found on handles the event type.
+     * The layers below the lowest one that handles it are not looked at, and none are if no layer handles it.
+     *
+     * @param x
+     * @param y
+     * @param type the event type
+     * @return Shape
+     */
+    public final Shape<?> findShapeAtPoint(final int x, final int y, final Type<?> type)
+    {
+        if (isVisible())
+        {
+            final NFastArrayList<Layer> layers = getChildNodes();
+
+            if (null != layers)
+            {
+                final int size = layers.size();
+
+                int last = size;
+
+                for (int i = 0; i < size; i++)
+                {
+                    final Layer layer = layers.get(i);
+
+                    if ((null != layer) && (layer.isEventHandledInTree(type)))
+                    {
+                        last = i;
+
+                        break;
+                    }
+                }
+                // a shape on a layer above the ones that handle the type still hides what is below it
+
+                for (int i = size - 1; i >= last; i--)
+                {
+                    final Layer layer = layers.get(i);
+
+                    if (null != layer)
+                    {
+                        final Shape<?> shape = layer.findShapeAtPoint(x, y);
+
+                        if (null != shape)
+                        {
+                            return shape;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Fires the given GWT event.
      */
@@ -800,6 +855,20 @@ public class Scene extends ContainerNode<Layer, Scene>
         }
     }
 
+    /**
+     * Returns a {@link TiledExport} of an area of this scene, in scene coordinates, at a given scale.
+     * Unlike {@link #toDataURL()}, it does not draw the whole image at once, so the memory it uses does not grow with the size of the image.
+     *
+     * @param area
+     * @param scale
+     * @param sink receives the pixels of each tile
+     * @return TiledExport
+     */
+    public final TiledExport toTiledExport(final BoundingBox area, final double scale, final TiledExport.ITileSink sink)
+    {
+        return new TiledExport(this, area, scale, sink);
+    }
+
     public final String toDataURL(final DataURLType mimetype)
     {
         if (LienzoCore.IS_CANVAS_SUPPORTED)
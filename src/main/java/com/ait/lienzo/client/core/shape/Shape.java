@@ -259,6 +259,74 @@ public abstract class Shape<T extends Shape<T>> extends Node<T> implements IPrim
         }
     }
 
+    /**
+     * Used internally. Applies the {@link ILevelOfDetailPolicy} of the context to this shape: it is skipped,
+     * drawn as a {@link #drawPlaceholder(Context2D, Attributes, double) placeholder}, or drawn with the flags
+     * set on the context, so shadows, dashes and paths can be dropped or simplified as it is drawn.
+     */
+    @Override
+    protected void drawAtLevelOfDetail(final Context2D context, final double alpha, final BoundingBox bounds)
+    {
+        final int level = context.getLevelOfDetailPolicy().getLevelOfDetail(this, context.getLevelOfDetailScale());
+
+        if (0 != (level & ILevelOfDetailPolicy.SKIP))
+        {
+            return;
+        }
+        if (0 != (level & ILevelOfDetailPolicy.PLACEHOLDER))
+        {
+            drawPlaceholder(context, getAttributes(), alpha);
+
+            return;
+        }
+        context.setLevelOfDetail(level);
+
+        drawWithoutTransforms(context, alpha, bounds);
+
+        context.setLevelOfDetail(ILevelOfDetailPolicy.FULL);
+    }
+
+    /**
+     * Draws this shape as a bar across the middle of its bounding box, in its fill color,
+     * or in its stroke color when it has no fill color.
+     *
+     * @param context
+     * @param attr
+     * @param alpha
+     */
+    protected void drawPlaceholder(final Context2D context, final Attributes attr, double alpha)
+    {
+        alpha = alpha * attr.getAlpha();
+
+        String color = attr.getFillColor();
+
+        if (null != color)
+        {
+            alpha = alpha * attr.getFillAlpha();
+        }
+        else
+        {
+            color = attr.getStrokeColor();
+
+            alpha = alpha * attr.getStrokeAlpha();
+        }
+        if ((null == color) || (alpha <= 0))
+        {
+            return;
+        }
+        final BoundingBox bbox = getBoundingBox();
+
+        if (null == bbox)
+        {
+            return;
+        }
+        context.setGlobalAlpha(alpha);
+
+        context.setFillColor(color);
+
+        context.fillRect(bbox.getX(), bbox.getY() + (bbox.getHeight() / 4), bbox.getWidth(), bbox.getHeight() / 2);
+    }
+
     public PathPartList getPathPartList()
     {
         return null;
@@ -585,7 +653,7 @@ public abstract class Shape<T extends Shape<T>> extends Node<T> implements IPrim
         }
         boolean isdashed = false;
 
-        if (attr.isDefined(Attribute.DASH_ARRAY))
+        if ((attr.isDefined(Attribute.DASH_ARRAY)) && (0 == (context.getLevelOfDetail() & ILevelOfDetailPolicy.NO_DASH)))
         {
             if (LienzoCore.get().isLineDashSupported())
             {
@@ -669,7 +737,7 @@ public abstract class Shape<T extends Shape<T>> extends Node<T> implements IPrim
      */
     protected final void doApplyShadow(final Context2D context, final Attributes attr)
     {
-        if ((false == isAppliedShadow()) && (attr.hasShadow()))
+        if ((false == isAppliedShadow()) && (attr.hasShadow()) && (0 == (context.getLevelOfDetail() & ILevelOfDetailPolicy.NO_SHADOW)))
         {
             setAppliedShadow(true);
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Tracks the object values of {@link Attributes}, like points, gradients, shadows and dash arrays, that a node shares with its copies.
+ * <p>
+ * A copy takes these values by reference. As the wrappers a value is handed out in can change it in place, a node that
+ * still shares a value copies it the first time it hands it out. A value a node has handed out, or was given through a put,
+ * may be held and changed by the caller at any time, so it is copied, not shared, when the node is copied.
+ * <p>
+ * The values are read and written through an {@link IValueStore}, so this class does not depend on the browser.
+ *
+ * @param <V> the type of the values
+ */
+public final class SharedAttributeValues<V>
+{
+    private final IValueStore<V>         m_store;
+
+    private final HashMap<String, Share> m_share = new HashMap<>();
+
+    private final HashSet<String>        m_owned = new HashSet<>();
+
+    /**
+     * @param store the values of the node
+     * @param owned true if the object values in the store may already have been handed out
+     */
+    public SharedAttributeValues(final IValueStore<V> store, final boolean owned)
+    {
+        m_store = store;
+
+        if (owned)
+        {
+            m_owned.addAll(store.getObjectNames());
+        }
+    }
+
+    /**
+     * Fills in the object values of a copy, in one pass. The store of the copy must already hold the same values as this one.
+     * Values that have been handed out are replaced with a copy, all others are shared.
+     *
+     * @param store the values of the copy
+     * @return the SharedAttributeValues of the copy
+     */
+    public final SharedAttributeValues<V> copy(final IValueStore<V> store)
+    {
+        final SharedAttributeValues<V> copy = new SharedAttributeValues<>(store, false);
+
+        for (final String name : m_store.getObjectNames())
+        {
+            if (m_owned.contains(name))
+            {
+                store.set(name, m_store.copy(m_store.get(name)));
+            }
+            else
+            {
+                Share share = m_share.get(name);
+
+                if (null == share)
+                {
+                    share = new Share();
+
+                    m_share.put(name, share);
+                }
+                share.m_size++;
+
+                copy.m_share.put(name, share);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Called before the object value is handed out. If it is still shared, the value is copied first.
+     *
+     * @param name
+     */
+    public final void own(final String name)
+    {
+        final Share share = m_share.remove(name);
+
+        if ((null != share) && (--share.m_size > 0))
+        {
+            m_store.set(name, m_store.copy(m_store.get(name)));
+        }
+        m_owned.add(name);
+    }
+
+    /**
+     * Called when a value is put or removed.
+     *
+     * @param name
+     * @param owned true if the new value is an object, which the caller may still hold
+     */
+    public final void release(final String name, final boolean owned)
+    {
+        final Share share = m_share.remove(name);
+
+        if (null != share)
+        {
+            share.m_size--;
+        }
+        if (owned)
+        {
+            m_owned.add(name);
+        }
+        else
+        {
+            m_owned.remove(name);
+        }
+    }
+
+    /**
+     * Returns true if the value is still shared with another node.
+     *
+     * @param name
+     */
+    public final boolean isShared(final String name)
+    {
+        final Share share = m_share.get(name);
+
+        return ((null != share) && (share.m_size > 1));
+    }
+
+    public interface IValueStore<V>
+    {
+        /**
+         * Returns the names of the values that are objects, which can be changed in place.
+         */
+        public Collection<String> getObjectNames();
+
+        public V get(String name);
+
+        public void set(String name, V value);
+
+        /**
+         * Returns a copy of the value that shares nothing that can be changed in place.
+         */
+        public V copy(V value);
+    }
+
+    private static final class Share
+    {
+        private int m_size = 1;
+    }
+}
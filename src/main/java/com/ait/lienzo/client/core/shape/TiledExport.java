@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.ArrayList;
+
+import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
+import com.ait.lienzo.client.core.types.ImageData;
+import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.GeometryException;
+import com.ait.lienzo.client.core.util.ScratchPad;
+import com.ait.lienzo.client.core.util.TileGrid;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+
+/**
+ * Exports an area of a {@link Scene} or of a {@link Layer} to an image of any size, in square tiles, so that the memory used
+ * does not grow with the size of the image.
+ * <p>
+ * The area, in scene coordinates, is drawn at a given scale, without the viewport transform. Every tile is drawn on the same
+ * {@link ScratchPad}, with only the children of each layer whose bounds meet it, and its pixels are handed to an {@link ITileSink},
+ * which can assemble or encode them as they come. The tiles can be drawn all at once with {@link #run()}, or a few at a time
+ * with {@link #step(int)}, so that an export can be spread over several animation frames.
+ */
+public class TiledExport
+{
+    public static final int              DEFAULT_TILE_SIZE = 512;
+
+    // the bounds leave out shadows, so children a little outside of a tile are drawn too
+
+    private static final double          CULL_MARGIN       = 16;
+
+    private final ArrayList<ExportLayer> m_layers          = new ArrayList<>();
+
+    private final IPathClipper           m_clip;
+
+    private final double                 m_minx;
+
+    private final double                 m_miny;
+
+    private final double                 m_scale;
+
+    private final TileGrid               m_grid;
+
+    private final ITileSink              m_sink;
+
+    private ScratchPad                   m_pad;
+
+    private int                          m_next;
+
+    private boolean                      m_stop;
+
+    public interface ITileSink
+    {
+        /**
+         * Receives the pixels of a tile, whose top left corner is at x, y in the image.
+         */
+        public void onTile(int x, int y, ImageData data);
+
+        /**
+         * Called once every tile has been received.
+         */
+        public void onDone();
+    }
+
+    public TiledExport(final Scene scene, final BoundingBox area, final double scale, final ITileSink sink)
+    {
+        this(scene, area, scale, DEFAULT_TILE_SIZE, sink);
+    }
+
+    public TiledExport(final Scene scene, final BoundingBox area, final double scale, final int tile, final ITileSink sink)
+    {
+        this(scene.getChildNodes(), scene.getPathClipper(), area, scale, tile, sink);
+    }
+
+    public TiledExport(final Layer layer, final BoundingBox area, final double scale, final ITileSink sink)
+    {
+        this(layer, area, scale, DEFAULT_TILE_SIZE, sink);
+    }
+
+    public TiledExport(final Layer layer, final BoundingBox area, final double scale, final int tile, final ITileSink sink)
+    {
+        this(single(layer), null, area, scale, tile, sink);
+    }
+
+    private TiledExport(final NFastArrayList<Layer> layers, final IPathClipper clip, final BoundingBox area, final double scale, final int tile, final ITileSink sink)
+    {
+        if ((null == area) || (null == sink))
+        {
+            throw new NullPointerException("area and sink can not be null");
+        }
+        if (false == (scale > 0))
+        {
+            throw new IllegalArgumentException("scale must be greater than 0");
+        }
+        m_clip = clip;
+
+        m_minx = area.getMinX();
+
+        m_miny = area.getMinY();
+
+        m_scale = scale;
+
+        m_sink = sink;
+
+        m_grid = new TileGrid((int) Math.ceil(area.getWidth() * scale), (int) Math.ceil(area.getHeight() * scale), tile);
+
+        if (null != layers)
+        {
+            for (int i = 0; i < layers.size(); i++)
+            {
+                final Layer layer = layers.get(i);
+
+                if ((null != layer) && (layer.isVisible()))
+                {
+                    m_layers.add(new ExportLayer(layer, CULL_MARGIN / scale));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the width of the image, in pixels.
+     */
+    public final int getWidth()
+    {
+        return m_grid.getWidth();
+    }
+
+    /**
+     * Returns the height of the image, in pixels.
+     */
+    public final int getHeight()
+    {
+        return m_grid.getHeight();
+    }
+
+    public final int getTileCount()
+    {
+        return m_grid.getTileCount();
+    }
+
+    public final int getCompletedCount()
+    {
+        return m_next;
+    }
+
+    public final boolean isDone()
+    {
+        return (m_next >= m_grid.getTileCount());
+    }
+
+    public final boolean isCancelled()
+    {
+        return m_stop;
+    }
+
+    /**
+     * Stops the export. {@link ITileSink#onDone()} is not called.
+     */
+    public final void cancel()
+    {
+        m_stop = true;
+
+        m_pad = null;
+    }
+
+    /**
+     * Draws every tile left.
+     */
+    public final void run()
+    {
+        step(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Draws at most <code>tiles</code> tiles.
+     *
+     * @param tiles
+     * @return true if there are tiles left to draw
+     */
+    public final boolean step(final int tiles)
+    {
+        for (int i = 0; ((i < tiles) && (false == m_stop) && (false == isDone())); i++)
+        {
+            draw(m_next++);
+
+            if (isDone())
+            {
+                m_pad = null;
+
+                m_sink.onDone();
+            }
+        }
+        return ((false == m_stop) && (false == isDone()));
+    }
+
+    private final void draw(final int tile)
+    {
+        final int x = m_grid.getX(tile);
+
+        final int y = m_grid.getY(tile);
+
+        final int wide = m_grid.getWidth(tile);
+
+        final int high = m_grid.getHeight(tile);
+
+        if (null == m_pad)
+        {
+            m_pad = new ScratchPad(Math.min(m_grid.getTileSize(), m_grid.getWidth()), Math.min(m_grid.getTileSize(), m_grid.getHeight()));
+        }
+        final Context2D context = m_pad.getContext();
+
+        if (null == context)
+        {
+            return;
+        }
+        m_pad.clear();
+
+        final BoundingBox bounds = new BoundingBox(m_minx + (x / m_scale), m_miny + (y / m_scale), m_minx + ((x + wide) / m_scale), m_miny + ((y + high) / m_scale));
+
+        context.save();
+
+        context.setTransform(m_scale, 0, 0, m_scale, -((m_minx * m_scale) + x), -((m_miny * m_scale) + y));
+
+        if ((null != m_clip) && (m_clip.isActive()))
+        {
+            m_clip.clip(context);
+        }
+        for (int i = 0; i < m_layers.size(); i++)
+        {
+            m_layers.get(i).draw(context, bounds);
+        }
+        context.restore();
+
+        m_sink.onTile(x, y, context.getImageData(0, 0, wide, high));
+    }
+
+    private static final NFastArrayList<Layer> single(final Layer layer)
+    {
+        final NFastArrayList<Layer> list = new NFastArrayList<>();
+
+        if (null != layer)
+        {
+            list.add(layer);
+        }
+        return list;
+    }
+
+    private static final class ExportLayer
+    {
+        private final Layer     m_layer;
+
+        private LayerChildIndex m_index;
+
+        private Transform       m_inverse;
+
+        private ExportLayer(final Layer layer, final double margin)
+        {
+            m_layer = layer;
+
+            final Transform transform = layer.getPossibleNodeTransform();
+
+            if (null != transform)
+            {
+                try
+                {
+                    m_inverse = transform.getInverse();
+                }
+                catch (final GeometryException e)
+                {
+                    // the layer is flattened, it is drawn in full
+
+                    return;
+                }
+            }
+            m_index = new LayerChildIndex(layer, margin);
+        }
+
+        private final void draw(final Context2D context, final BoundingBox bounds)
+        {
+            // a layer changed since the export started is drawn in full, as its index is stale
+
+            if ((null == m_index) || (m_index.isStale()))
+            {
+                m_layer.drawArea(context, bounds, null);
+
+                return;
+            }
+            BoundingBox area = bounds;
+
+            if (null != m_inverse)
+            {
+                area = new BoundingPoints(bounds).transform(m_inverse).getBoundingBox();
+            }
+            m_layer.drawArea(context, bounds, m_index.getChildNodes(area));
+        }
+    }
+}
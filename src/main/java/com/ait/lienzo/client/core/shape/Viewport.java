@@ -54,6 +54,7 @@ import com.google.gwt.dom.client.Style.Display;
 import com.google.gwt.dom.client.Style.Position;
 import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.GwtEvent.Type;
 import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
@@ -625,6 +626,15 @@ public class Viewport extends ContainerNode<Scene, Viewport>
         return null;
     }
 
+    public final Shape<?> findShapeAtPoint(final int x, final int y, final Type<?> type)
+    {
+        if (isVisible())
+        {
+            return getScene().findShapeAtPoint(x, y, type);
+        }
+        return null;
+    }
+
     /**
      * Fires the given GWT event.
      */
@@ -39,6 +39,8 @@ public abstract class AbstractFactory<T extends IJSONSerializable<T>> implements
 
     private String                                 m_typeName;
 
+    private AttributeSheetValidator                m_validator;
+
     protected AbstractFactory(final String typeName)
     {
         m_typeName = typeName;
@@ -67,6 +69,8 @@ public abstract class AbstractFactory<T extends IJSONSerializable<T>> implements
 
         final String prop = attr.getProperty();
 
+        m_validator = null;
+
         if (false == m_attributeSheet.containsKey(prop))
         {
             m_attributeSheet.put(prop, attr);
@@ -105,6 +109,18 @@ public abstract class AbstractFactory<T extends IJSONSerializable<T>> implements
         return Collections.unmodifiableCollection(m_requiredsSheet.values());
     }
 
+    /**
+     * Returns the attribute sheet compiled for validation. It is built on first use and rebuilt if attributes are added.
+     */
+    public AttributeSheetValidator getAttributeSheetValidator()
+    {
+        if (null == m_validator)
+        {
+            m_validator = new AttributeSheetValidator(m_attributeSheet.values(), m_requiredsSheet.values());
+        }
+        return m_validator;
+    }
+
     @Override
     public AttributeType getAttributeType(final String type)
     {
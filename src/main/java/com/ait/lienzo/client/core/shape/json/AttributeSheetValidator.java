@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.client.core.shape.json;
+
+import java.util.Collection;
+
+import com.ait.lienzo.client.core.Attribute;
+import com.ait.lienzo.client.core.AttributeType;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
+import com.ait.tooling.nativetools.client.collection.NFastStringMap;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.json.client.JSONObject;
+
+/**
+ * The attribute sheet of an {@link AbstractFactory}, compiled once into a name to {@link AttributeType}
+ * table and an array of required attribute names, so that validating the "attributes" of a node does not
+ * copy key sets or walk the sheet. Reports the same errors, in the same order, as
+ * {@link JSONDeserializer#validateAttributes(JSONObject, IFactory, String, ValidationContext)}.
+ */
+public final class AttributeSheetValidator
+{
+    private final NFastStringMap<AttributeType> m_types = new NFastStringMap<>();
+
+    private final String[]                      m_requireds;
+
+    public AttributeSheetValidator(final Collection<Attribute> sheet, final Collection<Attribute> requireds)
+    {
+        for (final Attribute attr : sheet)
+        {
+            m_types.put(attr.getProperty(), attr.getType());
+        }
+        m_requireds = new String[requireds.size()];
+
+        int i = 0;
+
+        for (final Attribute attr : requireds)
+        {
+            m_requireds[i++] = attr.getProperty();
+        }
+    }
+
+    public final void validate(final JSONObject aobj, final String type, final ValidationContext ctx) throws ValidationException
+    {
+        final JavaScriptObject ajso = aobj.getJavaScriptObject();
+
+        // Make sure all required attributes are defined (and not null)
+
+        for (final String name : m_requireds)
+        {
+            if (false == isDefined(ajso, name))
+            {
+                ctx.push(name);
+
+                ctx.addRequiredError();
+
+                ctx.pop(); // name
+            }
+        }
+        // Now check the attribute values
+
+        final JsArrayString keys = getKeys(ajso);
+
+        final int size = keys.length();
+
+        for (int i = 0; i < size; i++)
+        {
+            final String name = keys.get(i);
+
+            ctx.push(name);
+
+            final AttributeType atyp = m_types.get(name);
+
+            if (null == atyp)
+            {
+                ctx.addInvalidAttributeError(type);
+            }
+            else
+            {
+                atyp.validate(aobj.get(name), ctx);
+            }
+            ctx.pop(); // name
+        }
+    }
+
+    /**
+     * Returns a signature of the attribute names and the JSON types of their values, for
+     * {@link ValidationContext#setValidateSchemaOnce(boolean)}.
+     */
+    public static final native String getSchema(JSONObject aobj)
+    /*-{
+		var jso = aobj.@com.google.gwt.json.client.JSONObject::getJavaScriptObject()();
+		var sig = "";
+		for (var name in jso) {
+			if (jso.hasOwnProperty(name)) {
+				var v = jso[name];
+				if (v === null) {
+					sig += name + ":n,";
+				} else if (Array.isArray(v)) {
+					sig += name + ":a,";
+				} else {
+					sig += name + ":" + (typeof v).charAt(0) + ",";
+				}
+			}
+		}
+		return sig;
+    }-*/;
+
+    private static final native boolean isDefined(JavaScriptObject jso, String name)
+    /*-{
+		return (jso.hasOwnProperty(name) && (jso[name] !== undefined) && (jso[name] !== null));
+    }-*/;
+
+    private static final native JsArrayString getKeys(JavaScriptObject jso)
+    /*-{
+		var keys = [];
+		for (var name in jso) {
+			if (jso.hasOwnProperty(name)) {
+				keys.push(name);
+			}
+		}
+		return keys;
+    }-*/;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.client.core.shape.json;
+
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+
+/**
+ * Receives progress and the result of an incremental {@link JSONStreamDeserializer}.
+ */
+public interface IJSONStreamHandler
+{
+    /**
+     * Called after each time slice.
+     *
+     * @param position number of characters of the JSON string consumed so far
+     * @param length total number of characters of the JSON string
+     * @param nodes number of nodes created so far
+     */
+    public void onProgress(int position, int length, int nodes);
+
+    /**
+     * Called once the whole string has been consumed, or deserialization stopped on an error.
+     *
+     * @param result the deserialized IJSONSerializable, or null, exactly as {@link JSONDeserializer#fromString(String, ValidationContext)}
+     * @param ctx ValidationContext
+     */
+    public void onComplete(IJSONSerializable<?> result, ValidationContext ctx);
+}
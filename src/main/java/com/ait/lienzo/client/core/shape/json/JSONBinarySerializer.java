@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.client.core.shape.json;
+
+import java.util.Collection;
+
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
+import com.ait.lienzo.shared.core.binary.BinaryDecoder;
+import com.ait.lienzo.shared.core.binary.BinaryEncoder;
+import com.ait.lienzo.shared.core.binary.BinaryFormat;
+import com.ait.lienzo.shared.core.binary.IBinaryValueModel;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONBoolean;
+import com.google.gwt.json.client.JSONNull;
+import com.google.gwt.json.client.JSONNumber;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+
+/**
+ * JSONBinarySerializer writes {@link IJSONSerializable} objects in the compact {@link BinaryFormat}
+ * and reads them back through the {@link JSONDeserializer}, so a binary round trip creates exactly
+ * the same nodes as a round trip through {@link IJSONSerializable#toJSONString()}.
+ */
+public final class JSONBinarySerializer
+{
+    private static final JSONBinarySerializer INSTANCE = new JSONBinarySerializer();
+
+    private static final JSONValueModel       MODEL    = new JSONValueModel();
+
+    public static final JSONBinarySerializer get()
+    {
+        return INSTANCE;
+    }
+
+    private JSONBinarySerializer()
+    {
+    }
+
+    public final byte[] toBinary(final IJSONSerializable<?> serial)
+    {
+        if (null == serial)
+        {
+            return null;
+        }
+        return toBinary(serial.toJSONObject());
+    }
+
+    public final byte[] toBinary(final JSONObject json)
+    {
+        if (null == json)
+        {
+            return null;
+        }
+        return new BinaryEncoder<JSONValue>(MODEL).encode(json);
+    }
+
+    /**
+     * Decodes the bytes into the JSONObject that was encoded, or null if they do not hold a JSONObject.
+     *
+     * @throws IllegalArgumentException if the bytes are not a supported binary document
+     */
+    public final JSONObject toJSONObject(final byte[] bytes)
+    {
+        final JSONValue value = new BinaryDecoder<JSONValue>(MODEL).decode(bytes);
+
+        if (null == value)
+        {
+            return null;
+        }
+        return value.isObject();
+    }
+
+    /**
+     * Same as {@link JSONDeserializer#fromString(String, boolean)}, for bytes written by {@link #toBinary(IJSONSerializable)}.
+     */
+    public final IJSONSerializable<?> fromBinary(final byte[] bytes, final boolean validate)
+    {
+        if (false == BinaryDecoder.isBinary(bytes))
+        {
+            return null;
+        }
+        final JSONObject json = toJSONObject(bytes);
+
+        if (null == json)
+        {
+            return null;
+        }
+        try
+        {
+            final ValidationContext ctx = new ValidationContext();
+
+            ctx.setValidate(validate);
+
+            ctx.setStopOnError(true); // bail if an error is encountered
+
+            return JSONDeserializer.get().fromJSON(json, ctx);
+        }
+        catch (final ValidationException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Same as {@link JSONDeserializer#fromString(String, ValidationContext)}, for bytes written by {@link #toBinary(IJSONSerializable)}.
+     */
+    public final IJSONSerializable<?> fromBinary(final byte[] bytes, final ValidationContext ctx)
+    {
+        try
+        {
+            ctx.push("fromBinary");
+
+            if (false == BinaryDecoder.isBinary(bytes))
+            {
+                ctx.addError("Not a Lienzo binary document");
+
+                return null;
+            }
+            final JSONObject json = toJSONObject(bytes);
+
+            if (null == json)
+            {
+                ctx.addError("Result is not a JSONObject");
+
+                return null;
+            }
+            return JSONDeserializer.get().fromJSON(json, ctx);
+        }
+        catch (final ValidationException e)
+        {
+            return null;
+        }
+    }
+
+    private static final class JSONValueModel implements IBinaryValueModel<JSONValue>
+    {
+        @Override
+        public int getKind(final JSONValue value)
+        {
+            if (null != value.isNumber())
+            {
+                return NUMBER;
+            }
+            if (null != value.isString())
+            {
+                return STRING;
+            }
+            if (null != value.isObject())
+            {
+                return OBJECT;
+            }
+            if (null != value.isArray())
+            {
+                return ARRAY;
+            }
+            if (null != value.isBoolean())
+            {
+                return BOOLEAN;
+            }
+            return NULL;
+        }
+
+        @Override
+        public boolean getBoolean(final JSONValue value)
+        {
+            return value.isBoolean().booleanValue();
+        }
+
+        @Override
+        public double getNumber(final JSONValue value)
+        {
+            return value.isNumber().doubleValue();
+        }
+
+        @Override
+        public String getString(final JSONValue value)
+        {
+            return value.isString().stringValue();
+        }
+
+        @Override
+        public int getSize(final JSONValue array)
+        {
+            return array.isArray().size();
+        }
+
+        @Override
+        public JSONValue getAt(final JSONValue array, final int index)
+        {
+            return array.isArray().get(index);
+        }
+
+        @Override
+        public Collection<String> getKeys(final JSONValue object)
+        {
+            return object.isObject().keySet();
+        }
+
+        @Override
+        public JSONValue getValue(final JSONValue object, final String key)
+        {
+            return object.isObject().get(key);
+        }
+
+        @Override
+        public JSONValue makeNull()
+        {
+            return JSONNull.getInstance();
+        }
+
+        @Override
+        public JSONValue makeBoolean(final boolean value)
+        {
+            return JSONBoolean.getInstance(value);
+        }
+
+        @Override
+        public JSONValue makeNumber(final double value)
+        {
+            return new JSONNumber(value);
+        }
+
+        @Override
+        public JSONValue makeString(final String value)
+        {
+            return new JSONString(value);
+        }
+
+        @Override
+        public JSONValue makeArray(final int size)
+        {
+            return new JSONArray();
+        }
+
+        @Override
+        public void setAt(final JSONValue array, final int index, final JSONValue value)
+        {
+            array.isArray().set(index, value);
+        }
+
+        @Override
+        public JSONValue makeObject()
+        {
+            return new JSONObject();
+        }
+
+        @Override
+        public void setValue(final JSONValue object, final String key, final JSONValue value)
+        {
+            object.isObject().put(key, value);
+        }
+    }
+}
@@ -183,6 +183,20 @@ public final class JSONDeserializer
         }
     }
 
+    /**
+     * Deserializes the JSON string incrementally, in time slices, so that large documents do not block the browser.
+     * The result passed to the handler is the same as {@link #fromString(String, ValidationContext)} would return.
+     *
+     * @param string JSON string as produced by {@link IJSONSerializable#toJSONString()}
+     * @param ctx ValidationContext
+     * @param handler IJSONStreamHandler
+     * @return JSONStreamDeserializer, which can be used to cancel
+     */
+    public final JSONStreamDeserializer fromStringIncremental(final String string, final ValidationContext ctx, final IJSONStreamHandler handler)
+    {
+        return new JSONStreamDeserializer(string, ctx).start(handler);
+    }
+
     /**
      * Creates a IJSONSerializable from the JSONObject, using the ValidationContext.
      * <p>
@@ -200,8 +214,26 @@ public final class JSONDeserializer
         {
             return null;
         }
-        String type = null;
+        final IFactory<?> factory = getFactory(json, ctx);
 
+        if (null == factory)
+        {
+            return null;
+        }
+        final IJSONSerializable<?> node = create(json, factory, ctx);
+
+        if ((null != node) && (factory.isPostProcessed()))
+        {
+            factory.process(node, ctx);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the {@link IFactory} registered for the "type" of the JSONObject, or null after adding the error to the ValidationContext.
+     */
+    final IFactory<?> getFactory(final JSONObject json, final ValidationContext ctx) throws ValidationException
+    {
         IFactory<?> factory = null;
 
         final JSONValue tval = json.get("type");
@@ -222,7 +254,7 @@ public final class JSONDeserializer
             }
             else
             {
-                type = styp.stringValue();
+                final String type = styp.stringValue();
 
                 factory = LienzoCore.get().getFactory(type);
 
@@ -234,33 +266,21 @@ public final class JSONDeserializer
         }
         ctx.pop(); // type
 
-        if (null == factory)
-        {
-            return null;
-        }
-        else
-        {
-            if (ctx.isValidate())
-            {
-                // we don't need to validate during a copy operation!
+        return factory;
+    }
 
-                validateAttributes(json, factory, type, ctx);
-            }
-            if (factory.isPostProcessed())
-            {
-                final IJSONSerializable<?> node = factory.create(json, ctx);
+    /**
+     * Validates the attributes of the JSONObject, if required, and creates the node, without post processing it.
+     */
+    final IJSONSerializable<?> create(final JSONObject json, final IFactory<?> factory, final ValidationContext ctx) throws ValidationException
+    {
+        if (ctx.isValidate())
+        {
+            // we don't need to validate during a copy operation!
 
-                if (null != node)
-                {
-                    factory.process(node, ctx);
-                }
-                return node;
-            }
-            else
-            {
-                return factory.create(json, ctx);
-            }
+            validateAttributes(json, factory, json.get("type").isString().stringValue(), ctx);
         }
+        return factory.create(json, ctx);
     }
 
     protected final void validateAttributes(final JSONObject json, final IFactory<?> factory, final String type, final ValidationContext ctx) throws ValidationException
@@ -279,8 +299,29 @@ public final class JSONDeserializer
         {
             ctx.addBadTypeError("Object");
 
+            ctx.pop(); // attributes
+
             return;
         }
+        String schema = null;
+
+        if (ctx.isValidateSchemaOnce())
+        {
+            schema = type + "{" + AttributeSheetValidator.getSchema(aobj);
+
+            if (ctx.isValidatedSchema(schema))
+            {
+                ctx.pop(); // attributes
+
+                return;
+            }
+        }
+        final int errors = ctx.getErrorCount();
+
+        if (factory instanceof AbstractFactory)
+        {
+            ((AbstractFactory<?>) factory).getAttributeSheetValidator().validate(aobj, type, ctx);
+        }
         else
         {
             // Make sure all required attributes are defined (and not null)
@@ -327,6 +368,10 @@ public final class JSONDeserializer
                 ctx.pop(); // attrName
             }
         }
+        if ((null != schema) && (errors == ctx.getErrorCount()))
+        {
+            ctx.addValidatedSchema(schema);
+        }
         ctx.pop(); // attributes
     }
 
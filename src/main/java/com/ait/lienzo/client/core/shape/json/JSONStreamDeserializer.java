@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.client.core.shape.json;
+
+import java.util.ArrayList;
+
+import com.ait.lienzo.client.core.shape.IContainer;
+import com.ait.lienzo.client.core.shape.Node;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.RepeatingCommand;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+
+/**
+ * JSONStreamDeserializer builds the same {@link IJSONSerializable} as {@link JSONDeserializer#fromString(String, ValidationContext)},
+ * but reads the JSON string incrementally instead of parsing it into one JSONObject tree first.
+ * <p>
+ * Each object is split into its "children" array, which is read one child at a time, and everything else,
+ * which is parsed into a small JSONObject and handed to the node's {@link IFactory}. Only the objects on the
+ * current path from the root are held, so memory use is bounded by the depth of the scene, not its size.
+ * Containers are created before their children and children are added to their container once they are complete,
+ * the same order as {@link JSONDeserializer#deserializeChildren(IContainer, JSONObject, IContainerFactory, ValidationContext)}.
+ * <p>
+ * Work is done in small steps, so it can be spread over several browser tasks with {@link #start(IJSONStreamHandler)},
+ * or run to completion with {@link #run()}. The JSON text itself is walked by a {@link JSONStreamReader}.
+ * Malformed JSON is reported as an error in the ValidationContext, and a null result, however the steps are driven.
+ */
+public final class JSONStreamDeserializer implements JSONStreamReader.IObjectVisitor
+{
+    public static final int          DEFAULT_SLICE_MILLIS = 8;
+
+    private final ValidationContext  m_ctx;
+
+    private final JSONStreamReader   m_reader;
+
+    private final ArrayList<Frame>   m_stack              = new ArrayList<>();
+
+    private final JSONDeserializer   m_deserializer       = JSONDeserializer.get();
+
+    private IJSONSerializable<?>     m_result;
+
+    private int                      m_nodes;
+
+    public JSONStreamDeserializer(final String json, final ValidationContext ctx)
+    {
+        m_ctx = ctx;
+
+        m_reader = new JSONStreamReader(json, this);
+    }
+
+    public final ValidationContext getValidationContext()
+    {
+        return m_ctx;
+    }
+
+    /**
+     * Returns the deserialized IJSONSerializable once {@link #isDone()}, otherwise null.
+     */
+    public final IJSONSerializable<?> getResult()
+    {
+        return m_result;
+    }
+
+    public final int getLength()
+    {
+        return m_reader.getLength();
+    }
+
+    /**
+     * Returns how many characters of the JSON string have been turned into nodes so far.
+     */
+    public final int getPosition()
+    {
+        return m_reader.getPosition();
+    }
+
+    public final int getNodeCount()
+    {
+        return m_nodes;
+    }
+
+    public final boolean isDone()
+    {
+        return m_reader.isDone();
+    }
+
+    public final boolean isCancelled()
+    {
+        return m_reader.isCancelled();
+    }
+
+    public final boolean isRunning()
+    {
+        return m_reader.isRunning();
+    }
+
+    public final void cancel()
+    {
+        m_reader.cancel();
+    }
+
+    /**
+     * Performs at most <code>steps</code> steps. A step reads one object, or skips over a chunk of a "children" array.
+     *
+     * @param steps
+     * @return true if there is work left to do
+     */
+    public final boolean step(final int steps)
+    {
+        return m_reader.step(steps);
+    }
+
+    /**
+     * Performs steps until the time budget is used up. At least one step is always performed.
+     *
+     * @param millis time budget in milliseconds
+     * @return true if there is work left to do
+     */
+    public final boolean stepFor(final long millis)
+    {
+        return m_reader.stepFor(millis);
+    }
+
+    /**
+     * Performs all remaining steps and returns the result.
+     */
+    public final IJSONSerializable<?> run()
+    {
+        m_reader.run();
+
+        return m_result;
+    }
+
+    /**
+     * Same as {@link #start(IJSONStreamHandler, int)} with a time slice of {@link #DEFAULT_SLICE_MILLIS}.
+     */
+    public final JSONStreamDeserializer start(final IJSONStreamHandler handler)
+    {
+        return start(handler, DEFAULT_SLICE_MILLIS);
+    }
+
+    /**
+     * Deserializes in time slices of <code>millis</code> milliseconds, yielding to the browser between them.
+     *
+     * @param handler receives progress after every slice, and the result
+     * @param millis
+     * @return this JSONStreamDeserializer, which can be used to cancel
+     */
+    public final JSONStreamDeserializer start(final IJSONStreamHandler handler, final int millis)
+    {
+        Scheduler.get().scheduleFixedDelay(new RepeatingCommand()
+        {
+            @Override
+            public boolean execute()
+            {
+                if (isCancelled())
+                {
+                    return false;
+                }
+                stepFor(millis);
+
+                if (null != handler)
+                {
+                    handler.onProgress(getPosition(), getLength(), getNodeCount());
+
+                    if (isDone())
+                    {
+                        handler.onComplete(m_result, m_ctx);
+                    }
+                }
+                return isRunning();
+            }
+        }, 1);
+
+        return this;
+    }
+
+    @Override
+    public final void onBegin()
+    {
+        m_ctx.push("fromString");
+    }
+
+    @Override
+    public final void onStart()
+    {
+        m_stack.add(new Frame());
+    }
+
+    @Override
+    public final void onMember(final String key, final String json)
+    {
+        top().m_shell.put(key, JSONParser.parseStrict(json));
+    }
+
+    @Override
+    public final boolean onObject(final boolean children) throws ValidationException
+    {
+        final Frame frame = top();
+
+        final JSONObject shell = frame.m_shell;
+
+        frame.m_shell = null;
+
+        final IFactory<?> factory = m_deserializer.getFactory(shell, m_ctx);
+
+        if (null == factory)
+        {
+            return false;
+        }
+        if ((children) && (factory instanceof IContainerFactory))
+        {
+            final IJSONSerializable<?> node = m_deserializer.create(shell, factory, m_ctx);
+
+            if (null != node)
+            {
+                m_nodes++;
+            }
+            frame.m_node = node;
+
+            if (node instanceof IContainer)
+            {
+                frame.m_factory = factory;
+
+                m_ctx.push("children");
+
+                return true;
+            }
+            if ((null != node) && (factory.isPostProcessed()))
+            {
+                factory.process(node, m_ctx);
+            }
+            return false;
+        }
+        if (children)
+        {
+            shell.put("children", JSONParser.parseStrict(m_reader.getChildren()));
+        }
+        final IJSONSerializable<?> node = m_deserializer.create(shell, factory, m_ctx);
+
+        if (null != node)
+        {
+            m_nodes++;
+
+            if (factory.isPostProcessed())
+            {
+                factory.process(node, m_ctx);
+            }
+        }
+        frame.m_node = node;
+
+        return false;
+    }
+
+    @Override
+    public final void onIndex(final int index, final boolean object) throws ValidationException
+    {
+        m_ctx.pushIndex(index);
+
+        if (false == object)
+        {
+            m_ctx.addBadTypeError("Object");
+
+            m_ctx.pop(); // index
+        }
+    }
+
+    @Override
+    public final void onChildren() throws ValidationException
+    {
+        m_ctx.pop(); // children
+
+        final Frame frame = top();
+
+        if (frame.m_factory.isPostProcessed())
+        {
+            frame.m_factory.process(frame.m_node, m_ctx);
+        }
+    }
+
+    @Override
+    public final void onEnd() throws ValidationException
+    {
+        final IJSONSerializable<?> node = m_stack.remove(m_stack.size() - 1).m_node;
+
+        if (m_stack.isEmpty())
+        {
+            m_result = node;
+
+            return;
+        }
+        final Frame parent = top();
+
+        if (null != node)
+        {
+            if (node instanceof Node)
+            {
+                ((IContainerFactory) parent.m_factory).addNodeForContainer((IContainer<?, ?>) parent.m_node, (Node<?>) node, m_ctx);
+            }
+            else
+            {
+                m_ctx.addBadTypeError("Node");
+            }
+        }
+        m_ctx.pop(); // index
+    }
+
+    @Override
+    public final void onError(final String message)
+    {
+        m_stack.clear();
+
+        m_result = null;
+
+        try
+        {
+            m_ctx.addError(message);
+        }
+        catch (final ValidationException e)
+        {
+            // stop on error, the error has been recorded
+        }
+    }
+
+    private final Frame top()
+    {
+        return m_stack.get(m_stack.size() - 1);
+    }
+
+    private static final class Frame
+    {
+        private JSONObject           m_shell = new JSONObject();
+
+        private IFactory<?>          m_factory;
+
+        private IJSONSerializable<?> m_node;
+    }
+}
@@ -0,0 +1,696 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.client.core.shape.json;
+
+import java.util.ArrayList;
+
+import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
+import com.google.gwt.json.client.JSONException;
+
+/**
+ * JSONStreamReader walks a JSON object in small steps and hands it to an {@link IObjectVisitor}.
+ * <p>
+ * The members of every object are passed as raw JSON text, except for its first "children" array, which is held back
+ * until all other members have been read, wherever it appears in the object. The visitor then decides whether the
+ * children are read one object at a time, or fetched as raw JSON text with {@link #getChildren()}.
+ * <p>
+ * Malformed JSON, or a JSON string that is not an object, is reported to {@link IObjectVisitor#onError(String)} and ends
+ * the walk, whichever of {@link #step(int)}, {@link #stepFor(long)} or {@link #run()} is driving it.
+ */
+public final class JSONStreamReader
+{
+    public static final int        SKIP_CHUNK_SIZE = 64 * 1024;
+
+    private static final int       PHASE_KEYS      = 0;
+
+    private static final int       PHASE_SKIP      = 1;
+
+    private static final int       PHASE_CHILDREN  = 2;
+
+    private final String           m_json;
+
+    private final int              m_size;
+
+    private final IObjectVisitor   m_visitor;
+
+    private final ArrayList<Frame> m_stack         = new ArrayList<>();
+
+    private int                    m_position;
+
+    private boolean                m_started;
+
+    private boolean                m_failed;
+
+    private boolean                m_done;
+
+    private boolean                m_stop;
+
+    public JSONStreamReader(final String json, final IObjectVisitor visitor)
+    {
+        m_json = json;
+
+        m_size = (null == json) ? 0 : json.length();
+
+        m_visitor = visitor;
+    }
+
+    public final int getLength()
+    {
+        return m_size;
+    }
+
+    /**
+     * Returns how many characters of the JSON string have been read so far.
+     */
+    public final int getPosition()
+    {
+        return m_done ? m_size : m_position;
+    }
+
+    public final boolean isDone()
+    {
+        return m_done;
+    }
+
+    /**
+     * Returns true if the walk ended early, on malformed JSON or a ValidationException from the visitor.
+     */
+    public final boolean isFailed()
+    {
+        return m_failed;
+    }
+
+    public final boolean isCancelled()
+    {
+        return m_stop;
+    }
+
+    public final boolean isRunning()
+    {
+        return ((false == m_stop) && (false == m_done));
+    }
+
+    public final void cancel()
+    {
+        m_stop = true;
+    }
+
+    /**
+     * Returns the raw JSON text of the "children" array held back from the object being finished,
+     * or null if it has none. Only valid from {@link IObjectVisitor#onObject(boolean)}.
+     */
+    public final String getChildren()
+    {
+        if (m_stack.isEmpty())
+        {
+            return null;
+        }
+        final Frame frame = m_stack.get(m_stack.size() - 1);
+
+        if (frame.m_children < 0)
+        {
+            return null;
+        }
+        return m_json.substring(frame.m_children, value(frame.m_children));
+    }
+
+    /**
+     * Performs at most <code>steps</code> steps. A step reads one object, or skips over a chunk of a "children" array.
+     *
+     * @param steps
+     * @return true if there is work left to do
+     */
+    public final boolean step(final int steps)
+    {
+        for (int i = 0; ((i < steps) && isRunning()); i++)
+        {
+            next();
+        }
+        return isRunning();
+    }
+
+    /**
+     * Performs steps until the time budget is used up. At least one step is always performed.
+     *
+     * @param millis time budget in milliseconds
+     * @return true if there is work left to do
+     */
+    public final boolean stepFor(final long millis)
+    {
+        final long done = System.currentTimeMillis() + Math.max(0, millis);
+
+        while (isRunning())
+        {
+            next();
+
+            if (System.currentTimeMillis() >= done)
+            {
+                break;
+            }
+        }
+        return isRunning();
+    }
+
+    /**
+     * Performs all remaining steps.
+     */
+    public final void run()
+    {
+        while (isRunning())
+        {
+            next();
+        }
+    }
+
+    private final void next()
+    {
+        try
+        {
+            if (false == m_started)
+            {
+                m_started = true;
+
+                begin();
+
+                return;
+            }
+            final Frame frame = m_stack.get(m_stack.size() - 1);
+
+            if (PHASE_KEYS == frame.m_phase)
+            {
+                keys(frame);
+            }
+            else if (PHASE_SKIP == frame.m_phase)
+            {
+                skip(frame);
+            }
+            else
+            {
+                child(frame);
+            }
+            if (false == m_stack.isEmpty())
+            {
+                m_position = Math.max(m_position, m_stack.get(m_stack.size() - 1).m_pos);
+            }
+        }
+        catch (final JSONException e)
+        {
+            fail(e.getMessage());
+        }
+        catch (final ValidationException e)
+        {
+            fail(null);
+        }
+    }
+
+    private final void fail(final String message)
+    {
+        m_stack.clear();
+
+        m_failed = true;
+
+        m_done = true;
+
+        if (null != message)
+        {
+            m_visitor.onError(message);
+        }
+    }
+
+    private final void begin() throws ValidationException
+    {
+        m_visitor.onBegin();
+
+        final int pos = space(0);
+
+        if (pos >= m_size)
+        {
+            fail("NULL JSON String");
+
+            return;
+        }
+        if (m_json.charAt(pos) != '{')
+        {
+            fail("Result is not a JSONObject");
+
+            return;
+        }
+        m_stack.add(new Frame(pos + 1));
+
+        m_visitor.onStart();
+    }
+
+    private final void keys(final Frame frame) throws ValidationException
+    {
+        int pos = frame.m_pos;
+
+        while (true)
+        {
+            pos = space(pos);
+
+            char c = charAt(pos);
+
+            if (c == '}')
+            {
+                frame.m_pos = pos + 1;
+
+                break;
+            }
+            if (frame.m_keys > 0)
+            {
+                expect(c == ',', pos);
+
+                pos = space(pos + 1);
+
+                c = charAt(pos);
+            }
+            expect(c == '"', pos);
+
+            final int kend = string(pos);
+
+            final String key = key(pos, kend);
+
+            pos = space(kend);
+
+            expect(charAt(pos) == ':', pos);
+
+            pos = space(pos + 1);
+
+            frame.m_keys++;
+
+            if ((frame.m_children < 0) && (charAt(pos) == '[') && ("children".equals(key)))
+            {
+                frame.m_children = pos;
+
+                frame.m_phase = PHASE_SKIP;
+
+                frame.m_scan = new Scanner(pos);
+
+                frame.m_pos = pos;
+
+                return;
+            }
+            final int vend = value(pos);
+
+            m_visitor.onMember(key, m_json.substring(pos, vend));
+
+            pos = vend;
+        }
+        if ((m_visitor.onObject(frame.m_children >= 0)) && (frame.m_children >= 0))
+        {
+            frame.m_end = frame.m_pos;
+
+            frame.m_pos = frame.m_children + 1;
+
+            frame.m_phase = PHASE_CHILDREN;
+
+            return;
+        }
+        complete(frame);
+    }
+
+    private final void skip(final Frame frame)
+    {
+        if (scan(frame.m_scan, SKIP_CHUNK_SIZE))
+        {
+            frame.m_pos = frame.m_scan.m_pos;
+
+            frame.m_phase = PHASE_KEYS;
+
+            frame.m_scan = null;
+        }
+    }
+
+    private final void child(final Frame frame) throws ValidationException
+    {
+        int pos = space(frame.m_pos);
+
+        char c = charAt(pos);
+
+        if (c == ']')
+        {
+            m_visitor.onChildren();
+
+            frame.m_pos = frame.m_end;
+
+            complete(frame);
+
+            return;
+        }
+        if (frame.m_index > 0)
+        {
+            expect(c == ',', pos);
+
+            pos = space(pos + 1);
+
+            c = charAt(pos);
+        }
+        if (c == '{')
+        {
+            m_visitor.onIndex(frame.m_index++, true);
+
+            frame.m_pos = pos;
+
+            m_stack.add(new Frame(pos + 1));
+
+            m_visitor.onStart();
+        }
+        else
+        {
+            frame.m_pos = value(pos);
+
+            m_visitor.onIndex(frame.m_index++, false);
+        }
+    }
+
+    private final void complete(final Frame frame) throws ValidationException
+    {
+        m_stack.remove(m_stack.size() - 1);
+
+        if (m_stack.isEmpty())
+        {
+            expect(space(frame.m_pos) >= m_size, frame.m_pos);
+
+            m_done = true;
+
+            m_visitor.onEnd();
+
+            return;
+        }
+        m_stack.get(m_stack.size() - 1).m_pos = frame.m_pos;
+
+        m_visitor.onEnd();
+    }
+
+    private final String key(final int from, final int to)
+    {
+        final String key = m_json.substring(from + 1, to - 1);
+
+        if (key.indexOf('\\') < 0)
+        {
+            return key;
+        }
+        final StringBuilder builder = new StringBuilder(key.length());
+
+        for (int i = 0; i < key.length(); i++)
+        {
+            char c = key.charAt(i);
+
+            if (c == '\\')
+            {
+                c = key.charAt(++i);
+
+                switch (c)
+                {
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        expect(i + 4 < key.length(), from + i);
+
+                        try
+                        {
+                            c = (char) Integer.parseInt(key.substring(i + 1, i + 5), 16);
+                        }
+                        catch (final NumberFormatException e)
+                        {
+                            expect(false, from + i);
+                        }
+                        i += 4;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        break;
+                    default:
+                        expect(false, from + i);
+                }
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private final char charAt(final int pos)
+    {
+        if (pos >= m_size)
+        {
+            throw new JSONException("Unexpected end of JSON input at " + pos);
+        }
+        return m_json.charAt(pos);
+    }
+
+    private final void expect(final boolean test, final int pos)
+    {
+        if (false == test)
+        {
+            throw new JSONException("Unexpected character in JSON input at " + pos);
+        }
+    }
+
+    private final int space(int pos)
+    {
+        while (pos < m_size)
+        {
+            final char c = m_json.charAt(pos);
+
+            if ((c != ' ') && (c != '\n') && (c != '\r') && (c != '\t'))
+            {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the position just past the string literal starting at <code>pos</code>.
+     */
+    private final int string(int pos)
+    {
+        pos++;
+
+        while (true)
+        {
+            final char c = charAt(pos++);
+
+            if (c == '\\')
+            {
+                pos++;
+            }
+            else if (c == '"')
+            {
+                return pos;
+            }
+        }
+    }
+
+    /**
+     * Returns the position just past the value starting at <code>pos</code>.
+     */
+    private final int value(int pos)
+    {
+        final char c = charAt(pos);
+
+        if (c == '"')
+        {
+            return string(pos);
+        }
+        if ((c == '{') || (c == '['))
+        {
+            final Scanner scan = new Scanner(pos);
+
+            scan(scan, m_size);
+
+            return scan.m_pos;
+        }
+        while (pos < m_size)
+        {
+            final char l = m_json.charAt(pos);
+
+            if ((l == ',') || (l == '}') || (l == ']') || (l == ' ') || (l == '\n') || (l == '\r') || (l == '\t'))
+            {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Advances over at most <code>limit</code> characters of the object or array being scanned.
+     *
+     * @return true when the closing bracket has been passed
+     */
+    private final boolean scan(final Scanner scan, final int limit)
+    {
+        final int stop = Math.min(m_size, scan.m_pos + limit);
+
+        int pos = scan.m_pos;
+
+        int deep = scan.m_deep;
+
+        boolean text = scan.m_text;
+
+        while (pos < stop)
+        {
+            final char c = m_json.charAt(pos++);
+
+            if (text)
+            {
+                if (c == '\\')
+                {
+                    pos++;
+                }
+                else if (c == '"')
+                {
+                    text = false;
+                }
+            }
+            else if (c == '"')
+            {
+                text = true;
+            }
+            else if ((c == '{') || (c == '['))
+            {
+                deep++;
+            }
+            else if (((c == '}') || (c == ']')) && (--deep == 0))
+            {
+                scan.m_pos = pos;
+
+                return true;
+            }
+        }
+        charAt(pos);
+
+        scan.m_pos = pos;
+
+        scan.m_deep = deep;
+
+        scan.m_text = text;
+
+        return false;
+    }
+
+    /**
+     * Receives the objects of a {@link JSONStreamReader} as they are read. For every object the calls are
+     * {@link #onStart()}, {@link #onMember(String, String)} for each member, {@link #onObject(boolean)}, then,
+     * if the children are streamed, the children and {@link #onChildren()}, and finally {@link #onEnd()}.
+     * A ValidationException thrown from any method ends the walk.
+     */
+    public interface IObjectVisitor
+    {
+        /**
+         * Called once, before anything is read.
+         */
+        void onBegin() throws ValidationException;
+
+        /**
+         * Called when an object is entered.
+         */
+        void onStart() throws ValidationException;
+
+        /**
+         * Called for every member of the current object, except the held back "children" array.
+         *
+         * @param key the unescaped member name
+         * @param json the raw JSON text of the value
+         */
+        void onMember(String key, String json) throws ValidationException;
+
+        /**
+         * Called when all members of the current object have been read.
+         *
+         * @param children true if the object has a "children" array
+         * @return true to stream the children, false to skip them, or to read them with {@link JSONStreamReader#getChildren()}
+         */
+        boolean onObject(boolean children) throws ValidationException;
+
+        /**
+         * Called before each element of a streamed "children" array.
+         *
+         * @param index the index of the element
+         * @param object true if the element is an object, which is read next; false if it was skipped
+         */
+        void onIndex(int index, boolean object) throws ValidationException;
+
+        /**
+         * Called after the last streamed child of the current object.
+         */
+        void onChildren() throws ValidationException;
+
+        /**
+         * Called when the current object is complete.
+         */
+        void onEnd() throws ValidationException;
+
+        /**
+         * Called once if the JSON string is malformed, or is not an object.
+         */
+        void onError(String message);
+    }
+
+    private static final class Scanner
+    {
+        private int     m_pos;
+
+        private int     m_deep;
+
+        private boolean m_text;
+
+        private Scanner(final int pos)
+        {
+            m_pos = pos;
+        }
+    }
+
+    private static final class Frame
+    {
+        private int     m_phase    = PHASE_KEYS;
+
+        private int     m_children = -1;
+
+        private int     m_pos;
+
+        private int     m_end;
+
+        private int     m_keys;
+
+        private int     m_index;
+
+        private Scanner m_scan;
+
+        private Frame(final int pos)
+        {
+            m_pos = pos;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.ait.lienzo.client.core.shape.json.validators;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import com.ait.lienzo.client.core.i18n.MessageConstants;
@@ -39,7 +40,9 @@ public class ValidationContext
 
     private boolean                     m_validate = true;
 
-    private final List<String>          m_stack    = new ArrayList<>();
+    private HashSet<String>             m_schemas;
+
+    private final List<Object>          m_stack    = new ArrayList<>();
 
     private final List<ValidationError> m_errors   = new ArrayList<>();
 
@@ -55,7 +58,7 @@ public class ValidationContext
      */
     public void push(final String context)
     {
-        m_stack.add("." + context);
+        m_stack.add(context);
     }
 
     /**
@@ -70,7 +73,7 @@ public class ValidationContext
      */
     public void pushIndex(final int index)
     {
-        m_stack.add("[" + index + "]");
+        m_stack.add(Integer.valueOf(index));
     }
 
     /**
@@ -261,6 +264,56 @@ public class ValidationContext
         return this;
     }
 
+    /**
+     * Returns whether attribute validation is done once per structure. See {@link #setValidateSchemaOnce(boolean)}.
+     *
+     * @return boolean
+     */
+    public boolean isValidateSchemaOnce()
+    {
+        return (null != m_schemas);
+    }
+
+    /**
+     * Sets whether the attributes of a node are validated only once per structure, that is per node type,
+     * attribute names and JSON types of the attribute values. Later nodes with the same structure skip
+     * attribute validation, so invalid values in them (e.g. a bad color string) are not reported.
+     * This is meant for large documents that are known to have been written by Lienzo.
+     *
+     * @param once
+     * @return this ValidationContext
+     */
+    public ValidationContext setValidateSchemaOnce(final boolean once)
+    {
+        m_schemas = once ? new HashSet<String>() : null;
+
+        return this;
+    }
+
+    /**
+     * Returns whether a structure has already been validated without errors.
+     *
+     * @param schema signature of the structure
+     * @return boolean
+     */
+    public boolean isValidatedSchema(final String schema)
+    {
+        return ((null != m_schemas) && (m_schemas.contains(schema)));
+    }
+
+    /**
+     * Records that a structure has been validated without errors.
+     *
+     * @param schema signature of the structure
+     */
+    public void addValidatedSchema(final String schema)
+    {
+        if (null != m_schemas)
+        {
+            m_schemas.add(schema);
+        }
+    }
+
     /**
      * Returns the number of errors that were encountered.
      *
@@ -307,13 +360,22 @@ public class ValidationContext
         return b.toString();
     }
 
-    private static String joinContext(final List<String> stack)
+    // the context path is only built when an error is added
+
+    private static String joinContext(final List<Object> stack)
     {
         final StringBuilder b = new StringBuilder();
 
-        for (final String s : stack)
+        for (final Object s : stack)
         {
-            b.append(s);
+            if (s instanceof Integer)
+            {
+                b.append("[").append(s).append("]");
+            }
+            else
+            {
+                b.append(".").append(s);
+            }
         }
         return b.toString();
     }
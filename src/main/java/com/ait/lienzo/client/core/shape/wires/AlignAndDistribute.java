@@ -16,9 +16,13 @@
 
 package com.ait.lienzo.client.core.shape.wires;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.ait.lienzo.client.core.shape.Attributes;
 import com.ait.lienzo.client.core.shape.IDrawable;
@@ -46,7 +50,11 @@ import com.ait.lienzo.client.core.types.Point2DArray;
  * It's possible to control the style of the guideline when drawn. By using the style setter methods of this class.
  *
  * The circa property controls the number of pixes to search from the current position. For instance a circle of 4, will search 4 pixels
- * above and 4 pixels below the current y position, as well as 4 pixels to the left and 4 pixels to the right. As soon as the first index has a match, the search stops and snapping is done to that offset.
+ * above and 4 pixels below the current y position, as well as 4 pixels to the left and 4 pixels to the right. The nearest offset with a match in any index wins, and snapping is done to that offset.
+ * Each index is a sorted array of positions, so this is a range query rather than a probe per pixel.
+ *
+ * Distribution candidates are computed on demand, only between pairs of shapes in the same row (or column) as the dragged shape,
+ * and cached until it leaves that row or another shape changes.
  *
  * The implementation is fairly generic and uses shape.getBoundingPoints().getBoundingBox() to do it's work.
  * The reason for getBoundPoints, is that the x/y of a Circle is at the center, where as other shapes are top left - getBoundingPoints normalises this to top left.
@@ -58,67 +66,62 @@ import com.ait.lienzo.client.core.types.Point2DArray;
  */
 public class AlignAndDistribute
 {
-    private final Map<Double, LinkedList<AlignAndDistributeControl>> m_leftIndex;
-
-    private final Map<Double, LinkedList<AlignAndDistributeControl>> m_hCenterIndex;
-
-    private final Map<Double, LinkedList<AlignAndDistributeControl>> m_rightIndex;
+    private final AlignAndDistributeIndex<AlignAndDistributeControl> m_leftIndex;
 
-    private final Map<Double, LinkedList<AlignAndDistributeControl>> m_topIndex;
+    private final AlignAndDistributeIndex<AlignAndDistributeControl> m_hCenterIndex;
 
-    private final Map<Double, LinkedList<AlignAndDistributeControl>> m_vCenterIndex;
+    private final AlignAndDistributeIndex<AlignAndDistributeControl> m_rightIndex;
 
-    private final Map<Double, LinkedList<AlignAndDistributeControl>> m_bottomIndex;
+    private final AlignAndDistributeIndex<AlignAndDistributeControl> m_topIndex;
 
-    private final Map<Double, LinkedList<DistributionEntry>>         m_leftDistIndex;
+    private final AlignAndDistributeIndex<AlignAndDistributeControl> m_vCenterIndex;
 
-    private final Map<Double, LinkedList<DistributionEntry>>         m_hCenterDistIndex;
+    private final AlignAndDistributeIndex<AlignAndDistributeControl> m_bottomIndex;
 
-    private final Map<Double, LinkedList<DistributionEntry>>         m_rightDistIndex;
+    private final DistributionIndex                                  m_hDistIndex;
 
-    private final Map<Double, LinkedList<DistributionEntry>>         m_topDistIndex;
-
-    private final Map<Double, LinkedList<DistributionEntry>>         m_vCenterDistIndex;
-
-    private final Map<Double, LinkedList<DistributionEntry>>         m_bottomDistIndex;
+    private final DistributionIndex                                  m_vDistIndex;
 
     private final DefaultAlignAndDistributeMatchesCallback           m_alignmentCallback;
 
     private final Map<String, AlignAndDistributeControl>             m_shapes         = new HashMap<>();
 
+    private final DeferredRefresh<AlignAndDistributeControl>         m_deferred       = new DeferredRefresh<AlignAndDistributeControl>()
+    {
+        @Override
+        protected void refresh(final AlignAndDistributeControl control)
+        {
+            control.refresh();
+        }
+    };
+
     private int                                                      m_circa          = 4;
 
+    private int                                                      m_distStamp;
+
     protected boolean                                                m_snap           = true;
 
     protected boolean                                                m_drawGuideLines = true;
 
     public AlignAndDistribute(final Layer layer)
     {
-        m_leftIndex = new HashMap<>();
+        m_leftIndex = new AlignAndDistributeIndex<>();
 
-        m_hCenterIndex = new HashMap<>();
+        m_hCenterIndex = new AlignAndDistributeIndex<>();
 
-        m_rightIndex = new HashMap<>();
+        m_rightIndex = new AlignAndDistributeIndex<>();
 
-        m_topIndex = new HashMap<>();
+        m_topIndex = new AlignAndDistributeIndex<>();
 
-        m_vCenterIndex = new HashMap<>();
+        m_vCenterIndex = new AlignAndDistributeIndex<>();
 
-        m_bottomIndex = new HashMap<>();
+        m_bottomIndex = new AlignAndDistributeIndex<>();
 
         m_alignmentCallback = new DefaultAlignAndDistributeMatchesCallback(layer);
 
-        m_leftDistIndex = new HashMap<>();
-
-        m_hCenterDistIndex = new HashMap<>();
+        m_hDistIndex = new DistributionIndex(false);
 
-        m_rightDistIndex = new HashMap<>();
-
-        m_topDistIndex = new HashMap<>();
-
-        m_vCenterDistIndex = new HashMap<>();
-
-        m_bottomDistIndex = new HashMap<>();
+        m_vDistIndex = new DistributionIndex(true);
     }
 
     public static BoundingBox getBoundingBox(final IDrawable<?> prim)
@@ -226,6 +229,30 @@ public class AlignAndDistribute
         }
     }
 
+    /**
+     * Until {@link #endDeferRefresh()}, the attribute changes of the shapes do not update their index entries. Each shape changed meanwhile
+     * is refreshed once at the end, so a shape whose X and Y are both set is not indexed twice.
+     */
+    public void beginDeferRefresh()
+    {
+        m_deferred.begin();
+    }
+
+    public void endDeferRefresh()
+    {
+        m_deferred.end();
+    }
+
+    /**
+     * Called by the controls when the attributes of their shape change.
+     *
+     * @return true if the refresh is deferred until {@link #endDeferRefresh()}
+     */
+    public boolean deferRefresh(final AlignAndDistributeControl control)
+    {
+        return m_deferred.defer(control);
+    }
+
     public boolean isShapeIndexed(final String uuid)
     {
         return m_shapes.containsKey(uuid);
@@ -236,145 +263,125 @@ public class AlignAndDistribute
         return m_shapes.get(uuid);
     }
 
-    public void addAlignIndexEntry(final Map<Double, LinkedList<AlignAndDistributeControl>> index, final AlignAndDistributeControl handler, final double pos)
+    public void addAlignIndexEntry(final AlignAndDistributeIndex<AlignAndDistributeControl> index, final AlignAndDistributeControl handler, final double pos)
     {
-        final double rounded = round(pos);
-
-        LinkedList<AlignAndDistributeControl> bucket = index.get(rounded);
-
-        if (bucket == null)
-        {
-            bucket = new LinkedList<>();
-
-            index.put(rounded, bucket);
-        }
-        bucket.add(handler);
+        index.add(round(pos), handler);
     }
 
-    public void removeAlignIndexEntry(final Map<Double, LinkedList<AlignAndDistributeControl>> index, final AlignAndDistributeControl handler, final double pos)
+    public void removeAlignIndexEntry(final AlignAndDistributeIndex<AlignAndDistributeControl> index, final AlignAndDistributeControl handler, final double pos)
     {
-        final double rounded = round(pos);
-
-        final LinkedList<AlignAndDistributeControl> bucket = index.get(rounded);
-
-        bucket.remove(handler);
-
-        if (bucket.isEmpty())
-        {
-            index.remove(rounded);
-        }
+        index.remove(round(pos), handler);
     }
 
-    public void addDistIndexEntry(final Map<Double, LinkedList<DistributionEntry>> index, final DistributionEntry dist)
+    /**
+     * Distribution candidates are not indexed eagerly, they are computed on demand in {@link #findNearestMatches}
+     * for the shapes near the one being dragged. Changing a shape only invalidates the cached candidates.
+     */
+    public void invalidateDistribution()
     {
-        LinkedList<DistributionEntry> bucket = index.get(dist.getPoint());
-
-        if (bucket == null)
-        {
-            bucket = new LinkedList<>();
-
-            index.put(dist.getPoint(), bucket);
-        }
-        bucket.add(dist);
+        m_distStamp++;
     }
 
-    public void removeDistIndexEntry(final Map<Double, LinkedList<DistributionEntry>> index, final DistributionEntry dist)
+    /**
+     * @deprecated distribution candidates are computed on demand, use {@link #invalidateDistribution()}
+     */
+    @Deprecated
+    public void removeDistIndex(final AlignAndDistributeControl handler)
     {
-        final LinkedList<DistributionEntry> bucket = index.get(dist.getPoint());
+        invalidateDistribution();
+    }
 
-        bucket.remove(dist);
+    /**
+     * @deprecated distribution candidates are computed on demand, use {@link #invalidateDistribution()}
+     */
+    @Deprecated
+    public void removeHorizontalDistIndex(final AlignAndDistributeControl handler)
+    {
+        invalidateDistribution();
+    }
 
-        if (bucket.isEmpty())
-        {
-            index.remove(dist.getPoint());
-        }
+    /**
+     * @deprecated distribution candidates are computed on demand, use {@link #invalidateDistribution()}
+     */
+    @Deprecated
+    public void removeVerticalDistIndex(final AlignAndDistributeControl handler)
+    {
+        invalidateDistribution();
     }
 
-    public void removeDistIndex(final AlignAndDistributeControl handler)
+    /**
+     * @deprecated distribution candidates are computed on demand, use {@link #invalidateDistribution()}
+     */
+    @Deprecated
+    public void buildDistIndex(final AlignAndDistributeControl handler)
     {
-        removeHorizontalDistIndex(handler);
+        invalidateDistribution();
+    }
 
-        removeVerticalDistIndex(handler);
+    /**
+     * @deprecated distribution candidates are computed on demand, use {@link #invalidateDistribution()}
+     */
+    @Deprecated
+    public void buildHorizontalDistIndex(final AlignAndDistributeControl handler)
+    {
+        invalidateDistribution();
     }
 
-    public void removeHorizontalDistIndex(final AlignAndDistributeControl handler)
+    /**
+     * @deprecated distribution candidates are computed on demand, use {@link #invalidateDistribution()}
+     */
+    @Deprecated
+    public void buildVerticalDistIndex(final AlignAndDistributeControl handler)
     {
-        for (final DistributionEntry dist : handler.getHorizontalDistributionEntries())
-        {
-            final AlignAndDistributeControl h1 = dist.getShape1();
+        invalidateDistribution();
+    }
 
-            final AlignAndDistributeControl h2 = dist.getShape2();
+    /**
+     * Returns the cached horizontal distribution candidates that the shape is one of the pair of, or an empty set
+     * if they are not computed, or no longer valid.
+     */
+    public Set<DistributionEntry> getHorizontalDistributionEntries(final AlignAndDistributeControl handler)
+    {
+        return m_hDistIndex.getEntries(handler, m_distStamp);
+    }
 
-            // make sure we don't remove from handler, or it will remove from the collection currently being iterated.
-            if (handler == h1)
-            {
-                h2.getHorizontalDistributionEntries().remove(dist);
-            }
-            else
-            {
-                h1.getHorizontalDistributionEntries().remove(dist);
-            }
-            switch (dist.getDistributionType())
-            {
-                case DistributionEntry.LEFT_DIST:
-                    removeDistIndexEntry(m_leftDistIndex, dist);
-                    break;
-                case DistributionEntry.H_CENTER_DIST:
-                    removeDistIndexEntry(m_hCenterDistIndex, dist);
-                    break;
-                case DistributionEntry.RIGHT_DIST:
-                    removeDistIndexEntry(m_rightDistIndex, dist);
-                    break;
-            }
-        }
-        handler.getHorizontalDistributionEntries().clear();
+    /**
+     * Returns the cached vertical distribution candidates that the shape is one of the pair of, or an empty set
+     * if they are not computed, or no longer valid.
+     */
+    public Set<DistributionEntry> getVerticalDistributionEntries(final AlignAndDistributeControl handler)
+    {
+        return m_vDistIndex.getEntries(handler, m_distStamp);
     }
 
-    public void removeVerticalDistIndex(final AlignAndDistributeControl handler)
+    private boolean skipShape(final AlignAndDistributeControl handler, final AlignAndDistributeControl otherH)
     {
-        for (final DistributionEntry dist : handler.getVerticalDistributionEntries())
+        if ((otherH == handler) || !otherH.isIndexed())
         {
-            final AlignAndDistributeControl h1 = dist.getShape1();
-
-            final AlignAndDistributeControl h2 = dist.getShape2();
-
-            // make sure we don't remove from handler, or it will remove from the collection currently being iterated.
-            if (handler == h1)
-            {
-                h2.getVerticalDistributionEntries().remove(dist);
-            }
-            else
-            {
-                h1.getVerticalDistributionEntries().remove(dist);
-            }
-            switch (dist.getDistributionType())
-            {
-                case DistributionEntry.TOP_DIST:
-                    removeDistIndexEntry(m_topDistIndex, dist);
-                    break;
-                case DistributionEntry.V_CENTER_DIST:
-                    removeDistIndexEntry(m_vCenterDistIndex, dist);
-                    break;
-                case DistributionEntry.BOTTOM_DIST:
-                    removeDistIndexEntry(m_bottomDistIndex, dist);
-                    break;
-            }
+            // don't index against yourself or shapes not indexed
+            return true;
         }
-        handler.getVerticalDistributionEntries().clear();
+        return false;
     }
 
-    public void buildDistIndex(final AlignAndDistributeControl handler)
+    /**
+     * Returns the distribution candidates for a shape, between pairs of shapes that overlap it on the other axis - the
+     * shapes in the same row for horizontal distribution, or the same column for vertical distribution. They are kept
+     * until the shape crosses into a different row or column, or any indexed shape changes.
+     */
+    private DistributionIndex getDistributionIndex(final DistributionIndex dist, final AlignAndDistributeControl handler, final double low, final double high)
     {
-        buildHorizontalDistIndex(handler);
+        final double rlow = round(low);
 
-        buildVerticalDistIndex(handler);
-    }
+        final double rhigh = round(high);
 
-    public void buildHorizontalDistIndex(final AlignAndDistributeControl handler)
-    {
-        final double left = round(handler.getLeft());
+        if (dist.isValid(handler, rlow, rhigh, m_distStamp))
+        {
+            return dist;
+        }
+        dist.clear(handler, rlow, rhigh, m_distStamp);
 
-        final double right = round(handler.getRight());
+        final List<AlignAndDistributeControl> near = new ArrayList<>();
 
         for (final AlignAndDistributeControl otherH : m_shapes.values())
         {
@@ -382,131 +389,149 @@ public class AlignAndDistribute
             {
                 continue;
             }
-            final double otherLeft = round(otherH.getLeft());
-
-            final double otherRight = round(otherH.getRight());
+            if ((round(dist.getLow(otherH)) <= rhigh) && (round(dist.getHigh(otherH)) >= rlow))
+            {
+                near.add(otherH);
+            }
+        }
+        final int size = near.size();
 
-            DistributionEntry leftDist = null;
+        for (int i = 0; i < size; i++)
+        {
+            final AlignAndDistributeControl h1 = near.get(i);
 
-            DistributionEntry hCenterDist = null;
+            final double min1 = round(dist.getMin(h1));
 
-            DistributionEntry rightDist = null;
+            final double max1 = round(dist.getMax(h1));
 
-            if (otherRight < left)
+            for (int j = 0; j < size; j++)
             {
-                final double dx = left - otherRight;
+                final AlignAndDistributeControl h2 = near.get(j);
 
-                final double leftPoint = otherLeft - dx;
+                final double min2 = round(dist.getMin(h2));
 
-                final double rightPoint = right + dx;
+                // h1 is before h2, with a gap between them
+                if (max1 < min2)
+                {
+                    final double max2 = round(dist.getMax(h2));
 
-                final double centerPoint = round(otherRight + ((left - otherRight) / 2));
+                    final double dx = min2 - max1;
 
-                leftDist = new DistributionEntry(otherH, handler, leftPoint, DistributionEntry.LEFT_DIST);
+                    dist.add(new DistributionEntry(h1, h2, min1 - dx, dist.getType(0)), new DistributionEntry(h1, h2, round(max1 + (dx / 2)), dist.getType(1)), new DistributionEntry(h1, h2, max2 + dx, dist.getType(2)));
+                }
+            }
+        }
+        return dist;
+    }
 
-                hCenterDist = new DistributionEntry(otherH, handler, centerPoint, DistributionEntry.H_CENTER_DIST);
+    /**
+     * The distribution candidates along one axis: positions a dragged shape's trailing edge, center or leading edge
+     * can snap to, so it is evenly spaced with a pair of other shapes.
+     */
+    private static final class DistributionIndex
+    {
+        private final boolean                                    m_vertical;
 
-                rightDist = new DistributionEntry(otherH, handler, rightPoint, DistributionEntry.RIGHT_DIST);
-            }
-            else if (otherLeft > right)
-            {
-                final double dx = otherLeft - right;
+        private final AlignAndDistributeIndex<DistributionEntry> m_minIndex    = new AlignAndDistributeIndex<>();
 
-                final double leftPoint = left - dx;
+        private final AlignAndDistributeIndex<DistributionEntry> m_centerIndex = new AlignAndDistributeIndex<>();
 
-                final double rightPoint = otherRight + dx;
+        private final AlignAndDistributeIndex<DistributionEntry> m_maxIndex    = new AlignAndDistributeIndex<>();
 
-                final double centerPoint = round(otherLeft + ((right - otherLeft) / 2));
+        private final List<DistributionEntry>                    m_entries     = new ArrayList<>();
 
-                leftDist = new DistributionEntry(handler, otherH, leftPoint, DistributionEntry.LEFT_DIST);
+        private AlignAndDistributeControl                        m_handler;
 
-                hCenterDist = new DistributionEntry(handler, otherH, centerPoint, DistributionEntry.H_CENTER_DIST);
+        private double                                           m_low;
 
-                rightDist = new DistributionEntry(handler, otherH, rightPoint, DistributionEntry.RIGHT_DIST);
-            }
-            if (leftDist != null)
-            {
-                addDistIndexEntry(m_leftDistIndex, leftDist);
+        private double                                           m_high;
 
-                addDistIndexEntry(m_hCenterDistIndex, hCenterDist);
+        private int                                              m_stamp       = -1;
 
-                addDistIndexEntry(m_rightDistIndex, rightDist);
-            }
+        private DistributionIndex(final boolean vertical)
+        {
+            m_vertical = vertical;
         }
-    }
 
-    private boolean skipShape(final AlignAndDistributeControl handler, final AlignAndDistributeControl otherH)
-    {
-        if ((otherH == handler) || !otherH.isIndexed())
+        private boolean isValid(final AlignAndDistributeControl handler, final double low, final double high, final int stamp)
         {
-            // don't index against yourself or shapes not indexed
-            return true;
+            return ((m_handler == handler) && (m_low == low) && (m_high == high) && (m_stamp == stamp));
         }
-        return false;
-    }
-
-    public void buildVerticalDistIndex(final AlignAndDistributeControl handler)
-    {
-        final double top = round(handler.getTop());
-
-        final double bottom = round(handler.getBottom());
 
-        for (final AlignAndDistributeControl otherH : m_shapes.values())
+        private void clear(final AlignAndDistributeControl handler, final double low, final double high, final int stamp)
         {
-            if (skipShape(handler, otherH))
-            {
-                continue;
-            }
-            final double otherTop = round(otherH.getTop());
+            m_handler = handler;
 
-            final double otherBottom = round(otherH.getBottom());
+            m_low = low;
 
-            DistributionEntry topDist = null;
+            m_high = high;
 
-            DistributionEntry vCenterDist = null;
+            m_stamp = stamp;
 
-            DistributionEntry bottomDist = null;
+            m_minIndex.clear();
 
-            if (otherBottom < top)
-            {
-                final double dx = top - otherBottom;
+            m_centerIndex.clear();
 
-                final double topPoint = otherTop - dx;
+            m_maxIndex.clear();
 
-                final double bottomPoint = bottom + dx;
+            m_entries.clear();
+        }
 
-                final double centerPoint = round(otherBottom + ((top - otherBottom) / 2));
+        private Set<DistributionEntry> getEntries(final AlignAndDistributeControl handler, final int stamp)
+        {
+            final Set<DistributionEntry> set = new LinkedHashSet<>();
 
-                topDist = new DistributionEntry(otherH, handler, topPoint, DistributionEntry.TOP_DIST);
+            if (m_stamp == stamp)
+            {
+                for (final DistributionEntry entry : m_entries)
+                {
+                    if ((entry.getShape1() == handler) || (entry.getShape2() == handler))
+                    {
+                        set.add(entry);
+                    }
+                }
+            }
+            return set;
+        }
 
-                vCenterDist = new DistributionEntry(otherH, handler, centerPoint, DistributionEntry.V_CENTER_DIST);
+        private void add(final DistributionEntry min, final DistributionEntry center, final DistributionEntry max)
+        {
+            m_minIndex.add(min.getPoint(), min);
 
-                bottomDist = new DistributionEntry(otherH, handler, bottomPoint, DistributionEntry.BOTTOM_DIST);
-            }
-            else if (otherTop > bottom)
-            {
-                final double dx = otherTop - bottom;
+            m_centerIndex.add(center.getPoint(), center);
 
-                final double topPoint = top - dx;
+            m_maxIndex.add(max.getPoint(), max);
 
-                final double bottomPoint = otherBottom + dx;
+            m_entries.add(min);
 
-                final double centerPoint = round(bottom + ((otherTop - bottom) / 2));
+            m_entries.add(center);
 
-                topDist = new DistributionEntry(handler, otherH, topPoint, DistributionEntry.TOP_DIST);
+            m_entries.add(max);
+        }
 
-                vCenterDist = new DistributionEntry(handler, otherH, centerPoint, DistributionEntry.V_CENTER_DIST);
+        private int getType(final int i)
+        {
+            return (m_vertical ? DistributionEntry.TOP_DIST : DistributionEntry.LEFT_DIST) + i;
+        }
 
-                bottomDist = new DistributionEntry(handler, otherH, bottomPoint, DistributionEntry.BOTTOM_DIST);
-            }
-            if (topDist != null)
-            {
-                addDistIndexEntry(m_topDistIndex, topDist);
+        private double getMin(final AlignAndDistributeControl h)
+        {
+            return m_vertical ? h.getTop() : h.getLeft();
+        }
 
-                addDistIndexEntry(m_vCenterDistIndex, vCenterDist);
+        private double getMax(final AlignAndDistributeControl h)
+        {
+            return m_vertical ? h.getBottom() : h.getRight();
+        }
 
-                addDistIndexEntry(m_bottomDistIndex, bottomDist);
-            }
+        private double getLow(final AlignAndDistributeControl h)
+        {
+            return m_vertical ? h.getLeft() : h.getTop();
+        }
+
+        private double getHigh(final AlignAndDistributeControl h)
+        {
+            return m_vertical ? h.getRight() : h.getBottom();
         }
     }
 
@@ -538,16 +563,6 @@ public class AlignAndDistribute
             m_shape2 = shape2;
             m_point = point;
             m_distType = distType;
-            if (distType <= 2)
-            {
-                shape1.getHorizontalDistributionEntries().add(this);
-                shape2.getHorizontalDistributionEntries().add(this);
-            }
-            else
-            {
-                shape1.getVerticalDistributionEntries().add(this);
-                shape2.getVerticalDistributionEntries().add(this);
-            }
         }
 
         public AlignAndDistributeControl getShape1()
@@ -573,114 +588,94 @@ public class AlignAndDistribute
 
     public AlignAndDistributeMatches findNearestMatches(final AlignAndDistributeControl handler, final double left, final double hCenter, final double right, final double top, final double vCenter, final double bottom)
     {
-        LinkedList<AlignAndDistributeControl> leftList = null;
-        LinkedList<AlignAndDistributeControl> hCenterList = null;
-        LinkedList<AlignAndDistributeControl> rightList = null;
+        final DistributionIndex hDist = getDistributionIndex(m_hDistIndex, handler, top, bottom);
 
-        LinkedList<AlignAndDistributeControl> topList = null;
-        LinkedList<AlignAndDistributeControl> vCenterList = null;
-        LinkedList<AlignAndDistributeControl> bottomList = null;
+        final DistributionIndex vDist = getDistributionIndex(m_vDistIndex, handler, left, right);
 
-        LinkedList<DistributionEntry> leftDistList = null;
-        LinkedList<DistributionEntry> hCenterDistList = null;
-        LinkedList<DistributionEntry> rightDistList = null;
+        // the nearest offset that matches any index wins, and is applied to all of them, as if each offset was probed in turn
+        double hOffset = getNearestOffset(Double.NaN, m_leftIndex, left);
 
-        LinkedList<DistributionEntry> topDistList = null;
-        LinkedList<DistributionEntry> vCenterDistList = null;
-        LinkedList<DistributionEntry> bottomDistList = null;
+        hOffset = getNearestOffset(hOffset, m_hCenterIndex, hCenter);
 
-        int hOffset = 0;
-        while (hOffset <= m_circa)
-        {
-            leftList = findNearestAlignIndexEntry(m_leftIndex, left + hOffset);
-            hCenterList = findNearestAlignIndexEntry(m_hCenterIndex, hCenter + hOffset);
-            rightList = findNearestAlignIndexEntry(m_rightIndex, right + hOffset);
+        hOffset = getNearestOffset(hOffset, m_rightIndex, right);
 
-            leftDistList = findNearestDistIndexEntry(m_leftDistIndex, right + hOffset);
-            hCenterDistList = findNearestDistIndexEntry(m_hCenterDistIndex, hCenter + hOffset);
-            rightDistList = findNearestDistIndexEntry(m_rightDistIndex, left + hOffset);
+        hOffset = getNearestOffset(hOffset, hDist.m_minIndex, right);
 
-            if (matchFound(leftList, hCenterList, rightList, leftDistList, hCenterDistList, rightDistList))
-            {
-                break;
-            }
+        hOffset = getNearestOffset(hOffset, hDist.m_centerIndex, hCenter);
 
-            leftList = findNearestAlignIndexEntry(m_leftIndex, left - hOffset);
-            hCenterList = findNearestAlignIndexEntry(m_hCenterIndex, hCenter - hOffset);
-            rightList = findNearestAlignIndexEntry(m_rightIndex, right - hOffset);
+        hOffset = getNearestOffset(hOffset, hDist.m_maxIndex, left);
 
-            leftDistList = findNearestDistIndexEntry(m_leftDistIndex, right - hOffset);
-            hCenterDistList = findNearestDistIndexEntry(m_hCenterDistIndex, hCenter - hOffset);
-            rightDistList = findNearestDistIndexEntry(m_rightDistIndex, left - hOffset);
-            if (matchFound(leftList, hCenterList, rightList, leftDistList, hCenterDistList, rightDistList))
-            {
-                hOffset = -hOffset;
-                break;
-            }
-            hOffset++;
-        }
+        double vOffset = getNearestOffset(Double.NaN, m_topIndex, top);
 
-        int vOffset = 0;
-        while (vOffset <= m_circa)
-        {
-            topList = findNearestAlignIndexEntry(m_topIndex, top + vOffset);
-            vCenterList = findNearestAlignIndexEntry(m_vCenterIndex, vCenter + vOffset);
-            bottomList = findNearestAlignIndexEntry(m_bottomIndex, bottom + vOffset);
+        vOffset = getNearestOffset(vOffset, m_vCenterIndex, vCenter);
 
-            topDistList = findNearestDistIndexEntry(m_topDistIndex, bottom + vOffset);
-            vCenterDistList = findNearestDistIndexEntry(m_vCenterDistIndex, vCenter + vOffset);
-            bottomDistList = findNearestDistIndexEntry(m_bottomDistIndex, top + vOffset);
+        vOffset = getNearestOffset(vOffset, m_bottomIndex, bottom);
 
-            if (matchFound(topList, vCenterList, bottomList, topDistList, vCenterDistList, bottomDistList))
-            {
-                break;
-            }
+        vOffset = getNearestOffset(vOffset, vDist.m_minIndex, bottom);
 
-            topList = findNearestAlignIndexEntry(m_topIndex, top - vOffset);
-            vCenterList = findNearestAlignIndexEntry(m_vCenterIndex, vCenter - vOffset);
-            bottomList = findNearestAlignIndexEntry(m_bottomIndex, bottom - vOffset);
+        vOffset = getNearestOffset(vOffset, vDist.m_centerIndex, vCenter);
 
-            topDistList = findNearestDistIndexEntry(m_topDistIndex, bottom - vOffset);
-            vCenterDistList = findNearestDistIndexEntry(m_vCenterDistIndex, vCenter - vOffset);
-            bottomDistList = findNearestDistIndexEntry(m_bottomDistIndex, top - vOffset);
+        vOffset = getNearestOffset(vOffset, vDist.m_maxIndex, top);
 
-            if (matchFound(topList, vCenterList, bottomList, topDistList, vCenterDistList, bottomDistList))
-            {
-                vOffset = -vOffset;
-                break;
-            }
-            vOffset++;
-        }
+        final boolean hMatch = (false == Double.isNaN(hOffset));
+
+        final boolean vMatch = (false == Double.isNaN(vOffset));
 
-        AlignAndDistributeMatches matches;
-        if (matchFound(leftList, hCenterList, rightList, leftDistList, hCenterDistList, rightDistList) || matchFound(topList, vCenterList, bottomList, topDistList, vCenterDistList, bottomDistList))
+        if ((false == hMatch) && (false == vMatch))
         {
-            matches = new AlignAndDistributeMatches(handler, left + hOffset, leftList, hCenter + hOffset, hCenterList, right + hOffset, rightList, top + vOffset, topList, vCenter + vOffset, vCenterList, bottom + vOffset, bottomList, leftDistList, hCenterDistList, rightDistList, topDistList, vCenterDistList, bottomDistList);
+            return emptyAlignedMatches;
         }
-        else
+        if (false == hMatch)
         {
-            matches = emptyAlignedMatches;
+            hOffset = 0;
         }
-        return matches;
-    }
-
-    private boolean matchFound(final LinkedList<AlignAndDistributeControl> l1, final LinkedList<AlignAndDistributeControl> l2, final LinkedList<AlignAndDistributeControl> l3, final LinkedList<DistributionEntry> l4, final LinkedList<DistributionEntry> l5, final LinkedList<DistributionEntry> l6)
-    {
-        if ((l1 != null) || (l2 != null) || (l3 != null) || (l4 != null) || (l5 != null) || (l6 != null))
+        if (false == vMatch)
         {
-            return true;
+            vOffset = 0;
         }
-        return false;
-    }
+        final LinkedList<AlignAndDistributeControl> leftList = hMatch ? m_leftIndex.get(round(left + hOffset)) : null;
 
-    private static LinkedList<AlignAndDistributeControl> findNearestAlignIndexEntry(final Map<Double, LinkedList<AlignAndDistributeControl>> map, final double pos)
-    {
-        return map.get(round(pos));
+        final LinkedList<AlignAndDistributeControl> hCenterList = hMatch ? m_hCenterIndex.get(round(hCenter + hOffset)) : null;
+
+        final LinkedList<AlignAndDistributeControl> rightList = hMatch ? m_rightIndex.get(round(right + hOffset)) : null;
+
+        final LinkedList<DistributionEntry> leftDistList = hMatch ? hDist.m_minIndex.get(round(right + hOffset)) : null;
+
+        final LinkedList<DistributionEntry> hCenterDistList = hMatch ? hDist.m_centerIndex.get(round(hCenter + hOffset)) : null;
+
+        final LinkedList<DistributionEntry> rightDistList = hMatch ? hDist.m_maxIndex.get(round(left + hOffset)) : null;
+
+        final LinkedList<AlignAndDistributeControl> topList = vMatch ? m_topIndex.get(round(top + vOffset)) : null;
+
+        final LinkedList<AlignAndDistributeControl> vCenterList = vMatch ? m_vCenterIndex.get(round(vCenter + vOffset)) : null;
+
+        final LinkedList<AlignAndDistributeControl> bottomList = vMatch ? m_bottomIndex.get(round(bottom + vOffset)) : null;
+
+        final LinkedList<DistributionEntry> topDistList = vMatch ? vDist.m_minIndex.get(round(bottom + vOffset)) : null;
+
+        final LinkedList<DistributionEntry> vCenterDistList = vMatch ? vDist.m_centerIndex.get(round(vCenter + vOffset)) : null;
+
+        final LinkedList<DistributionEntry> bottomDistList = vMatch ? vDist.m_maxIndex.get(round(top + vOffset)) : null;
+
+        return new AlignAndDistributeMatches(handler, left + hOffset, leftList, hCenter + hOffset, hCenterList, right + hOffset, rightList, top + vOffset, topList, vCenter + vOffset, vCenterList, bottom + vOffset, bottomList, leftDistList, hCenterDistList, rightDistList, topDistList, vCenterDistList, bottomDistList);
     }
 
-    private static LinkedList<DistributionEntry> findNearestDistIndexEntry(final Map<Double, LinkedList<DistributionEntry>> map, final double pos)
+    /**
+     * Returns whichever of <code>best</code> and the nearest offset in <code>index</code> is nearer, preferring positive offsets on a tie.
+     */
+    private double getNearestOffset(final double best, final AlignAndDistributeIndex<?> index, final double pos)
     {
-        return map.get(round(pos));
+        final double offset = index.getNearestOffset(round(pos), m_circa);
+
+        if (Double.isNaN(offset))
+        {
+            return best;
+        }
+        if (Double.isNaN(best) || (Math.abs(offset) < Math.abs(best)) || ((Math.abs(offset) == Math.abs(best)) && (offset > best)))
+        {
+            return offset;
+        }
+        return best;
     }
 
     private static final EmptyAlignAndDistributeMatches emptyAlignedMatches = new EmptyAlignAndDistributeMatches();
@@ -702,7 +697,7 @@ public class AlignAndDistribute
     public void indexOffWithoutChangingStatus(final AlignAndDistributeControl handler)
     {
         removeAlignIndex(handler, handler.getLeft(), handler.getHorizontalCenter(), handler.getRight(), handler.getTop(), handler.getVerticalCenter(), handler.getBottom());
-        removeDistIndex(handler);
+        invalidateDistribution();
     }
 
     public void indexOn(final AlignAndDistributeControl handler)
@@ -714,7 +709,7 @@ public class AlignAndDistribute
     public void indexOnWithoutChangingStatus(final AlignAndDistributeControl handler)
     {
         buildAlignIndex(handler, handler.getLeft(), handler.getHorizontalCenter(), handler.getRight(), handler.getTop(), handler.getVerticalCenter(), handler.getBottom());
-        buildDistIndex(handler);
+        invalidateDistribution();
     }
 
     private void buildAlignIndex(final AlignAndDistributeControl handler, final double left, final double hCenter, final double right, final double top, final double vCenter, final double bottom)
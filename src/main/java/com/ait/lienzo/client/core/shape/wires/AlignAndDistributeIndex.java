@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * A sorted index of positions to buckets of values, used by {@link AlignAndDistribute} for each edge and center.
+ * <p>
+ * Keys are held in a sorted primitive array, so finding the nearest position within a snap distance is a
+ * binary search and a range scan, instead of probing one pixel at a time.
+ * <p>
+ * This class has no browser dependencies, so it can be used and tested on the JVM.
+ */
+public final class AlignAndDistributeIndex<T>
+{
+    private double[]        m_keys = new double[16];
+
+    private LinkedList<?>[] m_vals = new LinkedList<?>[16];
+
+    private int             m_size;
+
+    public final int size()
+    {
+        return m_size;
+    }
+
+    public final boolean isEmpty()
+    {
+        return (m_size == 0);
+    }
+
+    public final void clear()
+    {
+        Arrays.fill(m_vals, 0, m_size, null);
+
+        m_size = 0;
+    }
+
+    public final void add(final double key, final T value)
+    {
+        int i = find(key);
+
+        if (i < 0)
+        {
+            i = -(i + 1);
+
+            if (m_size == m_keys.length)
+            {
+                m_keys = Arrays.copyOf(m_keys, m_size * 2);
+
+                m_vals = Arrays.copyOf(m_vals, m_size * 2);
+            }
+            System.arraycopy(m_keys, i, m_keys, i + 1, m_size - i);
+
+            System.arraycopy(m_vals, i, m_vals, i + 1, m_size - i);
+
+            m_keys[i] = key;
+
+            m_vals[i] = new LinkedList<T>();
+
+            m_size++;
+        }
+        bucket(i).add(value);
+    }
+
+    public final void remove(final double key, final T value)
+    {
+        final int i = find(key);
+
+        if (i < 0)
+        {
+            return;
+        }
+        final LinkedList<T> bucket = bucket(i);
+
+        bucket.remove(value);
+
+        if (bucket.isEmpty())
+        {
+            m_size--;
+
+            System.arraycopy(m_keys, i + 1, m_keys, i, m_size - i);
+
+            System.arraycopy(m_vals, i + 1, m_vals, i, m_size - i);
+
+            m_vals[m_size] = null;
+        }
+    }
+
+    /**
+     * Returns the bucket at exactly <code>key</code>, or null if there is none.
+     */
+    public final LinkedList<T> get(final double key)
+    {
+        final int i = find(key);
+
+        if (i < 0)
+        {
+            return null;
+        }
+        return bucket(i);
+    }
+
+    /**
+     * Returns the signed offset from <code>key</code> to the nearest key in <code>[key - circa, key + circa]</code>,
+     * preferring the positive offset when two are equally near, or NaN if there is no key in range.
+     */
+    public final double getNearestOffset(final double key, final double circa)
+    {
+        int i = find(key);
+
+        if (i >= 0)
+        {
+            return 0;
+        }
+        i = -(i + 1);
+
+        double best = Double.NaN;
+
+        if ((i < m_size) && ((m_keys[i] - key) <= circa))
+        {
+            best = m_keys[i] - key;
+        }
+        if ((i > 0) && ((key - m_keys[i - 1]) <= circa))
+        {
+            final double below = m_keys[i - 1] - key;
+
+            if (Double.isNaN(best) || (-below < best))
+            {
+                best = below;
+            }
+        }
+        return best;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final LinkedList<T> bucket(final int i)
+    {
+        return (LinkedList<T>) m_vals[i];
+    }
+
+    /**
+     * Binary search over the used part of the keys, with the same result convention as Arrays.binarySearch.
+     */
+    private final int find(final double key)
+    {
+        int lo = 0;
+
+        int hi = m_size - 1;
+
+        while (lo <= hi)
+        {
+            final int mid = (lo + hi) >>> 1;
+
+            final double val = m_keys[mid];
+
+            if (val < key)
+            {
+                lo = mid + 1;
+            }
+            else if (val > key)
+            {
+                hi = mid - 1;
+            }
+            else
+            {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+}
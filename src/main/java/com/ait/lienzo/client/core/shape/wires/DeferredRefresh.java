@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * Collects the items to refresh while a batch of changes is applied, so each one is refreshed once when the batch ends,
+ * instead of on every change that touches it. {@link WiresMoveBatch} uses it for the connector lines, and
+ * {@link AlignAndDistribute} for its index entries.
+ *
+ * @param <T> the type of the items
+ */
+public abstract class DeferredRefresh<T>
+{
+    private final LinkedHashSet<T> m_items = new LinkedHashSet<>();
+
+    private boolean                m_deferring;
+
+    public final void begin()
+    {
+        m_deferring = true;
+    }
+
+    public final boolean isDeferring()
+    {
+        return m_deferring;
+    }
+
+    /**
+     * Called instead of refreshing the item.
+     *
+     * @return true if the refresh is deferred, false if the item should be refreshed now
+     */
+    public final boolean defer(final T item)
+    {
+        if (m_deferring)
+        {
+            m_items.add(item);
+
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops deferring, and refreshes each item deferred once, in the order they were first deferred.
+     */
+    public final void end()
+    {
+        m_deferring = false;
+
+        final ArrayList<T> items = new ArrayList<>(m_items);
+
+        m_items.clear();
+
+        for (int i = 0; i < items.size(); i++)
+        {
+            refresh(items.get(i));
+        }
+    }
+
+    protected abstract void refresh(T item);
+}
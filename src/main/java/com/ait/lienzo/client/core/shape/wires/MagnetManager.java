@@ -16,6 +16,9 @@
 
 package com.ait.lienzo.client.core.shape.wires;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import com.ait.lienzo.client.core.Attribute;
 import com.ait.lienzo.client.core.Context2D;
 import com.ait.lienzo.client.core.event.AttributesChangedEvent;
@@ -38,6 +41,7 @@ import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Point2DArray;
 import com.ait.lienzo.client.core.util.Geometry;
 import com.ait.lienzo.client.core.util.ScratchPad;
+import com.ait.lienzo.client.core.util.SpatialIndex;
 import com.ait.lienzo.shared.core.types.ColorName;
 import com.ait.lienzo.shared.core.types.Direction;
 import com.ait.lienzo.shared.core.types.DragMode;
@@ -46,21 +50,23 @@ import com.ait.tooling.nativetools.client.event.HandlerRegistrationManager;
 
 public class MagnetManager
 {
-    public static final Direction[]       FOUR_CARDINALS          = new Direction[] { Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST };
+    public static final Direction[]         FOUR_CARDINALS          = new Direction[] { Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST };
+
+    public static final int[]               FOUR_CARDINALS_MAPPING  = new int[] { 0, 1, 1, 2, 3, 3, 3, 4, 1 };
 
-    public static final int[]             FOUR_CARDINALS_MAPPING  = new int[] { 0, 1, 1, 2, 3, 3, 3, 4, 1 };
+    public static final Direction[]         EIGHT_CARDINALS         = new Direction[] { Direction.NORTH, Direction.NORTH_EAST, Direction.EAST, Direction.SOUTH_EAST, Direction.SOUTH, Direction.SOUTH_WEST, Direction.WEST, Direction.NORTH_WEST };
 
-    public static final Direction[]       EIGHT_CARDINALS         = new Direction[] { Direction.NORTH, Direction.NORTH_EAST, Direction.EAST, Direction.SOUTH_EAST, Direction.SOUTH, Direction.SOUTH_WEST, Direction.WEST, Direction.NORTH_WEST };
+    public static final int[]               EIGHT_CARDINALS_MAPPING = new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 };
 
-    public static final int[]             EIGHT_CARDINALS_MAPPING = new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 };
+    private static final int                CONTROL_RADIUS          = 7;
 
-    private static final int              CONTROL_RADIUS          = 7;
+    public static final ColorKeyRotor       m_c_rotor               = new ColorKeyRotor();
 
-    public static final ColorKeyRotor     m_c_rotor               = new ColorKeyRotor();
+    private final NFastStringMap<Magnets>   m_magnetRegistry        = new NFastStringMap<>();
 
-    private final NFastStringMap<Magnets> m_magnetRegistry        = new NFastStringMap<>();
+    private int                             m_ctrlSize              = CONTROL_RADIUS;
 
-    private int                           m_ctrlSize              = CONTROL_RADIUS;
+    private final SpatialIndex<WiresMagnet> m_magnetIndex           = new SpatialIndex<>();
 
     public ImageData drawMagnetsToBack(final Magnets magnets, final NFastStringMap<WiresShape> shapeColors, final NFastStringMap<WiresMagnet> magnetColors, final ScratchPad scratch)
     {
@@ -127,6 +133,7 @@ public class MagnetManager
             final Direction d = getDirection(p, box);
             m.setDirection(d);
             list.add(m);
+            indexMagnet(m, mx, my);
         }
 
         final String uuid = primTarget.uuid();
@@ -239,6 +246,100 @@ public class MagnetManager
         this.m_ctrlSize = m_ctrlSize;
     }
 
+    public int getHotspotSize()
+    {
+        return m_ctrlSize;
+    }
+
+    /**
+     * Returns the magnet of the given {@link Magnets} whose hotspot contains the point, or null.
+     * The hotspot reaches as far as the circle {@link #drawMagnet(NFastStringMap, Context2D, WiresMagnet)} draws, stroke included.
+     */
+    public WiresMagnet findMagnetAt(final Magnets magnets, final double x, final double y)
+    {
+        return findNearestMagnet(x, y, m_ctrlSize * 1.5, magnets);
+    }
+
+    /**
+     * Returns the magnet nearest to the point, in layer coordinates, that is no further away than the radius, or null.
+     */
+    public WiresMagnet findNearestMagnet(final double x, final double y, final double radius)
+    {
+        return findNearestMagnet(x, y, radius, null);
+    }
+
+    /**
+     * Returns the magnet of the given {@link Magnets} nearest to the point, in layer coordinates, that is no further away
+     * than the radius, or null. When magnets is null, every magnet is a candidate.
+     */
+    public WiresMagnet findNearestMagnet(final double x, final double y, final double radius, final Magnets magnets)
+    {
+        WiresMagnet nearest = null;
+
+        double best = radius * radius;
+
+        for (final WiresMagnet m : m_magnetIndex.query(x - radius, y - radius, x + radius, y + radius, new ArrayList<WiresMagnet>()))
+        {
+            if ((null != magnets) && (m.getMagnets() != magnets))
+            {
+                continue;
+            }
+            final double[] box = m_magnetIndex.getBounds(m);
+
+            final double dx = box[0] - x;
+
+            final double dy = box[1] - y;
+
+            final double dist = (dx * dx) + (dy * dy);
+
+            if ((dist < best) || ((null == nearest) && (dist == best)))
+            {
+                nearest = m;
+
+                best = dist;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Adds the magnets no further away than the radius from the point, in layer coordinates, to <code>into</code>.
+     */
+    public <C extends Collection<? super WiresMagnet>> C getMagnetsWithin(final double x, final double y, final double radius, final C into)
+    {
+        final double limit = radius * radius;
+
+        for (final WiresMagnet m : m_magnetIndex.query(x - radius, y - radius, x + radius, y + radius, new ArrayList<WiresMagnet>()))
+        {
+            final double[] box = m_magnetIndex.getBounds(m);
+
+            final double dx = box[0] - x;
+
+            final double dy = box[1] - y;
+
+            if (((dx * dx) + (dy * dy)) <= limit)
+            {
+                into.add(m);
+            }
+        }
+        return into;
+    }
+
+    public int getIndexedMagnetCount()
+    {
+        return m_magnetIndex.size();
+    }
+
+    void indexMagnet(final WiresMagnet magnet, final double x, final double y)
+    {
+        m_magnetIndex.put(magnet, x, y, x, y);
+    }
+
+    void unindexMagnet(final WiresMagnet magnet)
+    {
+        m_magnetIndex.remove(magnet);
+    }
+
     public static Point2DArray getWiresIntersectionPoints(final WiresShape wiresShape, final Direction[] requestedCardinals)
     {
         return Geometry.getCardinalIntersects(wiresShape.getPath(), requestedCardinals);
@@ -285,15 +386,40 @@ public class MagnetManager
             return m_wiresShape;
         }
 
+        public MagnetManager getMagnetManager()
+        {
+            return m_magnetManager;
+        }
+
         @Override
         public void onAttributesChanged(final AttributesChangedEvent event)
         {
-            if (!m_isDragging && event.any(Attribute.X, Attribute.Y))
+            if (!m_isDragging && event.any(Attribute.X, Attribute.Y) && !isInPlace())
             {
                 getControl().shapeMoved();
             }
         }
 
+        /**
+         * True if every magnet already sits at its place for the current shape location, which is the case
+         * when the move was already handled, for instance by a {@link WiresMoveBatch}, before the batched event came.
+         */
+        private boolean isInPlace()
+        {
+            final Point2D loc = getGroup().getComputedLocation();
+
+            for (int i = 0; i < m_list.size(); i++)
+            {
+                final WiresMagnet m = getMagnet(i);
+
+                if ((m.getControl().getX() != (m.getX() + loc.getX())) || (m.getControl().getY() != (m.getY() + loc.getY())))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         @Override
         public void onNodeDragStart(final NodeDragStartEvent event)
         {
@@ -327,6 +453,10 @@ public class MagnetManager
 
         public void destroy()
         {
+            for (int i = 0; i < m_list.size(); i++)
+            {
+                m_magnetManager.unindexMagnet(getMagnet(i));
+            }
             m_list.destroy();
 
             m_registrationManager.removeHandler();
@@ -336,6 +466,8 @@ public class MagnetManager
 
         public void destroy(final WiresMagnet magnet)
         {
+            m_magnetManager.unindexMagnet(magnet);
+
             m_list.remove(magnet);
         }
 
@@ -0,0 +1,911 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.PriorityQueue;
+
+import com.ait.lienzo.client.core.util.SpatialIndex;
+import com.ait.lienzo.shared.core.types.Direction;
+
+/**
+ * Routes orthogonal connectors around rectangular obstacles.
+ * <p>
+ * Obstacles are boxes, grown by the margin. A route leaves its start point in the start direction, to a port
+ * on the grown box of its source, and arrives at its end point through a port on the grown box of its target.
+ * Between the ports it is found with A* on the sparse grid of lines through the edges of the grown obstacles
+ * near the ports, where every bend costs the bend penalty on top of the length. If no route is found, the
+ * search area is widened, and as a last resort a single elbow between the ports is used.
+ * <p>
+ * Obstacles with no direction at the route end, and obstacles containing a port, such as the containers of the
+ * connected shapes, do not block that route.
+ * <p>
+ * Routes are cached. Changing a route request, or an obstacle the route touches before or after the change,
+ * marks the route dirty, and {@link #update()} only routes the dirty ones again.
+ * <p>
+ * This class has no browser dependencies, so it can be used and tested on the JVM.
+ */
+public final class OrthogonalRouter
+{
+    public static final double                  DEFAULT_MARGIN       = 10;
+
+    public static final double                  DEFAULT_BEND_PENALTY = 20;
+
+    private static final int                    EAST                 = 0;
+
+    private static final int                    SOUTH                = 1;
+
+    private static final int                    WEST                 = 2;
+
+    private static final int                    NORTH                = 3;
+
+    private static final int                    ANY                  = 4;
+
+    private static final int[]                  DX                   = { 1, 0, -1, 0 };
+
+    private static final int[]                  DY                   = { 0, 1, 0, -1 };
+
+    private static final byte                   FREE                 = 1;
+
+    private static final byte                   BLOCKED              = 2;
+
+    private final double                        m_margin;
+
+    private final double                        m_bend;
+
+    private final HashMap<String, double[]>     m_boxes              = new HashMap<>();
+
+    private final SpatialIndex<String>          m_obstacles          = new SpatialIndex<>();
+
+    private final HashMap<String, Route>        m_routes             = new HashMap<>();
+
+    private final SpatialIndex<String>          m_paths              = new SpatialIndex<>();
+
+    private final LinkedHashSet<String>         m_dirty              = new LinkedHashSet<>();
+
+    private final ArrayList<String>             m_hits               = new ArrayList<>();
+
+    private int                                 m_routed;
+
+    public OrthogonalRouter()
+    {
+        this(DEFAULT_MARGIN, DEFAULT_BEND_PENALTY);
+    }
+
+    public OrthogonalRouter(final double margin, final double bend)
+    {
+        if ((false == (margin >= 0)) || (false == (bend >= 0)))
+        {
+            throw new IllegalArgumentException("margin and bend penalty must not be negative");
+        }
+        m_margin = margin;
+
+        m_bend = bend;
+    }
+
+    public final double getMargin()
+    {
+        return m_margin;
+    }
+
+    public final double getBendPenalty()
+    {
+        return m_bend;
+    }
+
+    public final int getObstacleCount()
+    {
+        return m_boxes.size();
+    }
+
+    public final int getRouteCount()
+    {
+        return m_routes.size();
+    }
+
+    public final int getDirtyCount()
+    {
+        return m_dirty.size();
+    }
+
+    public final boolean isDirty(final String id)
+    {
+        return m_dirty.contains(id);
+    }
+
+    /**
+     * Returns the number of routes searched by the last {@link #update()}.
+     */
+    public final int getRoutedCount()
+    {
+        return m_routed;
+    }
+
+    /**
+     * Adds or moves an obstacle. Routes touching it before or after the move become dirty.
+     */
+    public final void setObstacle(final String id, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        if (null == id)
+        {
+            throw new NullPointerException("obstacle id can not be null");
+        }
+        if ((minx > maxx) || (miny > maxy) || Double.isNaN(minx + miny + maxx + maxy))
+        {
+            throw new IllegalArgumentException("invalid bounds for obstacle " + id);
+        }
+        final double[] box = new double[] { minx - m_margin, miny - m_margin, maxx + m_margin, maxy + m_margin };
+
+        final double[] last = m_boxes.get(id);
+
+        if (null != last)
+        {
+            if (Arrays.equals(last, box))
+            {
+                return;
+            }
+            touched(last);
+        }
+        m_boxes.put(id, box);
+
+        m_obstacles.put(id, box[0], box[1], box[2], box[3]);
+
+        touched(box);
+    }
+
+    public final boolean removeObstacle(final String id)
+    {
+        final double[] box = m_boxes.remove(id);
+
+        if (null == box)
+        {
+            return false;
+        }
+        m_obstacles.remove(id);
+
+        touched(box);
+
+        return true;
+    }
+
+    /**
+     * Adds or changes a route request. The source and target are obstacle ids, and may be null.
+     * A direction of {@link Direction#NONE}, or any diagonal, means the route may leave or arrive in any direction.
+     */
+    public final void setRoute(final String id, final String source, final double sx, final double sy, final Direction sd, final String target, final double tx, final double ty, final Direction td)
+    {
+        if (null == id)
+        {
+            throw new NullPointerException("route id can not be null");
+        }
+        if (Double.isNaN(sx + sy + tx + ty) || Double.isInfinite(sx + sy + tx + ty))
+        {
+            throw new IllegalArgumentException("invalid end points for route " + id);
+        }
+        final Route next = new Route(source, sx, sy, toIndex(sd), target, tx, ty, toIndex(td));
+
+        final Route last = m_routes.get(id);
+
+        if ((null != last) && last.same(next))
+        {
+            return;
+        }
+        if (null != last)
+        {
+            next.m_points = last.m_points;
+        }
+        m_routes.put(id, next);
+
+        m_dirty.add(id);
+    }
+
+    public final boolean removeRoute(final String id)
+    {
+        if (null == m_routes.remove(id))
+        {
+            return false;
+        }
+        m_paths.remove(id);
+
+        m_dirty.remove(id);
+
+        return true;
+    }
+
+    public final void clear()
+    {
+        m_boxes.clear();
+
+        m_obstacles.clear();
+
+        m_routes.clear();
+
+        m_paths.clear();
+
+        m_dirty.clear();
+    }
+
+    /**
+     * Returns the route as <code>x0, y0, x1, y1, ...</code> from the start point to the end point, routing it first if
+     * it is dirty, or null if there is no such route.
+     */
+    public final double[] getRoute(final String id)
+    {
+        final Route route = m_routes.get(id);
+
+        if (null == route)
+        {
+            return null;
+        }
+        if (m_dirty.remove(id))
+        {
+            route(id, route);
+        }
+        return Arrays.copyOf(route.m_points, route.m_points.length);
+    }
+
+    /**
+     * Routes all the dirty routes.
+     *
+     * @return the ids of the routes whose points changed
+     */
+    public final ArrayList<String> update()
+    {
+        final ArrayList<String> changed = new ArrayList<>();
+
+        final ArrayList<String> dirty = new ArrayList<>(m_dirty);
+
+        m_dirty.clear();
+
+        m_routed = dirty.size();
+
+        for (int i = 0; i < dirty.size(); i++)
+        {
+            final String id = dirty.get(i);
+
+            final Route route = m_routes.get(id);
+
+            final double[] last = route.m_points;
+
+            route(id, route);
+
+            if (false == Arrays.equals(last, route.m_points))
+            {
+                changed.add(id);
+            }
+        }
+        return changed;
+    }
+
+    private final void touched(final double[] box)
+    {
+        m_hits.clear();
+
+        m_paths.query(box[0], box[1], box[2], box[3], m_hits);
+
+        for (int i = 0; i < m_hits.size(); i++)
+        {
+            final String id = m_hits.get(i);
+
+            if ((false == m_dirty.contains(id)) && touches(m_routes.get(id).m_points, box))
+            {
+                m_dirty.add(id);
+            }
+        }
+    }
+
+    private final void route(final String id, final Route route)
+    {
+        route.m_points = search(route);
+
+        final double[] points = route.m_points;
+
+        double minx = points[0];
+
+        double miny = points[1];
+
+        double maxx = minx;
+
+        double maxy = miny;
+
+        for (int i = 2; i < points.length; i += 2)
+        {
+            minx = Math.min(minx, points[i]);
+
+            miny = Math.min(miny, points[i + 1]);
+
+            maxx = Math.max(maxx, points[i]);
+
+            maxy = Math.max(maxy, points[i + 1]);
+        }
+        m_paths.put(id, minx, miny, maxx, maxy);
+    }
+
+    private final double[] search(final Route route)
+    {
+        final HashSet<String> ignore = new HashSet<>();
+
+        final double[] ps = port(route.m_source, route.m_sx, route.m_sy, route.m_sd, ignore);
+
+        final double[] pt = port(route.m_target, route.m_tx, route.m_ty, route.m_td, ignore);
+
+        // obstacles holding a port, such as the containers of the connected shapes, can not block the route
+
+        ignoreContaining(ps, ignore);
+
+        ignoreContaining(pt, ignore);
+
+        final double[] extent = extent();
+
+        double grow = Math.max(m_margin * 4, 1);
+
+        while (true)
+        {
+            final double[] window = new double[] { Math.min(ps[0], pt[0]) - grow, Math.min(ps[1], pt[1]) - grow, Math.max(ps[0], pt[0]) + grow, Math.max(ps[1], pt[1]) + grow };
+
+            final double[] path = new Search(ps, pt, route.m_sd, route.m_td, window, ignore).run();
+
+            if (null != path)
+            {
+                return simplify(route, path);
+            }
+            if ((null == extent) || ((window[0] <= extent[0]) && (window[1] <= extent[1]) && (window[2] >= extent[2]) && (window[3] >= extent[3])))
+            {
+                // the whole scene was searched, fall back to a single elbow between the ports
+
+                return simplify(route, new double[] { ps[0], ps[1], pt[0], ps[1], pt[0], pt[1] });
+            }
+            grow *= 4;
+        }
+    }
+
+    private final double[] port(final String id, final double x, final double y, final int d, final HashSet<String> ignore)
+    {
+        final double[] box = (null == id) ? null : m_boxes.get(id);
+
+        if (d == ANY)
+        {
+            if (null != id)
+            {
+                ignore.add(id);
+            }
+            return new double[] { x, y };
+        }
+        // step out of the grown box of the shape, which the end point sits on the edge of
+
+        switch (d)
+        {
+            case EAST:
+                return new double[] { (null == box) ? (x + m_margin) : Math.max(x + m_margin, box[2]), y };
+            case SOUTH:
+                return new double[] { x, (null == box) ? (y + m_margin) : Math.max(y + m_margin, box[3]) };
+            case WEST:
+                return new double[] { (null == box) ? (x - m_margin) : Math.min(x - m_margin, box[0]), y };
+            default:
+                return new double[] { x, (null == box) ? (y - m_margin) : Math.min(y - m_margin, box[1]) };
+        }
+    }
+
+    private final void ignoreContaining(final double[] p, final HashSet<String> ignore)
+    {
+        m_hits.clear();
+
+        m_obstacles.query(p[0], p[1], m_hits);
+
+        for (int i = 0; i < m_hits.size(); i++)
+        {
+            final double[] box = m_boxes.get(m_hits.get(i));
+
+            if ((box[0] < p[0]) && (p[0] < box[2]) && (box[1] < p[1]) && (p[1] < box[3]))
+            {
+                ignore.add(m_hits.get(i));
+            }
+        }
+    }
+
+    private final double[] extent()
+    {
+        if (m_boxes.isEmpty())
+        {
+            return null;
+        }
+        final double[] extent = new double[] { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+
+        for (final double[] box : m_boxes.values())
+        {
+            extent[0] = Math.min(extent[0], box[0]);
+
+            extent[1] = Math.min(extent[1], box[1]);
+
+            extent[2] = Math.max(extent[2], box[2]);
+
+            extent[3] = Math.max(extent[3], box[3]);
+        }
+        return extent;
+    }
+
+    /**
+     * Adds the end points to the path between the ports, and drops repeated and collinear points.
+     */
+    private static final double[] simplify(final Route route, final double[] path)
+    {
+        final double[] all = new double[path.length + 4];
+
+        all[0] = route.m_sx;
+
+        all[1] = route.m_sy;
+
+        System.arraycopy(path, 0, all, 2, path.length);
+
+        all[all.length - 2] = route.m_tx;
+
+        all[all.length - 1] = route.m_ty;
+
+        final double[] out = new double[all.length];
+
+        int size = 0;
+
+        for (int i = 0; i < all.length; i += 2)
+        {
+            final double x = all[i];
+
+            final double y = all[i + 1];
+
+            if ((size >= 2) && (out[size - 2] == x) && (out[size - 1] == y))
+            {
+                continue;
+            }
+            if ((size >= 4) && (((out[size - 4] == out[size - 2]) && (out[size - 2] == x)) || ((out[size - 3] == out[size - 1]) && (out[size - 1] == y))))
+            {
+                // the last point is on the line from the one before it to this one
+
+                size -= 2;
+            }
+            out[size++] = x;
+
+            out[size++] = y;
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    private static final boolean touches(final double[] points, final double[] box)
+    {
+        for (int i = 2; i < points.length; i += 2)
+        {
+            final double minx = Math.min(points[i - 2], points[i]);
+
+            final double miny = Math.min(points[i - 1], points[i + 1]);
+
+            final double maxx = Math.max(points[i - 2], points[i]);
+
+            final double maxy = Math.max(points[i - 1], points[i + 1]);
+
+            if ((minx <= box[2]) && (maxx >= box[0]) && (miny <= box[3]) && (maxy >= box[1]))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final int toIndex(final Direction d)
+    {
+        if (null == d)
+        {
+            return ANY;
+        }
+        switch (d)
+        {
+            case EAST:
+                return EAST;
+            case SOUTH:
+                return SOUTH;
+            case WEST:
+                return WEST;
+            case NORTH:
+                return NORTH;
+            default:
+                return ANY;
+        }
+    }
+
+    private static final class Route
+    {
+        private final String m_source;
+
+        private final double m_sx;
+
+        private final double m_sy;
+
+        private final int    m_sd;
+
+        private final String m_target;
+
+        private final double m_tx;
+
+        private final double m_ty;
+
+        private final int    m_td;
+
+        private double[]     m_points;
+
+        private Route(final String source, final double sx, final double sy, final int sd, final String target, final double tx, final double ty, final int td)
+        {
+            m_source = source;
+
+            m_sx = sx;
+
+            m_sy = sy;
+
+            m_sd = sd;
+
+            m_target = target;
+
+            m_tx = tx;
+
+            m_ty = ty;
+
+            m_td = td;
+        }
+
+        private boolean same(final Route that)
+        {
+            return ((m_sx == that.m_sx) && (m_sy == that.m_sy) && (m_sd == that.m_sd) && (m_tx == that.m_tx) && (m_ty == that.m_ty) && (m_td == that.m_td) && equal(m_source, that.m_source) && equal(m_target, that.m_target));
+        }
+
+        private static boolean equal(final String a, final String b)
+        {
+            return (null == a) ? (null == b) : a.equals(b);
+        }
+    }
+
+    private static final class Node implements Comparable<Node>
+    {
+        private final int     m_state;
+
+        private final double  m_cost;
+
+        private final double  m_rank;
+
+        private final Node    m_prev;
+
+        private final boolean m_done;
+
+        private Node(final int state, final double cost, final double rank, final Node prev, final boolean done)
+        {
+            m_state = state;
+
+            m_cost = cost;
+
+            m_rank = rank;
+
+            m_prev = prev;
+
+            m_done = done;
+        }
+
+        @Override
+        public int compareTo(final Node that)
+        {
+            return Double.compare(m_rank, that.m_rank);
+        }
+    }
+
+    /**
+     * One A* search between two ports, on the grid of the lines through the edges of the obstacles in a window.
+     * States are grid points combined with the direction they were reached in, so bends can be charged.
+     */
+    private final class Search
+    {
+        private final double[]                m_xs;
+
+        private final double[]                m_ys;
+
+        private final int                     m_sx;
+
+        private final int                     m_sy;
+
+        private final int                     m_tx;
+
+        private final int                     m_ty;
+
+        private final int                     m_sd;
+
+        private final int                     m_arrive;
+
+        private final HashSet<String>         m_ignore;
+
+        private final byte[]                  m_steps;
+
+        private Search(final double[] ps, final double[] pt, final int sd, final int td, final double[] window, final HashSet<String> ignore)
+        {
+            m_ignore = ignore;
+
+            m_sd = sd;
+
+            // the last step into the target port moves against the direction the port faces
+
+            m_arrive = (td == ANY) ? ANY : ((td + 2) % 4);
+
+            final ArrayList<String> near = m_obstacles.query(window[0], window[1], window[2], window[3], new ArrayList<String>());
+
+            final double[] xs = new double[(near.size() * 2) + 4];
+
+            final double[] ys = new double[(near.size() * 2) + 4];
+
+            int n = 0;
+
+            xs[n] = ps[0];
+
+            ys[n++] = ps[1];
+
+            xs[n] = pt[0];
+
+            ys[n++] = pt[1];
+
+            xs[n] = window[0];
+
+            ys[n++] = window[1];
+
+            xs[n] = window[2];
+
+            ys[n++] = window[3];
+
+            for (int i = 0; i < near.size(); i++)
+            {
+                if (ignore.contains(near.get(i)))
+                {
+                    continue;
+                }
+                final double[] box = m_boxes.get(near.get(i));
+
+                if ((box[0] > window[0]) && (box[0] < window[2]))
+                {
+                    xs[n] = box[0];
+                }
+                else
+                {
+                    xs[n] = window[0];
+                }
+                if ((box[1] > window[1]) && (box[1] < window[3]))
+                {
+                    ys[n++] = box[1];
+                }
+                else
+                {
+                    ys[n++] = window[1];
+                }
+                if ((box[2] > window[0]) && (box[2] < window[2]))
+                {
+                    xs[n] = box[2];
+                }
+                else
+                {
+                    xs[n] = window[2];
+                }
+                if ((box[3] > window[1]) && (box[3] < window[3]))
+                {
+                    ys[n++] = box[3];
+                }
+                else
+                {
+                    ys[n++] = window[3];
+                }
+            }
+            m_xs = unique(xs, n);
+
+            m_ys = unique(ys, n);
+
+            m_sx = Arrays.binarySearch(m_xs, ps[0]);
+
+            m_sy = Arrays.binarySearch(m_ys, ps[1]);
+
+            m_tx = Arrays.binarySearch(m_xs, pt[0]);
+
+            m_ty = Arrays.binarySearch(m_ys, pt[1]);
+
+            m_steps = new byte[m_xs.length * m_ys.length * 2];
+        }
+
+        private double[] run()
+        {
+            final int ny = m_ys.length;
+
+            if ((m_sx == m_tx) && (m_sy == m_ty))
+            {
+                return new double[] { m_xs[m_sx], m_ys[m_sy] };
+            }
+            final HashMap<Integer, Double> best = new HashMap<>();
+
+            final PriorityQueue<Node> open = new PriorityQueue<>();
+
+            final int start = state(m_sx, m_sy, m_sd, ny);
+
+            best.put(start, 0.0);
+
+            open.add(new Node(start, 0, heuristic(m_sx, m_sy), null, false));
+
+            while (false == open.isEmpty())
+            {
+                final Node node = open.poll();
+
+                if (node.m_done)
+                {
+                    return path(node, ny);
+                }
+                final Double known = best.get(node.m_state);
+
+                if ((null != known) && (known.doubleValue() < node.m_cost))
+                {
+                    continue;
+                }
+                final int d = node.m_state % 5;
+
+                final int xi = (node.m_state / 5) / ny;
+
+                final int yi = (node.m_state / 5) % ny;
+
+                for (int nd = 0; nd < 4; nd++)
+                {
+                    if ((d != ANY) && (nd == ((d + 2) % 4)))
+                    {
+                        continue;
+                    }
+                    final int xj = xi + DX[nd];
+
+                    final int yj = yi + DY[nd];
+
+                    if ((xj < 0) || (yj < 0) || (xj >= m_xs.length) || (yj >= ny) || blocked(xi, yi, nd))
+                    {
+                        continue;
+                    }
+                    double cost = node.m_cost + Math.abs(m_xs[xj] - m_xs[xi]) + Math.abs(m_ys[yj] - m_ys[yi]);
+
+                    if ((d != ANY) && (nd != d))
+                    {
+                        cost += m_bend;
+                    }
+                    final int next = state(xj, yj, nd, ny);
+
+                    if ((xj == m_tx) && (yj == m_ty))
+                    {
+                        final double done = cost + (((m_arrive != ANY) && (nd != m_arrive)) ? m_bend : 0);
+
+                        open.add(new Node(next, done, done, node, true));
+
+                        continue;
+                    }
+                    final Double seen = best.get(next);
+
+                    if ((null == seen) || (cost < seen.doubleValue()))
+                    {
+                        best.put(next, cost);
+
+                        open.add(new Node(next, cost, cost + heuristic(xj, yj), node, false));
+                    }
+                }
+            }
+            return null;
+        }
+
+        private double heuristic(final int xi, final int yi)
+        {
+            return Math.abs(m_xs[m_tx] - m_xs[xi]) + Math.abs(m_ys[m_ty] - m_ys[yi]);
+        }
+
+        private double[] path(final Node done, final int ny)
+        {
+            int size = 0;
+
+            for (Node node = done; null != node; node = node.m_prev)
+            {
+                size++;
+            }
+            final double[] path = new double[size * 2];
+
+            for (Node node = done; null != node; node = node.m_prev)
+            {
+                size--;
+
+                path[size * 2] = m_xs[(node.m_state / 5) / ny];
+
+                path[(size * 2) + 1] = m_ys[(node.m_state / 5) % ny];
+            }
+            return path;
+        }
+
+        /**
+         * A step along a grid line is blocked when the middle of it is strictly inside an obstacle. As the edges of
+         * the obstacles inside the window are grid lines, a step is then inside the obstacle from end to end.
+         */
+        private boolean blocked(final int xi, final int yi, final int d)
+        {
+            switch (d)
+            {
+                case EAST:
+                    return step(xi, yi, 0);
+                case WEST:
+                    return step(xi - 1, yi, 0);
+                case SOUTH:
+                    return step(xi, yi, 1);
+                default:
+                    return step(xi, yi - 1, 1);
+            }
+        }
+
+        /**
+         * Tests the step east, or south, of grid point <code>(i, j)</code>, caching the answer.
+         */
+        private boolean step(final int i, final int j, final int axis)
+        {
+            final int k = (((i * m_ys.length) + j) * 2) + axis;
+
+            if (m_steps[k] == 0)
+            {
+                final double x = (axis == 0) ? ((m_xs[i] + m_xs[i + 1]) / 2) : m_xs[i];
+
+                final double y = (axis == 0) ? m_ys[j] : ((m_ys[j] + m_ys[j + 1]) / 2);
+
+                m_steps[k] = FREE;
+
+                m_hits.clear();
+
+                m_obstacles.query(x, y, m_hits);
+
+                for (int h = 0; h < m_hits.size(); h++)
+                {
+                    final double[] box = m_boxes.get(m_hits.get(h));
+
+                    if ((box[0] < x) && (x < box[2]) && (box[1] < y) && (y < box[3]) && (false == m_ignore.contains(m_hits.get(h))))
+                    {
+                        m_steps[k] = BLOCKED;
+
+                        break;
+                    }
+                }
+            }
+            return (m_steps[k] == BLOCKED);
+        }
+    }
+
+    private static final int state(final int xi, final int yi, final int d, final int ny)
+    {
+        return (((xi * ny) + yi) * 5) + d;
+    }
+
+    private static final double[] unique(final double[] values, final int size)
+    {
+        final double[] sorted = Arrays.copyOf(values, size);
+
+        Arrays.sort(sorted);
+
+        int n = 0;
+
+        for (int i = 0; i < sorted.length; i++)
+        {
+            if ((n == 0) || (sorted[n - 1] != sorted[i]))
+            {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+}
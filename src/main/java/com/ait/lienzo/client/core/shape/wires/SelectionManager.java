@@ -34,6 +34,7 @@ import com.ait.lienzo.client.core.event.NodeMouseDownEvent;
 import com.ait.lienzo.client.core.event.NodeMouseDownHandler;
 import com.ait.lienzo.client.core.event.OnEventHandlers;
 import com.ait.lienzo.client.core.event.OnMouseEventHandler;
+import com.ait.lienzo.client.core.shape.Group;
 import com.ait.lienzo.client.core.shape.Layer;
 import com.ait.lienzo.client.core.shape.MultiPath;
 import com.ait.lienzo.client.core.shape.Node;
@@ -47,6 +48,8 @@ import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Point2DArray;
 import com.ait.lienzo.client.core.types.Transform;
 import com.ait.lienzo.client.core.util.Geometry;
+import com.ait.lienzo.client.core.util.IncrementalRectangleQuery;
+import com.ait.lienzo.client.core.util.SpatialIndex;
 import com.ait.lienzo.client.widget.DragConstraintEnforcer;
 import com.ait.lienzo.client.widget.DragContext;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
@@ -95,43 +98,53 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
         public T clear();
     }
 
-    public static final int             SELECTION_PADDING = 10;
+    public static final int                           SELECTION_PADDING  = 10;
 
-    private HandlerRegistration         m_selectMouseDownHandlerReg;
+    private HandlerRegistration                       m_selectMouseDownHandlerReg;
 
-    private HandlerRegistration         m_selectMouseClickHandlerReg;
+    private HandlerRegistration                       m_selectMouseClickHandlerReg;
 
-    private HandlerRegistration         m_selectMouseDoubleClickHandlerReg;
+    private HandlerRegistration                       m_selectMouseDoubleClickHandlerReg;
 
-    private final Layer                 m_layer;
+    private final Layer                               m_layer;
 
-    private final WiresManager          m_wiresManager;
+    private final WiresManager                        m_wiresManager;
 
-    private final SelectedItems         m_selected;
+    private final SelectedItems                       m_selected;
 
-    private SelectionShapeProvider<?>   m_selectionShapeProvider;
+    private SelectionShapeProvider<?>                 m_selectionShapeProvider;
 
-    private BoundingBox                 m_startBoundingBox;
+    private BoundingBox                               m_startBoundingBox;
 
-    private Point2D                     m_start;
+    private Point2D                                   m_start;
 
-    private HandlerRegistration         m_dragSelectionStartReg;
+    private HandlerRegistration                       m_dragSelectionStartReg;
 
-    private HandlerRegistration         m_dragSelectionMoveReg;
+    private HandlerRegistration                       m_dragSelectionMoveReg;
 
-    private HandlerRegistration         m_dragSelectionEndReg;
+    private HandlerRegistration                       m_dragSelectionEndReg;
 
-    private HandlerRegistration         m_dragSelectionMouseClickReg;
+    private HandlerRegistration                       m_dragSelectionMouseClickReg;
 
-    private SelectionDragHandler        m_selectionDragHandler;
+    private SelectionDragHandler                      m_selectionDragHandler;
 
-    private boolean                     m_selectionCreationInProcess;
+    private boolean                                   m_selectionCreationInProcess;
 
-    private boolean                     m_ignoreMouseClick;
+    private boolean                                   m_ignoreMouseClick;
 
-    private SelectionListener           m_selectionListener;
+    private SelectionListener                         m_selectionListener;
 
-    private final WiresCompositeControl m_shapeControl;
+    private final WiresCompositeControl               m_shapeControl;
+
+    private IncrementalRectangleQuery<WiresShape>     m_shapeQuery;
+
+    private IncrementalRectangleQuery<WiresConnector> m_connectorQuery;
+
+    private boolean                                   m_selectionPreview = true;
+
+    private Group                                     m_preview;
+
+    private final Map<Object, Rectangle>              m_previewItems     = new HashMap<>();
 
     public SelectionManager(final WiresManager wiresManager)
     {
@@ -296,6 +309,7 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
             }
 
             getSelectionManager().drawSelectionShape(relativeStartX, relativeStartY, width, height, overLayer);
+            getSelectionManager().updateSelectionPreview(overLayer);
             overLayer.draw();
         }
 
@@ -344,6 +358,8 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
 
                 m_selectionCreationInProcess = false;
 
+                clearSelectionQueries();
+
                 return false;
             }
             return true;
@@ -424,6 +440,7 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
             m_start = new Point2D(event.getX(), event.getY());
             m_selectionCreationInProcess = true;
             destroySelectionShape();
+            clearSelectionQueries();
             m_layer.draw();
         }
     }
@@ -957,28 +974,16 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
         m_selected.setSelectionGroup(true);
         final BoundingBox box = m_selected.getBoundingBox();
 
-        BoundingBox nodeBox = null;
-        final List<WiresShape> shapesList = new ArrayList<>();
         final List<WiresShape> toBeRemoved = new ArrayList<>();
 
         final Map<String, WiresShape> shapesMap = new HashMap<>();
-        final Map<String, BoundingBox> uuidMap = new HashMap<>();
 
-        // first build a map of all shapes that intersect with teh selection rectangle. Nested shapes will be used later.
-        for (final WiresShape shape : m_wiresManager.getShapesMap().values())
+        // first find all shapes that intersect with the selection rectangle, from the spatial index. Nested shapes will be used later.
+        updateSelectionQueries(selectionBox, null, null);
+
+        for (final WiresShape shape : m_shapeQuery.getHits())
         {
-            if (shape.getDockedTo() != null)
-            {
-                // docked items cannot be added to a selection, only their parent they are docked to
-                continue;
-            }
-            nodeBox = shape.getContainer().getComputedBoundingPoints().getBoundingBox();
-            if (selectionBox.intersects(nodeBox))
-            {
-                shapesList.add(shape);
-                shapesMap.put(shape.getContainer().uuid(), shape);
-                uuidMap.put(shape.getContainer().uuid(), nodeBox);
-            }
+            shapesMap.put(shape.getContainer().uuid(), shape);
         }
 
         // add to removal list any shape whose parent is also in the selection
@@ -996,86 +1001,206 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
         }
         for (final WiresShape shape : shapesMap.values())
         {
-            nodeBox = uuidMap.get(shape.getContainer().uuid());
             m_selected.add(shape);
-            box.add(nodeBox);
+            box.add(getIndexedBox(m_shapeQuery, shape));
         }
-        for (final WiresConnector connector : m_wiresManager.getConnectorList())
+        for (final WiresConnector connector : new ArrayList<>(m_connectorQuery.getHits()))
         {
-            final boolean externallyConnected = isExternallyConnected(connector);
+            addConnector(connector, isExternallyConnected(connector), box, getIndexedBox(m_connectorQuery, connector));
+        }
+        clearSelectionQueries();
+    }
+
+    /**
+     * Shows, while the selection rectangle is drawn, the items it would select. Only the items entering or leaving
+     * the rectangle since the last call are looked at, against a spatial index of the items built when the drag began.
+     */
+    void updateSelectionPreview(final Layer layer)
+    {
+        if ((false == m_selectionPreview) || (null == getSelectionShape()))
+        {
+            return;
+        }
+        final List<Object> added = new ArrayList<>();
+
+        final List<Object> removed = new ArrayList<>();
 
-            final Point2DArray points = new Point2DArray();
-            final Point2D loc = getSelectionShape().getLocation();
-            final BoundingBox boundingBox = getSelectionShape().getBoundingBox();
-            points.push(loc.getX(), loc.getY());
-            points.push(loc.getX() + boundingBox.getWidth(), loc.getY());
-            points.push(loc.getX() + boundingBox.getWidth(), loc.getY() + boundingBox.getHeight());
-            points.push(loc.getX(), loc.getY() + boundingBox.getHeight());
+        updateSelectionQueries(getSelectionShape().getComputedBoundingPoints().getBoundingBox(), added, removed);
+
+        if (null == m_preview)
+        {
+            m_preview = new Group().setListening(false);
 
-            nodeBox = connector.getGroup().getComputedBoundingPoints().getBoundingBox();
+            layer.add(m_preview);
+        }
+        for (final Object item : removed)
+        {
+            final Rectangle rect = m_previewItems.remove(item);
 
-            if (selectionBox.contains(nodeBox))
+            if (null != rect)
             {
-                addConnector(connector, externallyConnected, box, nodeBox);
+                m_preview.remove(rect);
             }
-            else
+        }
+        for (final Object item : added)
+        {
+            final double[] bounds = (item instanceof WiresShape) ? m_shapeQuery.getIndex().getBounds((WiresShape) item) : m_connectorQuery.getIndex().getBounds((WiresConnector) item);
+
+            final Rectangle rect = new Rectangle(bounds[2] - bounds[0], bounds[3] - bounds[1]).setX(bounds[0]).setY(bounds[1]).setStrokeWidth(1).setStrokeColor("#0000CC").setStrokeAlpha(0.5).setListening(false);
+
+            m_previewItems.put(item, rect);
+
+            m_preview.add(rect);
+        }
+    }
+
+    public boolean isSelectionPreview()
+    {
+        return m_selectionPreview;
+    }
+
+    /**
+     * Sets whether the items that would be selected are outlined while the selection rectangle is drawn.
+     */
+    public void setSelectionPreview(final boolean selectionPreview)
+    {
+        m_selectionPreview = selectionPreview;
+    }
+
+    private void updateSelectionQueries(final BoundingBox selectionBox, final List<Object> added, final List<Object> removed)
+    {
+        if (null == m_shapeQuery)
+        {
+            buildSelectionQueries();
+        }
+        m_shapeQuery.update(selectionBox.getMinX(), selectionBox.getMinY(), selectionBox.getMaxX(), selectionBox.getMaxY(), added, removed);
+
+        m_connectorQuery.update(selectionBox.getMinX(), selectionBox.getMinY(), selectionBox.getMaxX(), selectionBox.getMaxY(), added, removed);
+    }
+
+    private void buildSelectionQueries()
+    {
+        final SpatialIndex<WiresShape> shapes = new SpatialIndex<>();
+
+        for (final WiresShape shape : m_wiresManager.getShapesMap().values())
+        {
+            if (shape.getDockedTo() != null)
             {
-                Point2DArray intersections = Geometry.getIntersectPolyLinePath(points, connector.getLine().asShape().getPathPartList(), true);
-                if ((intersections != null) && (intersections.size() > 0))
-                {
-                    addConnector(connector, externallyConnected, box, nodeBox);
-                }
-                else
-                {
-                    // the above checked the line, also check the head and tail.
-
-                    // head is rotated around an offset with also set. The reverse of this must be applied to the
-                    // selection rectangle, to ensure thinsg are all in the same space,  for intersection to work
-                    MultiPath path = connector.getHead();
-                    Transform xfrm = new Transform();
-                    xfrm.translate(path.getOffset().getX(), path.getOffset().getY());
-                    xfrm.rotate(0 - path.getRotation());
-                    xfrm.translate(0 - path.getX(), 0 - path.getY());
-                    xfrm.translate(0 - path.getOffset().getX(), 0 - path.getOffset().getY());
-
-                    Point2DArray transformedPoints = points.copy();
-                    for (final Point2D p : transformedPoints)
-                    {
-                        xfrm.transform(p, p);
-                    }
-                    intersections = Geometry.getIntersectPolyLinePath(transformedPoints, connector.getHead().getActualPathPartListArray().get(0), true);
-                    if ((intersections != null) && (intersections.size() > 0))
-                    {
-                        addConnector(connector, externallyConnected, box, nodeBox);
-                    }
-                    else
-                    {
-                        // tail is rotated around an offset with also set. The reverse of this must be applied to the
-                        // selection rectangle, to ensure thinsg are all in the same space,  for intersection to work
-                        path = connector.getTail();
-                        xfrm = new Transform();
-                        xfrm.translate(path.getOffset().getX(), path.getOffset().getY());
-                        xfrm.rotate(0 - path.getRotation());
-                        xfrm.translate(0 - path.getX(), 0 - path.getY());
-                        xfrm.translate(0 - path.getOffset().getX(), 0 - path.getOffset().getY());
-
-                        transformedPoints = points.copy();
-                        for (final Point2D p : transformedPoints)
-                        {
-                            xfrm.transform(p, p);
-                        }
+                // docked items cannot be added to a selection, only their parent they are docked to
+                continue;
+            }
+            final BoundingBox nodeBox = shape.getContainer().getComputedBoundingPoints().getBoundingBox();
 
-                        intersections = Geometry.getIntersectPolyLinePath(transformedPoints, connector.getTail().getActualPathPartListArray().get(0), true);
-                        if ((intersections != null) && (intersections.size() > 0))
-                        {
-                            addConnector(connector, externallyConnected, box, nodeBox);
-                        }
-                    }
-                }
+            shapes.put(shape, nodeBox.getMinX(), nodeBox.getMinY(), nodeBox.getMaxX(), nodeBox.getMaxY());
+        }
+        final SpatialIndex<WiresConnector> connectors = new SpatialIndex<>();
+
+        for (final WiresConnector connector : m_wiresManager.getConnectorList())
+        {
+            final BoundingBox nodeBox = connector.getGroup().getComputedBoundingPoints().getBoundingBox();
+
+            connectors.put(connector, nodeBox.getMinX(), nodeBox.getMinY(), nodeBox.getMaxX(), nodeBox.getMaxY());
+        }
+        // the index already holds the shapes whose box meets the rectangle, which is all a shape needs
+        m_shapeQuery = new IncrementalRectangleQuery<>(shapes, new IncrementalRectangleQuery.HitTester<WiresShape>()
+        {
+            @Override
+            public boolean isHit(final WiresShape shape, final double minx, final double miny, final double maxx, final double maxy)
+            {
+                return true;
+            }
+        });
+        m_connectorQuery = new IncrementalRectangleQuery<>(connectors, new IncrementalRectangleQuery.HitTester<WiresConnector>()
+        {
+            @Override
+            public boolean isHit(final WiresConnector connector, final double minx, final double miny, final double maxx, final double maxy)
+            {
+                return isConnectorInSelection(connector, getIndexedBox(m_connectorQuery, connector), minx, miny, maxx, maxy);
+            }
+        });
+    }
+
+    private void clearSelectionQueries()
+    {
+        m_shapeQuery = null;
+
+        m_connectorQuery = null;
+
+        m_previewItems.clear();
+
+        if (null != m_preview)
+        {
+            final Layer layer = m_preview.getLayer();
+
+            m_preview.removeFromParent();
+
+            m_preview = null;
+
+            if (null != layer)
+            {
+                layer.batch();
             }
         }
     }
 
+    private static <T> BoundingBox getIndexedBox(final IncrementalRectangleQuery<T> query, final T item)
+    {
+        final double[] bounds = query.getIndex().getBounds(item);
+
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    private static boolean isConnectorInSelection(final WiresConnector connector, final BoundingBox nodeBox, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        if (new BoundingBox(minx, miny, maxx, maxy).contains(nodeBox))
+        {
+            return true;
+        }
+        // the line segments are tested against the rectangle, in the coordinates of the line
+
+        final Shape<?> line = connector.getLine().asShape();
+
+        final Point2D loc = line.getComputedLocation();
+
+        if (line.getPathPartList().getFlattenedPath().intersects(minx - loc.getX(), miny - loc.getY(), maxx - loc.getX(), maxy - loc.getY()))
+        {
+            return true;
+        }
+        // the above checked the line, also check the head and tail.
+
+        final Point2DArray points = new Point2DArray();
+        points.push(minx, miny);
+        points.push(maxx, miny);
+        points.push(maxx, maxy);
+        points.push(minx, maxy);
+
+        return isDecoratorInSelection(connector.getHead(), points) || isDecoratorInSelection(connector.getTail(), points);
+    }
+
+    private static boolean isDecoratorInSelection(final MultiPath path, final Point2DArray points)
+    {
+        if (null == path)
+        {
+            return false;
+        }
+        // decorators are rotated around an offset with also set. The reverse of this must be applied to the
+        // selection rectangle, to ensure things are all in the same space, for intersection to work
+        final Transform xfrm = new Transform();
+        xfrm.translate(path.getOffset().getX(), path.getOffset().getY());
+        xfrm.rotate(0 - path.getRotation());
+        xfrm.translate(0 - path.getX(), 0 - path.getY());
+        xfrm.translate(0 - path.getOffset().getX(), 0 - path.getOffset().getY());
+
+        final Point2DArray transformedPoints = points.copy();
+        for (final Point2D p : transformedPoints)
+        {
+            xfrm.transform(p, p);
+        }
+        final Point2DArray intersections = Geometry.getIntersectPolyLinePath(transformedPoints, path.getActualPathPartListArray().get(0), true);
+
+        return (intersections != null) && (intersections.size() > 0);
+    }
+
     /**
      * returns wheher the connector is connected to a shape not in the selection.
      * As this could be connected to a nested shape, it iterates from that shape (not in the selection) until it finds it's parent in the selection or it returns null.
@@ -1154,6 +1279,7 @@ public class SelectionManager implements NodeMouseDoubleClickHandler, NodeMouseC
             m_selectMouseDoubleClickHandlerReg = null;
         }
         destroySelectionShape();
+        clearSelectionQueries();
     }
 
     private double[] calculateSelectionShapeForExternallyConnectedConnectors(final int dx, final int dy, final BoundingBox originalBox)
@@ -64,7 +64,17 @@ public class WiresConnection extends AbstractControlHandle
 
         m_point.setY(y + m_yOffset);
 
-        m_line.refresh();
+        final WiresManager manager = m_connector.getWiresManager();
+
+        // a committing move batch refreshes the line once, when all the shapes have moved
+
+        final boolean deferred = (null != manager) && manager.deferConnectorRefresh(m_connector);
+
+        if (false == deferred)
+        {
+            // setting the points again refreshes the line, and marks its connector dirty
+            m_line.setPoint2DArray(m_line.getPoint2DArray());
+        }
 
         IControlHandle handle;
 
@@ -82,7 +92,7 @@ public class WiresConnection extends AbstractControlHandle
 
             handle.getControl().setY(y + m_yOffset);
         }
-        if (m_line.getLayer() != null)
+        if ((false == deferred) && (m_line.getLayer() != null))
         {
             m_line.getLayer().batch();
         }
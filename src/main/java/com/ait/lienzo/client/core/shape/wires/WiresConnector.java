@@ -18,6 +18,9 @@ package com.ait.lienzo.client.core.shape.wires;
 
 import static com.ait.lienzo.client.core.shape.wires.IControlHandle.ControlHandleStandardType.POINT;
 
+import com.ait.lienzo.client.core.Attribute;
+import com.ait.lienzo.client.core.event.AttributesChangedEvent;
+import com.ait.lienzo.client.core.event.AttributesChangedHandler;
 import com.ait.lienzo.client.core.shape.Group;
 import com.ait.lienzo.client.core.shape.IDirectionalMultiPointShape;
 import com.ait.lienzo.client.core.shape.Layer;
@@ -36,6 +39,8 @@ import com.ait.tooling.nativetools.client.event.HandlerRegistrationManager;
 
 public class WiresConnector
 {
+    private static final Attribute[] REFRESH_ATTRIBUTES = { Attribute.POINTS, Attribute.CONTROL_POINTS, Attribute.HEAD_DIRECTION, Attribute.TAIL_DIRECTION };
+
     public static boolean updateHeadTailForRefreshedConnector(final WiresConnector c)
     {
         // Iterate each refreshed line and get the new points for the decorators
@@ -88,6 +93,10 @@ public class WiresConnector
 
     private WiresConnectorHandler                m_wiresConnectorHandler;
 
+    private WiresManager                         m_wiresManager;
+
+    private final HandlerRegistrationManager     m_lineHandlers       = new HandlerRegistrationManager();
+
     public WiresConnector(final IDirectionalMultiPointShape<?> line, final MultiPathDecorator headDecorator, final MultiPathDecorator tailDecorator)
     {
         m_line = line;
@@ -124,6 +133,20 @@ public class WiresConnector
 
         // The Line is only draggable if both Connections are unconnected
         setDraggable();
+
+        // any change to the points or directions of the line, from the wires controls or not, marks this connector dirty
+        final AttributesChangedHandler refreshed = new AttributesChangedHandler()
+        {
+            @Override
+            public void onAttributesChanged(final AttributesChangedEvent event)
+            {
+                markRefreshed();
+            }
+        };
+        for (final Attribute attribute : REFRESH_ATTRIBUTES)
+        {
+            m_lineHandlers.register(m_line.asShape().addAttributesChangedHandler(attribute, refreshed));
+        }
     }
 
     public WiresConnector(final WiresMagnet headMagnet, final WiresMagnet tailMagnet, final IDirectionalMultiPointShape<?> line, final MultiPathDecorator headDecorator, final MultiPathDecorator tailDecorator)
@@ -199,12 +222,39 @@ public class WiresConnector
         return m_wiresConnectorHandler;
     }
 
+    public WiresManager getWiresManager()
+    {
+        return m_wiresManager;
+    }
+
+    public WiresConnector setWiresManager(final WiresManager wiresManager)
+    {
+        m_wiresManager = wiresManager;
+
+        return this;
+    }
+
+    /**
+     * Tells the WiresManager, if any, that the line was refreshed, so the decorators are updated before the next draw.
+     * Setting the points or directions of the line does this already. Code that moves the points of the line in place,
+     * and only calls refresh() on it, calls this as well.
+     */
+    public void markRefreshed()
+    {
+        if (null != m_wiresManager)
+        {
+            m_wiresManager.markConnectorDirty(this);
+        }
+    }
+
     public void destroy()
     {
         destroyPointHandles();
 
         removeHandlers();
 
+        m_lineHandlers.removeHandler();
+
         removeFromLayer();
     }
 
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+import com.ait.lienzo.client.core.shape.MultiPath;
+import com.ait.lienzo.client.core.shape.OrthogonalPolyLine;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.Point2D;
+import com.ait.lienzo.client.core.types.Point2DArray;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+
+/**
+ * Routes the {@link OrthogonalPolyLine} connectors of a {@link WiresManager} around the shapes of its layer,
+ * with an {@link OrthogonalRouter}.
+ * <p>
+ * Only connectors with both ends connected to magnets are routed, and their control points are replaced by the
+ * route. The shape bounds are the obstacles. On every {@link #update(Iterable)} the obstacles of the shapes the
+ * {@link WiresManager} saw move are brought up to date, and so are the route requests of the connectors passed in.
+ * Only the routes affected by those changes are searched again.
+ */
+public class WiresConnectorRouter
+{
+    private final WiresManager                    m_wiresManager;
+
+    private final OrthogonalRouter                m_router;
+
+    private final HashMap<String, WiresConnector> m_connectors = new HashMap<>();
+
+    private HashSet<String>                       m_shapes     = new HashSet<>();
+
+    private boolean                               m_synced;
+
+    public WiresConnectorRouter(final WiresManager wiresManager)
+    {
+        this(wiresManager, new OrthogonalRouter());
+    }
+
+    public WiresConnectorRouter(final WiresManager wiresManager, final OrthogonalRouter router)
+    {
+        m_wiresManager = wiresManager;
+
+        m_router = router;
+    }
+
+    public OrthogonalRouter getRouter()
+    {
+        return m_router;
+    }
+
+    /**
+     * Brings every shape and connector up to date, and applies the routes that changed.
+     *
+     * @return the number of connectors whose route changed
+     */
+    public int update()
+    {
+        m_synced = false;
+
+        return update(m_wiresManager.getConnectorList());
+    }
+
+    /**
+     * Brings the moved shapes, and the given connectors, up to date, and applies the routes that changed.
+     * The first call syncs every shape and connector.
+     *
+     * @return the number of connectors whose route changed
+     */
+    public int update(final Iterable<WiresConnector> connectors)
+    {
+        if (false == m_synced)
+        {
+            m_synced = true;
+
+            updateObstacles();
+
+            for (final String id : new ArrayList<>(m_connectors.keySet()))
+            {
+                remove(m_connectors.get(id));
+            }
+            for (final WiresConnector connector : m_wiresManager.getConnectorList())
+            {
+                updateRoute(connector);
+            }
+        }
+        else
+        {
+            updateMovedObstacles();
+
+            for (final WiresConnector connector : connectors)
+            {
+                updateRoute(connector);
+            }
+        }
+        final ArrayList<String> changed = m_router.update();
+
+        for (int i = 0; i < changed.size(); i++)
+        {
+            apply(m_connectors.get(changed.get(i)), m_router.getRoute(changed.get(i)));
+        }
+        return changed.size();
+    }
+
+    public void remove(final WiresConnector connector)
+    {
+        m_connectors.remove(connector.uuid());
+
+        m_router.removeRoute(connector.uuid());
+    }
+
+    private void updateObstacles()
+    {
+        final HashSet<String> seen = new HashSet<>();
+
+        updateObstacles(m_wiresManager.getLayer().getChildShapes(), seen);
+
+        for (final String id : m_shapes)
+        {
+            if (false == seen.contains(id))
+            {
+                m_router.removeObstacle(id);
+            }
+        }
+        m_shapes = seen;
+
+        m_wiresManager.getMovedShapes().clear();
+    }
+
+    private void updateMovedObstacles()
+    {
+        final LinkedHashSet<WiresShape> moved = m_wiresManager.getMovedShapes();
+
+        if (moved.isEmpty())
+        {
+            return;
+        }
+        for (final WiresShape shape : moved)
+        {
+            if (null == m_wiresManager.getShape(shape.uuid()))
+            {
+                m_router.removeObstacle(shape.uuid());
+
+                m_shapes.remove(shape.uuid());
+            }
+            else
+            {
+                updateObstacle(shape, m_shapes);
+            }
+        }
+        moved.clear();
+    }
+
+    private void updateObstacles(final NFastArrayList<WiresShape> shapes, final HashSet<String> seen)
+    {
+        if (null == shapes)
+        {
+            return;
+        }
+        for (int i = 0; i < shapes.size(); i++)
+        {
+            updateObstacle(shapes.get(i), seen);
+        }
+    }
+
+    /**
+     * Moves the obstacle of the shape, and those of its children, which move with it.
+     */
+    private void updateObstacle(final WiresShape shape, final HashSet<String> seen)
+    {
+        final MultiPath path = shape.getPath();
+
+        final BoundingBox box = path.getBoundingBox();
+
+        final Point2D location = path.getComputedLocation();
+
+        m_router.setObstacle(shape.uuid(), box.getMinX() + location.getX(), box.getMinY() + location.getY(), box.getMaxX() + location.getX(), box.getMaxY() + location.getY());
+
+        seen.add(shape.uuid());
+
+        updateObstacles(shape.getChildShapes(), seen);
+    }
+
+    private void updateRoute(final WiresConnector connector)
+    {
+        final WiresMagnet head = (null == connector.getHeadConnection()) ? null : connector.getHeadConnection().getMagnet();
+
+        final WiresMagnet tail = (null == connector.getTailConnection()) ? null : connector.getTailConnection().getMagnet();
+
+        if ((null == head) || (null == tail) || (false == (connector.getLine() instanceof OrthogonalPolyLine)) || (false == m_wiresManager.getConnectorList().contains(connector)))
+        {
+            remove(connector);
+
+            return;
+        }
+        final OrthogonalPolyLine line = (OrthogonalPolyLine) connector.getLine();
+
+        final Point2DArray points = line.getPoint2DArray();
+
+        final Point2D location = line.getComputedLocation();
+
+        final Point2D p0 = points.get(0);
+
+        final Point2D p1 = points.get(points.size() - 1);
+
+        m_connectors.put(connector.uuid(), connector);
+
+        m_router.setRoute(connector.uuid(), head.getMagnets().getWiresShape().uuid(), p0.getX() + location.getX(), p0.getY() + location.getY(), line.getHeadDirection(), tail.getMagnets().getWiresShape().uuid(), p1.getX() + location.getX(), p1.getY() + location.getY(), line.getTailDirection());
+    }
+
+    private void apply(final WiresConnector connector, final double[] route)
+    {
+        final OrthogonalPolyLine line = (OrthogonalPolyLine) connector.getLine();
+
+        final Point2D location = line.getComputedLocation();
+
+        final Point2DArray last = line.getPoint2DArray();
+
+        final Point2DArray points = new Point2DArray();
+
+        // keep the end points, the connections move them in place
+
+        points.push(last.get(0));
+
+        for (int i = 2; i < (route.length - 2); i += 2)
+        {
+            points.push(new Point2D(route[i] - location.getX(), route[i + 1] - location.getY()));
+        }
+        points.push(last.get(last.size() - 1));
+
+        // the point handles no longer match the points, they are built again on the next selection
+
+        connector.destroyPointHandles();
+
+        line.setPoint2DArray(points);
+    }
+}
@@ -17,10 +17,13 @@
 package com.ait.lienzo.client.core.shape.wires;
 
 import com.ait.lienzo.client.core.shape.Layer;
+import com.ait.lienzo.client.core.shape.wires.picker.IncrementalColorMapBackedPicker;
 import com.ait.lienzo.client.core.types.Point2D;
 
 public class WiresLayer extends WiresContainer
 {
+    private IncrementalColorMapBackedPicker m_picker;
+
     public WiresLayer(final Layer layer)
     {
         super(layer);
@@ -31,6 +34,29 @@ public class WiresLayer extends WiresContainer
         return (Layer) getContainer();
     }
 
+    /**
+     * Returns the picker shared by the drags on this layer, creating it the first time.
+     */
+    public IncrementalColorMapBackedPicker getPicker()
+    {
+        if (null == m_picker)
+        {
+            m_picker = new IncrementalColorMapBackedPicker(this);
+        }
+        return m_picker;
+    }
+
+    /**
+     * Tells the shared picker, if there is one, that a shape was added, removed or changed.
+     */
+    public void invalidatePicker(final WiresShape shape)
+    {
+        if (null != m_picker)
+        {
+            m_picker.invalidate(shape);
+        }
+    }
+
     @Override
     public Point2D getLocation()
     {
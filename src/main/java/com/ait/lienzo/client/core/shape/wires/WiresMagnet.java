@@ -98,6 +98,10 @@ public class WiresMagnet extends AbstractControlHandle implements Iterable<Wires
 
         m_control.moveToTop();
 
+        if (null != m_magnets)
+        {
+            m_magnets.getMagnetManager().indexMagnet(this, m_x + x, m_y + y);
+        }
         if (null != m_connections)
         {
             final int size = m_connections.size();
@@ -16,12 +16,20 @@
 
 package com.ait.lienzo.client.core.shape.wires;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+import com.ait.lienzo.client.core.Attribute;
+import com.ait.lienzo.client.core.event.AttributesChangedEvent;
+import com.ait.lienzo.client.core.event.AttributesChangedHandler;
 import com.ait.lienzo.client.core.event.NodeDragEndEvent;
 import com.ait.lienzo.client.core.event.NodeDragEndHandler;
 import com.ait.lienzo.client.core.shape.Group;
 import com.ait.lienzo.client.core.shape.Layer;
 import com.ait.lienzo.client.core.shape.wires.event.WiresResizeEndEvent;
 import com.ait.lienzo.client.core.shape.wires.event.WiresResizeEndHandler;
+import com.ait.lienzo.client.core.shape.wires.event.WiresResizeStepEvent;
+import com.ait.lienzo.client.core.shape.wires.event.WiresResizeStepHandler;
 import com.ait.lienzo.client.core.shape.wires.handlers.AlignAndDistributeControl;
 import com.ait.lienzo.client.core.shape.wires.handlers.WiresConnectorControl;
 import com.ait.lienzo.client.core.shape.wires.handlers.WiresConnectorHandler;
@@ -58,6 +66,16 @@ public final class WiresManager
 
     private final NFastArrayList<WiresConnector>             m_connectorList       = new NFastArrayList<>();
 
+    private final LinkedHashSet<WiresConnector>              m_dirtyConnectors     = new LinkedHashSet<>();
+
+    private final LinkedHashSet<WiresShape>                  m_movedShapes         = new LinkedHashSet<>();
+
+    private final LinePreparer                               m_linePreparer;
+
+    private WiresConnectorRouter                             m_connectorRouter;
+
+    private WiresMoveBatch                                   m_moveBatch;
+
     private final WiresLayer                                 m_layer;
 
     private WiresControlFactory                              m_controlFactory;
@@ -97,7 +115,9 @@ public final class WiresManager
 
         m_layer.setWiresManager(this);
 
-        layer.setOnLayerBeforeDraw(new LinePreparer(this));
+        m_linePreparer = new LinePreparer(this);
+
+        layer.setOnLayerBeforeDraw(m_linePreparer);
 
         m_index = new AlignAndDistribute(layer);
 
@@ -113,6 +133,24 @@ public final class WiresManager
         }
     }
 
+    /**
+     * Routes the orthogonal connectors connected at both ends around the shapes, from the next draw on.
+     */
+    public void enableConnectorRouting()
+    {
+        if (m_connectorRouter == null)
+        {
+            m_connectorRouter = new WiresConnectorRouter(this);
+
+            m_layer.getLayer().batch();
+        }
+    }
+
+    public WiresConnectorRouter getConnectorRouter()
+    {
+        return m_connectorRouter;
+    }
+
     public boolean isSpliceEnabled()
     {
         return m_spliceEnabled;
@@ -127,6 +165,8 @@ public final class WiresManager
     {
         private final WiresManager m_wiresManager;
 
+        private int                m_processed;
+
         public LinePreparer(final WiresManager wiresManager)
         {
             m_wiresManager = wiresManager;
@@ -138,16 +178,131 @@ public final class WiresManager
             // this is necessary as the line decorator cannot be determined until line parse has been attempted
             // as this is expensive it's delayed until the last minute before draw. As drawing order is not guaranteed
             // this method is used to force a parse on any line that has been refreshed. Refreshed means it's points where
-            // changed and thus will be reparsed.
-            for (final WiresConnector c : m_wiresManager.getConnectorList())
+            // changed and thus will be reparsed. Only the connectors marked dirty since the last draw are looked at.
+            m_processed = 0;
+
+            final LinkedHashSet<WiresConnector> dirty = m_wiresManager.m_dirtyConnectors;
+
+            if (null != m_wiresManager.m_connectorRouter)
             {
-                if (WiresConnector.updateHeadTailForRefreshedConnector(c))
+                // routes that change mark their connectors dirty, so they are prepared below
+                m_wiresManager.m_connectorRouter.update(new ArrayList<>(dirty));
+            }
+
+            if (dirty.isEmpty())
+            {
+                return true;
+            }
+            // updating a connector can mark it dirty again, so work on a copy
+            final ArrayList<WiresConnector> list = new ArrayList<>(dirty);
+
+            dirty.clear();
+
+            for (int i = 0; i < list.size(); i++)
+            {
+                m_processed++;
+
+                if (WiresConnector.updateHeadTailForRefreshedConnector(list.get(i)))
                 {
+                    // not prepared yet, keep this connector and the ones not processed for the next draw
+                    dirty.addAll(list.subList(i, list.size()));
+
                     return false;
                 }
             }
             return true;
         }
+
+        /**
+         * Returns the number of connectors looked at before the last draw.
+         */
+        public int getProcessedCount()
+        {
+            return m_processed;
+        }
+    }
+
+    public LinePreparer getLinePreparer()
+    {
+        return m_linePreparer;
+    }
+
+    /**
+     * Marks a connector whose line was refreshed, so its decorators are updated before the next draw.
+     */
+    public void markConnectorDirty(final WiresConnector connector)
+    {
+        m_dirtyConnectors.add(connector);
+    }
+
+    /**
+     * Marks every connector dirty, for code that refreshes connector lines without going through the wires controls.
+     */
+    public void markAllConnectorsDirty()
+    {
+        for (int i = 0; i < m_connectorList.size(); i++)
+        {
+            m_dirtyConnectors.add(m_connectorList.get(i));
+        }
+    }
+
+    public int getDirtyConnectorCount()
+    {
+        return m_dirtyConnectors.size();
+    }
+
+    /**
+     * Marks a shape whose bounds changed, so the connector router, if enabled, moves its obstacle, and those of its children,
+     * before the next draw. Moving the group of a registered shape, resizing it, registering and deregistering it do this already.
+     */
+    public void markShapeMoved(final WiresShape shape)
+    {
+        if (null != m_connectorRouter)
+        {
+            m_movedShapes.add(shape);
+        }
+    }
+
+    LinkedHashSet<WiresShape> getMovedShapes()
+    {
+        return m_movedShapes;
+    }
+
+    /**
+     * Opens a batch to move many shapes at once, see {@link WiresMoveBatch}.
+     *
+     * @throws IllegalStateException if a batch is already open
+     */
+    public WiresMoveBatch beginMoveBatch()
+    {
+        if (null != m_moveBatch)
+        {
+            throw new IllegalStateException("a move batch is already open");
+        }
+        m_moveBatch = new WiresMoveBatch(this);
+
+        return m_moveBatch;
+    }
+
+    public boolean isMoveBatchOpen()
+    {
+        return (null != m_moveBatch);
+    }
+
+    void endMoveBatch(final WiresMoveBatch batch)
+    {
+        if (m_moveBatch == batch)
+        {
+            m_moveBatch = null;
+        }
+    }
+
+    /**
+     * Returns true if a move batch is committing, and will refresh the connector line once it is done.
+     */
+    boolean deferConnectorRefresh(final WiresConnector connector)
+    {
+        return (null != m_moveBatch) && m_moveBatch.defer(connector);
     }
 
     public MagnetManager getMagnetManager()
@@ -194,6 +349,8 @@ public final class WiresManager
 
         setWiresShapeHandler(shape, registrationManager, handler);
 
+        addMovedHandlers(shape, registrationManager);
+
         // Shapes added to the canvas layer by default.
         getLayer().add(shape);
 
@@ -203,9 +360,45 @@ public final class WiresManager
 
         m_shapeHandlersMap.put(uuid, registrationManager);
 
+        m_layer.invalidatePicker(shape);
+
+        markShapeMoved(shape);
+
         return handler.getControl();
     }
 
+    private void addMovedHandlers(final WiresShape shape, final HandlerRegistrationManager registrationManager)
+    {
+        final AttributesChangedHandler moved = new AttributesChangedHandler()
+        {
+            @Override
+            public void onAttributesChanged(final AttributesChangedEvent event)
+            {
+                markShapeMoved(shape);
+            }
+        };
+        registrationManager.register(shape.getGroup().addAttributesChangedHandler(Attribute.X, moved));
+
+        registrationManager.register(shape.getGroup().addAttributesChangedHandler(Attribute.Y, moved));
+
+        registrationManager.register(shape.addWiresResizeStepHandler(new WiresResizeStepHandler()
+        {
+            @Override
+            public void onShapeResizeStep(final WiresResizeStepEvent event)
+            {
+                markShapeMoved(shape);
+            }
+        }));
+        registrationManager.register(shape.addWiresResizeEndHandler(new WiresResizeEndHandler()
+        {
+            @Override
+            public void onShapeResizeEnd(final WiresResizeEndEvent event)
+            {
+                markShapeMoved(shape);
+            }
+        }));
+    }
+
     public static void setWiresShapeHandler(final WiresShape shape, final HandlerRegistrationManager registrationManager, final WiresShapeHandler handler)
     {
         final Group group = shape.getGroup();
@@ -236,12 +429,18 @@ public final class WiresManager
         getLayer().remove(shape);
 
         m_shapesMap.remove(uuid);
+
+        m_layer.invalidatePicker(shape);
+
+        markShapeMoved(shape);
     }
 
     public WiresConnectorControl register(final WiresConnector connector)
     {
         connector.setConnectionAcceptor(m_connectionAcceptor);
 
+        connector.setWiresManager(this);
+
         final String uuid = connector.uuid();
 
         final HandlerRegistrationManager m_registrationManager = createHandlerRegistrationManager();
@@ -256,6 +455,8 @@ public final class WiresManager
 
         connector.addToLayer(getLayer().getLayer());
 
+        markConnectorDirty(connector);
+
         return handler.getControl();
     }
 
@@ -270,6 +471,15 @@ public final class WiresManager
         connector.destroy();
 
         getConnectorList().remove(connector);
+
+        m_dirtyConnectors.remove(connector);
+
+        if (null != m_connectorRouter)
+        {
+            m_connectorRouter.remove(connector);
+        }
+
+        connector.setWiresManager(null);
     }
 
     public void resetContext()
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ait.lienzo.client.core.shape.wires.handlers.AlignAndDistributeControl;
+import com.ait.lienzo.client.core.shape.wires.handlers.WiresShapeLocationControl;
+import com.ait.lienzo.client.core.shape.wires.handlers.impl.ShapeControlUtils;
+import com.ait.lienzo.client.core.types.Point2D;
+
+/**
+ * Moves many {@link WiresShape}s of a {@link WiresManager} at once.
+ * <p>
+ * The new locations are only recorded until {@link #commit()}, which applies them all and then brings everything
+ * that depends on them up to date once: the magnets of each moved shape tree, the special connections of those
+ * shapes, the line of each connector whose ends moved, and the align and distribute index entry of each shape.
+ * The layer is batched once at the end. A connector with both ends on moved shapes is refreshed once, not once per end,
+ * and the index entry of a shape is updated once, not on each change of its X and Y, see {@link DeferredRefresh}.
+ * <p>
+ * A manager has at most one open batch, see {@link WiresManager#beginMoveBatch()}.
+ */
+public class WiresMoveBatch
+{
+    private final WiresManager                       m_wiresManager;
+
+    private final LinkedHashMap<WiresShape, Point2D> m_locations  = new LinkedHashMap<>();
+
+    private final DeferredRefresh<WiresConnector>    m_connectors = new DeferredRefresh<WiresConnector>()
+    {
+        @Override
+        protected void refresh(final WiresConnector connector)
+        {
+            connector.getLine().setPoint2DArray(connector.getLine().getPoint2DArray());
+        }
+    };
+
+    private boolean                                  m_open       = true;
+
+    WiresMoveBatch(final WiresManager wiresManager)
+    {
+        m_wiresManager = wiresManager;
+    }
+
+    public boolean isOpen()
+    {
+        return m_open;
+    }
+
+    /**
+     * Returns the number of shapes to be moved.
+     */
+    public int size()
+    {
+        return m_locations.size();
+    }
+
+    /**
+     * Records the new location of a shape, relative to its parent, as {@link WiresContainer#setLocation(Point2D)} takes it.
+     * On commit it is applied through the {@link WiresShapeLocationControl} of the shape, if it has a control.
+     */
+    public WiresMoveBatch setLocation(final WiresShape shape, final Point2D location)
+    {
+        check(shape);
+
+        if (null == location)
+        {
+            throw new NullPointerException("location can not be null");
+        }
+        m_locations.put(shape, location.copy());
+
+        return this;
+    }
+
+    /**
+     * Records a move of a shape by the given offset, on top of any move already recorded for it.
+     */
+    public WiresMoveBatch move(final WiresShape shape, final double dx, final double dy)
+    {
+        check(shape);
+
+        final Point2D last = m_locations.get(shape);
+
+        final Point2D base = (null != last) ? last : shape.getLocation();
+
+        m_locations.put(shape, new Point2D(base.getX() + dx, base.getY() + dy));
+
+        return this;
+    }
+
+    /**
+     * Applies the recorded locations and refreshes what depends on them, then closes the batch.
+     */
+    public void commit()
+    {
+        checkOpen();
+
+        final AlignAndDistribute index = m_wiresManager.getAlignAndDistribute();
+
+        m_connectors.begin();
+
+        index.beginDeferRefresh();
+
+        try
+        {
+            for (final Map.Entry<WiresShape, Point2D> entry : m_locations.entrySet())
+            {
+                final WiresShape shape = entry.getKey();
+
+                if (null != shape.getControl())
+                {
+                    shape.getControl().getParentPickerControl().setShapeLocation(entry.getValue());
+                }
+                else
+                {
+                    shape.setLocation(entry.getValue());
+                }
+            }
+            final LinkedHashMap<String, WiresConnector> special = new LinkedHashMap<>();
+
+            for (final WiresShape shape : m_locations.keySet())
+            {
+                // the children move with their parent, and are refreshed with it
+
+                if (false == hasMovedAncestor(shape))
+                {
+                    shape.shapeMoved();
+
+                    ShapeControlUtils.collectionSpecialConnectors(shape, special);
+                }
+                if (index.isShapeIndexed(shape.uuid()))
+                {
+                    final AlignAndDistributeControl control = index.getControlForShape(shape.uuid());
+
+                    if (null != control)
+                    {
+                        index.deferRefresh(control);
+                    }
+                }
+            }
+            for (final WiresConnector connector : special.values())
+            {
+                connector.updateForSpecialConnections(false);
+            }
+        }
+        finally
+        {
+            close();
+
+            m_connectors.end();
+
+            index.endDeferRefresh();
+        }
+        m_locations.clear();
+
+        m_wiresManager.getLayer().getLayer().batch();
+    }
+
+    /**
+     * Drops the recorded locations and closes the batch.
+     */
+    public void cancel()
+    {
+        checkOpen();
+
+        m_locations.clear();
+
+        close();
+    }
+
+    /**
+     * Called by {@link WiresConnection#move(double, double)}. While the batch commits, the connector line
+     * is refreshed once at the end of the commit instead of on every move of one of its ends.
+     *
+     * @return true if the refresh is deferred
+     */
+    boolean defer(final WiresConnector connector)
+    {
+        return m_connectors.defer(connector);
+    }
+
+    private boolean hasMovedAncestor(final WiresShape shape)
+    {
+        WiresContainer parent = shape.getParent();
+
+        while (null != parent)
+        {
+            if ((parent instanceof WiresShape) && m_locations.containsKey(parent))
+            {
+                return true;
+            }
+            parent = parent.getParent();
+        }
+        return false;
+    }
+
+    private void check(final WiresShape shape)
+    {
+        checkOpen();
+
+        if (null == shape)
+        {
+            throw new NullPointerException("shape can not be null");
+        }
+        if (shape.getWiresManager() != m_wiresManager)
+        {
+            throw new IllegalArgumentException("shape does not belong to this WiresManager");
+        }
+    }
+
+    private void checkOpen()
+    {
+        if (false == m_open)
+        {
+            throw new IllegalStateException("the move batch is closed");
+        }
+    }
+
+    private void close()
+    {
+        m_open = false;
+
+        m_wiresManager.endMoveBatch(this);
+    }
+}
@@ -42,8 +42,16 @@ public interface AlignAndDistributeControl
 
     public void remove();
 
+    /**
+     * @deprecated distribution entries are computed on demand while a shape is dragged, this returns the cached ones or an empty set
+     */
+    @Deprecated
     public Set<DistributionEntry> getHorizontalDistributionEntries();
 
+    /**
+     * @deprecated distribution entries are computed on demand while a shape is dragged, this returns the cached ones or an empty set
+     */
+    @Deprecated
     public Set<DistributionEntry> getVerticalDistributionEntries();
 
     public double getLeft();
@@ -19,7 +19,6 @@ package com.ait.lienzo.client.core.shape.wires.handlers.impl;
 import static com.ait.lienzo.client.core.AttributeOp.any;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -73,10 +72,6 @@ public class AlignAndDistributeControlImpl implements AlignAndDistributeControl
 
     protected double                                               m_bottom;
 
-    protected Set<AlignAndDistribute.DistributionEntry>            m_horizontalDistEntries;
-
-    protected Set<AlignAndDistribute.DistributionEntry>            m_verticalDistEntries;
-
     private boolean                                                indexed;
 
     private final Flows.BooleanOp                                  m_bboxOp;
@@ -145,7 +140,10 @@ public class AlignAndDistributeControlImpl implements AlignAndDistributeControl
         @Override
         public void onAttributesChanged(final AttributesChangedEvent event)
         {
-            refresh(event.evaluate(m_tranOp), event.evaluate(m_bboxOp));
+            if (false == m_alignAndDistribute.deferRefresh(AlignAndDistributeControlImpl.this))
+            {
+                refresh(event.evaluate(m_tranOp), event.evaluate(m_bboxOp));
+            }
         }
     };
 
@@ -172,24 +170,24 @@ public class AlignAndDistributeControlImpl implements AlignAndDistributeControl
         this.indexed = indexed;
     }
 
+    /**
+     * @deprecated distribution entries are computed on demand while a shape is dragged, see {@link AlignAndDistribute#getHorizontalDistributionEntries(AlignAndDistributeControl)}
+     */
     @Override
+    @Deprecated
     public Set<AlignAndDistribute.DistributionEntry> getHorizontalDistributionEntries()
     {
-        if (m_horizontalDistEntries == null)
-        {
-            m_horizontalDistEntries = new HashSet<>();
-        }
-        return m_horizontalDistEntries;
+        return m_alignAndDistribute.getHorizontalDistributionEntries(this);
     }
 
+    /**
+     * @deprecated distribution entries are computed on demand while a shape is dragged, see {@link AlignAndDistribute#getVerticalDistributionEntries(AlignAndDistributeControl)}
+     */
     @Override
+    @Deprecated
     public Set<AlignAndDistribute.DistributionEntry> getVerticalDistributionEntries()
     {
-        if (m_verticalDistEntries == null)
-        {
-            m_verticalDistEntries = new HashSet<>();
-        }
-        return m_verticalDistEntries;
+        return m_alignAndDistribute.getVerticalDistributionEntries(this);
     }
 
     public IPrimitive<?> getShape()
@@ -302,8 +300,6 @@ public class AlignAndDistributeControlImpl implements AlignAndDistributeControl
     {
         if (leftChanged || rightChanged)
         {
-            m_alignAndDistribute.removeHorizontalDistIndex(this);
-
             final boolean hCenterChanged = ((left + (m_box.getWidth() / 2)) != m_hCenter);
 
             if (leftChanged)
@@ -332,12 +328,10 @@ public class AlignAndDistributeControlImpl implements AlignAndDistributeControl
             {
                 m_alignAndDistribute.addRightAlignIndexEntry(this, m_right);
             }
-            m_alignAndDistribute.buildHorizontalDistIndex(this);
+            m_alignAndDistribute.invalidateDistribution();
         }
         if (topChanged || bottomChanged)
         {
-            m_alignAndDistribute.removeVerticalDistIndex(this);
-
             final boolean vCenterChanged = ((top + (m_box.getHeight() / 2)) != m_vCenter);
 
             if (topChanged)
@@ -366,7 +360,7 @@ public class AlignAndDistributeControlImpl implements AlignAndDistributeControl
             {
                 m_alignAndDistribute.addBottomAlignIndexEntry(this, m_bottom);
             }
-            m_alignAndDistribute.buildVerticalDistIndex(this);
+            m_alignAndDistribute.invalidateDistribution();
         }
     }
 
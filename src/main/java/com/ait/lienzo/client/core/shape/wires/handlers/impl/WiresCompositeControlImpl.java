@@ -24,6 +24,7 @@ import java.util.Map;
 import com.ait.lienzo.client.core.shape.wires.WiresConnector;
 import com.ait.lienzo.client.core.shape.wires.WiresContainer;
 import com.ait.lienzo.client.core.shape.wires.WiresManager;
+import com.ait.lienzo.client.core.shape.wires.WiresMoveBatch;
 import com.ait.lienzo.client.core.shape.wires.WiresShape;
 import com.ait.lienzo.client.core.shape.wires.handlers.MouseEvent;
 import com.ait.lienzo.client.core.shape.wires.handlers.WiresCompositeControl;
@@ -122,6 +123,8 @@ public class WiresCompositeControlImpl extends AbstractWiresBoundsConstraintCont
         }
         m_delta = new Point2D(dx, dy);
 
+        boolean specialUpdated = false;
+
         // Delegate location deltas to shape controls and obtain current locations for each one.
         final Collection<WiresShape> shapes = m_selectedShapes;
 
@@ -144,17 +147,21 @@ public class WiresCompositeControlImpl extends AbstractWiresBoundsConstraintCont
 
             final boolean locationAllowed = wiresManager.getLocationAcceptor().allow(shapesArray, locs);
 
-            // Do the updates.
+            // Do the updates, as one batch, so a connector between two selected shapes is refreshed once.
             if (locationAllowed)
             {
+                final WiresMoveBatch batch = wiresManager.beginMoveBatch();
+
                 i = 0;
 
                 for (final WiresShape shape : shapes)
                 {
-                    shape.getControl().getParentPickerControl().setShapeLocation(locs[i++]);
-
-                    postUpdateShape(shape);
+                    batch.setLocation(shape, locs[i++]);
                 }
+                // the batch also updates the special connections of the moved shapes
+                batch.commit();
+
+                specialUpdated = true;
             }
         }
         final Collection<WiresConnector> connectors = m_selectedConnectors;
@@ -168,9 +175,12 @@ public class WiresCompositeControlImpl extends AbstractWiresBoundsConstraintCont
                 handler.getControl().move(dx, dy, true, true);
                 WiresConnector.updateHeadTailForRefreshedConnector(connector);
             }
+            specialUpdated = false;
+        }
+        if (false == specialUpdated)
+        {
+            ShapeControlUtils.updateSpecialConnections(m_connectorsWithSpecialConnections, false);
         }
-        ShapeControlUtils.updateSpecialConnections(m_connectorsWithSpecialConnections, false);
-
         return false;
     }
 
@@ -33,35 +33,31 @@ import com.ait.tooling.nativetools.client.collection.NFastStringMap;
 
 public class WiresConnectionControlImpl implements WiresConnectionControl
 {
-    private final WiresConnector              m_connector;
+    private final WiresConnector             m_connector;
 
-    private final WiresManager                m_manager;
+    private final WiresManager               m_manager;
 
-    private final boolean                     m_head;
+    private final boolean                    m_head;
 
-    private ImageData                         m_shapesBacking;
+    private ImageData                        m_shapesBacking;
 
-    private ImageData                         m_magnetsBacking;
+    private MagnetManager.Magnets            m_magnets;
 
-    private MagnetManager.Magnets             m_magnets;
+    private double                           m_startX;
 
-    private double                            m_startX;
+    private double                           m_startY;
 
-    private double                            m_startY;
+    private Point2D                          m_adjust;
 
-    private Point2D                           m_adjust;
+    private String                           m_colorKey;
 
-    private String                            m_colorKey;
+    private WiresMagnet                      m_initial_magnet;
 
-    private WiresMagnet                       m_initial_magnet;
+    private WiresMagnet                      m_current_magnet;
 
-    private WiresMagnet                       m_current_magnet;
+    private boolean                          m_initialAutoConnect;
 
-    private boolean                           m_initialAutoConnect;
-
-    private final NFastStringMap<WiresShape>  m_shape_color_map  = new NFastStringMap<>();
-
-    private final NFastStringMap<WiresMagnet> m_magnet_color_map = new NFastStringMap<>();
+    private final NFastStringMap<WiresShape> m_shape_color_map = new NFastStringMap<>();
 
     public WiresConnectionControlImpl(final WiresConnector connector, final boolean isHeadNotTail, final WiresManager wiresManager)
     {
@@ -99,8 +95,6 @@ public class WiresConnectionControlImpl implements WiresConnectionControl
         if (null != m_initial_magnet)
         {
             m_magnets = connection.getMagnet().getMagnets();
-
-            m_magnetsBacking = m_manager.getMagnetManager().drawMagnetsToBack(m_magnets, m_shape_color_map, m_magnet_color_map, scratch);
         }
         // always null when drag start and reset the offsets (they may already be 0)
 
@@ -130,8 +124,6 @@ public class WiresConnectionControlImpl implements WiresConnectionControl
         }
         m_shapesBacking = null;// uses lots of memory, so let it GC
 
-        m_magnetsBacking = null;// uses lots of memory, so let it GC
-
         m_magnets = null;// if this is not nulled, the Mangets reference could stop Magnets being GC, when not used anywhere else
 
         m_colorKey = null;
@@ -142,8 +134,6 @@ public class WiresConnectionControlImpl implements WiresConnectionControl
 
         m_shape_color_map.clear();
 
-        m_magnet_color_map.clear();
-
         return accept;
     }
 
@@ -320,9 +310,11 @@ public class WiresConnectionControlImpl implements WiresConnectionControl
         {
             if (null != m_magnets)
             {
-                final String magnetColorKey = BackingColorMapUtils.findColorAtPoint(m_magnetsBacking, x, y);
+                // the magnet hotspots are looked up in the magnet index, no need to draw them
 
-                if (magnetColorKey == null)
+                final WiresMagnet potentialMagnet = m_manager.getMagnetManager().findMagnetAt(m_magnets, x, y);
+
+                if ((null == potentialMagnet) && (null == colorKey))
                 {
                     if (null != m_magnets)
                     {
@@ -336,8 +328,6 @@ public class WiresConnectionControlImpl implements WiresConnectionControl
                 {
                     // Take into account that it can be null, when over the main shape, instead of a magnet
 
-                    final WiresMagnet potentialMagnet = m_magnet_color_map.get(magnetColorKey);
-
                     if ((m_connector.getHeadConnection().getMagnet() != potentialMagnet) && (m_connector.getTailConnection().getMagnet() != potentialMagnet))
                     {
                         // make sure we don't add a connection's head and tail to the same magnet
@@ -413,10 +403,6 @@ public class WiresConnectionControlImpl implements WiresConnectionControl
         if (m_magnets != null)
         {
             m_magnets.show();
-
-            final ScratchPad scratch = m_manager.getLayer().getLayer().getScratchPad();
-
-            m_magnetsBacking = m_manager.getMagnetManager().drawMagnetsToBack(m_magnets, m_shape_color_map, m_magnet_color_map, scratch);
         }
     }
 
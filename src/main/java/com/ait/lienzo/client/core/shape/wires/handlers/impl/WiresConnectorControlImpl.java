@@ -176,7 +176,7 @@ public class WiresConnectorControlImpl implements WiresConnectorControl
         }
         if (moveLinePoints)
         {
-            m_connector.getLine().refresh();
+            m_connector.getLine().setPoint2DArray(points);
         }
         m_wiresManager.getLayer().getLayer().batch();
     }
@@ -215,7 +215,7 @@ public class WiresConnectorControlImpl implements WiresConnectorControl
                 point.setY(py);
             }
         }
-        m_connector.getLine().refresh();
+        m_connector.getLine().setPoint2DArray(m_connector.getLine().getPoint2DArray());
 
         m_wiresManager.getLayer().getLayer().batch();
     }
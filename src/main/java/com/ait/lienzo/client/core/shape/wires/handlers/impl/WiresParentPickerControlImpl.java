@@ -24,6 +24,7 @@ import com.ait.lienzo.client.core.shape.wires.handlers.MouseEvent;
 import com.ait.lienzo.client.core.shape.wires.handlers.WiresMouseControl;
 import com.ait.lienzo.client.core.shape.wires.handlers.WiresParentPickerControl;
 import com.ait.lienzo.client.core.shape.wires.picker.ColorMapBackedPicker;
+import com.ait.lienzo.client.core.shape.wires.picker.IncrementalColorMapBackedPicker;
 import com.ait.lienzo.client.core.types.Point2D;
 
 public class WiresParentPickerControlImpl implements WiresParentPickerControl, WiresMouseControl
@@ -197,6 +198,10 @@ public class WiresParentPickerControlImpl implements WiresParentPickerControl, W
 
         m_parentPart = null;
 
+        if (m_picker instanceof IncrementalColorMapBackedPicker)
+        {
+            ((IncrementalColorMapBackedPicker) m_picker).release(getPickerOptions());
+        }
         m_picker = null;
 
         initialParent = null;
@@ -284,7 +289,7 @@ public class WiresParentPickerControlImpl implements WiresParentPickerControl, W
         @Override
         public ColorMapBackedPicker get(final WiresLayer layer)
         {
-            return new ColorMapBackedPicker(layer, layer.getChildShapes(), layer.getLayer().getScratchPad(), pickerOptions);
+            return layer.getPicker().acquire(pickerOptions);
         }
 
         @Override
@@ -53,6 +53,17 @@ public class ColorMapBackedPicker
         addShapes(shapes);
     }
 
+    /**
+     * For pickers that draw their shapes themselves, nothing is cleared or drawn here.
+     */
+    protected ColorMapBackedPicker(final WiresLayer layer, final ScratchPad scratchPad)
+    {
+        m_scratchPad = scratchPad;
+        m_layer = layer;
+        m_ctx = scratchPad.getContext();
+        m_options = null;
+    }
+
     protected void addShapes(final NFastArrayList<WiresShape> shapes)
     {
         for (int j = 0; j < shapes.size(); j++)
@@ -0,0 +1,738 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires.picker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import com.ait.lienzo.client.core.shape.MultiPath;
+import com.ait.lienzo.client.core.shape.Viewport;
+import com.ait.lienzo.client.core.shape.wires.BackingColorMapUtils;
+import com.ait.lienzo.client.core.shape.wires.PickerPart;
+import com.ait.lienzo.client.core.shape.wires.WiresLayer;
+import com.ait.lienzo.client.core.shape.wires.WiresShape;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.ImageDataPixelColor;
+import com.ait.lienzo.client.core.types.PathPartList;
+import com.ait.lienzo.client.core.types.Point2D;
+import com.ait.lienzo.client.core.util.FlattenedPath;
+import com.ait.lienzo.client.core.util.ScratchPad;
+import com.ait.lienzo.client.core.util.SpatialIndex;
+import com.ait.lienzo.shared.core.types.LineJoin;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+
+/**
+ * A {@link ColorMapBackedPicker} that lives as long as its {@link WiresLayer} and keeps its color map up to date
+ * incrementally, instead of being rebuilt from scratch at the start of every drag.
+ * <p>
+ * Every shape keeps its picker colors for as long as it is on the layer. On {@link #refresh()} the shape tree is
+ * walked, the padded bounds of every shape are compared with the ones it was last drawn with, and only the regions
+ * that changed are cleared and redrawn, clipped, with the shapes that overlap them in z-order. Excluding a dragged
+ * subtree is such a change, so starting a drag only redraws the area under the dragged shapes.
+ * <p>
+ * Users {@link #acquire(PickerOptions) acquire} the picker with their options and {@link #release(PickerOptions) release}
+ * it when they are done. The shapes skipped are those of all the options currently acquired, so during a multiple
+ * selection drag no selected shape is picked. Hotspots are drawn when any acquired options ask for them, at the widest
+ * hotspot width asked for.
+ * <p>
+ * After {@link #invalidate()} or {@link #invalidate(WiresShape)} the bitmap is stale until the next refresh, and
+ * {@link #findShapeAt(int, int)} answers analytically, from a {@link SpatialIndex} of the shape bounds and the
+ * flattened shape paths, through {@link PaintedPaths}. Outlines are drawn with round joins, so the bitmap and the analytic
+ * answers agree at corners.
+ * <p>
+ * {@link #addSupplementaryPaths(WiresShape)} is called for every shape on each refresh. The paths it draws with
+ * {@link #drawShape(String, double, MultiPath, PickerPart, boolean)} are kept with the shape, keep their colors, widen the
+ * region of the shape, and are drawn after its body and picked analytically like it.
+ */
+public class IncrementalColorMapBackedPicker extends ColorMapBackedPicker
+{
+    public static final int                  MAXIMUM_DIRTY_REGIONS = 16;
+
+    private static final Comparator<Entry>   ORDER                 = new Comparator<Entry>()
+    {
+        @Override
+        public int compare(final Entry a, final Entry b)
+        {
+            return (a.m_order - b.m_order);
+        }
+    };
+
+    private final HashMap<WiresShape, Entry> m_entries             = new HashMap<>();
+
+    private final SpatialIndex<Entry>        m_index               = new SpatialIndex<>();
+
+    private final ArrayList<PickerOptions>   m_active              = new ArrayList<>();
+
+    private final HashSet<WiresShape>        m_skip                = new HashSet<>();
+
+    private final HashSet<WiresShape>        m_changed             = new HashSet<>();
+
+    private final ArrayList<double[]>        m_dirty               = new ArrayList<>();
+
+    private PickerOptions                    m_options             = new PickerOptions(false, 0);
+
+    private boolean                          m_stale               = true;
+
+    private boolean                          m_synced;
+
+    private boolean                          m_full                = true;
+
+    private Entry                            m_collect;
+
+    private int                              m_stamp;
+
+    private int                              m_order;
+
+    public IncrementalColorMapBackedPicker(final WiresLayer layer)
+    {
+        super(layer, new ScratchPad(1, 1));
+    }
+
+    /**
+     * Adds the options to the active ones and brings the picker up to date.
+     */
+    public IncrementalColorMapBackedPicker acquire(final PickerOptions options)
+    {
+        if (null == options)
+        {
+            throw new NullPointerException("options can not be null");
+        }
+        if (false == m_active.contains(options))
+        {
+            m_active.add(options);
+        }
+        refresh();
+
+        return this;
+    }
+
+    /**
+     * Removes the options from the active ones. The shapes they skipped are drawn again on the next refresh.
+     */
+    public void release(final PickerOptions options)
+    {
+        m_active.remove(options);
+    }
+
+    /**
+     * Marks a shape as changed, so its region is redrawn on the next refresh even if its bounds are the same.
+     */
+    public void invalidate(final WiresShape shape)
+    {
+        m_changed.add(shape);
+
+        m_stale = true;
+
+        m_synced = false;
+    }
+
+    /**
+     * Marks the whole layer as possibly changed. Until the next refresh, queries are answered analytically.
+     */
+    public void invalidate()
+    {
+        m_stale = true;
+
+        m_synced = false;
+    }
+
+    public boolean isStale()
+    {
+        return m_stale;
+    }
+
+    @Override
+    public PickerOptions getPickerOptions()
+    {
+        return m_options;
+    }
+
+    /**
+     * Walks the shape tree, and redraws the regions of the shapes that were added, removed, moved, skipped or invalidated.
+     */
+    public void refresh()
+    {
+        setOptions();
+
+        final Viewport viewport = m_layer.getLayer().getViewport();
+
+        if ((null != viewport) && (null != m_ctx) && ((m_scratchPad.getWidth() != viewport.getWidth()) || (m_scratchPad.getHeight() != viewport.getHeight())))
+        {
+            m_scratchPad.setPixelSize(viewport.getWidth(), viewport.getHeight());
+
+            m_full = true;
+        }
+        sync();
+
+        if ((null == viewport) || (null == m_ctx))
+        {
+            return;
+        }
+        if (m_full || (m_dirty.size() > MAXIMUM_DIRTY_REGIONS))
+        {
+            if (m_full)
+            {
+                m_scratchPad.clear();
+
+                m_ctx.save();
+            }
+            else
+            {
+                clip(union(m_dirty));
+            }
+            draw(new ArrayList<Entry>(m_entries.values()));
+
+            m_ctx.restore();
+        }
+        else
+        {
+            for (int i = 0; i < m_dirty.size(); i++)
+            {
+                final double[] box = m_dirty.get(i);
+
+                clip(box);
+
+                draw(m_index.query(box[0], box[1], box[2], box[3], new ArrayList<Entry>()));
+
+                m_ctx.restore();
+            }
+        }
+        m_dirty.clear();
+
+        m_full = false;
+
+        m_stale = false;
+    }
+
+    @Override
+    public PickerPart findShapeAt(final int x, final int y)
+    {
+        final Point2D temp = new Point2D(x, y);
+
+        final Viewport viewport = m_layer.getLayer().getViewport();
+
+        if (null != viewport)
+        {
+            viewport.getTransform().getInverse().transform(temp, temp);
+        }
+        if (m_stale || (null == m_ctx))
+        {
+            return findShapeAt(temp.getX(), temp.getY());
+        }
+        final ImageDataPixelColor color = m_ctx.getImageDataPixelColor((int) Math.round(temp.getX()), (int) Math.round(temp.getY()));
+
+        if (null != color)
+        {
+            return m_colorMap.get(color.toBrowserRGB());
+        }
+        return null;
+    }
+
+    /**
+     * Finds the top most shape part at a point in layer coordinates, from the shape geometry rather than the bitmap.
+     */
+    public PickerPart findShapeAt(final double x, final double y)
+    {
+        if (false == m_synced)
+        {
+            sync();
+        }
+        final ArrayList<Entry> hits = m_index.query(x, y, new ArrayList<Entry>());
+
+        Collections.sort(hits, ORDER);
+
+        final PaintedPaths paint = new PaintedPaths();
+
+        final ArrayList<PickerPart> parts = new ArrayList<>();
+
+        for (int i = hits.size() - 1; i >= 0; i--)
+        {
+            final PickerPart part = hits.get(i).pick(x, y, m_options, paint.clear(), parts);
+
+            if (null != part)
+            {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    private void setOptions()
+    {
+        boolean hotspots = false;
+
+        double width = 0;
+
+        for (int i = 0; i < m_active.size(); i++)
+        {
+            final PickerOptions options = m_active.get(i);
+
+            if (options.isHotspotsEnabled())
+            {
+                hotspots = true;
+
+                width = Math.max(width, options.getHotspotWidth());
+            }
+        }
+        if (m_active.isEmpty())
+        {
+            // keep drawing as before, so the next acquire with the same options does not redraw everything
+
+            hotspots = m_options.isHotspotsEnabled();
+
+            width = m_options.getHotspotWidth();
+        }
+        if ((hotspots != m_options.isHotspotsEnabled()) || (width != m_options.getHotspotWidth()))
+        {
+            m_options = new PickerOptions(hotspots, width);
+
+            m_full = true;
+        }
+        m_skip.clear();
+
+        for (int i = 0; i < m_active.size(); i++)
+        {
+            final NFastArrayList<WiresShape> skip = m_active.get(i).getShapesToSkip();
+
+            for (int j = 0; j < skip.size(); j++)
+            {
+                m_skip.add(skip.get(j));
+            }
+        }
+    }
+
+    private void sync()
+    {
+        m_stamp++;
+
+        m_order = 0;
+
+        sync(m_layer.getChildShapes(), false);
+
+        final Iterator<Entry> iter = m_entries.values().iterator();
+
+        while (iter.hasNext())
+        {
+            final Entry entry = iter.next();
+
+            if (entry.m_stamp != m_stamp)
+            {
+                dirty(entry.m_box);
+
+                m_index.remove(entry);
+
+                for (int i = 0; i < entry.m_colors.length; i++)
+                {
+                    m_colorMap.remove(entry.m_colors[i]);
+                }
+                for (int i = 0; i < entry.m_extra.size(); i++)
+                {
+                    m_colorMap.remove(entry.m_extra.get(i).m_color);
+                }
+                iter.remove();
+            }
+        }
+        m_changed.clear();
+
+        m_synced = true;
+    }
+
+    private void sync(final NFastArrayList<WiresShape> shapes, final boolean skipped)
+    {
+        if (null == shapes)
+        {
+            return;
+        }
+        for (int i = 0; i < shapes.size(); i++)
+        {
+            final WiresShape shape = shapes.get(i);
+
+            final boolean skip = (skipped || m_skip.contains(shape));
+
+            Entry entry = m_entries.get(shape);
+
+            if (null == entry)
+            {
+                entry = new Entry(shape);
+
+                m_entries.put(shape, entry);
+
+                for (int j = 0; j < entry.m_colors.length; j++)
+                {
+                    m_colorMap.put(entry.m_colors[j], entry.m_parts[j]);
+                }
+            }
+            if (false == skip)
+            {
+                collect(entry);
+            }
+            final double[] box = skip ? null : getBounds(entry);
+
+            final int order = m_order++;
+
+            if ((order != entry.m_order) || m_changed.contains(shape) || (false == same(box, entry.m_box)))
+            {
+                dirty(entry.m_box);
+
+                dirty(box);
+
+                entry.m_box = box;
+
+                entry.m_order = order;
+
+                if (null == box)
+                {
+                    m_index.remove(entry);
+                }
+                else
+                {
+                    m_index.put(entry, box[0], box[1], box[2], box[3]);
+                }
+            }
+            entry.m_stamp = m_stamp;
+
+            sync(shape.getChildShapes(), skip);
+        }
+    }
+
+    /**
+     * Calls {@link #addSupplementaryPaths(WiresShape)} for the shape, and keeps the paths it draws with the entry instead of drawing them.
+     */
+    private void collect(final Entry entry)
+    {
+        entry.m_size = 0;
+
+        m_collect = entry;
+
+        addSupplementaryPaths(entry.m_shape);
+
+        m_collect = null;
+
+        while (entry.m_extra.size() > entry.m_size)
+        {
+            m_colorMap.remove(entry.m_extra.remove(entry.m_extra.size() - 1).m_color);
+        }
+    }
+
+    @Override
+    protected void drawShape(final String color, final double strokeWidth, final PickerPart pickerPart, final boolean fill)
+    {
+        drawShape(color, strokeWidth, pickerPart.getShape().getPath(), pickerPart, fill);
+    }
+
+    @Override
+    protected void drawShape(final String color, final double strokeWidth, final MultiPath multiPath, final PickerPart pickerPart, final boolean fill)
+    {
+        if (null == m_collect)
+        {
+            super.drawShape(color, strokeWidth, multiPath, pickerPart, fill);
+
+            return;
+        }
+        final Entry entry = m_collect;
+
+        // the paths keep the colors they were first given, so the regions drawn before still match the color map
+
+        if (entry.m_size < entry.m_extra.size())
+        {
+            final Extra extra = entry.m_extra.get(entry.m_size);
+
+            extra.set(multiPath, strokeWidth, pickerPart, fill);
+
+            m_colorMap.put(extra.m_color, pickerPart);
+        }
+        else
+        {
+            final Extra extra = new Extra(m_colorKeyRotor.next());
+
+            extra.set(multiPath, strokeWidth, pickerPart, fill);
+
+            m_colorMap.put(extra.m_color, pickerPart);
+
+            entry.m_extra.add(extra);
+        }
+        entry.m_size++;
+    }
+
+    private double[] getBounds(final Entry entry)
+    {
+        final MultiPath path = entry.m_shape.getPath();
+
+        // half the widest outline drawn
+
+        final double[] box = getBounds(path, Math.max(path.getStrokeWidth(), m_options.isHotspotsEnabled() ? m_options.getHotspotWidth() : 0));
+
+        if (null == box)
+        {
+            return null;
+        }
+        for (int i = 0; i < entry.m_extra.size(); i++)
+        {
+            final Extra extra = entry.m_extra.get(i);
+
+            final double[] more = getBounds(extra.m_path, extra.m_width);
+
+            if (null != more)
+            {
+                box[0] = Math.min(box[0], more[0]);
+
+                box[1] = Math.min(box[1], more[1]);
+
+                box[2] = Math.max(box[2], more[2]);
+
+                box[3] = Math.max(box[3], more[3]);
+            }
+        }
+        return box;
+    }
+
+    private static double[] getBounds(final MultiPath path, final double width)
+    {
+        final BoundingBox bbox = path.getBoundingBox();
+
+        final Point2D location = path.getComputedLocation();
+
+        // half the outline, plus a pixel for anti-aliasing
+
+        final double pad = (width / 2) + 1;
+
+        final double[] box = new double[] { bbox.getMinX() + location.getX() - pad, bbox.getMinY() + location.getY() - pad, bbox.getMaxX() + location.getX() + pad, bbox.getMaxY() + location.getY() + pad };
+
+        for (int i = 0; i < box.length; i++)
+        {
+            if (Double.isNaN(box[i]) || Double.isInfinite(box[i]))
+            {
+                return null;
+            }
+        }
+        return box;
+    }
+
+    private static List<FlattenedPath> flatten(final MultiPath path)
+    {
+        final NFastArrayList<PathPartList> list = path.getActualPathPartListArray();
+
+        final ArrayList<FlattenedPath> flat = new ArrayList<>(list.size());
+
+        for (int i = 0; i < list.size(); i++)
+        {
+            flat.add(list.get(i).getFlattenedPath());
+        }
+        return flat;
+    }
+
+    private void dirty(final double[] box)
+    {
+        if ((null != box) && (false == m_full))
+        {
+            m_dirty.add(box);
+        }
+    }
+
+    private void clip(final double[] box)
+    {
+        final double x = Math.floor(box[0]);
+
+        final double y = Math.floor(box[1]);
+
+        final double w = Math.ceil(box[2]) - x;
+
+        final double h = Math.ceil(box[3]) - y;
+
+        m_ctx.save();
+
+        m_ctx.beginPath();
+
+        m_ctx.rect(x, y, w, h);
+
+        m_ctx.clip();
+
+        m_ctx.clearRect(x, y, w, h);
+    }
+
+    private void draw(final ArrayList<Entry> entries)
+    {
+        Collections.sort(entries, ORDER);
+
+        m_ctx.setLineJoin(LineJoin.ROUND);
+
+        for (int i = 0; i < entries.size(); i++)
+        {
+            final Entry entry = entries.get(i);
+
+            if (null == entry.m_box)
+            {
+                continue;
+            }
+            final MultiPath path = entry.m_shape.getPath();
+
+            BackingColorMapUtils.drawShapeToBacking(m_ctx, path, entry.m_colors[Entry.BODY], path.getStrokeWidth(), true);
+
+            for (int j = 0; j < entry.m_extra.size(); j++)
+            {
+                final Extra extra = entry.m_extra.get(j);
+
+                BackingColorMapUtils.drawShapeToBacking(m_ctx, extra.m_path, extra.m_color, extra.m_width, extra.m_fill);
+            }
+            if (m_options.isHotspotsEnabled())
+            {
+                BackingColorMapUtils.drawShapeToBacking(m_ctx, path, entry.m_colors[Entry.HOTSPOT], m_options.getHotspotWidth(), false);
+
+                // need to be able to detect the difference between the actual border selection and the border hotspot
+                BackingColorMapUtils.drawShapeToBacking(m_ctx, path, entry.m_colors[Entry.BORDER], path.getStrokeWidth(), false);
+            }
+        }
+    }
+
+    private static double[] union(final ArrayList<double[]> boxes)
+    {
+        final double[] union = new double[] { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+
+        for (int i = 0; i < boxes.size(); i++)
+        {
+            final double[] box = boxes.get(i);
+
+            union[0] = Math.min(union[0], box[0]);
+
+            union[1] = Math.min(union[1], box[1]);
+
+            union[2] = Math.max(union[2], box[2]);
+
+            union[3] = Math.max(union[3], box[3]);
+        }
+        return union;
+    }
+
+    private static boolean same(final double[] a, final double[] b)
+    {
+        if ((null == a) || (null == b))
+        {
+            return (a == b);
+        }
+        return ((a[0] == b[0]) && (a[1] == b[1]) && (a[2] == b[2]) && (a[3] == b[3]));
+    }
+
+    private static final class Entry
+    {
+        private static final int       BODY    = 0;
+
+        private static final int       HOTSPOT = 1;
+
+        private static final int       BORDER  = 2;
+
+        private final WiresShape       m_shape;
+
+        private final String[]         m_colors;
+
+        private final PickerPart[]     m_parts;
+
+        private final ArrayList<Extra> m_extra = new ArrayList<>();
+
+        private double[]               m_box;
+
+        private int                    m_order = -1;
+
+        private int                    m_stamp;
+
+        private int                    m_size;
+
+        private Entry(final WiresShape shape)
+        {
+            m_shape = shape;
+
+            m_colors = new String[] { m_colorKeyRotor.next(), m_colorKeyRotor.next(), m_colorKeyRotor.next() };
+
+            m_parts = new PickerPart[] { new PickerPart(shape, PickerPart.ShapePart.BODY), new PickerPart(shape, PickerPart.ShapePart.BORDER_HOTSPOT), new PickerPart(shape, PickerPart.ShapePart.BORDER) };
+        }
+
+        /**
+         * Adds the paths of this shape to the paint in the order draw() draws them, and returns the part on top.
+         */
+        private PickerPart pick(final double x, final double y, final PickerOptions options, final PaintedPaths paint, final ArrayList<PickerPart> parts)
+        {
+            final MultiPath path = m_shape.getPath();
+
+            final Point2D location = path.getComputedLocation();
+
+            final List<FlattenedPath> flat = flatten(path);
+
+            parts.clear();
+
+            paint.add(flat, location.getX(), location.getY(), path.getStrokeWidth(), true);
+
+            parts.add(m_parts[BODY]);
+
+            for (int i = 0; i < m_extra.size(); i++)
+            {
+                final Extra extra = m_extra.get(i);
+
+                final Point2D offset = extra.m_path.getComputedLocation();
+
+                paint.add(flatten(extra.m_path), offset.getX(), offset.getY(), extra.m_width, extra.m_fill);
+
+                parts.add(extra.m_part);
+            }
+            if (options.isHotspotsEnabled())
+            {
+                paint.add(flat, location.getX(), location.getY(), options.getHotspotWidth(), false);
+
+                parts.add(m_parts[HOTSPOT]);
+
+                paint.add(flat, location.getX(), location.getY(), path.getStrokeWidth(), false);
+
+                parts.add(m_parts[BORDER]);
+            }
+            final int pick = paint.pick(x, y);
+
+            return (pick < 0) ? null : parts.get(pick);
+        }
+    }
+
+    private static final class Extra
+    {
+        private final String m_color;
+
+        private MultiPath    m_path;
+
+        private double       m_width;
+
+        private PickerPart   m_part;
+
+        private boolean      m_fill;
+
+        private Extra(final String color)
+        {
+            m_color = color;
+        }
+
+        private void set(final MultiPath path, final double width, final PickerPart part, final boolean fill)
+        {
+            m_path = path;
+
+            m_width = width;
+
+            m_part = part;
+
+            m_fill = fill;
+        }
+    }
+}
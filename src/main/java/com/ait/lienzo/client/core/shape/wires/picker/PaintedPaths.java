@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires.picker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ait.lienzo.client.core.util.FlattenedPath;
+
+/**
+ * The paths a picker paints into its color map, in the order it paints them. Each is closed, filled or not, and stroked
+ * with round joins, as {@link IncrementalColorMapBackedPicker} draws them, so the path on top at a point can be found
+ * from the geometry when the bitmap is stale.
+ */
+public final class PaintedPaths
+{
+    private final ArrayList<Paint> m_paints = new ArrayList<>();
+
+    /**
+     * Adds paths painted over the ones already added.
+     *
+     * @param paths the flattened paths, painted one by one
+     * @param dx the x offset the paths are painted at
+     * @param dy the y offset the paths are painted at
+     * @param width the stroke width
+     * @param fill true if the paths are filled as well as stroked
+     * @return this PaintedPaths
+     */
+    public final PaintedPaths add(final List<FlattenedPath> paths, final double dx, final double dy, final double width, final boolean fill)
+    {
+        m_paints.add(new Paint(paths, dx, dy, width, fill));
+
+        return this;
+    }
+
+    public final int size()
+    {
+        return m_paints.size();
+    }
+
+    public final PaintedPaths clear()
+    {
+        m_paints.clear();
+
+        return this;
+    }
+
+    /**
+     * Returns the index of the top most paths painted at a point, or -1 if none is.
+     */
+    public final int pick(final double x, final double y)
+    {
+        for (int i = m_paints.size() - 1; i >= 0; i--)
+        {
+            if (m_paints.get(i).isPainted(x, y))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Paint
+    {
+        private final List<FlattenedPath> m_paths;
+
+        private final double              m_dx;
+
+        private final double              m_dy;
+
+        private final double              m_half;
+
+        private final boolean             m_fill;
+
+        private Paint(final List<FlattenedPath> paths, final double dx, final double dy, final double width, final boolean fill)
+        {
+            m_paths = paths;
+
+            m_dx = dx;
+
+            m_dy = dy;
+
+            m_half = width / 2;
+
+            m_fill = fill;
+        }
+
+        private boolean isPainted(final double x, final double y)
+        {
+            final double px = x - m_dx;
+
+            final double py = y - m_dy;
+
+            for (int i = 0; i < m_paths.size(); i++)
+            {
+                final FlattenedPath path = m_paths.get(i);
+
+                if ((m_fill && path.contains(px, py)) || (path.distanceTo(px, py, true) <= m_half))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.ait.lienzo.client.core.types;
 
 import com.ait.lienzo.client.core.Path2D;
+import com.ait.lienzo.client.core.util.FlattenedPath;
 import com.ait.lienzo.client.core.util.Geometry;
 import com.ait.tooling.nativetools.client.collection.NFastDoubleArrayJSO;
 import com.google.gwt.core.client.JsArray;
@@ -38,6 +39,18 @@ public final class PathPartList
 
     private BoundingBox           m_box;
 
+    private FlattenedPath         m_flat;
+
+    private boolean               m_ext;
+
+    private double                m_bbx;
+
+    private double                m_bby;
+
+    private PathPartList          m_simp;
+
+    private double                m_simt;
+
     private final PathPartListJSO m_jso;
 
     public PathPartList()
@@ -59,13 +72,37 @@ public final class PathPartList
 
     public final void push(final PathPartEntryJSO part)
     {
-        resetBoundingBox();
-
         if (false == m_mov)
         {
             M(0, 0);
         }
         m_jso.push(part);
+
+        extend(part, size() - 1);
+    }
+
+    /**
+     * Appends a part to the cached bounds and flattened path, if they have been built, rather than dropping them.
+     * The bounds are copied before they are grown, as callers may hold on to the previous instance.
+     */
+    private final void extend(final PathPartEntryJSO part, final int index)
+    {
+        m_simp = null;
+
+        if ((null != m_box) && m_ext)
+        {
+            m_box = new BoundingBox(m_box);
+
+            addBoundingBox(part);
+        }
+        else
+        {
+            m_box = null;
+        }
+        if (null != m_flat)
+        {
+            Geometry.flatten(part, index, m_flat);
+        }
     }
 
     public final PathPartEntryJSO get(final int i)
@@ -377,6 +414,216 @@ public final class PathPartList
     public void resetBoundingBox()
     {
         m_box = null;
+
+        m_flat = null;
+
+        m_simp = null;
+    }
+
+    /**
+     * Returns a copy of this path for drawing at a coarse scale. Lines shorter than the tolerance are merged,
+     * and curves whose control points lie within the tolerance of their chord are drawn as lines, so the result
+     * is never further than the tolerance from this path. Subpath ends, arcs and closes are kept as they are.
+     * <p>
+     * The copy is only meant to be drawn, and must not be modified. It is cached until a part is appended or
+     * {@link #resetBoundingBox()} is called, and reused for tolerances up to twice the one it was made with.
+     *
+     * @param tolerance the largest distance allowed from this path, in the units of its points
+     * @return PathPartList
+     */
+    public final PathPartList simplify(final double tolerance)
+    {
+        if (false == (tolerance > 0))
+        {
+            return this;
+        }
+        if ((null != m_simp) && (m_simt <= tolerance) && ((m_simt * 2) >= tolerance))
+        {
+            return m_simp;
+        }
+        final PathPartListJSO list = PathPartListJSO.make();
+
+        final double tols = tolerance * tolerance;
+
+        final int size = size();
+
+        PathPartEntryJSO skip = null;
+
+        // the last point drawn, NaN after an arc, as canvas arcs may not end on their last point
+
+        double cpx = Double.NaN;
+
+        double cpy = Double.NaN;
+
+        double spx = Double.NaN;
+
+        double spy = Double.NaN;
+
+        for (int i = 0; i < size; i++)
+        {
+            PathPartEntryJSO part = get(i);
+
+            final NFastDoubleArrayJSO p = part.getPoints();
+
+            final int command = part.getCommand();
+
+            if (command == PathPartEntryJSO.BEZIER_CURVETO_ABSOLUTE)
+            {
+                if ((getSegmentDistanceSquared(p.get(0), p.get(1), cpx, cpy, p.get(4), p.get(5)) < tols) && (getSegmentDistanceSquared(p.get(2), p.get(3), cpx, cpy, p.get(4), p.get(5)) < tols))
+                {
+                    part = PathPartEntryJSO.make(PathPartEntryJSO.LINETO_ABSOLUTE, NFastDoubleArrayJSO.make(p.get(4), p.get(5)));
+                }
+            }
+            else if (command == PathPartEntryJSO.QUADRATIC_CURVETO_ABSOLUTE)
+            {
+                if (getSegmentDistanceSquared(p.get(0), p.get(1), cpx, cpy, p.get(2), p.get(3)) < tols)
+                {
+                    part = PathPartEntryJSO.make(PathPartEntryJSO.LINETO_ABSOLUTE, NFastDoubleArrayJSO.make(p.get(2), p.get(3)));
+                }
+            }
+            if (part.getCommand() == PathPartEntryJSO.LINETO_ABSOLUTE)
+            {
+                final double x = part.getPoints().get(0);
+
+                final double y = part.getPoints().get(1);
+
+                final double dx = x - cpx;
+
+                final double dy = y - cpy;
+
+                if (((dx * dx) + (dy * dy)) < tols)
+                {
+                    skip = part;
+
+                    continue;
+                }
+                list.push(part);
+
+                skip = null;
+
+                cpx = x;
+
+                cpy = y;
+
+                continue;
+            }
+            if (null != skip)
+            {
+                list.push(skip);
+
+                skip = null;
+            }
+            list.push(part);
+
+            if (command == PathPartEntryJSO.MOVETO_ABSOLUTE)
+            {
+                cpx = spx = p.get(0);
+
+                cpy = spy = p.get(1);
+            }
+            else if (command == PathPartEntryJSO.CLOSE_PATH_PART)
+            {
+                cpx = spx;
+
+                cpy = spy;
+            }
+            else if (command == PathPartEntryJSO.BEZIER_CURVETO_ABSOLUTE)
+            {
+                cpx = p.get(4);
+
+                cpy = p.get(5);
+            }
+            else if (command == PathPartEntryJSO.QUADRATIC_CURVETO_ABSOLUTE)
+            {
+                cpx = p.get(2);
+
+                cpy = p.get(3);
+            }
+            else
+            {
+                cpx = cpy = spx = spy = Double.NaN;
+            }
+        }
+        if (null != skip)
+        {
+            list.push(skip);
+        }
+        m_simp = new PathPartList(list, true);
+
+        m_simt = tolerance;
+
+        return m_simp;
+    }
+
+    private static final double getSegmentDistanceSquared(final double px, final double py, final double ax, final double ay, final double bx, final double by)
+    {
+        final double dx = bx - ax;
+
+        final double dy = by - ay;
+
+        final double ll = (dx * dx) + (dy * dy);
+
+        double t = 0;
+
+        if (ll > 0)
+        {
+            t = Math.max(0, Math.min(1, (((px - ax) * dx) + ((py - ay) * dy)) / ll));
+        }
+        final double ex = px - (ax + (t * dx));
+
+        final double ey = py - (ay + (t * dy));
+
+        return (ex * ex) + (ey * ey);
+    }
+
+    /**
+     * Returns this path flattened into polylines with {@link FlattenedPath#DEFAULT_TOLERANCE}.
+     * The result is cached and extended as parts are appended, until {@link #resetBoundingBox()} drops it, so it must not be modified.
+     */
+    public final FlattenedPath getFlattenedPath()
+    {
+        if (null == m_flat)
+        {
+            m_flat = Geometry.flatten(this, new FlattenedPath());
+        }
+        return m_flat;
+    }
+
+    /**
+     * Returns the length of this path, measured on its {@link #getFlattenedPath() flattened path}.
+     */
+    public final double getLength()
+    {
+        return getFlattenedPath().getLength();
+    }
+
+    /**
+     * Returns the point at the given distance along this path, or null if the path is empty.
+     * The distance is clamped to <code>[0, getLength()]</code>, and is found in O(log n) once the length table is built.
+     */
+    public final Point2D getPointAtLength(final double length)
+    {
+        final double[] out = new double[2];
+
+        if (getFlattenedPath().getPointAtLength(length, out))
+        {
+            return new Point2D(out[0], out[1]);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the unit tangent at the given distance along this path, or null if the path has no length.
+     */
+    public final Point2D getTangentAtLength(final double length)
+    {
+        final double[] out = new double[2];
+
+        if (getFlattenedPath().getTangentAtLength(length, out))
+        {
+            return new Point2D(out[0], out[1]);
+        }
+        return null;
     }
 
     public BoundingBox getBoundingBox()
@@ -391,88 +638,95 @@ public final class PathPartList
         {
             m_box = new BoundingBox(0, 0, 0, 0);
 
+            m_ext = false;
+
             return m_box;
         }
         m_box = new BoundingBox();
 
-        double oldx = 0;
+        m_bbx = 0;
 
-        double oldy = 0;
+        m_bby = 0;
 
         int i = skipRedundantLeadingMoveTo(this);
 
+        m_ext = (i < size);
+
         for (; i < size; i++)
         {
-            final PathPartEntryJSO part = get(i);
+            addBoundingBox(get(i));
+        }
+        return m_box;
+    }
 
-            final NFastDoubleArrayJSO p = part.getPoints();
+    private final void addBoundingBox(final PathPartEntryJSO part)
+    {
+        final NFastDoubleArrayJSO p = part.getPoints();
 
-            switch (part.getCommand())
+        switch (part.getCommand())
+        {
+            case PathPartEntryJSO.LINETO_ABSOLUTE:
+                m_box.add(m_bbx = p.get(0), m_bby = p.get(1));
+                break;
+            case PathPartEntryJSO.MOVETO_ABSOLUTE:
+                m_box.add(m_bbx = p.get(0), m_bby = p.get(1));
+                break;
+            case PathPartEntryJSO.BEZIER_CURVETO_ABSOLUTE:
             {
-                case PathPartEntryJSO.LINETO_ABSOLUTE:
-                    m_box.add(oldx = p.get(0), oldy = p.get(1));
-                    break;
-                case PathPartEntryJSO.MOVETO_ABSOLUTE:
-                    m_box.add(oldx = p.get(0), oldy = p.get(1));
-                    break;
-                case PathPartEntryJSO.BEZIER_CURVETO_ABSOLUTE:
-                {
-                    final double x0 = oldx;
-                    final double y0 = oldy;
+                final double x0 = m_bbx;
+                final double y0 = m_bby;
 
-                    final double x1 = p.get(0);
-                    final double y1 = p.get(1);
+                final double x1 = p.get(0);
+                final double y1 = p.get(1);
 
-                    final double x2 = p.get(2);
-                    final double y2 = p.get(3);
+                final double x2 = p.get(2);
+                final double y2 = p.get(3);
 
-                    final double x3 = p.get(4);
-                    final double y3 = p.get(5);
+                final double x3 = p.get(4);
+                final double y3 = p.get(5);
 
-                    final double[] xvals = new double[]{x0, x1, x2, x3};
-                    final double[] yvals = new double[]{y0, y1, y2, y3};
+                final double[] xvals = new double[]{x0, x1, x2, x3};
+                final double[] yvals = new double[]{y0, y1, y2, y3};
 
-                    m_box.add(Geometry.getBoundingBoxOfCubicCurve(xvals, yvals));
-                    break;
-                }
-                case PathPartEntryJSO.QUADRATIC_CURVETO_ABSOLUTE:
-                    m_box.add(Geometry.getBoundingBoxForQuadraticCurve(new Point2DArray(new Point2D(oldx, oldy), new Point2D(p.get(0), p.get(1)), new Point2D(oldx = p.get(2), oldy = p.get(3)))));
-                    break;
-                case PathPartEntryJSO.ARCTO_ABSOLUTE:
-                    final double cx = p.get(0);
-                    final double cy = p.get(1);
-                    final double rx = p.get(2);
-                    final double ry = p.get(3);
-                    m_box.addX(cx + rx);
-                    m_box.addX(cx - rx);
-                    m_box.addY(cy + ry);
-                    m_box.addY(cy - ry);
-                    oldx = p.get(8);
-                    oldy = p.get(9);
-                    break;
-                case PathPartEntryJSO.CANVAS_ARCTO_ABSOLUTE:
-                    final double x0 = p.get(0);
-                    final double y0 = p.get(1);
-                    final double x1 = p.get(2);
-                    final double y1 = p.get(3);
-                    final double ra = p.get(4);
-                    final Point2D p0 = new Point2D(oldx, oldy);
-                    final Point2DArray pa = Geometry.getCanvasArcToPoints(p0, new Point2D(x0, y0), new Point2D(x1, y1), ra);
-                    final BoundingBox bb = Geometry.getBoundingBoxOfArc(pa.get(0), pa.get(1), pa.get(2), ra);
-                    if (false == pa.get(0).equals(p0))
-                    {
-                        bb.add(p0);//p0 is always the start point of the path, but not necessary of the arc - depending on the radius
-                    }
-                    m_box.add(bb);
-                    final Point2D ep = pa.get(2);// this is always the end point of the path
-                    oldx = ep.getX();
-                    oldy = ep.getY();
-                    break;
-                default:
-                    break;
+                m_box.add(Geometry.getBoundingBoxOfCubicCurve(xvals, yvals));
+                break;
             }
+            case PathPartEntryJSO.QUADRATIC_CURVETO_ABSOLUTE:
+                m_box.add(Geometry.getBoundingBoxForQuadraticCurve(new Point2DArray(new Point2D(m_bbx, m_bby), new Point2D(p.get(0), p.get(1)), new Point2D(m_bbx = p.get(2), m_bby = p.get(3)))));
+                break;
+            case PathPartEntryJSO.ARCTO_ABSOLUTE:
+                final double cx = p.get(0);
+                final double cy = p.get(1);
+                final double rx = p.get(2);
+                final double ry = p.get(3);
+                m_box.addX(cx + rx);
+                m_box.addX(cx - rx);
+                m_box.addY(cy + ry);
+                m_box.addY(cy - ry);
+                m_bbx = p.get(8);
+                m_bby = p.get(9);
+                break;
+            case PathPartEntryJSO.CANVAS_ARCTO_ABSOLUTE:
+                final double x0 = p.get(0);
+                final double y0 = p.get(1);
+                final double x1 = p.get(2);
+                final double y1 = p.get(3);
+                final double ra = p.get(4);
+                final Point2D p0 = new Point2D(m_bbx, m_bby);
+                final Point2DArray pa = Geometry.getCanvasArcToPoints(p0, new Point2D(x0, y0), new Point2D(x1, y1), ra);
+                final BoundingBox bb = Geometry.getBoundingBoxOfArc(pa.get(0), pa.get(1), pa.get(2), ra);
+                if (false == pa.get(0).equals(p0))
+                {
+                    bb.add(p0);//p0 is always the start point of the path, but not necessary of the arc - depending on the radius
+                }
+                m_box.add(bb);
+                final Point2D ep = pa.get(2);// this is always the end point of the path
+                m_bbx = ep.getX();
+                m_bby = ep.getY();
+                break;
+            default:
+                break;
         }
-        return m_box;
     }
 
     public static int skipRedundantLeadingMoveTo(final PathPartList list)
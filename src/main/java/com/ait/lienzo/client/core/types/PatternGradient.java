@@ -18,6 +18,7 @@ package com.ait.lienzo.client.core.types;
 
 import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.shared.core.types.FillRepeat;
+import com.google.gwt.dom.client.CanvasElement;
 import com.google.gwt.dom.client.ImageElement;
 import com.google.gwt.json.client.JSONObject;
 
@@ -45,6 +46,18 @@ public final class PatternGradient implements FillGradient
         this(PatternGradientJSO.make(image, ScratchPad.toDataURL(image), repeat.getValue()));
     }
 
+    /**
+     * Makes a pattern of a canvas, such as the one of a {@link ScratchPad}. The canvas is not copied, so the pattern shows
+     * what is on it when it is used. It has no source, so it can not be serialized and read back.
+     *
+     * @param canvas
+     * @param repeat
+     */
+    public PatternGradient(final CanvasElement canvas, final FillRepeat repeat)
+    {
+        this(PatternGradientJSO.make(canvas, null, repeat.getValue()));
+    }
+
     @Override
     public LinearGradient asLinearGradient()
     {
@@ -133,6 +146,18 @@ public final class PatternGradient implements FillGradient
 			return self;
         }-*/;
 
+        public static final native PatternGradientJSO make(CanvasElement e, String s, String r)
+        /*-{
+			var self = {};
+			self.src = s;
+			self.repeat = r;
+			self.type = "PatternGradient";
+			self.image = function() {
+				return e;
+			};
+			return self;
+        }-*/;
+
         public final native String getSrc()
         /*-{
 			return this.src;
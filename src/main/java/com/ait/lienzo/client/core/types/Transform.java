@@ -398,6 +398,17 @@ public final class Transform
         return get(5);
     }
 
+    /**
+     * Returns the mean scale of this transform, the square root of the
+     * area a unit square is mapped to. Translation is ignored.
+     * @return a double value that is the mean scale of the affine
+     *  transformation matrix.
+     */
+    public final double getScale()
+    {
+        return Math.sqrt(Math.abs(m_jso.getDeterminant()));
+    }
+
     /**
      * Returns the underlying matrix values.
      *
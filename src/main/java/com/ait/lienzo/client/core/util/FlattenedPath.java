@@ -0,0 +1,1022 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.util;
+
+import java.util.Arrays;
+
+/**
+ * A path flattened into polylines, held in primitive arrays.
+ * <p>
+ * Curves and arcs are subdivided until no chord deviates from the curve by more than the
+ * tolerance, so intersection and hit queries only ever deal with straight segments.
+ * Intersections for many rays are computed in one pass and returned as an {@link Intersections}
+ * instance, without allocating a point per hit. Length queries use a cumulative length table
+ * and a binary search, so they are O(log n) in the number of flattened points.
+ * <p>
+ * This class has no browser dependencies, so it can be used and tested on the JVM.
+ */
+public final class FlattenedPath
+{
+    public static final double   DEFAULT_TOLERANCE    = 0.25;
+
+    public static final int      MAXIMUM_SUBDIVISIONS = 1024;
+
+    private static final double  EPSILON              = 0.000001;
+
+    private final double         m_tolerance;
+
+    private double[]             m_xy = new double[32];
+
+    private boolean[]            m_mv = new boolean[16];
+
+    private int[]                m_pt = new int[16];
+
+    private double[]             m_ln;
+
+    private int                  m_size;
+
+    private int                  m_part;
+
+    private int                  m_path;
+
+    private int                  m_done;
+
+    private double               m_cpx;
+
+    private double               m_cpy;
+
+    private double               m_minx = Double.POSITIVE_INFINITY;
+
+    private double               m_miny = Double.POSITIVE_INFINITY;
+
+    private double               m_maxx = Double.NEGATIVE_INFINITY;
+
+    private double               m_maxy = Double.NEGATIVE_INFINITY;
+
+    public FlattenedPath()
+    {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    public FlattenedPath(final double tolerance)
+    {
+        if ((false == (tolerance > 0)) || Double.isInfinite(tolerance))
+        {
+            throw new IllegalArgumentException("tolerance must be a positive number");
+        }
+        m_tolerance = tolerance;
+    }
+
+    public final double getTolerance()
+    {
+        return m_tolerance;
+    }
+
+    /**
+     * Returns the number of flattened points.
+     */
+    public final int size()
+    {
+        return m_size;
+    }
+
+    public final double getX(final int i)
+    {
+        return m_xy[i * 2];
+    }
+
+    public final double getY(final int i)
+    {
+        return m_xy[(i * 2) + 1];
+    }
+
+    /**
+     * Returns true if point <code>i</code> starts a new polyline, so there is no segment from point <code>i - 1</code> to it.
+     */
+    public final boolean isMoveTo(final int i)
+    {
+        return m_mv[i];
+    }
+
+    /**
+     * Returns the index of the path part, as passed to {@link #setPart(int)}, that produced point <code>i</code>.
+     */
+    public final int getPart(final int i)
+    {
+        return m_pt[i];
+    }
+
+    /**
+     * Returns a copy of the flattened points as <code>x0, y0, x1, y1, ...</code>
+     */
+    public final double[] getPoints()
+    {
+        return Arrays.copyOf(m_xy, m_size * 2);
+    }
+
+    /**
+     * Returns the bounds of the flattened points as <code>minx, miny, maxx, maxy</code>, or all zeros if empty.
+     */
+    public final double[] getBounds()
+    {
+        if (m_size < 1)
+        {
+            return new double[4];
+        }
+        return new double[] { m_minx, m_miny, m_maxx, m_maxy };
+    }
+
+    public final double getCurrentX()
+    {
+        return m_cpx;
+    }
+
+    public final double getCurrentY()
+    {
+        return m_cpy;
+    }
+
+    /**
+     * Sets the path part index recorded against the points added from now on.
+     */
+    public final FlattenedPath setPart(final int part)
+    {
+        m_part = part;
+
+        return this;
+    }
+
+    public final FlattenedPath moveTo(final double x, final double y)
+    {
+        m_path = m_size;
+
+        add(x, y, true);
+
+        return this;
+    }
+
+    public final FlattenedPath lineTo(final double x, final double y)
+    {
+        add(x, y, false);
+
+        return this;
+    }
+
+    public final FlattenedPath quadTo(final double cx, final double cy, final double x, final double y)
+    {
+        final double x0 = m_cpx;
+
+        final double y0 = m_cpy;
+
+        final int n = getSubdivisions(Math.sqrt(distanceSq(x0 - (2 * cx) + x, y0 - (2 * cy) + y)) / 4);
+
+        for (int i = 1; i < n; i++)
+        {
+            final double t = ((double) i) / n;
+
+            final double u = 1 - t;
+
+            add((u * u * x0) + (2 * u * t * cx) + (t * t * x), (u * u * y0) + (2 * u * t * cy) + (t * t * y), false);
+        }
+        add(x, y, false);
+
+        return this;
+    }
+
+    public final FlattenedPath cubicTo(final double x1, final double y1, final double x2, final double y2, final double x, final double y)
+    {
+        final double x0 = m_cpx;
+
+        final double y0 = m_cpy;
+
+        final double d1 = distanceSq(x0 - (2 * x1) + x2, y0 - (2 * y1) + y2);
+
+        final double d2 = distanceSq(x1 - (2 * x2) + x, y1 - (2 * y2) + y);
+
+        final int n = getSubdivisions(Math.sqrt(Math.max(d1, d2)) * 0.75);
+
+        for (int i = 1; i < n; i++)
+        {
+            final double t = ((double) i) / n;
+
+            final double u = 1 - t;
+
+            final double a = u * u * u;
+
+            final double b = 3 * u * u * t;
+
+            final double c = 3 * u * t * t;
+
+            final double d = t * t * t;
+
+            add((a * x0) + (b * x1) + (c * x2) + (d * x), (a * y0) + (b * y1) + (c * y2) + (d * y), false);
+        }
+        add(x, y, false);
+
+        return this;
+    }
+
+    /**
+     * Adds an elliptical arc in center parameterization, the same values the canvas <code>ellipse</code> call takes.
+     * A line is drawn from the current point to the start of the arc.
+     *
+     * @param cx center x
+     * @param cy center y
+     * @param rx x radius
+     * @param ry y radius
+     * @param th start angle in radians
+     * @param dt sweep in radians, negative for anti clockwise
+     * @param ps rotation of the ellipse in radians
+     */
+    public final FlattenedPath ellipseTo(final double cx, final double cy, final double rx, final double ry, final double th, final double dt, final double ps)
+    {
+        final double cp = Math.cos(ps);
+
+        final double sp = Math.sin(ps);
+
+        final int n = getArcSubdivisions(Math.max(Math.abs(rx), Math.abs(ry)), dt);
+
+        for (int i = 0; i <= n; i++)
+        {
+            final double t = th + ((dt * i) / n);
+
+            final double ex = rx * Math.cos(t);
+
+            final double ey = ry * Math.sin(t);
+
+            add((cx + (cp * ex)) - (sp * ey), cy + (sp * ex) + (cp * ey), false);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a canvas style <code>arcTo</code>: a line from the current point to where the circle of radius <code>r</code>
+     * touches the tangent <code>(x0, y0)</code>, then the arc to where it touches the tangent <code>(x0, y0) -&gt; (x1, y1)</code>.
+     * As in {@link Geometry#getCanvasArcToPoints}, the current point ends at the end of the arc.
+     */
+    public final FlattenedPath arcTo(final double x0, final double y0, final double x1, final double y1, final double r)
+    {
+        final double px = m_cpx;
+
+        final double py = m_cpy;
+
+        final double d0 = Math.sqrt(distanceSq(x0 - px, y0 - py));
+
+        final double d1 = Math.sqrt(distanceSq(x1 - x0, y1 - y0));
+
+        final double d2 = Math.sqrt(distanceSq(x1 - px, y1 - py));
+
+        final double a0 = Math.acos((((d0 * d0) + (d1 * d1)) - (d2 * d2)) / (2 * d0 * d1)) / 2;
+
+        final double ln = (r * Math.sin(Math.PI / 2 - a0)) / Math.sin(a0);
+
+        if ((r <= 0) || (d0 == 0) || (d1 == 0) || Double.isNaN(ln) || Double.isInfinite(ln))
+        {
+            add(x0, y0, false);
+
+            return this;
+        }
+        final double sx = x0 - (((x0 - px) / d0) * ln);
+
+        final double sy = y0 - (((y0 - py) / d0) * ln);
+
+        final double ex = x0 - (((x0 - x1) / d1) * ln);
+
+        final double ey = y0 - (((y0 - y1) / d1) * ln);
+
+        final double mx = ((sx + ex) / 2) - x0;
+
+        final double my = ((sy + ey) / 2) - y0;
+
+        final double ml = Math.sqrt(distanceSq(mx, my));
+
+        if (ml == 0)
+        {
+            add(x0, y0, false);
+
+            return this;
+        }
+        final double hd = Math.sqrt((r * r) + (ln * ln));
+
+        final double cx = x0 + ((mx / ml) * hd);
+
+        final double cy = y0 + ((my / ml) * hd);
+
+        final double as = Math.atan2(sy - cy, sx - cx);
+
+        double sw = Math.atan2(ey - cy, ex - cx) - as;
+
+        if (sw > Math.PI)
+        {
+            sw -= 2 * Math.PI;
+        }
+        else if (sw < -Math.PI)
+        {
+            sw += 2 * Math.PI;
+        }
+        add(sx, sy, false);
+
+        final int n = getArcSubdivisions(r, sw);
+
+        for (int i = 1; i < n; i++)
+        {
+            final double t = as + ((sw * i) / n);
+
+            add(cx + (r * Math.cos(t)), cy + (r * Math.sin(t)), false);
+        }
+        add(ex, ey, false);
+
+        return this;
+    }
+
+    /**
+     * Closes the current polyline back to its first point.
+     */
+    public final FlattenedPath close()
+    {
+        if (m_path < m_size)
+        {
+            add(m_xy[m_path * 2], m_xy[(m_path * 2) + 1], false);
+        }
+        return this;
+    }
+
+    public final FlattenedPath clear()
+    {
+        m_size = 0;
+
+        m_done = 0;
+
+        m_part = 0;
+
+        m_path = 0;
+
+        m_cpx = 0;
+
+        m_cpy = 0;
+
+        m_minx = Double.POSITIVE_INFINITY;
+
+        m_miny = Double.POSITIVE_INFINITY;
+
+        m_maxx = Double.NEGATIVE_INFINITY;
+
+        m_maxy = Double.NEGATIVE_INFINITY;
+
+        return this;
+    }
+
+    /**
+     * Returns the length of the flattened path. Gaps between polylines do not count.
+     * <p>
+     * A cumulative length table is built on first use, and extended as points are appended.
+     */
+    public final double getLength()
+    {
+        measure();
+
+        if (m_size < 1)
+        {
+            return 0;
+        }
+        return m_ln[m_size - 1];
+    }
+
+    /**
+     * Returns the cumulative length at point <code>i</code>.
+     */
+    public final double getLengthAt(final int i)
+    {
+        measure();
+
+        return m_ln[i];
+    }
+
+    /**
+     * Stores the point at the given distance along the path in <code>out[0], out[1]</code>.
+     * The distance is clamped to <code>[0, getLength()]</code>.
+     *
+     * @return false if the path is empty
+     */
+    public final boolean getPointAtLength(final double length, final double[] out)
+    {
+        if (m_size < 1)
+        {
+            return false;
+        }
+        final int i = getSegmentAtLength(length);
+
+        if (i < 1)
+        {
+            out[0] = m_xy[0];
+
+            out[1] = m_xy[1];
+
+            return true;
+        }
+        final double x0 = m_xy[(i * 2) - 2];
+
+        final double y0 = m_xy[(i * 2) - 1];
+
+        final double sl = m_ln[i] - m_ln[i - 1];
+
+        final double f = (sl > 0) ? Math.max(0, Math.min(1, (length - m_ln[i - 1]) / sl)) : 0;
+
+        out[0] = x0 + (f * (m_xy[i * 2] - x0));
+
+        out[1] = y0 + (f * (m_xy[(i * 2) + 1] - y0));
+
+        return true;
+    }
+
+    /**
+     * Stores the unit tangent at the given distance along the path in <code>out[0], out[1]</code>.
+     * On a zero length segment the direction of the nearest following, or else preceding, segment is used.
+     *
+     * @return false if the path has no segment of non zero length
+     */
+    public final boolean getTangentAtLength(final double length, final double[] out)
+    {
+        if (m_size < 2)
+        {
+            return false;
+        }
+        final int i = Math.max(1, getSegmentAtLength(length));
+
+        for (int j = i; j < m_size; j++)
+        {
+            if (tangent(j, out))
+            {
+                return true;
+            }
+        }
+        for (int j = i - 1; j > 0; j--)
+        {
+            if (tangent(j, out))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final boolean tangent(final int i, final double[] out)
+    {
+        if (m_mv[i])
+        {
+            return false;
+        }
+        final double dx = m_xy[i * 2] - m_xy[(i * 2) - 2];
+
+        final double dy = m_xy[(i * 2) + 1] - m_xy[(i * 2) - 1];
+
+        final double dl = Math.sqrt(distanceSq(dx, dy));
+
+        if (dl == 0)
+        {
+            return false;
+        }
+        out[0] = dx / dl;
+
+        out[1] = dy / dl;
+
+        return true;
+    }
+
+    /**
+     * Returns the index of the end point of the segment containing the given distance, found by binary search
+     * of the cumulative length table, or 0 if the path has no segments.
+     */
+    private final int getSegmentAtLength(final double length)
+    {
+        measure();
+
+        int lo = 0;
+
+        int hi = m_size - 1;
+
+        while (lo < hi)
+        {
+            final int mid = (lo + hi) >>> 1;
+
+            if (m_ln[mid] < length)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        int i = Math.max(1, lo);
+
+        while ((i < m_size) && m_mv[i])
+        {
+            i++;
+        }
+        if (i >= m_size)
+        {
+            i = m_size - 1;
+
+            while ((i > 0) && m_mv[i])
+            {
+                i--;
+            }
+        }
+        return i;
+    }
+
+    private final void measure()
+    {
+        if (m_done >= m_size)
+        {
+            return;
+        }
+        if ((null == m_ln) || (m_ln.length < m_size))
+        {
+            m_ln = (null == m_ln) ? new double[m_mv.length] : Arrays.copyOf(m_ln, m_mv.length);
+        }
+        for (int i = m_done; i < m_size; i++)
+        {
+            if (i == 0)
+            {
+                m_ln[i] = 0;
+            }
+            else if (m_mv[i])
+            {
+                m_ln[i] = m_ln[i - 1];
+            }
+            else
+            {
+                m_ln[i] = m_ln[i - 1] + Math.sqrt(distanceSq(m_xy[i * 2] - m_xy[(i * 2) - 2], m_xy[(i * 2) + 1] - m_xy[(i * 2) - 1]));
+            }
+        }
+        m_done = m_size;
+    }
+
+    /**
+     * Intersects a single line segment with every segment of this path.
+     *
+     * @return the intersections, in path order, with duplicates at shared vertices removed
+     */
+    public final Intersections intersect(final double x0, final double y0, final double x1, final double y1)
+    {
+        return intersect(new double[] { x0, y0, x1, y1 }, new Intersections());
+    }
+
+    /**
+     * Intersects many line segments with this path at once.
+     *
+     * @param rays line segments as <code>x0, y0, x1, y1</code> quadruples
+     */
+    public final Intersections intersect(final double[] rays)
+    {
+        return intersect(rays, new Intersections());
+    }
+
+    /**
+     * Intersects many line segments with this path at once, appending to existing results, so the
+     * parts of a multi path can be accumulated into one result. The ray index of each hit is its
+     * quadruple index in <code>rays</code>.
+     *
+     * @param rays line segments as <code>x0, y0, x1, y1</code> quadruples
+     * @param into the results to append to
+     * @return <code>into</code>
+     */
+    public final Intersections intersect(final double[] rays, final Intersections into)
+    {
+        if ((rays.length % 4) != 0)
+        {
+            throw new IllegalArgumentException("rays must hold x0, y0, x1, y1 quadruples");
+        }
+        final int count = rays.length / 4;
+
+        final double[] xy = m_xy;
+
+        final boolean[] mv = m_mv;
+
+        for (int r = 0; r < count; r++)
+        {
+            final double ax0 = rays[r * 4];
+
+            final double ay0 = rays[(r * 4) + 1];
+
+            final double ax1 = rays[(r * 4) + 2];
+
+            final double ay1 = rays[(r * 4) + 3];
+
+            if ((Math.max(ax0, ax1) < m_minx) || (Math.min(ax0, ax1) > m_maxx) || (Math.max(ay0, ay1) < m_miny) || (Math.min(ay0, ay1) > m_maxy))
+            {
+                continue;
+            }
+            final double adx = ax1 - ax0;
+
+            final double ady = ay1 - ay0;
+
+            final int from = into.size();
+
+            for (int i = 1; i < m_size; i++)
+            {
+                if (mv[i])
+                {
+                    continue;
+                }
+                final double bx0 = xy[(i * 2) - 2];
+
+                final double by0 = xy[(i * 2) - 1];
+
+                final double bx1 = xy[i * 2];
+
+                final double by1 = xy[(i * 2) + 1];
+
+                final double bdx = bx1 - bx0;
+
+                final double bdy = by1 - by0;
+
+                final double denominator = (bdy * adx) - (bdx * ady);
+
+                if (denominator != 0)
+                {
+                    final double a = ((bdx * (ay0 - by0)) - (bdy * (ax0 - bx0))) / denominator;
+
+                    final double b = ((adx * (ay0 - by0)) - (ady * (ax0 - bx0))) / denominator;
+
+                    if ((0 <= a) && (a <= 1) && (0 <= b) && (b <= 1))
+                    {
+                        into.add(r, ax0 + (a * adx), ay0 + (a * ady), from);
+                    }
+                }
+            }
+        }
+        return into;
+    }
+
+    /**
+     * Tests a point against the area of this path with the nonzero winding rule, the canvas default.
+     * Every subpath is treated as closed, as it is when the path is filled.
+     */
+    public final boolean contains(final double x, final double y)
+    {
+        if ((m_size < 3) || (x < m_minx) || (x > m_maxx) || (y < m_miny) || (y > m_maxy))
+        {
+            return false;
+        }
+        int wind = 0;
+
+        int head = 0;
+
+        for (int i = 1; i <= m_size; i++)
+        {
+            final boolean last = ((i == m_size) || m_mv[i]);
+
+            // the segment ending at i, or the implicit closing segment back to the head of the subpath
+
+            final int j = last ? head : i;
+
+            wind += winding(m_xy[(i * 2) - 2], m_xy[(i * 2) - 1], m_xy[j * 2], m_xy[(j * 2) + 1], x, y);
+
+            if (last)
+            {
+                head = i;
+            }
+        }
+        return (wind != 0);
+    }
+
+    /**
+     * Returns the shortest distance from a point to the outline of this path, or positive infinity if the path is empty.
+     *
+     * @param closed true to include the implicit segment that closes each subpath, as a stroked closed path would
+     */
+    public final double distanceTo(final double x, final double y, final boolean closed)
+    {
+        if (m_size < 1)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = Double.POSITIVE_INFINITY;
+
+        int head = 0;
+
+        for (int i = 1; i <= m_size; i++)
+        {
+            final boolean last = ((i == m_size) || m_mv[i]);
+
+            if ((i < m_size) && (false == m_mv[i]))
+            {
+                best = Math.min(best, segmentDistanceSq(m_xy[(i * 2) - 2], m_xy[(i * 2) - 1], m_xy[i * 2], m_xy[(i * 2) + 1], x, y));
+            }
+            if (last)
+            {
+                if (closed || (head == (i - 1)))
+                {
+                    best = Math.min(best, segmentDistanceSq(m_xy[(i * 2) - 2], m_xy[(i * 2) - 1], m_xy[head * 2], m_xy[(head * 2) + 1], x, y));
+                }
+                head = i;
+            }
+        }
+        return Math.sqrt(best);
+    }
+
+    /**
+     * Tests if the outline of this path, as drawn by a stroke without closing the subpaths, touches a rectangle.
+     * A path inside the rectangle touches it.
+     */
+    public final boolean intersects(final double minx, final double miny, final double maxx, final double maxy)
+    {
+        if ((m_size < 1) || (m_minx > maxx) || (m_maxx < minx) || (m_miny > maxy) || (m_maxy < miny))
+        {
+            return false;
+        }
+        for (int i = 0; i < m_size; i++)
+        {
+            final double x = m_xy[i * 2];
+
+            final double y = m_xy[(i * 2) + 1];
+
+            if ((x >= minx) && (x <= maxx) && (y >= miny) && (y <= maxy))
+            {
+                return true;
+            }
+            if ((i > 0) && (false == m_mv[i]) && clips(m_xy[(i * 2) - 2], m_xy[(i * 2) - 1], x, y, minx, miny, maxx, maxy))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final boolean clips(final double x0, final double y0, final double x1, final double y1, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        // Liang-Barsky, narrowing the parametric range of the segment against each side of the rectangle
+
+        final double dx = x1 - x0;
+
+        final double dy = y1 - y0;
+
+        final double[] range = new double[] { 0, 1 };
+
+        return clip(0 - dx, x0 - minx, range) && clip(dx, maxx - x0, range) && clip(0 - dy, y0 - miny, range) && clip(dy, maxy - y0, range);
+    }
+
+    private static final boolean clip(final double p, final double q, final double[] range)
+    {
+        if (p == 0)
+        {
+            return (q >= 0);
+        }
+        final double r = q / p;
+
+        if (p < 0)
+        {
+            if (r > range[1])
+            {
+                return false;
+            }
+            if (r > range[0])
+            {
+                range[0] = r;
+            }
+        }
+        else
+        {
+            if (r < range[0])
+            {
+                return false;
+            }
+            if (r < range[1])
+            {
+                range[1] = r;
+            }
+        }
+        return true;
+    }
+
+    private static final int winding(final double x0, final double y0, final double x1, final double y1, final double x, final double y)
+    {
+        if (y0 <= y)
+        {
+            if ((y1 > y) && (cross(x0, y0, x1, y1, x, y) > 0))
+            {
+                return 1;
+            }
+        }
+        else if ((y1 <= y) && (cross(x0, y0, x1, y1, x, y) < 0))
+        {
+            return -1;
+        }
+        return 0;
+    }
+
+    private static final double cross(final double x0, final double y0, final double x1, final double y1, final double x, final double y)
+    {
+        return ((x1 - x0) * (y - y0)) - ((x - x0) * (y1 - y0));
+    }
+
+    private static final double segmentDistanceSq(final double x0, final double y0, final double x1, final double y1, final double x, final double y)
+    {
+        final double dx = x1 - x0;
+
+        final double dy = y1 - y0;
+
+        final double dl = distanceSq(dx, dy);
+
+        final double f = (dl > 0) ? Math.max(0, Math.min(1, (((x - x0) * dx) + ((y - y0) * dy)) / dl)) : 0;
+
+        return distanceSq(x - (x0 + (f * dx)), y - (y0 + (f * dy)));
+    }
+
+    private final int getSubdivisions(final double deviation)
+    {
+        if (false == (deviation > m_tolerance))
+        {
+            return 1;
+        }
+        return clamp(Math.ceil(Math.sqrt(deviation / m_tolerance)));
+    }
+
+    private final int getArcSubdivisions(final double radius, final double sweep)
+    {
+        if ((false == (radius > m_tolerance)) || (sweep == 0))
+        {
+            return 1;
+        }
+        final double step = 2 * Math.acos(1 - (m_tolerance / radius));
+
+        return clamp(Math.ceil(Math.abs(sweep) / step));
+    }
+
+    private static final int clamp(final double n)
+    {
+        if (Double.isNaN(n) || (n < 1))
+        {
+            return 1;
+        }
+        return (int) Math.min(n, MAXIMUM_SUBDIVISIONS);
+    }
+
+    private static final double distanceSq(final double dx, final double dy)
+    {
+        return (dx * dx) + (dy * dy);
+    }
+
+    private final void add(final double x, final double y, final boolean move)
+    {
+        if (m_size == m_mv.length)
+        {
+            final int grow = m_size * 2;
+
+            m_xy = Arrays.copyOf(m_xy, grow * 2);
+
+            m_mv = Arrays.copyOf(m_mv, grow);
+
+            m_pt = Arrays.copyOf(m_pt, grow);
+        }
+        m_xy[m_size * 2] = m_cpx = x;
+
+        m_xy[(m_size * 2) + 1] = m_cpy = y;
+
+        m_mv[m_size] = (move || (m_size == 0));
+
+        m_pt[m_size] = m_part;
+
+        m_size++;
+
+        if (x < m_minx)
+        {
+            m_minx = x;
+        }
+        if (x > m_maxx)
+        {
+            m_maxx = x;
+        }
+        if (y < m_miny)
+        {
+            m_miny = y;
+        }
+        if (y > m_maxy)
+        {
+            m_maxy = y;
+        }
+    }
+
+    /**
+     * Intersection points of a batch of rays, as parallel primitive arrays.
+     */
+    public static final class Intersections
+    {
+        private int[]    m_ray = new int[8];
+
+        private double[] m_xy  = new double[16];
+
+        private int      m_size;
+
+        public final int size()
+        {
+            return m_size;
+        }
+
+        public final int getRay(final int i)
+        {
+            return m_ray[i];
+        }
+
+        public final double getX(final int i)
+        {
+            return m_xy[i * 2];
+        }
+
+        public final double getY(final int i)
+        {
+            return m_xy[(i * 2) + 1];
+        }
+
+        /**
+         * Returns the number of intersections found for the given ray.
+         */
+        public final int getCount(final int ray)
+        {
+            int count = 0;
+
+            for (int i = 0; i < m_size; i++)
+            {
+                if (m_ray[i] == ray)
+                {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Returns the index of the intersection of the given ray nearest to <code>(x, y)</code>, or -1 if the ray has none.
+         */
+        public final int nearest(final int ray, final double x, final double y)
+        {
+            int near = -1;
+
+            double best = Double.POSITIVE_INFINITY;
+
+            for (int i = 0; i < m_size; i++)
+            {
+                if (m_ray[i] == ray)
+                {
+                    final double dist = distanceSq(m_xy[i * 2] - x, m_xy[(i * 2) + 1] - y);
+
+                    if (dist < best)
+                    {
+                        best = dist;
+
+                        near = i;
+                    }
+                }
+            }
+            return near;
+        }
+
+        public final Intersections clear()
+        {
+            m_size = 0;
+
+            return this;
+        }
+
+        private final void add(final int ray, final double x, final double y, final int from)
+        {
+            for (int i = from; i < m_size; i++)
+            {
+                if ((m_ray[i] == ray) && (Math.abs(m_xy[i * 2] - x) < EPSILON) && (Math.abs(m_xy[(i * 2) + 1] - y) < EPSILON))
+                {
+                    return;
+                }
+            }
+            if (m_size == m_ray.length)
+            {
+                m_ray = Arrays.copyOf(m_ray, m_size * 2);
+
+                m_xy = Arrays.copyOf(m_xy, m_size * 4);
+            }
+            m_ray[m_size] = ray;
+
+            m_xy[m_size * 2] = x;
+
+            m_xy[(m_size * 2) + 1] = y;
+
+            m_size++;
+        }
+    }
+}
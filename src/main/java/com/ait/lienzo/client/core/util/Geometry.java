@@ -1634,36 +1634,94 @@ public final class Geometry
 
         final Point2D projectionPoint = getProjection(center, pointerPosition, length);
 
-        final Point2DArray points = new Point2DArray();
+        final double[] ray = new double[] { center.getX(), center.getY(), projectionPoint.getX(), projectionPoint.getY() };
 
-        points.push(center);
+        final FlattenedPath.Intersections intersects = new FlattenedPath.Intersections();
 
-        points.push(projectionPoint);
+        final NFastArrayList<PathPartList> paths = path.getActualPathPartListArray();
 
-        final Set<Point2D>[] intersects = Geometry.getCardinalIntersects(path, points);
+        final int size = paths.size();
 
-        Point2D nearest = null;
+        for (int i = 0; i < size; i++)
+        {
+            paths.get(i).getFlattenedPath().intersect(ray, intersects);
+        }
+        final int near = intersects.nearest(0, x, y);
 
-        for (final Set<Point2D> set : intersects)
+        if (near < 0)
         {
-            double nearesstDistance = length;
+            return null;
+        }
+        final Point2D nearest = new Point2D(intersects.getX(near), intersects.getY(near));
 
-            if ((set != null) && !set.isEmpty())
-            {
-                for (final Point2D p : set)
-                {
-                    final double currentDistance = p.distance(pointerPosition);
+        if (nearest.distance(pointerPosition) < length)
+        {
+            return nearest;
+        }
+        return null;
+    }
 
-                    if (currentDistance < nearesstDistance)
-                    {
-                        nearesstDistance = currentDistance;
+    /**
+     * Flattens a path part list into polylines, within the tolerance of the given {@link FlattenedPath}.
+     * Curves and arcs are subdivided; each point records the index of the part it came from.
+     *
+     * @param list the path to flatten
+     * @param path the flattened path to append to
+     * @return <code>path</code>
+     */
+    public static FlattenedPath flatten(final PathPartList list, final FlattenedPath path)
+    {
+        final int size = list.size();
 
-                        nearest = p;
-                    }
-                }
-            }
+        for (int i = 0; i < size; i++)
+        {
+            flatten(list.get(i), i, path);
         }
-        return nearest;
+        return path;
+    }
+
+    /**
+     * Flattens a single path part onto the end of a flattened path, so a cached flattened path can be
+     * extended as parts are appended.
+     *
+     * @param part the path part
+     * @param index the index of the part in its list
+     * @param path the flattened path to append to
+     * @return <code>path</code>
+     */
+    public static FlattenedPath flatten(final PathPartEntryJSO part, final int index, final FlattenedPath path)
+    {
+        final NFastDoubleArrayJSO p = part.getPoints();
+
+        path.setPart(index);
+
+        switch (part.getCommand())
+        {
+            case PathPartEntryJSO.MOVETO_ABSOLUTE:
+                path.moveTo(p.get(0), p.get(1));
+                break;
+            case PathPartEntryJSO.LINETO_ABSOLUTE:
+                path.lineTo(p.get(0), p.get(1));
+                break;
+            case PathPartEntryJSO.BEZIER_CURVETO_ABSOLUTE:
+                path.cubicTo(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5));
+                break;
+            case PathPartEntryJSO.QUADRATIC_CURVETO_ABSOLUTE:
+                path.quadTo(p.get(0), p.get(1), p.get(2), p.get(3));
+                break;
+            case PathPartEntryJSO.ARCTO_ABSOLUTE:
+                path.ellipseTo(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5), p.get(6));
+                break;
+            case PathPartEntryJSO.CANVAS_ARCTO_ABSOLUTE:
+                path.arcTo(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4));
+                break;
+            case PathPartEntryJSO.CLOSE_PATH_PART:
+                path.close();
+                break;
+            default:
+                break;
+        }
+        return path;
     }
 
     public static Point2D findCenter(final BoundingBox box)
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Keeps the set of items of a {@link SpatialIndex} hit by a rectangle that changes over time, as a rubber band
+ * selection does, reporting the items that enter and leave the set on each change.
+ * <p>
+ * Only the items whose box meets the new rectangle are looked at. The hit test must be monotonic: an item hit by a
+ * rectangle is hit by any rectangle holding it. Then, when the rectangle grows, only the items not hit yet are tested,
+ * and when it shrinks, only the items hit so far.
+ * <p>
+ * This class has no browser dependencies, so it can be used and tested on the JVM.
+ */
+public final class IncrementalRectangleQuery<T>
+{
+    public interface HitTester<T>
+    {
+        public boolean isHit(T item, double minx, double miny, double maxx, double maxy);
+    }
+
+    private final SpatialIndex<T>  m_index;
+
+    private final HitTester<T>     m_tester;
+
+    private final LinkedHashSet<T> m_hits = new LinkedHashSet<>();
+
+    private double[]               m_rect;
+
+    private int                    m_tested;
+
+    public IncrementalRectangleQuery(final SpatialIndex<T> index, final HitTester<T> tester)
+    {
+        if ((null == index) || (null == tester))
+        {
+            throw new NullPointerException("index and tester can not be null");
+        }
+        m_index = index;
+
+        m_tester = tester;
+    }
+
+    public final SpatialIndex<T> getIndex()
+    {
+        return m_index;
+    }
+
+    public final Set<T> getHits()
+    {
+        return Collections.unmodifiableSet(m_hits);
+    }
+
+    /**
+     * Returns the number of hit tests run by the last {@link #update(double, double, double, double, Collection, Collection)}.
+     */
+    public final int getTestedCount()
+    {
+        return m_tested;
+    }
+
+    /**
+     * Moves the rectangle, and adds the items that started and stopped being hit to <code>added</code> and <code>removed</code>,
+     * either of which can be null.
+     *
+     * @return true if the hits changed
+     */
+    public final boolean update(final double minx, final double miny, final double maxx, final double maxy, final Collection<? super T> added, final Collection<? super T> removed)
+    {
+        final double[] last = m_rect;
+
+        final boolean grown = (null != last) && contains(minx, miny, maxx, maxy, last);
+
+        final boolean shrunk = (null != last) && contains(last, minx, miny, maxx, maxy);
+
+        m_rect = new double[] { minx, miny, maxx, maxy };
+
+        m_tested = 0;
+
+        boolean changed = false;
+
+        final ArrayList<T> candidates = m_index.query(minx, miny, maxx, maxy, new ArrayList<T>());
+
+        final LinkedHashSet<T> keep = new LinkedHashSet<>();
+
+        for (int i = 0; i < candidates.size(); i++)
+        {
+            final T item = candidates.get(i);
+
+            final boolean was = m_hits.contains(item);
+
+            boolean hit;
+
+            if (was && grown)
+            {
+                hit = true;
+            }
+            else if ((false == was) && shrunk)
+            {
+                hit = false;
+            }
+            else
+            {
+                m_tested++;
+
+                hit = m_tester.isHit(item, minx, miny, maxx, maxy);
+            }
+            if (hit)
+            {
+                keep.add(item);
+
+                if (false == was)
+                {
+                    changed = true;
+
+                    if (null != added)
+                    {
+                        added.add(item);
+                    }
+                }
+            }
+        }
+        for (final T item : m_hits)
+        {
+            if (false == keep.contains(item))
+            {
+                changed = true;
+
+                if (null != removed)
+                {
+                    removed.add(item);
+                }
+            }
+        }
+        m_hits.clear();
+
+        m_hits.addAll(keep);
+
+        return changed;
+    }
+
+    /**
+     * Forgets the rectangle and the hits, so the next update tests every candidate.
+     */
+    public final void reset()
+    {
+        m_hits.clear();
+
+        m_rect = null;
+
+        m_tested = 0;
+    }
+
+    private static final boolean contains(final double minx, final double miny, final double maxx, final double maxy, final double[] rect)
+    {
+        return ((minx <= rect[0]) && (miny <= rect[1]) && (maxx >= rect[2]) && (maxy >= rect[3]));
+    }
+
+    private static final boolean contains(final double[] rect, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        return ((rect[0] <= minx) && (rect[1] <= miny) && (rect[2] >= maxx) && (rect[3] >= maxy));
+    }
+}
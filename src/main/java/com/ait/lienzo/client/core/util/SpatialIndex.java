@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * A uniform grid of buckets, indexing items by their bounding boxes, so the items that overlap a point or
+ * a rectangle can be found without looking at every item.
+ * <p>
+ * Each item is held in every cell its box touches. Items whose box covers more than {@link #MAXIMUM_CELLS}
+ * cells are kept in a separate list that every query scans, so a few very large items do not fill the grid.
+ * Query results contain each matching item once, in no particular order.
+ * <p>
+ * This class has no browser dependencies, so it can be used and tested on the JVM.
+ */
+public final class SpatialIndex<T>
+{
+    public static final double                      DEFAULT_CELL_SIZE = 128;
+
+    public static final int                         MAXIMUM_CELLS     = 256;
+
+    private final double                            m_cell;
+
+    private final HashMap<Integer, ArrayList<T>>    m_grid            = new HashMap<>();
+
+    private final HashMap<T, double[]>              m_boxes           = new HashMap<>();
+
+    private final ArrayList<T>                      m_large           = new ArrayList<>();
+
+    public SpatialIndex()
+    {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialIndex(final double cell)
+    {
+        if ((false == (cell > 0)) || Double.isInfinite(cell))
+        {
+            throw new IllegalArgumentException("cell size must be a positive number");
+        }
+        m_cell = cell;
+    }
+
+    public final double getCellSize()
+    {
+        return m_cell;
+    }
+
+    public final int size()
+    {
+        return m_boxes.size();
+    }
+
+    public final boolean isEmpty()
+    {
+        return m_boxes.isEmpty();
+    }
+
+    public final boolean contains(final T item)
+    {
+        return m_boxes.containsKey(item);
+    }
+
+    /**
+     * Returns the box the item was indexed with, as <code>minx, miny, maxx, maxy</code>, or null.
+     */
+    public final double[] getBounds(final T item)
+    {
+        final double[] box = m_boxes.get(item);
+
+        if (null == box)
+        {
+            return null;
+        }
+        return new double[] { box[0], box[1], box[2], box[3] };
+    }
+
+    /**
+     * Indexes an item, or moves it if it is already indexed.
+     */
+    public final void put(final T item, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        if (null == item)
+        {
+            throw new NullPointerException("item can not be null");
+        }
+        if ((minx > maxx) || (miny > maxy) || Double.isNaN(minx + miny + maxx + maxy))
+        {
+            throw new IllegalArgumentException("invalid bounds for item");
+        }
+        final double[] last = m_boxes.get(item);
+
+        if (null != last)
+        {
+            if ((last[0] == minx) && (last[1] == miny) && (last[2] == maxx) && (last[3] == maxy))
+            {
+                return;
+            }
+            unlink(item, last);
+        }
+        final double[] box = new double[] { minx, miny, maxx, maxy };
+
+        m_boxes.put(item, box);
+
+        link(item, box);
+    }
+
+    public final boolean remove(final T item)
+    {
+        final double[] box = m_boxes.remove(item);
+
+        if (null == box)
+        {
+            return false;
+        }
+        unlink(item, box);
+
+        return true;
+    }
+
+    public final void clear()
+    {
+        m_grid.clear();
+
+        m_boxes.clear();
+
+        m_large.clear();
+    }
+
+    /**
+     * Adds the items whose box contains the point to <code>into</code>.
+     */
+    public final <C extends Collection<? super T>> C query(final double x, final double y, final C into)
+    {
+        return query(x, y, x, y, into);
+    }
+
+    /**
+     * Adds the items whose box intersects the rectangle to <code>into</code>. Boxes that only touch the rectangle count.
+     */
+    public final <C extends Collection<? super T>> C query(final double minx, final double miny, final double maxx, final double maxy, final C into)
+    {
+        for (int i = 0; i < m_large.size(); i++)
+        {
+            final T item = m_large.get(i);
+
+            if (intersects(m_boxes.get(item), minx, miny, maxx, maxy))
+            {
+                into.add(item);
+            }
+        }
+        if (m_grid.isEmpty())
+        {
+            return into;
+        }
+        final int x0 = cell(minx);
+
+        final int y0 = cell(miny);
+
+        final int x1 = cell(maxx);
+
+        final int y1 = cell(maxy);
+
+        if ((((long) (x1 - x0) + 1) * ((long) (y1 - y0) + 1)) > m_boxes.size())
+        {
+            // the query covers more cells than there are items, so scanning the items is cheaper
+
+            for (final T item : m_boxes.keySet())
+            {
+                final double[] box = m_boxes.get(item);
+
+                if ((false == isLarge(box)) && intersects(box, minx, miny, maxx, maxy))
+                {
+                    into.add(item);
+                }
+            }
+            return into;
+        }
+        for (int cy = y0; cy <= y1; cy++)
+        {
+            for (int cx = x0; cx <= x1; cx++)
+            {
+                final ArrayList<T> bucket = m_grid.get(key(cx, cy));
+
+                if (null == bucket)
+                {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size(); i++)
+                {
+                    final T item = bucket.get(i);
+
+                    final double[] box = m_boxes.get(item);
+
+                    // report an item only from the first cell it shares with the query, so it is reported once
+
+                    if ((cx == Math.max(x0, cell(box[0]))) && (cy == Math.max(y0, cell(box[1]))) && intersects(box, minx, miny, maxx, maxy))
+                    {
+                        into.add(item);
+                    }
+                }
+            }
+        }
+        return into;
+    }
+
+    private final void link(final T item, final double[] box)
+    {
+        if (isLarge(box))
+        {
+            m_large.add(item);
+
+            return;
+        }
+        final int x1 = cell(box[2]);
+
+        final int y1 = cell(box[3]);
+
+        for (int cy = cell(box[1]); cy <= y1; cy++)
+        {
+            for (int cx = cell(box[0]); cx <= x1; cx++)
+            {
+                final Integer key = key(cx, cy);
+
+                ArrayList<T> bucket = m_grid.get(key);
+
+                if (null == bucket)
+                {
+                    bucket = new ArrayList<>();
+
+                    m_grid.put(key, bucket);
+                }
+                bucket.add(item);
+            }
+        }
+    }
+
+    private final void unlink(final T item, final double[] box)
+    {
+        if (isLarge(box))
+        {
+            m_large.remove(item);
+
+            return;
+        }
+        final int x1 = cell(box[2]);
+
+        final int y1 = cell(box[3]);
+
+        for (int cy = cell(box[1]); cy <= y1; cy++)
+        {
+            for (int cx = cell(box[0]); cx <= x1; cx++)
+            {
+                final Integer key = key(cx, cy);
+
+                final ArrayList<T> bucket = m_grid.get(key);
+
+                if (null != bucket)
+                {
+                    bucket.remove(item);
+
+                    if (bucket.isEmpty())
+                    {
+                        m_grid.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private final boolean isLarge(final double[] box)
+    {
+        return ((((long) (cell(box[2]) - cell(box[0])) + 1) * ((long) (cell(box[3]) - cell(box[1])) + 1)) > MAXIMUM_CELLS);
+    }
+
+    private final int cell(final double v)
+    {
+        return (int) Math.floor(v / m_cell);
+    }
+
+    private static final Integer key(final int cx, final int cy)
+    {
+        // distinct cells can share a key, the box test on every item keeps that harmless
+
+        return Integer.valueOf((cx * 73856093) ^ (cy * 19349663));
+    }
+
+    private static final boolean intersects(final double[] box, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        return ((box[0] <= maxx) && (box[2] >= minx) && (box[1] <= maxy) && (box[3] >= miny));
+    }
+}
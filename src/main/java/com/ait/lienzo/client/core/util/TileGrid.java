@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.util;
+
+/**
+ * Splits an image of a given size into square tiles, row by row, the tiles of the last column and row being cut to the image.
+ * <p>
+ * This class has no browser dependencies, so it can be used and tested on the JVM.
+ */
+public final class TileGrid
+{
+    private final int m_wide;
+
+    private final int m_high;
+
+    private final int m_tile;
+
+    private final int m_cols;
+
+    private final int m_rows;
+
+    public TileGrid(final int wide, final int high, final int tile)
+    {
+        if ((wide < 0) || (high < 0))
+        {
+            throw new IllegalArgumentException("wide and high can not be negative");
+        }
+        if (tile < 1)
+        {
+            throw new IllegalArgumentException("tile must be greater than 0");
+        }
+        m_wide = wide;
+
+        m_high = high;
+
+        m_tile = tile;
+
+        m_cols = (wide + tile - 1) / tile;
+
+        m_rows = (high + tile - 1) / tile;
+    }
+
+    public final int getWidth()
+    {
+        return m_wide;
+    }
+
+    public final int getHeight()
+    {
+        return m_high;
+    }
+
+    public final int getTileSize()
+    {
+        return m_tile;
+    }
+
+    public final int getColumnCount()
+    {
+        return m_cols;
+    }
+
+    public final int getRowCount()
+    {
+        return m_rows;
+    }
+
+    public final int getTileCount()
+    {
+        return m_cols * m_rows;
+    }
+
+    public final int getX(final int tile)
+    {
+        return (tile % m_cols) * m_tile;
+    }
+
+    public final int getY(final int tile)
+    {
+        return (tile / m_cols) * m_tile;
+    }
+
+    public final int getWidth(final int tile)
+    {
+        return Math.min(m_tile, m_wide - getX(tile));
+    }
+
+    public final int getHeight(final int tile)
+    {
+        return Math.min(m_tile, m_high - getY(tile));
+    }
+}
@@ -16,14 +16,31 @@
 
 package com.ait.lienzo.client.widget;
 
+import java.util.Collection;
+
+import com.ait.lienzo.client.core.Attribute;
 import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.config.LienzoCore;
+import com.ait.lienzo.client.core.event.AttributesChangedEvent;
+import com.ait.lienzo.client.core.event.AttributesChangedHandler;
 import com.ait.lienzo.client.core.event.INodeXYEvent;
+import com.ait.lienzo.client.core.shape.ContainerNode;
 import com.ait.lienzo.client.core.shape.IPrimitive;
 import com.ait.lienzo.client.core.shape.Node;
+import com.ait.lienzo.client.core.shape.Shape;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
 import com.ait.lienzo.client.core.types.Point2D;
+import com.ait.lienzo.client.core.types.Point2DArray;
+import com.ait.lienzo.client.core.types.Shadow;
 import com.ait.lienzo.client.core.types.Transform;
 import com.ait.lienzo.client.core.util.Geometry;
+import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.shared.core.types.NodeType;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.ait.tooling.nativetools.client.event.HandlerRegistrationManager;
+import com.google.gwt.dom.client.CanvasElement;
+import com.google.gwt.event.shared.HandlerRegistration;
 
 /**
  * DragContext maintains information during a Drag operation of a Node.
@@ -42,6 +59,10 @@ import com.ait.lienzo.shared.core.types.NodeType;
  */
 public class DragContext
 {
+    private static final int             BLIT_PADDING = 8;
+
+    private static final double          BLIT_MAXAREA = 4096 * 4096;
+
     private int                          m_evtx;
 
     private int                          m_evty;
@@ -76,6 +97,20 @@ public class DragContext
 
     private final Point2D                m_pref = new Point2D(0, 0);
 
+    private Point2DArray                 m_cpts = new Point2DArray();
+
+    private ScratchPad                   m_blit;
+
+    private double                       m_blitx;
+
+    private double                       m_blity;
+
+    private double                       m_blitw;
+
+    private double                       m_blith;
+
+    private HandlerRegistrationManager   m_blit_regs;
+
     /**
      * Starts a drag operation for the specified node.
      *
@@ -143,6 +178,200 @@ public class DragContext
         context.restore();
     }
 
+    /**
+     * Draws the node during a drag operation, from the bitmap made by {@link #prepareBlit()} when there is one,
+     * otherwise with {@link #drawNodeWithTransforms(Context2D)}.
+     * Used internally.
+     *
+     * @param context
+     */
+    public void drawNode(final Context2D context)
+    {
+        if (null == m_blit)
+        {
+            drawNodeWithTransforms(context);
+
+            return;
+        }
+        final Point2D p0 = new Point2D(0, 0);
+
+        final Point2D p1 = new Point2D(0, 0);
+
+        m_ltog.transform(new Point2D(m_prmx, m_prmy), p0);
+
+        m_ltog.transform(new Point2D(m_lstx, m_lsty), p1);
+
+        context.drawImage(m_blit.getElement(), m_blitx + p1.getX() - p0.getX(), m_blity + p1.getY() - p0.getY(), m_blitw, m_blith);
+    }
+
+    /**
+     * Returns true if the node is drawn from a bitmap during the drag.
+     *
+     * @return boolean
+     */
+    public boolean isBlitting()
+    {
+        return (null != m_blit);
+    }
+
+    /**
+     * Drops the bitmap of the node, so it is drawn as vectors for the rest of the drag.
+     * Drag handlers that change how the node, or a node below it, looks should call this.
+     * Changes to the attributes of the node itself, other than its location, are caught without it.
+     */
+    public void invalidateBlit()
+    {
+        releaseBlit();
+    }
+
+    /**
+     * Draws the node, as it is at the start of the drag, to a bitmap that {@link #drawNode(Context2D)} uses on every move.
+     * Nothing is done when blitting is turned off in {@link LienzoCore#isDragLayerBlitting()}, or the node is too large.
+     */
+    void prepareBlit()
+    {
+        releaseBlit();
+
+        if (false == LienzoCore.get().isDragLayerBlitting())
+        {
+            return;
+        }
+        final Node<?> node = m_prim.asNode();
+
+        final BoundingPoints points = node.getBoundingPoints();
+
+        if (null == points)
+        {
+            return;
+        }
+        final BoundingBox bbox = points.transform(m_ltog).getBoundingBox();
+
+        // the bounding box leaves out strokes and shadows, they are drawn in the padding
+
+        final double padd = BLIT_PADDING + (getPadding(node) * m_ltog.getScale());
+
+        final double minx = Math.floor(bbox.getMinX() - padd);
+
+        final double miny = Math.floor(bbox.getMinY() - padd);
+
+        final double wide = Math.ceil(bbox.getMaxX() + padd) - minx;
+
+        final double high = Math.ceil(bbox.getMaxY() + padd) - miny;
+
+        final double scale = LienzoCore.get().getDeviceScale();
+
+        if ((false == (wide > 0)) || (false == (high > 0)) || ((wide * high * scale * scale) > BLIT_MAXAREA))
+        {
+            return;
+        }
+        m_blit = new ScratchPad((int) Math.ceil(wide * scale), (int) Math.ceil(high * scale));
+
+        m_blitx = minx;
+
+        m_blity = miny;
+
+        m_blitw = wide;
+
+        m_blith = high;
+
+        final Context2D context = new BlitContext2D(m_blit.getElement());
+
+        context.scale(scale, scale);
+
+        context.translate(-minx, -miny);
+
+        drawNodeWithTransforms(context);
+
+        m_blit_regs = new HandlerRegistrationManager();
+
+        final AttributesChangedHandler handler = new AttributesChangedHandler()
+        {
+            @Override
+            public void onAttributesChanged(final AttributesChangedEvent event)
+            {
+                releaseBlit();
+            }
+        };
+        final Collection<Attribute> sheet = node.getAttributeSheet();
+
+        for (final Attribute attribute : sheet)
+        {
+            if (isAppearance(attribute))
+            {
+                final HandlerRegistration regs = node.addAttributesChangedHandler(attribute, handler);
+
+                if (null != regs)
+                {
+                    m_blit_regs.register(regs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the bitmap of the node.
+     * Used internally.
+     */
+    void releaseBlit()
+    {
+        if (null != m_blit_regs)
+        {
+            m_blit_regs.destroy();
+
+            m_blit_regs = null;
+        }
+        m_blit = null;
+    }
+
+    private static final boolean isAppearance(final Attribute attribute)
+    {
+        return ((attribute != Attribute.X) && (attribute != Attribute.Y) && (attribute != Attribute.VISIBLE) && (attribute != Attribute.LISTENING) && (attribute != Attribute.ID) && (attribute != Attribute.NAME) && (attribute != Attribute.DRAGGABLE) && (attribute != Attribute.DRAG_MODE) && (attribute != Attribute.DRAG_BOUNDS) && (attribute != Attribute.DRAG_CONSTRAINT) && (attribute != Attribute.EVENT_PROPAGATION_MODE) && (attribute != Attribute.FILL_SHAPE_FOR_SELECTION) && (attribute != Attribute.SELECTION_STROKE_OFFSET));
+    }
+
+    /**
+     * Returns how far, in local units, the strokes and shadows of a node and the nodes below it may reach past its bounding box.
+     */
+    private static final double getPadding(final Node<?> node)
+    {
+        double padd = 0;
+
+        final Shape<?> shape = node.asShape();
+
+        if (null != shape)
+        {
+            padd = shape.getStrokeWidth();
+
+            final Shadow shadow = shape.getShadow();
+
+            if (null != shadow)
+            {
+                final Point2D offset = shadow.getOffset();
+
+                padd += shadow.getBlur() + Math.max(Math.abs(offset.getX()), Math.abs(offset.getY()));
+            }
+            return padd;
+        }
+        final ContainerNode<?, ?> container = node.asContainerNode();
+
+        if (null != container)
+        {
+            final NFastArrayList<?> list = container.getChildNodes();
+
+            final int size = list.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                final Object child = list.get(i);
+
+                if (child instanceof IPrimitive)
+                {
+                    padd = Math.max(padd, getPadding(((IPrimitive<?>) child).asNode()));
+                }
+            }
+        }
+        return padd;
+    }
+
     /**
      * Returns global alpha value.
      *
@@ -209,6 +438,8 @@ public class DragContext
      */
     public void dragDone()
     {
+        releaseBlit();
+
         save();
     }
 
@@ -277,6 +508,29 @@ public class DragContext
         return m_evty;
     }
 
+    /**
+     * Returns the event(x,y) values in global coordinates of the moves that were coalesced into the last drag move,
+     * oldest first, not including the last drag move itself.
+     * It is empty unless pointer move coalescing is on, see {@link LienzoPanel#setPointerMoveCoalescing(boolean)}.
+     *
+     * @return Point2DArray
+     */
+    public Point2DArray getCoalescedPoints()
+    {
+        return m_cpts;
+    }
+
+    /**
+     * Sets the coalesced points of the next drag move.
+     * Used internally.
+     *
+     * @param points
+     */
+    void setCoalescedPoints(final Point2DArray points)
+    {
+        m_cpts = points;
+    }
+
     /**
      * Returns dx (i.e. eventX - dragstartX) in global coordinates
      *
@@ -397,4 +651,18 @@ public class DragContext
     {
         return m_drag;
     }
-}
\ No newline at end of file
+
+    private static final class BlitContext2D extends Context2D
+    {
+        public BlitContext2D(final CanvasElement element)
+        {
+            super(element);
+        }
+
+        @Override
+        public boolean isDrag()
+        {
+            return true;
+        }
+    }
+}
@@ -49,10 +49,13 @@ import com.ait.lienzo.client.core.shape.IPrimitive;
 import com.ait.lienzo.client.core.shape.Node;
 import com.ait.lienzo.client.core.shape.Shape;
 import com.ait.lienzo.client.core.shape.Viewport;
+import com.ait.lienzo.client.core.types.Point2DArray;
 import com.ait.lienzo.shared.core.types.DragMode;
 import com.ait.lienzo.shared.core.types.EventPropagationMode;
 import com.ait.tooling.common.api.java.util.function.Predicate;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
 import com.google.gwt.core.client.JsArray;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.NativeEvent;
@@ -61,6 +64,7 @@ import com.google.gwt.dom.client.Touch;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.event.dom.client.DoubleClickEvent;
+import com.google.gwt.event.dom.client.DomEvent;
 import com.google.gwt.event.dom.client.DoubleClickHandler;
 import com.google.gwt.event.dom.client.GestureChangeEvent;
 import com.google.gwt.event.dom.client.GestureChangeHandler;
@@ -92,6 +96,7 @@ import com.google.gwt.event.dom.client.TouchStartEvent;
 import com.google.gwt.event.dom.client.TouchStartHandler;
 import com.google.gwt.event.shared.GwtEvent;
 import com.google.gwt.event.shared.GwtEvent.Type;
+import com.google.gwt.event.shared.HandlerManager;
 
 /**
  * This class is the center for all canvas events.
@@ -100,37 +105,59 @@ import com.google.gwt.event.shared.GwtEvent.Type;
  */
 final class LienzoHandlerManager
 {
-    private final LienzoPanel m_lienzo;
+    private final LienzoPanel    m_lienzo;
 
-    private final Viewport    m_viewport;
+    private final Viewport       m_viewport;
 
-    private final Mediators   m_mediators;
+    private final Mediators      m_mediators;
 
-    private boolean           m_dragging               = false;
+    private boolean              m_dragging               = false;
 
-    private boolean           m_dragging_using_touches = false;
+    private boolean              m_dragging_using_touches = false;
 
-    private boolean           m_dragging_dispatch_move = false;
+    private boolean              m_dragging_dispatch_move = false;
 
-    private boolean           m_dragging_ignore_clicks = false;
+    private boolean              m_dragging_ignore_clicks = false;
 
-    private boolean           m_dragging_mouse_pressed = false;
+    private boolean              m_dragging_mouse_pressed = false;
 
-    private boolean           m_mouse_button_left      = false;
+    private boolean              m_mouse_button_left      = false;
 
-    private boolean           m_mouse_button_middle    = false;
+    private boolean              m_mouse_button_middle    = false;
 
-    private boolean           m_mouse_button_right     = false;
+    private boolean              m_mouse_button_right     = false;
 
-    private DragMode          m_drag_mode              = null;
+    private DragMode             m_drag_mode              = null;
 
-    private IPrimitive<?>     m_drag_node              = null;
+    private IPrimitive<?>        m_drag_node              = null;
 
-    private IPrimitive<?>     m_over_prim              = null;
+    private IPrimitive<?>        m_over_prim              = null;
 
-    private DragContext       m_dragContext;
+    private DragContext          m_dragContext;
 
-    private List<TouchPoint>  m_touches                = null;
+    private List<TouchPoint>     m_touches                = null;
+
+    private final HandlerManager m_coalesce_handlers      = new HandlerManager(this);
+
+    private final Coalescer      m_coalesce_frame         = new Coalescer();
+
+    private boolean              m_coalesce               = false;
+
+    private boolean              m_coalesce_replay        = false;
+
+    private boolean              m_coalesce_scheduled     = false;
+
+    private NativeEvent          m_coalesce_event         = null;
+
+    private int                  m_coalesce_x;
+
+    private int                  m_coalesce_y;
+
+    private Point2DArray         m_coalesce_points        = new Point2DArray();
+
+    private long                 m_moves_received         = 0;
+
+    private long                 m_moves_processed        = 0;
 
     public LienzoHandlerManager(final LienzoPanel lienzo)
     {
@@ -180,6 +207,8 @@ final class LienzoHandlerManager
             @Override
             public void onClick(final ClickEvent event)
             {
+                flushPointerMove();
+
                 if (!m_viewport.getOnEventHandlers().getOnMouseClickEventHandle().onMouseEventBefore(event))
                 {
                     m_dragging_mouse_pressed = false; // could have been set previously by a mousedown, it will need cleaning up
@@ -201,6 +230,8 @@ final class LienzoHandlerManager
             @Override
             public void onDoubleClick(final DoubleClickEvent event)
             {
+                flushPointerMove();
+
                 if (!m_viewport.getOnEventHandlers().getOnMouseDoubleClickEventHandle().onMouseEventBefore(event))
                 {
                     return;
@@ -216,11 +247,17 @@ final class LienzoHandlerManager
                 m_viewport.getOnEventHandlers().getOnMouseDoubleClickEventHandle().onMouseEventBefore(event);
             }
         });
-        m_lienzo.addMouseMoveHandler(new MouseMoveHandler()
+        final MouseMoveHandler move = new MouseMoveHandler()
         {
             @Override
             public void onMouseMove(final MouseMoveEvent event)
             {
+                if (isPointerMoveDeferred(event.getNativeEvent(), event.getRelativeX(event.getRelativeElement()), event.getRelativeY(event.getRelativeElement())))
+                {
+                    event.preventDefault();
+
+                    return;
+                }
                 if (!m_viewport.getOnEventHandlers().getOnMouseMoveEventHandle().onMouseEventBefore(event))
                 {
                     return;
@@ -250,12 +287,18 @@ final class LienzoHandlerManager
 
                 m_viewport.getOnEventHandlers().getOnMouseMoveEventHandle().onMouseEventBefore(event);
             }
-        });
+        };
+        m_lienzo.addMouseMoveHandler(move);
+
+        m_coalesce_handlers.addHandler(MouseMoveEvent.getType(), move);
+
         m_lienzo.addMouseUpHandler(new MouseUpHandler()
         {
             @Override
             public void onMouseUp(final MouseUpEvent event)
             {
+                flushPointerMove();
+
                 if (!m_viewport.getOnEventHandlers().getOnMouseUpEventHandle().onMouseEventBefore(event))
                 {
                     m_dragging_mouse_pressed = false; // could have been set previously by a mousedown, it will need cleaning up
@@ -285,6 +328,8 @@ final class LienzoHandlerManager
             @Override
             public void onMouseDown(final MouseDownEvent event)
             {
+                flushPointerMove();
+
                 if (!m_viewport.getOnEventHandlers().getOnMouseDownEventHandle().onMouseEventBefore(event))
                 {
                     return;
@@ -313,6 +358,8 @@ final class LienzoHandlerManager
             @Override
             public void onMouseOut(final MouseOutEvent event)
             {
+                flushPointerMove();
+
                 final NodeMouseOutEvent nevent = new NodeMouseOutEvent(event);
 
                 if (m_mediators.handleEvent(nevent))
@@ -327,6 +374,8 @@ final class LienzoHandlerManager
             @Override
             public void onMouseOver(final MouseOverEvent event)
             {
+                flushPointerMove();
+
                 final NodeMouseOverEvent nevent = new NodeMouseOverEvent(event);
 
                 if (m_mediators.handleEvent(nevent))
@@ -341,6 +390,8 @@ final class LienzoHandlerManager
             @Override
             public void onMouseWheel(final MouseWheelEvent event)
             {
+                flushPointerMove();
+
                 final NodeMouseWheelEvent nevent = new NodeMouseWheelEvent(event);
 
                 if (m_mediators.handleEvent(nevent))
@@ -360,6 +411,8 @@ final class LienzoHandlerManager
             @Override
             public void onTouchCancel(final TouchCancelEvent event)
             {
+                flushPointerMove();
+
                 final NodeTouchCancelEvent nevent = new NodeTouchCancelEvent(event, getTouches(event));
 
                 if (m_mediators.handleEvent(event))
@@ -378,6 +431,8 @@ final class LienzoHandlerManager
             @Override
             public void onTouchEnd(final TouchEndEvent event)
             {
+                flushPointerMove();
+
                 final NodeTouchEndEvent nevent = new NodeTouchEndEvent(event, m_touches);
 
                 if (m_mediators.handleEvent(nevent))
@@ -391,13 +446,21 @@ final class LienzoHandlerManager
                 event.preventDefault();
             }
         });
-        m_lienzo.addTouchMoveHandler(new TouchMoveHandler()
+        final TouchMoveHandler touch = new TouchMoveHandler()
         {
             @Override
             public void onTouchMove(final TouchMoveEvent event)
             {
                 m_touches = getTouches(event);
 
+                // the touch end uses the last touches, so they are kept even when the move is deferred
+
+                if (isPointerMoveDeferred(event.getNativeEvent(), m_touches.get(0).getX(), m_touches.get(0).getY()))
+                {
+                    event.preventDefault();
+
+                    return;
+                }
                 final NodeTouchMoveEvent nevent = new NodeTouchMoveEvent(event, m_touches);
 
                 if (m_mediators.handleEvent(nevent))
@@ -410,12 +473,18 @@ final class LienzoHandlerManager
 
                 event.preventDefault();
             }
-        });
+        };
+        m_lienzo.addTouchMoveHandler(touch);
+
+        m_coalesce_handlers.addHandler(TouchMoveEvent.getType(), touch);
+
         m_lienzo.addTouchStartHandler(new TouchStartHandler()
         {
             @Override
             public void onTouchStart(final TouchStartEvent event)
             {
+                flushPointerMove();
+
                 m_touches = getTouches(event);
 
                 final NodeTouchStartEvent nevent = new NodeTouchStartEvent(event, m_touches);
@@ -436,6 +505,8 @@ final class LienzoHandlerManager
             @Override
             public void onGestureStart(final GestureStartEvent event)
             {
+                flushPointerMove();
+
                 final NodeGestureStartEvent nevent = new NodeGestureStartEvent(event.getScale(), event.getRotation());
 
                 if (m_mediators.handleEvent(nevent))
@@ -454,6 +525,8 @@ final class LienzoHandlerManager
             @Override
             public void onGestureEnd(final GestureEndEvent event)
             {
+                flushPointerMove();
+
                 final NodeGestureEndEvent nevent = new NodeGestureEndEvent(event.getScale(), event.getRotation());
 
                 if (m_mediators.handleEvent(nevent))
@@ -472,6 +545,8 @@ final class LienzoHandlerManager
             @Override
             public void onGestureChange(final GestureChangeEvent event)
             {
+                flushPointerMove();
+
                 final NodeGestureChangeEvent nevent = new NodeGestureChangeEvent(event.getScale(), event.getRotation());
 
                 if (m_mediators.handleEvent(nevent))
@@ -487,6 +562,110 @@ final class LienzoHandlerManager
         });
     }
 
+    /**
+     * When on, mouse and touch moves are not processed as they arrive. Only the last one is kept, and it is
+     * processed on the next animation frame, or before any other pointer event so the order of downs, moves and ups is kept.
+     */
+    final void setPointerMoveCoalescing(final boolean coalesce)
+    {
+        if (false == coalesce)
+        {
+            flushPointerMove();
+        }
+        m_coalesce = coalesce;
+    }
+
+    final boolean isPointerMoveCoalescing()
+    {
+        return m_coalesce;
+    }
+
+    final long getPointerMovesReceived()
+    {
+        return m_moves_received;
+    }
+
+    final long getPointerMovesProcessed()
+    {
+        return m_moves_processed;
+    }
+
+    final void resetPointerMoveStats()
+    {
+        m_moves_received = 0;
+
+        m_moves_processed = 0;
+    }
+
+    /**
+     * Counts a move, and keeps it for the next animation frame when coalescing.
+     *
+     * @return true if the move is deferred and must not be processed now
+     */
+    private final boolean isPointerMoveDeferred(final NativeEvent event, final int x, final int y)
+    {
+        if (m_coalesce_replay)
+        {
+            m_moves_processed++;
+
+            return false;
+        }
+        m_moves_received++;
+
+        if (false == m_coalesce)
+        {
+            m_moves_processed++;
+
+            return false;
+        }
+        if ((null != m_coalesce_event) && m_dragging)
+        {
+            m_coalesce_points.push(m_coalesce_x, m_coalesce_y);
+        }
+        m_coalesce_event = event;
+
+        m_coalesce_x = x;
+
+        m_coalesce_y = y;
+
+        if (false == m_coalesce_scheduled)
+        {
+            m_coalesce_scheduled = true;
+
+            AnimationScheduler.get().requestAnimationFrame(m_coalesce_frame);
+        }
+        return true;
+    }
+
+    /**
+     * Processes the deferred move, if any, through the same handlers it would have gone through when it arrived.
+     */
+    private final void flushPointerMove()
+    {
+        final NativeEvent event = m_coalesce_event;
+
+        if (null != event)
+        {
+            m_coalesce_event = null;
+
+            m_coalesce_replay = true;
+
+            try
+            {
+                DomEvent.fireNativeEvent(event, m_coalesce_handlers, m_lienzo.getElement());
+            }
+            finally
+            {
+                m_coalesce_replay = false;
+
+                if (m_coalesce_points.size() > 0)
+                {
+                    m_coalesce_points = new Point2DArray();
+                }
+            }
+        }
+    }
+
     private final Shape<?> findShapeAtPoint(final int x, final int y)
     {
         return m_viewport.findShapeAtPoint(x, y);
@@ -583,7 +762,9 @@ final class LienzoHandlerManager
 
             m_drag_node.getLayer().draw();
 
-            m_dragContext.drawNodeWithTransforms(m_lienzo.getDragLayer().getContext());
+            m_dragContext.prepareBlit();
+
+            m_dragContext.drawNode(m_lienzo.getDragLayer().getContext());
         }
         m_dragging_dispatch_move = m_drag_node.isEventHandled(NodeDragMoveEvent.getType());
 
@@ -592,6 +773,8 @@ final class LienzoHandlerManager
 
     private final void doDragMove(final INodeXYEvent event)
     {
+        m_dragContext.setCoalescedPoints(m_coalesce_points);
+
         m_dragContext.dragUpdate(event);
 
         if (m_dragging_dispatch_move)
@@ -602,7 +785,7 @@ final class LienzoHandlerManager
         {
             m_lienzo.getDragLayer().draw();
 
-            m_dragContext.drawNodeWithTransforms(m_lienzo.getDragLayer().getContext());
+            m_dragContext.drawNode(m_lienzo.getDragLayer().getContext());
         }
         else
         {
@@ -628,7 +811,15 @@ final class LienzoHandlerManager
 
     private final IPrimitive<?> findPrimitiveForEventType(final INodeXYEvent event, final Type<?> type)
     {
-        return findPrimitiveForPredicate(event, new Predicate<IPrimitive<?>>()
+        // no node handles the type, so there is nothing to pick
+
+        if (false == m_viewport.isEventHandledInTree(type))
+        {
+            return null;
+        }
+        // the layers below the lowest one that handles the type are not picked
+
+        return findPrimitiveForPredicate(m_viewport.findShapeAtPoint(event.getX(), event.getY(), type), new Predicate<IPrimitive<?>>()
         {
             @Override
             public boolean test(final IPrimitive<?> prim)
@@ -639,12 +830,17 @@ final class LienzoHandlerManager
     }
 
     private final IPrimitive<?> findPrimitiveForPredicate(final INodeXYEvent event, final Predicate<IPrimitive<?>> pred)
+    {
+        return findPrimitiveForPredicate(findShapeAtPoint(event.getX(), event.getY()), pred);
+    }
+
+    private final IPrimitive<?> findPrimitiveForPredicate(final Shape<?> shape, final Predicate<IPrimitive<?>> pred)
     {
         NFastArrayList<IPrimitive<?>> list = null;
 
         EventPropagationMode stop = EventPropagationMode.LAST_ANCESTOR;
 
-        Node<?> node = findShapeAtPoint(event.getX(), event.getY());
+        Node<?> node = shape;
 
         while ((null != node) && (null != node.asPrimitive()))
         {
@@ -825,8 +1021,16 @@ final class LienzoHandlerManager
 
             return;
         }
-        doCheckEnterExitShape(event);
+        if ((m_viewport.isEventHandledInTree(NodeMouseEnterEvent.getType())) || (m_viewport.isEventHandledInTree(NodeMouseExitEvent.getType())))
+        {
+            doCheckEnterExitShape(event);
+        }
+        else
+        {
+            // no node handles enter or exit, so there is nothing to pick, and nothing to leave later
 
+            m_over_prim = null;
+        }
         fireEventForPrimitive(findPrimitiveForEventType(event, event.getNodeEvent().getAssociatedType()), event);
     }
 
@@ -885,4 +1089,15 @@ final class LienzoHandlerManager
     {
         m_viewport.fireEvent(event);
     }
-}
\ No newline at end of file
+
+    private final class Coalescer implements AnimationCallback
+    {
+        @Override
+        public void execute(final double time)
+        {
+            m_coalesce_scheduled = false;
+
+            flushPointerMove();
+        }
+    }
+}
@@ -200,6 +200,53 @@ public class LienzoPanel extends FocusPanel implements RequiresResize, ProvidesR
         return m_drag_mouse_control;
     }
 
+    /**
+     * Turns pointer move coalescing on or off. It is off by default.
+     * <p>
+     * When on, the mouse and touch moves received during a frame are folded into the last one, which is processed
+     * once on the next animation frame, so picking, enter and exit handling and drag updates run at most once a frame.
+     * A pending move is always processed before any other pointer event. Drag handlers can still get the folded moves
+     * from {@link DragContext#getCoalescedPoints()}.
+     */
+    public LienzoPanel setPointerMoveCoalescing(final boolean coalesce)
+    {
+        if (null != m_events)
+        {
+            m_events.setPointerMoveCoalescing(coalesce);
+        }
+        return this;
+    }
+
+    public boolean isPointerMoveCoalescing()
+    {
+        return (null != m_events) && m_events.isPointerMoveCoalescing();
+    }
+
+    /**
+     * Returns the number of mouse and touch moves received since the stats were last reset.
+     */
+    public long getPointerMovesReceived()
+    {
+        return (null == m_events) ? 0 : m_events.getPointerMovesReceived();
+    }
+
+    /**
+     * Returns the number of mouse and touch moves processed since the stats were last reset. With coalescing off, it is the number received.
+     */
+    public long getPointerMovesProcessed()
+    {
+        return (null == m_events) ? 0 : m_events.getPointerMovesProcessed();
+    }
+
+    public LienzoPanel resetPointerMoveStats()
+    {
+        if (null != m_events)
+        {
+            m_events.resetPointerMoveStats();
+        }
+        return this;
+    }
+
     public LienzoPanel setTransform(final Transform transform)
     {
         getViewport().setTransform(transform);
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+public abstract class AbstractJavaImageDataFilter implements JavaImageDataFilter
+{
+    private final ImageFilterType m_type;
+
+    private boolean               m_active = true;
+
+    protected AbstractJavaImageDataFilter(final ImageFilterType type)
+    {
+        m_type = type;
+    }
+
+    @Override
+    public ImageDataBuffer filter(final ImageDataBuffer source, final boolean copy)
+    {
+        return filter(source, copy, null);
+    }
+
+    @Override
+    public ImageDataBuffer filter(ImageDataBuffer source, final boolean copy, final ForkJoinPool pool)
+    {
+        if (null == source)
+        {
+            return null;
+        }
+        if (copy)
+        {
+            source = source.copy();
+        }
+        if (false == isActive())
+        {
+            return source;
+        }
+        return doFilter(source, pool);
+    }
+
+    /**
+     * Filters the source, either in place, returning it, or into a new buffer.
+     */
+    protected abstract ImageDataBuffer doFilter(ImageDataBuffer source, ForkJoinPool pool);
+
+    @Override
+    public boolean isTransforming()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean isActive()
+    {
+        return m_active;
+    }
+
+    @Override
+    public void setActive(final boolean active)
+    {
+        m_active = active;
+    }
+
+    @Override
+    public final ImageFilterType getType()
+    {
+        return m_type;
+    }
+}
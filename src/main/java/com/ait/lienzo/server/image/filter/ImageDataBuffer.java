@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+/**
+ * A JVM side equivalent of the browser ImageData: a width, a height and an RGBA buffer with
+ * one int per channel, each in the range 0..255, in the same layout as a CanvasPixelArray.
+ */
+public final class ImageDataBuffer
+{
+    private final int   m_wide;
+
+    private final int   m_high;
+
+    private final int[] m_data;
+
+    public ImageDataBuffer(final int wide, final int high)
+    {
+        this(wide, high, new int[Math.max(0, wide) * Math.max(0, high) * 4]);
+    }
+
+    public ImageDataBuffer(final int wide, final int high, final int[] data)
+    {
+        if ((wide < 0) || (high < 0))
+        {
+            throw new IllegalArgumentException("invalid size " + wide + "x" + high);
+        }
+        if (null == data)
+        {
+            throw new NullPointerException("data");
+        }
+        if (data.length != (wide * high * 4))
+        {
+            throw new IllegalArgumentException("data length " + data.length + " does not match " + wide + "x" + high + " RGBA");
+        }
+        m_wide = wide;
+
+        m_high = high;
+
+        m_data = data;
+    }
+
+    /**
+     * Creates a buffer from RGBA bytes, as found in an HTML canvas or a PNG decoder.
+     */
+    public static final ImageDataBuffer fromBytes(final int wide, final int high, final byte[] rgba)
+    {
+        final int[] data = new int[rgba.length];
+
+        for (int i = 0; i < rgba.length; i++)
+        {
+            data[i] = (rgba[i] & 0xff);
+        }
+        return new ImageDataBuffer(wide, high, data);
+    }
+
+    /**
+     * Creates a buffer from packed, non premultiplied ARGB pixels, as returned by BufferedImage.getRGB().
+     */
+    public static final ImageDataBuffer fromPackedARGB(final int wide, final int high, final int[] argb)
+    {
+        final int[] data = new int[argb.length * 4];
+
+        for (int i = 0, p = 0; i < argb.length; i++, p += 4)
+        {
+            final int c = argb[i];
+
+            data[p] = ((c >> 16) & 0xff);
+
+            data[p + 1] = ((c >> 8) & 0xff);
+
+            data[p + 2] = (c & 0xff);
+
+            data[p + 3] = ((c >>> 24) & 0xff);
+        }
+        return new ImageDataBuffer(wide, high, data);
+    }
+
+    public final byte[] toBytes()
+    {
+        final byte[] rgba = new byte[m_data.length];
+
+        for (int i = 0; i < m_data.length; i++)
+        {
+            rgba[i] = (byte) m_data[i];
+        }
+        return rgba;
+    }
+
+    public final int[] toPackedARGB()
+    {
+        final int[] argb = new int[m_wide * m_high];
+
+        for (int i = 0, p = 0; i < argb.length; i++, p += 4)
+        {
+            argb[i] = (m_data[p + 3] << 24) | (m_data[p] << 16) | (m_data[p + 1] << 8) | m_data[p + 2];
+        }
+        return argb;
+    }
+
+    public final int getWidth()
+    {
+        return m_wide;
+    }
+
+    public final int getHeight()
+    {
+        return m_high;
+    }
+
+    public final int getLength()
+    {
+        return m_data.length;
+    }
+
+    public final int[] getData()
+    {
+        return m_data;
+    }
+
+    public final ImageDataBuffer copy()
+    {
+        final int[] data = new int[m_data.length];
+
+        System.arraycopy(m_data, 0, data, 0, m_data.length);
+
+        return new ImageDataBuffer(m_wide, m_high, data);
+    }
+
+    /**
+     * Returns a new, transparent black buffer of the same size, like ImageData.create().
+     */
+    public final ImageDataBuffer create()
+    {
+        return new ImageDataBuffer(m_wide, m_high);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.IBandOperation;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Applies a square convolution matrix, like the browser Bump and Sharpen filters. Separable matrices
+ * are applied as a horizontal and a vertical pass, which costs 2N instead of N*N per pixel.
+ */
+public class JavaConvolveImageDataFilter extends AbstractJavaImageDataFilter
+{
+    public static final double[] BUMP         = {-1, -1, 0, -1, 1, 1, 0, 1, 1};
+
+    public static final double[] SHARPEN_HARD = {0, -1, 0, -1, 5, -1, 0, -1, 0};
+
+    public static final double[] SHARPEN_SOFT = {0, -0.2, 0, -0.2, 1.8, -0.2, 0, -0.2, 0};
+
+    private final double[]       m_matrix;
+
+    public JavaConvolveImageDataFilter(final ImageFilterType type, final double... matrix)
+    {
+        super(type);
+
+        m_matrix = matrix;
+    }
+
+    public static final JavaConvolveImageDataFilter bump()
+    {
+        return new JavaConvolveImageDataFilter(ImageFilterType.BumpImageDataFilterType, BUMP.clone());
+    }
+
+    public static final JavaConvolveImageDataFilter sharpen(final double... matrix)
+    {
+        return new JavaConvolveImageDataFilter(ImageFilterType.SharpenImageDataFilterType, matrix);
+    }
+
+    public static final JavaConvolveImageDataFilter sharpen()
+    {
+        return sharpen(SHARPEN_HARD.clone());
+    }
+
+    public final double[] getMatrix()
+    {
+        return m_matrix;
+    }
+
+    @Override
+    public boolean isTransforming()
+    {
+        return true;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        if ((null == m_matrix) || (m_matrix.length < 1))
+        {
+            return source;
+        }
+        final int[] data = source.getData();
+
+        final int w = source.getWidth();
+
+        final int h = source.getHeight();
+
+        final double[][] separable = JavaImageDataFilterOps.separate(m_matrix);
+
+        if (null != separable)
+        {
+            final double[] temp = new double[w * h * 3];
+
+            JavaImageDataFilterOps.bands(pool, h, new IBandOperation()
+            {
+                @Override
+                public void run(final int from, final int to)
+                {
+                    JavaImageDataFilterOps.filterConvolveRows(data, temp, separable[0], w, from, to);
+                }
+            });
+            JavaImageDataFilterOps.bands(pool, h, new IBandOperation()
+            {
+                @Override
+                public void run(final int from, final int to)
+                {
+                    JavaImageDataFilterOps.filterConvolveColumns(temp, data, separable[1], w, h, from, to);
+                }
+            });
+            return source;
+        }
+        final ImageDataBuffer result = source.create();
+
+        final int[] buff = result.getData();
+
+        JavaImageDataFilterOps.bands(pool, h, new IBandOperation()
+        {
+            @Override
+            public void run(final int from, final int to)
+            {
+                JavaImageDataFilterOps.filterConvolve(data, buff, m_matrix, w, h, from, to);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.ITransform;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Diffusion, the same transform as the browser DiffusionImageDataFilter. The browser uses Math.random(), so results
+ * can only match it statistically; with a seeded {@link Random} the output is repeatable, which is why this filter
+ * always runs on the calling thread.
+ */
+public class JavaDiffusionImageDataFilter extends AbstractJavaImageDataFilter
+{
+    private final double   m_value;
+
+    private final Random   m_random;
+
+    private final double[] m_stabl = new double[256];
+
+    private final double[] m_ctabl = new double[256];
+
+    public JavaDiffusionImageDataFilter()
+    {
+        this(4);
+    }
+
+    public JavaDiffusionImageDataFilter(final double value)
+    {
+        this(value, new Random());
+    }
+
+    public JavaDiffusionImageDataFilter(final double value, final Random random)
+    {
+        super(ImageFilterType.DiffusionImageDataFilterType);
+
+        m_value = JavaTableImageDataFilter.range(value, 1, 100);
+
+        m_random = random;
+
+        for (int i = 0; i < 256; i++)
+        {
+            final double a = StrictMath.PI * 2 * i / 256;
+
+            m_stabl[i] = m_value * StrictMath.sin(a);
+
+            m_ctabl[i] = m_value * StrictMath.cos(a);
+        }
+    }
+
+    public final double getValue()
+    {
+        return m_value;
+    }
+
+    @Override
+    public boolean isTransforming()
+    {
+        return true;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        final ImageDataBuffer result = source.create();
+
+        JavaImageDataFilterOps.filterTransform(source.getData(), result.getData(), new ITransform()
+        {
+            @Override
+            public void transform(final int x, final int y, final double[] out)
+            {
+                final int a = (int) (m_random.nextDouble() * 255);
+
+                final double d = m_random.nextDouble();
+
+                out[0] = x + d * m_stabl[a];
+
+                out[1] = y + d * m_ctabl[a];
+            }
+        }, source.getWidth(), source.getHeight(), 0, source.getHeight());
+
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.IBandOperation;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Sobel edge detection, matching the browser EdgeDetectImageDataFilter, including its green/blue ordering of the horizontal sums.
+ */
+public class JavaEdgeDetectImageDataFilter extends AbstractJavaImageDataFilter
+{
+    private static final int[] HMAP = {-1, -2, -1, 0, 0, 0, 1, 2, 1};
+
+    private static final int[] VMAP = {-1, 0, 1, -2, 0, 2, -1, 0, 1};
+
+    public JavaEdgeDetectImageDataFilter()
+    {
+        super(ImageFilterType.EdgeDetectImageDataFilterType);
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        final ImageDataBuffer result = source.create();
+
+        final int[] data = source.getData();
+
+        final int[] buff = result.getData();
+
+        final int w = source.getWidth();
+
+        final int h = source.getHeight();
+
+        JavaImageDataFilterOps.bands(pool, h, new IBandOperation()
+        {
+            @Override
+            public void run(final int from, final int to)
+            {
+                filter(data, buff, w, h, from, to);
+            }
+        });
+        return result;
+    }
+
+    private static final void filter(final int[] data, final int[] buff, final int w, final int h, final int y0, final int y1)
+    {
+        for (int y = y0; y < y1; y++)
+        {
+            for (int x = 0; x < w; x++)
+            {
+                final int p = (y * w + x) * 4;
+
+                int rh = 0, gh = 0, bh = 0, rv = 0, gv = 0, bv = 0;
+
+                for (int irow = -1; irow <= 1; irow++)
+                {
+                    final int iy = y + irow;
+
+                    final int ioff = ((iy >= 0) && (iy < h)) ? iy * w * 4 : y * w * 4;
+
+                    final int moff = 3 * (irow + 1) + 1;
+
+                    for (int icol = -1; icol <= 1; icol++)
+                    {
+                        int ix = x + icol;
+
+                        if (false == ((ix >= 0) && (ix < w)))
+                        {
+                            ix = x;
+                        }
+                        final int f = ioff + (ix * 4);
+
+                        final int r = data[f];
+
+                        final int g = data[f + 1];
+
+                        final int b = data[f + 2];
+
+                        final int z = HMAP[moff + icol];
+
+                        final int v = VMAP[moff + icol];
+
+                        rh += z * r;
+
+                        bh += z * g;
+
+                        gh += z * b;
+
+                        rv += v * r;
+
+                        gv += v * g;
+
+                        bv += v * b;
+                    }
+                }
+                buff[p] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32(Math.sqrt(rh * rh + rv * rv) / 1.8));
+
+                buff[p + 1] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32(Math.sqrt(gh * gh + gv * gv) / 1.8));
+
+                buff[p + 2] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32(Math.sqrt(bh * bh + bv * bv) / 1.8));
+
+                buff[p + 3] = data[p + 3];
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Emboss, matching the browser EmbossImageDataFilter. The browser version works in place, and each value depends
+ * on values already written earlier in the same pass, so this filter always runs on the calling thread.
+ */
+public class JavaEmbossImageDataFilter extends AbstractJavaImageDataFilter
+{
+    public JavaEmbossImageDataFilter()
+    {
+        super(ImageFilterType.EmbossImageDataFilterType);
+    }
+
+    @Override
+    public boolean isTransforming()
+    {
+        return true;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        final int[] data = source.getData();
+
+        final int length = source.getLength();
+
+        final int row = source.getWidth() * 4;
+
+        for (int i = 0; i < length; i++)
+        {
+            if (i < (length - row))
+            {
+                if (((i + 1) % 4) != 0)
+                {
+                    if (((i + 4) % row) == 0)
+                    {
+                        data[i] = get(data, i - 4);
+
+                        data[i + 1] = get(data, i - 3);
+
+                        data[i + 2] = get(data, i - 2);
+
+                        data[i + 3] = get(data, i - 1);
+                    }
+                    else
+                    {
+                        data[i] = JavaImageDataFilterOps.clamp(255 / 2.0 + 2 * data[i] - data[i + 4] - data[i + row]);
+                    }
+                }
+            }
+            else
+            {
+                if (((i + 1) % 4) != 0)
+                {
+                    data[i] = get(data, i - row);
+                }
+            }
+        }
+        JavaImageDataFilterOps.filterLuminosity(data, 0, length);
+
+        return source;
+    }
+
+    /**
+     * Out of range reads are undefined in the browser, which a CanvasPixelArray stores as 0.
+     */
+    private static final int get(final int[] data, final int i)
+    {
+        return (i < 0) ? 0 : data[i];
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.IBandOperation;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Gaussian blur of the R, G and B channels approximated by three box blurs, matching the browser GaussianBlurImageDataFilter.
+ * Each box blur runs over bands of rows and then bands of columns.
+ */
+public class JavaGaussianBlurImageDataFilter extends AbstractJavaImageDataFilter
+{
+    public static final int BOX_BLUR_PASSES = 3;
+
+    private final double    m_sigma;
+
+    public JavaGaussianBlurImageDataFilter()
+    {
+        this(1);
+    }
+
+    public JavaGaussianBlurImageDataFilter(final double sigma)
+    {
+        super(ImageFilterType.GaussianBlurImageDataFilterType);
+
+        m_sigma = Math.max(Math.min(sigma, 100), 0);
+    }
+
+    public final double getSigma()
+    {
+        return m_sigma;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        final int[] data = source.getData();
+
+        final int w = source.getWidth();
+
+        final int h = source.getHeight();
+
+        for (final int radius : getBoxRadii(m_sigma, BOX_BLUR_PASSES))
+        {
+            if (radius > 0)
+            {
+                JavaImageDataFilterOps.bands(pool, h, new IBandOperation()
+                {
+                    @Override
+                    public void run(final int from, final int to)
+                    {
+                        JavaImageDataFilterOps.filterBoxBlur(data, radius, w, 0, w * 4, 4, from, to);
+                    }
+                });
+                JavaImageDataFilterOps.bands(pool, w, new IBandOperation()
+                {
+                    @Override
+                    public void run(final int from, final int to)
+                    {
+                        JavaImageDataFilterOps.filterBoxBlur(data, radius, h, 0, 4, w * 4, from, to);
+                    }
+                });
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Returns the radii of <code>passes</code> box blurs whose combined variance is closest to <code>sigma</code> squared.
+     */
+    public static final int[] getBoxRadii(final double sigma, final int passes)
+    {
+        final int[] radii = new int[Math.max(0, passes)];
+
+        if ((passes < 1) || (false == (sigma > 0)))
+        {
+            return radii;
+        }
+        final double vars = 12 * sigma * sigma;
+
+        int lo = (int) Math.floor(Math.sqrt((vars / passes) + 1));
+
+        if ((lo % 2) == 0)
+        {
+            lo--;
+        }
+        final int hi = lo + 2;
+
+        final long count = Math.round((vars - passes * lo * lo - 4 * passes * lo - 3 * passes) / (-4.0 * lo - 4));
+
+        for (int i = 0; i < passes; i++)
+        {
+            radii[i] = (((i < count) ? lo : hi) - 1) / 2;
+        }
+        return radii;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * A pure Java image filter, producing the same pixels as the browser ImageDataFilter of the same {@link ImageFilterType}.
+ */
+public interface JavaImageDataFilter
+{
+    public ImageDataBuffer filter(ImageDataBuffer source, boolean copy);
+
+    /**
+     * Filters the source, splitting the work into bands of rows (or columns) run on the given pool.
+     *
+     * @param source
+     * @param copy if true the source is left untouched
+     * @param pool if null the filter runs on the calling thread
+     * @return ImageDataBuffer
+     */
+    public ImageDataBuffer filter(ImageDataBuffer source, boolean copy, ForkJoinPool pool);
+
+    public boolean isTransforming();
+
+    public boolean isActive();
+
+    public void setActive(boolean active);
+
+    public ImageFilterType getType();
+}
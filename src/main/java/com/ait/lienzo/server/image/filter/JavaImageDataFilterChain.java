@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Applies a list of filters in order, like the browser ImageDataFilterChain.
+ */
+public class JavaImageDataFilterChain extends AbstractJavaImageDataFilter
+{
+    private final List<JavaImageDataFilter> m_filters = new ArrayList<JavaImageDataFilter>();
+
+    public JavaImageDataFilterChain(final JavaImageDataFilter... filters)
+    {
+        super(ImageFilterType.ImageDataFilterChainType);
+
+        for (final JavaImageDataFilter filter : filters)
+        {
+            add(filter);
+        }
+    }
+
+    public final JavaImageDataFilterChain add(final JavaImageDataFilter filter)
+    {
+        if ((null != filter) && (false == m_filters.contains(filter)))
+        {
+            m_filters.add(filter);
+        }
+        return this;
+    }
+
+    public final JavaImageDataFilterChain remove(final JavaImageDataFilter filter)
+    {
+        m_filters.remove(filter);
+
+        return this;
+    }
+
+    public final int size()
+    {
+        return m_filters.size();
+    }
+
+    public final Collection<JavaImageDataFilter> getFilters()
+    {
+        return Collections.unmodifiableList(m_filters);
+    }
+
+    @Override
+    public boolean isActive()
+    {
+        if (super.isActive())
+        {
+            for (final JavaImageDataFilter filter : m_filters)
+            {
+                if (filter.isActive())
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isTransforming()
+    {
+        if (isActive())
+        {
+            for (final JavaImageDataFilter filter : m_filters)
+            {
+                if ((filter.isTransforming()) && (filter.isActive()))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        for (final JavaImageDataFilter filter : m_filters)
+        {
+            if (filter.isActive())
+            {
+                final ImageDataBuffer result = filter.filter(source, false, pool);
+
+                if (null != result)
+                {
+                    source = result;
+                }
+            }
+        }
+        return source;
+    }
+}
@@ -0,0 +1,646 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pure Java versions of the operations in the browser ImageDataFilterCommonOps. Values are written back
+ * with {@link #clamp(double)}, which mirrors how a CanvasPixelArray stores numbers, so results match the browser.
+ */
+public final class JavaImageDataFilterOps
+{
+    public static final int[] MUL_TABLE = {
+            512, 512, 456, 512, 328, 456, 335, 512, 405, 328, 271, 456, 388, 335, 292, 512, 454, 405, 364, 328,
+            298, 271, 496, 456, 420, 388, 360, 335, 312, 292, 273, 512, 482, 454, 428, 405, 383, 364, 345, 328,
+            312, 298, 284, 271, 259, 496, 475, 456, 437, 420, 404, 388, 374, 360, 347, 335, 323, 312, 302, 292,
+            282, 273, 265, 512, 497, 482, 468, 454, 441, 428, 417, 405, 394, 383, 373, 364, 354, 345, 337, 328,
+            320, 312, 305, 298, 291, 284, 278, 271, 265, 259, 507, 496, 485, 475, 465, 456, 446, 437, 428, 420,
+            412, 404, 396, 388, 381, 374, 367, 360, 354, 347, 341, 335, 329, 323, 318, 312, 307, 302, 297, 292,
+            287, 282, 278, 273, 269, 265, 261, 512, 505, 497, 489, 482, 475, 468, 461, 454, 447, 441, 435, 428,
+            422, 417, 411, 405, 399, 394, 389, 383, 378, 373, 368, 364, 359, 354, 350, 345, 341, 337, 332, 328,
+            324, 320, 316, 312, 309, 305, 301, 298, 294, 291, 287, 284, 281, 278, 274, 271, 268, 265, 262, 259,
+            257, 507, 501, 496, 491, 485, 480, 475, 470, 465, 460, 456, 451, 446, 442, 437, 433, 428, 424, 420,
+            416, 412, 408, 404, 400, 396, 392, 388, 385, 381, 377, 374, 370, 367, 363, 360, 357, 354, 350, 347,
+            344, 341, 338, 335, 332, 329, 326, 323, 320, 318, 315, 312, 310, 307, 304, 302, 299, 297, 294, 292,
+            289, 287, 285, 282, 280, 278, 275, 273, 271, 269, 267, 265, 263, 261, 259
+    };
+
+    public static final int[] SHG_TABLE = {
+            9, 11, 12, 13, 13, 14, 14, 15, 15, 15, 15, 16, 16, 16, 16, 17, 17, 17, 17, 17,
+            17, 17, 18, 18, 18, 18, 18, 18, 18, 18, 18, 19, 19, 19, 19, 19, 19, 19, 19, 19,
+            19, 19, 19, 19, 19, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20,
+            20, 20, 20, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 21,
+            21, 21, 21, 21, 21, 21, 21, 21, 21, 21, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22,
+            22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22, 22,
+            22, 22, 22, 22, 22, 22, 22, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23,
+            23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23,
+            23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23, 23,
+            23, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24,
+            24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24,
+            24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24,
+            24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24
+    };
+
+    public static final int   MIN_BAND  = 16;
+
+    private JavaImageDataFilterOps()
+    {
+    }
+
+    /**
+     * Converts a number the way a Uint8ClampedArray does on store: NaN is 0, values are clamped to 0..255 and rounded half to even.
+     */
+    public static final int clamp(final double value)
+    {
+        if (false == (value > 0))
+        {
+            return 0;
+        }
+        if (value >= 255)
+        {
+            return 255;
+        }
+        return (int) Math.rint(value);
+    }
+
+    /**
+     * Converts a number the way the JavaScript <code>value | 0</code> idiom does.
+     */
+    public static final int toInt32(final double value)
+    {
+        return (int) (long) value;
+    }
+
+    public static final double luminosity(final double r, final double g, final double b)
+    {
+        return (r * 0.21) + (g * 0.72) + (b * 0.07);
+    }
+
+    public static final void filterTable(final int[] data, final double[] table, final int from, final int to)
+    {
+        for (int i = from; i < to; i += 4)
+        {
+            data[i] = clamp(table[data[i]]);
+
+            data[i + 1] = clamp(table[data[i + 1]]);
+
+            data[i + 2] = clamp(table[data[i + 2]]);
+        }
+    }
+
+    public static final void filterLuminosity(final int[] data, final int from, final int to)
+    {
+        for (int j = from; j < to; j += 4)
+        {
+            data[j] = data[j + 1] = data[j + 2] = clamp(toInt32(luminosity(data[j], data[j + 1], data[j + 2]) + 0.5));
+        }
+    }
+
+    /**
+     * Convolves rows <code>[y0, y1)</code> of data into buff, with the same edge handling as the browser: out of range neighbours are replaced by the center row or column.
+     */
+    public static final void filterConvolve(final int[] data, final int[] buff, final double[] matrix, final int w, final int h, final int y0, final int y1)
+    {
+        final int cols = (int) Math.sqrt(matrix.length);
+
+        final int row2 = cols / 2;
+
+        final int col2 = cols / 2;
+
+        for (int y = y0; y < y1; y++)
+        {
+            for (int x = 0; x < w; x++)
+            {
+                final int p = (y * w + x) * 4;
+
+                double r = 0, g = 0, b = 0;
+
+                for (int row = -row2; row <= row2; row++)
+                {
+                    final int iy = y + row;
+
+                    final int ioff = ((0 <= iy) && (iy < h)) ? iy * w : y * w;
+
+                    final int moff = cols * (row + row2) + col2;
+
+                    for (int col = -col2; col <= col2; col++)
+                    {
+                        final double f = matrix[moff + col];
+
+                        if (f != 0)
+                        {
+                            int ix = x + col;
+
+                            if (false == ((0 <= ix) && (ix < w)))
+                            {
+                                ix = x;
+                            }
+                            final int ipix = (ioff + ix) * 4;
+
+                            r += f * data[ipix];
+
+                            g += f * data[ipix + 1];
+
+                            b += f * data[ipix + 2];
+                        }
+                    }
+                }
+                buff[p] = clamp(toInt32(r + 0.5));
+
+                buff[p + 1] = clamp(toInt32(g + 0.5));
+
+                buff[p + 2] = clamp(toInt32(b + 0.5));
+
+                buff[p + 3] = data[p + 3];
+            }
+        }
+    }
+
+    /**
+     * Returns the row (horizontal) and column (vertical) vectors whose outer product is the matrix, or null if the matrix is not separable.
+     */
+    public static final double[][] separate(final double[] matrix)
+    {
+        final int cols = (int) Math.sqrt(matrix.length);
+
+        if ((cols * cols) != matrix.length)
+        {
+            return null;
+        }
+        int pi = -1, pj = -1;
+
+        double pmax = 0;
+
+        for (int i = 0; i < cols; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                final double m = Math.abs(matrix[i * cols + j]);
+
+                if (m > pmax)
+                {
+                    pmax = m;
+
+                    pi = i;
+
+                    pj = j;
+                }
+            }
+        }
+        if (pmax == 0)
+        {
+            return null;
+        }
+        final double pivot = matrix[pi * cols + pj];
+
+        final double[] hvec = new double[cols];
+
+        final double[] vvec = new double[cols];
+
+        for (int i = 0; i < cols; i++)
+        {
+            vvec[i] = matrix[i * cols + pj];
+
+            hvec[i] = matrix[pi * cols + i] / pivot;
+        }
+        final double epsilon = pmax * 1e-10;
+
+        for (int i = 0; i < cols; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                if (Math.abs(matrix[i * cols + j] - vvec[i] * hvec[j]) > epsilon)
+                {
+                    return null;
+                }
+            }
+        }
+        return new double[][] { hvec, vvec };
+    }
+
+    /**
+     * Horizontal pass of a separable convolve: rows <code>[y0, y1)</code> of data are convolved with hvec into temp, three doubles per pixel.
+     */
+    public static final void filterConvolveRows(final int[] data, final double[] temp, final double[] hvec, final int w, final int y0, final int y1)
+    {
+        final int half = hvec.length / 2;
+
+        for (int y = y0; y < y1; y++)
+        {
+            final int doff = y * w;
+
+            for (int x = 0; x < w; x++)
+            {
+                double r = 0, g = 0, b = 0;
+
+                for (int col = -half; col <= half; col++)
+                {
+                    final double f = hvec[col + half];
+
+                    if (f != 0)
+                    {
+                        int ix = x + col;
+
+                        if (false == ((0 <= ix) && (ix < w)))
+                        {
+                            ix = x;
+                        }
+                        final int ipix = (doff + ix) * 4;
+
+                        r += f * data[ipix];
+
+                        g += f * data[ipix + 1];
+
+                        b += f * data[ipix + 2];
+                    }
+                }
+                final int q = (doff + x) * 3;
+
+                temp[q] = r;
+
+                temp[q + 1] = g;
+
+                temp[q + 2] = b;
+            }
+        }
+    }
+
+    /**
+     * Vertical pass of a separable convolve: rows <code>[y0, y1)</code> of data are replaced by temp convolved with vvec.
+     */
+    public static final void filterConvolveColumns(final double[] temp, final int[] data, final double[] vvec, final int w, final int h, final int y0, final int y1)
+    {
+        final int half = vvec.length / 2;
+
+        for (int y = y0; y < y1; y++)
+        {
+            for (int x = 0; x < w; x++)
+            {
+                double r = 0, g = 0, b = 0;
+
+                for (int row = -half; row <= half; row++)
+                {
+                    final double f = vvec[row + half];
+
+                    if (f != 0)
+                    {
+                        int iy = y + row;
+
+                        if (false == ((0 <= iy) && (iy < h)))
+                        {
+                            iy = y;
+                        }
+                        final int q = (iy * w + x) * 3;
+
+                        r += f * temp[q];
+
+                        g += f * temp[q + 1];
+
+                        b += f * temp[q + 2];
+                    }
+                }
+                final int p = (y * w + x) * 4;
+
+                data[p] = clamp(toInt32(r + 0.5));
+
+                data[p + 1] = clamp(toInt32(g + 0.5));
+
+                data[p + 2] = clamp(toInt32(b + 0.5));
+            }
+        }
+    }
+
+    /**
+     * Box blurs the RGB channels of <code>count</code> lines in place. A line starts at <code>first + i * next</code> and its pixels are <code>step</code> ints apart,
+     * so the same code runs over rows and columns. The running sum clamps to the edge pixels.
+     */
+    public static final void filterBoxBlur(final int[] data, final int radius, final int size, final int first, final int next, final int step, final int from, final int to)
+    {
+        final int[] line = new int[size * 3];
+
+        final int span = radius + radius + 1;
+
+        for (int n = from; n < to; n++)
+        {
+            final int off = first + n * next;
+
+            for (int i = 0; i < size; i++)
+            {
+                final int p = off + i * step;
+
+                final int q = i * 3;
+
+                line[q] = data[p];
+
+                line[q + 1] = data[p + 1];
+
+                line[q + 2] = data[p + 2];
+            }
+            double r = 0, g = 0, b = 0;
+
+            for (int i = -radius; i <= radius; i++)
+            {
+                final int q = Math.min(Math.max(i, 0), size - 1) * 3;
+
+                r += line[q];
+
+                g += line[q + 1];
+
+                b += line[q + 2];
+            }
+            for (int i = 0; i < size; i++)
+            {
+                final int p = off + i * step;
+
+                data[p] = clamp(toInt32(r / span + 0.5));
+
+                data[p + 1] = clamp(toInt32(g / span + 0.5));
+
+                data[p + 2] = clamp(toInt32(b / span + 0.5));
+
+                final int qa = Math.min(i + radius + 1, size - 1) * 3;
+
+                final int qr = Math.max(i - radius, 0) * 3;
+
+                r += line[qa] - line[qr];
+
+                g += line[qa + 1] - line[qr + 1];
+
+                b += line[qa + 2] - line[qr + 2];
+            }
+        }
+    }
+
+    /**
+     * Resamples rows <code>[y0, y1)</code> of buff from data, with bilinear interpolation at the source positions given by the transform.
+     */
+    public static final void filterTransform(final int[] data, final int[] buff, final ITransform transform, final int w, final int h, final int y0, final int y1)
+    {
+        final double[] xfrm = new double[2];
+
+        final double[] nw = new double[4];
+
+        final double[] ne = new double[4];
+
+        final double[] sw = new double[4];
+
+        final double[] se = new double[4];
+
+        for (int y = y0; y < y1; y++)
+        {
+            for (int x = 0; x < w; x++)
+            {
+                final int p = (y * w + x) * 4;
+
+                transform.transform(x, y, xfrm);
+
+                final int srcx = (int) Math.floor(xfrm[0]);
+
+                final int srcy = (int) Math.floor(xfrm[1]);
+
+                final double xwht = xfrm[0] - srcx;
+
+                final double ywht = xfrm[1] - srcy;
+
+                if ((srcx >= 0) && (srcx < w - 1) && (srcy >= 0) && (srcy < h - 1))
+                {
+                    final int i = (w * srcy + srcx) * 4;
+
+                    final int s = i + w * 4;
+
+                    final int e = i + (w + 1) * 4;
+
+                    pixel(data, i, nw);
+
+                    pixel(data, i + 4, ne);
+
+                    pixel(data, s, sw);
+
+                    pixel(data, e, se);
+                }
+                else
+                {
+                    getPixel(data, srcx + 0, srcy + 0, w, h, nw);
+
+                    getPixel(data, srcx + 1, srcy + 0, w, h, ne);
+
+                    getPixel(data, srcx + 0, srcy + 1, w, h, sw);
+
+                    getPixel(data, srcx + 1, srcy + 1, w, h, se);
+                }
+                final double cx = 1.0 - xwht;
+
+                final double cy = 1.0 - ywht;
+
+                for (int c = 0; c < 4; c++)
+                {
+                    buff[p + c] = clamp(cy * (cx * nw[c] + xwht * ne[c]) + ywht * (cx * sw[c] + xwht * se[c]));
+                }
+            }
+        }
+    }
+
+    private static final void pixel(final int[] data, final int p, final double[] out)
+    {
+        out[0] = data[p];
+
+        out[1] = data[p + 1];
+
+        out[2] = data[p + 2];
+
+        out[3] = data[p + 3];
+    }
+
+    /**
+     * Note that the offset for out of range positions is computed exactly like the browser version, <code>(y * w) + (x * 4)</code>.
+     */
+    private static final void getPixel(final int[] data, final int x, final int y, final int w, final int h, final double[] out)
+    {
+        if ((x < 0) || (x >= w) || (y < 0) || (y >= h))
+        {
+            pixel(data, (Math.min(Math.max(y, 0), h - 1) * w) + (Math.min(Math.max(x, 0), w - 1) * 4), out);
+        }
+        else
+        {
+            pixel(data, (y * w + x) * 4, out);
+        }
+    }
+
+    public static final void RGBtoHSV(double r, double g, double b, final double[] out)
+    {
+        r = r / 255;
+
+        g = g / 255;
+
+        b = b / 255;
+
+        final double max = Math.max(Math.max(r, g), b);
+
+        final double min = Math.min(Math.min(r, g), b);
+
+        final double d = max - min;
+
+        double h = 0;
+
+        if (max != min)
+        {
+            if (max == r)
+            {
+                h = (g - b) / d + (g < b ? 6 : 0);
+            }
+            else if (max == g)
+            {
+                h = (b - r) / d + 2;
+            }
+            else
+            {
+                h = (r - g) / d + 4;
+            }
+            h /= 6;
+        }
+        out[0] = h;
+
+        out[1] = (max == 0) ? 0 : d / max;
+
+        out[2] = max;
+    }
+
+    public static final void HSVtoRGB(final double h, final double s, final double v, final double[] out)
+    {
+        final double i = Math.floor(h * 6);
+
+        final double f = h * 6 - i;
+
+        final double p = v * (1 - s);
+
+        final double q = v * (1 - f * s);
+
+        final double t = v * (1 - (1 - f) * s);
+
+        double r = Double.NaN, g = Double.NaN, b = Double.NaN;
+
+        final double k = i % 6;
+
+        if (k == 0)
+        {
+            r = v;
+            g = t;
+            b = p;
+        }
+        else if (k == 1)
+        {
+            r = q;
+            g = v;
+            b = p;
+        }
+        else if (k == 2)
+        {
+            r = p;
+            g = v;
+            b = t;
+        }
+        else if (k == 3)
+        {
+            r = p;
+            g = q;
+            b = v;
+        }
+        else if (k == 4)
+        {
+            r = t;
+            g = p;
+            b = v;
+        }
+        else if (k == 5)
+        {
+            r = v;
+            g = p;
+            b = q;
+        }
+        out[0] = r * 255;
+
+        out[1] = g * 255;
+
+        out[2] = b * 255;
+    }
+
+    /**
+     * Runs the operation over <code>[0, count)</code>, split into bands on the pool, or on the calling thread if the pool is null or the range is small.
+     */
+    public static final void bands(final ForkJoinPool pool, final int count, final IBandOperation operation)
+    {
+        if ((null == pool) || (count < (MIN_BAND * 2)))
+        {
+            operation.run(0, count);
+        }
+        else
+        {
+            pool.invoke(new BandAction(operation, 0, count, Math.max(MIN_BAND, count / (pool.getParallelism() * 4))));
+        }
+    }
+
+    public static interface IBandOperation
+    {
+        public void run(int from, int to);
+    }
+
+    public static interface ITransform
+    {
+        public void transform(int x, int y, double[] out);
+    }
+
+    private static final class BandAction extends RecursiveAction
+    {
+        private static final long    serialVersionUID = 3917440155236254517L;
+
+        private final IBandOperation m_oper;
+
+        private final int            m_from;
+
+        private final int            m_upto;
+
+        private final int            m_size;
+
+        public BandAction(final IBandOperation oper, final int from, final int upto, final int size)
+        {
+            m_oper = oper;
+
+            m_from = from;
+
+            m_upto = upto;
+
+            m_size = size;
+        }
+
+        @Override
+        protected final void compute()
+        {
+            if ((m_upto - m_from) <= m_size)
+            {
+                m_oper.run(m_from, m_upto);
+            }
+            else
+            {
+                final int half = (m_from + m_upto) >>> 1;
+
+                invokeAll(new BandAction(m_oper, m_from, half, m_size), new BandAction(m_oper, half, m_upto, m_size));
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.IBandOperation;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Base class for filters that change each pixel independently of its neighbours. The static factories
+ * provide the Java versions of the browser color and gray scale filters.
+ */
+public abstract class JavaPixelImageDataFilter extends AbstractJavaImageDataFilter
+{
+    protected JavaPixelImageDataFilter(final ImageFilterType type)
+    {
+        super(type);
+    }
+
+    /**
+     * Filters the channel values in <code>[from, to)</code>, both multiples of 4.
+     */
+    protected abstract void filterPixels(int[] data, int from, int to);
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        final int[] data = source.getData();
+
+        final int wide = source.getWidth() * 4;
+
+        JavaImageDataFilterOps.bands(pool, source.getHeight(), new IBandOperation()
+        {
+            @Override
+            public void run(final int from, final int to)
+            {
+                filterPixels(data, from * wide, to * wide);
+            }
+        });
+        return source;
+    }
+
+    public static final JavaPixelImageDataFilter alphaScaleColor(final int r, final int g, final int b, final boolean invert)
+    {
+        final int cr = color(r);
+
+        final int cg = color(g);
+
+        final int cb = color(b);
+
+        return new JavaPixelImageDataFilter(ImageFilterType.AlphaScaleColorImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    final double v = JavaImageDataFilterOps.luminosity(data[i], data[i + 1], data[i + 2]);
+
+                    data[i] = cr;
+
+                    data[i + 1] = cg;
+
+                    data[i + 2] = cb;
+
+                    if (invert)
+                    {
+                        data[i + 3] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32(v + 0.5));
+                    }
+                    else
+                    {
+                        data[i + 3] = JavaImageDataFilterOps.clamp(255 - JavaImageDataFilterOps.toInt32(v + 0.5));
+                    }
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter averageGrayScale()
+    {
+        return new JavaPixelImageDataFilter(ImageFilterType.AverageGrayScaleImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    data[i] = data[i + 1] = data[i + 2] = JavaImageDataFilterOps.toInt32(((data[i] + data[i + 1] + data[i + 2]) / 3.0) + 0.5);
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter brightness(final double value)
+    {
+        final double v = (JavaTableImageDataFilter.range(value, -1, 1) * 255) + 0.5;
+
+        return new JavaPixelImageDataFilter(ImageFilterType.BrightnessImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    data[i] = JavaImageDataFilterOps.toInt32(Math.max(Math.min(data[i] + v, 255), 0));
+
+                    data[i + 1] = JavaImageDataFilterOps.toInt32(Math.max(Math.min(data[i + 1] + v, 255), 0));
+
+                    data[i + 2] = JavaImageDataFilterOps.toInt32(Math.max(Math.min(data[i + 2] + v, 255), 0));
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter colorDeltaAlpha(final int r, final int g, final int b, final double value)
+    {
+        final int rmin = JavaImageDataFilterOps.toInt32(Math.max(color(r) - value, 0));
+
+        final int rmax = JavaImageDataFilterOps.toInt32(Math.min(color(r) + value, 255));
+
+        final int gmin = JavaImageDataFilterOps.toInt32(Math.max(color(g) - value, 0));
+
+        final int gmax = JavaImageDataFilterOps.toInt32(Math.min(color(g) + value, 255));
+
+        final int bmin = JavaImageDataFilterOps.toInt32(Math.max(color(b) - value, 0));
+
+        final int bmax = JavaImageDataFilterOps.toInt32(Math.min(color(b) + value, 255));
+
+        return new JavaPixelImageDataFilter(ImageFilterType.ColorDeltaAlphaImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    final int rval = data[i];
+
+                    final int gval = data[i + 1];
+
+                    final int bval = data[i + 2];
+
+                    if ((rval <= rmax) && (rval >= rmin) && (gval <= gmax) && (gval >= gmin) && (bval <= bmax) && (bval >= bmin))
+                    {
+                        data[i + 3] = 0;
+                    }
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter colorLuminosity(final int r, final int g, final int b)
+    {
+        final int cr = color(r);
+
+        final int cg = color(g);
+
+        final int cb = color(b);
+
+        return new JavaPixelImageDataFilter(ImageFilterType.ColorLuminosityImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    final double v = JavaImageDataFilterOps.luminosity(data[i], data[i + 1], data[i + 2]) / 255.0;
+
+                    data[i] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32((cr * v) + 0.5));
+
+                    data[i + 1] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32((cg * v) + 0.5));
+
+                    data[i + 2] = JavaImageDataFilterOps.clamp(JavaImageDataFilterOps.toInt32((cb * v) + 0.5));
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter hue(final double value)
+    {
+        final double v = JavaTableImageDataFilter.range(value, -1, 1);
+
+        return new JavaPixelImageDataFilter(ImageFilterType.HueImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                final double[] hsv = new double[3];
+
+                final double[] rgb = new double[3];
+
+                for (int p = from; p < to; p += 4)
+                {
+                    JavaImageDataFilterOps.RGBtoHSV(data[p], data[p + 1], data[p + 2], hsv);
+
+                    hsv[0] += v;
+
+                    while (hsv[0] < 0)
+                    {
+                        hsv[0] += 360;
+                    }
+                    JavaImageDataFilterOps.HSVtoRGB(hsv[0], hsv[1], hsv[2], rgb);
+
+                    for (int i = 0; i < 3; i++)
+                    {
+                        data[p + i] = JavaImageDataFilterOps.clamp(rgb[i]);
+                    }
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter invertColor()
+    {
+        return new JavaPixelImageDataFilter(ImageFilterType.InvertColorImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    data[i] = 255 - data[i];
+
+                    data[i + 1] = 255 - data[i + 1];
+
+                    data[i + 2] = 255 - data[i + 2];
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter lightnessGrayScale()
+    {
+        return new JavaPixelImageDataFilter(ImageFilterType.LightnessGrayScaleImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    final int r = data[i];
+
+                    final int g = data[i + 1];
+
+                    final int b = data[i + 2];
+
+                    data[i] = data[i + 1] = data[i + 2] = JavaImageDataFilterOps.toInt32(((Math.max(Math.max(r, g), b) + Math.min(Math.min(r, g), b)) / 2.0) + 0.5);
+                }
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter luminosityGrayScale()
+    {
+        return new JavaPixelImageDataFilter(ImageFilterType.LuminosityGrayScaleImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                JavaImageDataFilterOps.filterLuminosity(data, from, to);
+            }
+        };
+    }
+
+    public static final JavaPixelImageDataFilter rgbIgnoreAlpha(final int r, final int g, final int b)
+    {
+        final int cr = color(r);
+
+        final int cg = color(g);
+
+        final int cb = color(b);
+
+        return new JavaPixelImageDataFilter(ImageFilterType.RGBIgnoreAlphaImageDataFilterType)
+        {
+            @Override
+            protected void filterPixels(final int[] data, final int from, final int to)
+            {
+                for (int i = from; i < to; i += 4)
+                {
+                    if (data[i + 3] > 0)
+                    {
+                        data[i] = cr;
+
+                        data[i + 1] = cg;
+
+                        data[i + 2] = cb;
+
+                        data[i + 3] = 255;
+                    }
+                }
+            }
+        };
+    }
+
+    private static final int color(final int color)
+    {
+        return Math.max(Math.min(color, 255), 0);
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.IBandOperation;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Stack blur of the R, G and B channels, matching the browser StackBlurImageDataFilter. The horizontal pass runs
+ * over bands of rows and the vertical pass over bands of columns, so it can be split across a pool with identical results.
+ */
+public class JavaStackBlurImageDataFilter extends AbstractJavaImageDataFilter
+{
+    private final int m_radius;
+
+    public JavaStackBlurImageDataFilter()
+    {
+        this(1);
+    }
+
+    public JavaStackBlurImageDataFilter(final int radius)
+    {
+        super(ImageFilterType.StackBlurImageDataFilterType);
+
+        m_radius = Math.max(Math.min(radius, 180), 0);
+    }
+
+    public final int getRadius()
+    {
+        return m_radius;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        if (m_radius < 1)
+        {
+            return source;
+        }
+        final int[] data = source.getData();
+
+        final int w = source.getWidth();
+
+        final int h = source.getHeight();
+
+        JavaImageDataFilterOps.bands(pool, h, new IBandOperation()
+        {
+            @Override
+            public void run(final int from, final int to)
+            {
+                blurRows(data, w, m_radius, from, to);
+            }
+        });
+        JavaImageDataFilterOps.bands(pool, w, new IBandOperation()
+        {
+            @Override
+            public void run(final int from, final int to)
+            {
+                blurColumns(data, w, h, m_radius, from, to);
+            }
+        });
+        return source;
+    }
+
+    private static final int out(final int sum, final int mul, final int shg)
+    {
+        return JavaImageDataFilterOps.clamp(((int) ((long) sum * mul)) >> shg);
+    }
+
+    private static final void blurRows(final int[] data, final int width, final int radius, final int y0, final int y1)
+    {
+        final int div = radius + radius + 1;
+
+        final int widthMinus1 = width - 1;
+
+        final int radiusPlus1 = radius + 1;
+
+        final int sumFactor = radiusPlus1 * (radiusPlus1 + 1) / 2;
+
+        final int mul_sum = JavaImageDataFilterOps.MUL_TABLE[radius];
+
+        final int shg_sum = JavaImageDataFilterOps.SHG_TABLE[radius];
+
+        final int[] sr = new int[div];
+
+        final int[] sg = new int[div];
+
+        final int[] sb = new int[div];
+
+        for (int y = y0; y < y1; y++)
+        {
+            final int yw = y * width;
+
+            int yi = yw << 2;
+
+            int r_in_sum = 0, g_in_sum = 0, b_in_sum = 0;
+
+            int pr = data[yi];
+
+            int pg = data[yi + 1];
+
+            int pb = data[yi + 2];
+
+            int r_out_sum = radiusPlus1 * pr;
+
+            int g_out_sum = radiusPlus1 * pg;
+
+            int b_out_sum = radiusPlus1 * pb;
+
+            int r_sum = sumFactor * pr;
+
+            int g_sum = sumFactor * pg;
+
+            int b_sum = sumFactor * pb;
+
+            int stack = 0;
+
+            for (int i = 0; i < radiusPlus1; i++)
+            {
+                sr[stack] = pr;
+
+                sg[stack] = pg;
+
+                sb[stack] = pb;
+
+                stack = (stack + 1) % div;
+            }
+            for (int i = 1; i < radiusPlus1; i++)
+            {
+                final int p = yi + (Math.min(widthMinus1, i) << 2);
+
+                final int rbs = radiusPlus1 - i;
+
+                r_sum += (sr[stack] = pr = data[p]) * rbs;
+
+                g_sum += (sg[stack] = pg = data[p + 1]) * rbs;
+
+                b_sum += (sb[stack] = pb = data[p + 2]) * rbs;
+
+                r_in_sum += pr;
+
+                g_in_sum += pg;
+
+                b_in_sum += pb;
+
+                stack = (stack + 1) % div;
+            }
+            int stackIn = 0;
+
+            int stackOut = radiusPlus1;
+
+            for (int x = 0; x < width; x++)
+            {
+                data[yi] = out(r_sum, mul_sum, shg_sum);
+
+                data[yi + 1] = out(g_sum, mul_sum, shg_sum);
+
+                data[yi + 2] = out(b_sum, mul_sum, shg_sum);
+
+                r_sum -= r_out_sum;
+
+                g_sum -= g_out_sum;
+
+                b_sum -= b_out_sum;
+
+                r_out_sum -= sr[stackIn];
+
+                g_out_sum -= sg[stackIn];
+
+                b_out_sum -= sb[stackIn];
+
+                final int p = (yw + Math.min(x + radius + 1, widthMinus1)) << 2;
+
+                r_in_sum += (sr[stackIn] = data[p]);
+
+                g_in_sum += (sg[stackIn] = data[p + 1]);
+
+                b_in_sum += (sb[stackIn] = data[p + 2]);
+
+                r_sum += r_in_sum;
+
+                g_sum += g_in_sum;
+
+                b_sum += b_in_sum;
+
+                stackIn = (stackIn + 1) % div;
+
+                r_out_sum += (pr = sr[stackOut]);
+
+                g_out_sum += (pg = sg[stackOut]);
+
+                b_out_sum += (pb = sb[stackOut]);
+
+                r_in_sum -= pr;
+
+                g_in_sum -= pg;
+
+                b_in_sum -= pb;
+
+                stackOut = (stackOut + 1) % div;
+
+                yi += 4;
+            }
+        }
+    }
+
+    private static final void blurColumns(final int[] data, final int width, final int height, final int radius, final int x0, final int x1)
+    {
+        final int div = radius + radius + 1;
+
+        final int heightMinus1 = height - 1;
+
+        final int radiusPlus1 = radius + 1;
+
+        final int sumFactor = radiusPlus1 * (radiusPlus1 + 1) / 2;
+
+        final int mul_sum = JavaImageDataFilterOps.MUL_TABLE[radius];
+
+        final int shg_sum = JavaImageDataFilterOps.SHG_TABLE[radius];
+
+        final int[] sr = new int[div];
+
+        final int[] sg = new int[div];
+
+        final int[] sb = new int[div];
+
+        for (int x = x0; x < x1; x++)
+        {
+            if (height < 2)
+            {
+                // the browser reads past the end of a single row image, its sums become NaN and every value is stored as 0
+                for (int p = x << 2, i = 0; i < height; i++, p += width << 2)
+                {
+                    data[p] = data[p + 1] = data[p + 2] = 0;
+                }
+                continue;
+            }
+            int yi = x << 2;
+
+            int r_in_sum = 0, g_in_sum = 0, b_in_sum = 0;
+
+            int pr = data[yi];
+
+            int pg = data[yi + 1];
+
+            int pb = data[yi + 2];
+
+            int r_out_sum = radiusPlus1 * pr;
+
+            int g_out_sum = radiusPlus1 * pg;
+
+            int b_out_sum = radiusPlus1 * pb;
+
+            int r_sum = sumFactor * pr;
+
+            int g_sum = sumFactor * pg;
+
+            int b_sum = sumFactor * pb;
+
+            int stack = 0;
+
+            for (int i = 0; i < radiusPlus1; i++)
+            {
+                sr[stack] = pr;
+
+                sg[stack] = pg;
+
+                sb[stack] = pb;
+
+                stack = (stack + 1) % div;
+            }
+            int yp = width;
+
+            for (int i = 1; i <= radius; i++)
+            {
+                yi = (yp + x) << 2;
+
+                final int rbs = radiusPlus1 - i;
+
+                r_sum += (sr[stack] = pr = data[yi]) * rbs;
+
+                g_sum += (sg[stack] = pg = data[yi + 1]) * rbs;
+
+                b_sum += (sb[stack] = pb = data[yi + 2]) * rbs;
+
+                r_in_sum += pr;
+
+                g_in_sum += pg;
+
+                b_in_sum += pb;
+
+                stack = (stack + 1) % div;
+
+                if (i < heightMinus1)
+                {
+                    yp += width;
+                }
+            }
+            yi = x;
+
+            int stackIn = 0;
+
+            int stackOut = radiusPlus1;
+
+            for (int y = 0; y < height; y++)
+            {
+                int p = yi << 2;
+
+                data[p] = out(r_sum, mul_sum, shg_sum);
+
+                data[p + 1] = out(g_sum, mul_sum, shg_sum);
+
+                data[p + 2] = out(b_sum, mul_sum, shg_sum);
+
+                r_sum -= r_out_sum;
+
+                g_sum -= g_out_sum;
+
+                b_sum -= b_out_sum;
+
+                r_out_sum -= sr[stackIn];
+
+                g_out_sum -= sg[stackIn];
+
+                b_out_sum -= sb[stackIn];
+
+                p = (x + (Math.min(y + radiusPlus1, heightMinus1) * width)) << 2;
+
+                r_sum += (r_in_sum += (sr[stackIn] = data[p]));
+
+                g_sum += (g_in_sum += (sg[stackIn] = data[p + 1]));
+
+                b_sum += (b_in_sum += (sb[stackIn] = data[p + 2]));
+
+                stackIn = (stackIn + 1) % div;
+
+                r_out_sum += (pr = sr[stackOut]);
+
+                g_out_sum += (pg = sg[stackOut]);
+
+                b_out_sum += (pb = sb[stackOut]);
+
+                r_in_sum -= pr;
+
+                g_in_sum -= pg;
+
+                b_in_sum -= pb;
+
+                stackOut = (stackOut + 1) % div;
+
+                yi += width;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.image.filter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps.IBandOperation;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+/**
+ * Maps the R, G and B channels through a 256 entry lookup table. The static factories build the same tables as
+ * the browser Contrast, Exposure, Gain, Gamma, Posterize and Solarize filters, with values clamped to the same ranges.
+ */
+public class JavaTableImageDataFilter extends AbstractJavaImageDataFilter
+{
+    private final double[] m_table;
+
+    public JavaTableImageDataFilter(final ImageFilterType type, final double[] table)
+    {
+        super(type);
+
+        if (table.length != 256)
+        {
+            throw new IllegalArgumentException("table length must be 256");
+        }
+        m_table = table;
+    }
+
+    public static final JavaTableImageDataFilter contrast(double value)
+    {
+        value = range(value, 0, 2);
+
+        final double[] table = new double[256];
+
+        for (int i = 0; i < 256; i++)
+        {
+            table[i] = JavaImageDataFilterOps.toInt32(255 * (((i / 255.0) - 0.5) * value + 0.5));
+        }
+        return new JavaTableImageDataFilter(ImageFilterType.ContrastImageDataFilterType, table);
+    }
+
+    public static final JavaTableImageDataFilter exposure(double value)
+    {
+        value = range(value, 0, 5);
+
+        final double[] table = new double[256];
+
+        for (int i = 0; i < 256; i++)
+        {
+            table[i] = JavaImageDataFilterOps.toInt32(255 * (1 - StrictMath.exp(-(i / 255.0) * value)));
+        }
+        return new JavaTableImageDataFilter(ImageFilterType.ExposureImageDataFilterType, table);
+    }
+
+    public static final JavaTableImageDataFilter gain(double gain, double bias)
+    {
+        gain = range(gain, 0, 1);
+
+        bias = range(bias, 0, 1);
+
+        final double[] table = new double[256];
+
+        for (int i = 0; i < 256; i++)
+        {
+            double v = i / 255.0;
+
+            final double k = (1 / gain - 2) * (1 - 2 * v);
+
+            v = (v < 0.5) ? v / (k + 1) : (k - v) / (k - 1);
+
+            v /= (1 / bias - 2) * (1 - v) + 1;
+
+            table[i] = JavaImageDataFilterOps.toInt32(255 * v);
+        }
+        return new JavaTableImageDataFilter(ImageFilterType.GainImageDataFilterType, table);
+    }
+
+    public static final JavaTableImageDataFilter gamma(double value)
+    {
+        value = range(value, 0, 2);
+
+        final double[] table = new double[256];
+
+        for (int i = 0; i < 256; i++)
+        {
+            table[i] = 255 * StrictMath.pow(i / 255.0, 1 / value) + 0.5;
+        }
+        return new JavaTableImageDataFilter(ImageFilterType.GammaImageDataFilterType, table);
+    }
+
+    public static final JavaTableImageDataFilter posterize(double value)
+    {
+        value = range(value, 2, 30);
+
+        final double[] table = new double[256];
+
+        for (int i = 0; i < 256; i++)
+        {
+            table[i] = JavaImageDataFilterOps.toInt32(255 * JavaImageDataFilterOps.toInt32(i * value / 256) / (value - 1));
+        }
+        return new JavaTableImageDataFilter(ImageFilterType.PosterizeImageDataFilterType, table);
+    }
+
+    public static final JavaTableImageDataFilter solarize()
+    {
+        final double[] table = new double[256];
+
+        for (int i = 0; i < 256; i++)
+        {
+            table[i] = JavaImageDataFilterOps.toInt32((((i / 255.0) > 0.5) ? 2 * (i / 255.0 - 0.5) : 2 * (0.5 - i / 255.0)) * 255);
+        }
+        return new JavaTableImageDataFilter(ImageFilterType.SolarizeImageDataFilterType, table);
+    }
+
+    static final double range(final double value, final double min, final double max)
+    {
+        return Math.max(Math.min(value, max), min);
+    }
+
+    public final double[] getTable()
+    {
+        return m_table;
+    }
+
+    @Override
+    public boolean isTransforming()
+    {
+        return true;
+    }
+
+    @Override
+    protected ImageDataBuffer doFilter(final ImageDataBuffer source, final ForkJoinPool pool)
+    {
+        final int[] data = source.getData();
+
+        final int wide = source.getWidth() * 4;
+
+        JavaImageDataFilterOps.bands(pool, source.getHeight(), new IBandOperation()
+        {
+            @Override
+            public void run(final int from, final int to)
+            {
+                JavaImageDataFilterOps.filterTable(data, m_table, from * wide, to * wide);
+            }
+        });
+        return source;
+    }
+}
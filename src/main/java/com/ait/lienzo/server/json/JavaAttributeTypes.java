@@ -0,0 +1,625 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import com.ait.lienzo.client.core.AttributeType;
+import com.ait.lienzo.client.core.types.LinearGradient;
+import com.ait.lienzo.client.core.types.PatternGradient;
+import com.ait.lienzo.client.core.types.RadialGradient;
+import com.ait.lienzo.shared.core.types.ArrowType;
+import com.ait.lienzo.shared.core.types.ColorName;
+import com.ait.lienzo.shared.core.types.CompositeOperation;
+import com.ait.lienzo.shared.core.types.Direction;
+import com.ait.lienzo.shared.core.types.DragConstraint;
+import com.ait.lienzo.shared.core.types.DragMode;
+import com.ait.lienzo.shared.core.types.EnumWithValue;
+import com.ait.lienzo.shared.core.types.EventPropagationMode;
+import com.ait.lienzo.shared.core.types.FillRepeat;
+import com.ait.lienzo.shared.core.types.ImageSelectionMode;
+import com.ait.lienzo.shared.core.types.ImageSerializationMode;
+import com.ait.lienzo.shared.core.types.LineCap;
+import com.ait.lienzo.shared.core.types.LineJoin;
+import com.ait.lienzo.shared.core.types.TextAlign;
+import com.ait.lienzo.shared.core.types.TextBaseLine;
+import com.ait.lienzo.shared.core.types.TextUnit;
+
+/**
+ * JVM versions of the validators in com.ait.lienzo.client.core.shape.json.validators, working on the
+ * plain Java tree produced by {@link JavaJSONParser}. A JSON null is passed to a validator as <code>null</code>,
+ * which is reported the same way the client reports a JSONNull.
+ * <p>
+ * The constants mirror the ones in {@link AttributeType}.
+ */
+public final class JavaAttributeTypes
+{
+    public static final IJavaAttributeTypeValidator NUMBER_TYPE                 = new NumberValidator();
+
+    public static final IJavaAttributeTypeValidator STRING_TYPE                 = new StringValidator();
+
+    public static final IJavaAttributeTypeValidator BOOLEAN_TYPE                = new BooleanValidator();
+
+    public static final IJavaAttributeTypeValidator COLOR_TYPE                  = new ColorValidator();
+
+    public static final IJavaAttributeTypeValidator URL_TYPE                    = new URLValidator();
+
+    public static final IJavaAttributeTypeValidator IGNORE_TYPE                 = new IgnoreTypeValidator();
+
+    public static final IJavaAttributeTypeValidator TRANSFORM_TYPE              = new TransformValidator();
+
+    public static final IJavaAttributeTypeValidator NUMBER_ARRAY_TYPE           = new ArrayValidator(NUMBER_TYPE);
+
+    public static final IJavaAttributeTypeValidator POINT2D_TYPE                = new ObjectValidator("Point2D").addAttribute("x", NUMBER_TYPE, true).addAttribute("y", NUMBER_TYPE, true);
+
+    public static final IJavaAttributeTypeValidator POINT2D_ARRAY_TYPE          = new ArrayValidator(POINT2D_TYPE);
+
+    public static final IJavaAttributeTypeValidator RADIUS_POINT_TYPE           = new ObjectValidator("RadiusPoint").addAttribute("x", NUMBER_TYPE, true).addAttribute("y", NUMBER_TYPE, true).addAttribute("radius", NUMBER_TYPE, true);
+
+    public static final IJavaAttributeTypeValidator BOUNDING_BOX_TYPE           = new ObjectValidator("BoundingBox").addAttribute("x", NUMBER_TYPE, true).addAttribute("y", NUMBER_TYPE, true).addAttribute("width", NUMBER_TYPE, true).addAttribute("height", NUMBER_TYPE, true);
+
+    public static final IJavaAttributeTypeValidator BOUNDING_BOX_ARRAY_TYPE     = new ArrayValidator(BOUNDING_BOX_TYPE);
+
+    public static final IJavaAttributeTypeValidator COLOR_STOP_ARRAY_TYPE       = new ArrayValidator(new ObjectValidator("ColorStop").addAttribute("stop", NUMBER_TYPE, true).addAttribute("color", COLOR_TYPE, true));
+
+    public static final IJavaAttributeTypeValidator LINEAR_GRADIENT_TYPE        = new ObjectValidator(LinearGradient.TYPE, LinearGradient.TYPE).addAttribute("type", STRING_TYPE, true).addAttribute("start", POINT2D_TYPE, true).addAttribute("end", POINT2D_TYPE, true).addAttribute("colorStops", COLOR_STOP_ARRAY_TYPE, true);
+
+    public static final IJavaAttributeTypeValidator RADIAL_GRADIENT_TYPE        = new ObjectValidator(RadialGradient.TYPE, RadialGradient.TYPE).addAttribute("type", STRING_TYPE, true).addAttribute("start", RADIUS_POINT_TYPE, true).addAttribute("end", RADIUS_POINT_TYPE, true).addAttribute("colorStops", COLOR_STOP_ARRAY_TYPE, true);
+
+    public static final IJavaAttributeTypeValidator PATTERN_GRADIENT_TYPE       = new ObjectValidator(PatternGradient.TYPE, PatternGradient.TYPE).addAttribute("type", STRING_TYPE, true).addAttribute("repeat", new EnumValidator<>("FillRepeat", FillRepeat.values()), true).addAttribute("src", STRING_TYPE, true).addAttribute("image", IGNORE_TYPE, false);
+
+    public static final IJavaAttributeTypeValidator SHADOW_TYPE                 = new ObjectValidator("Shadow").addAttribute("color", COLOR_TYPE, false).addAttribute("blur", NUMBER_TYPE, false).addAttribute("offset", POINT2D_TYPE, false).addAttribute("onfill", BOOLEAN_TYPE, false);
+
+    public static final IJavaAttributeTypeValidator DRAG_BOUNDS_TYPE            = new ObjectValidator("DragBounds").addAttribute("x1", NUMBER_TYPE, false).addAttribute("y1", NUMBER_TYPE, false).addAttribute("x2", NUMBER_TYPE, false).addAttribute("y2", NUMBER_TYPE, false);
+
+    public static final IJavaAttributeTypeValidator BEHAVIOR_MAP_TYPE           = new SpriteBehaviorMapValidator();
+
+    public static final IJavaAttributeTypeValidator SERIALIZATION_MODE_TYPE     = new EnumValidator<>("SerializationMode", ImageSerializationMode.values());
+
+    public static final IJavaAttributeTypeValidator IMAGE_SELECTION_MODE_TYPE   = new EnumValidator<>("ImageSelectionMode", ImageSelectionMode.values());
+
+    public static final IJavaAttributeTypeValidator DASH_ARRAY_TYPE             = new ArrayValidator(NUMBER_TYPE);
+
+    public static final IJavaAttributeTypeValidator LINE_CAP_TYPE               = new EnumValidator<>("LineCap", LineCap.values());
+
+    public static final IJavaAttributeTypeValidator LINE_JOIN_TYPE              = new EnumValidator<>("LineJoin", LineJoin.values());
+
+    public static final IJavaAttributeTypeValidator DRAG_CONSTRAINT_TYPE        = new EnumValidator<>("DragConstraint", DragConstraint.values());
+
+    public static final IJavaAttributeTypeValidator DRAG_MODE_TYPE              = new EnumValidator<>("DragMode", DragMode.values());
+
+    public static final IJavaAttributeTypeValidator TEXT_ALIGN_TYPE             = new EnumValidator<>("TextAlign", TextAlign.values());
+
+    public static final IJavaAttributeTypeValidator TEXT_BASELINE_TYPE          = new EnumValidator<>("TextBaseLine", TextBaseLine.values());
+
+    public static final IJavaAttributeTypeValidator TEXT_UNIT_TYPE              = new EnumValidator<>("TextUnit", TextUnit.values());
+
+    public static final IJavaAttributeTypeValidator COMPOSITE_OPERATION_TYPE    = new EnumValidator<>("CompositeOperation", CompositeOperation.values());
+
+    public static final IJavaAttributeTypeValidator ARROW_TYPE                  = new EnumValidator<>("ArrowType", ArrowType.values());
+
+    public static final IJavaAttributeTypeValidator DIRECTION_TYPE              = new EnumValidator<>("Direction", Direction.values());
+
+    public static final IJavaAttributeTypeValidator EVENT_PROPAGATION_MODE_TYPE = new EnumValidator<>("EventPropagationMode", EventPropagationMode.values());
+
+    public static final IJavaAttributeTypeValidator FILL_TYPE                   = new MultiTypeValidator("Color or Gradient", COLOR_TYPE, LINEAR_GRADIENT_TYPE, PATTERN_GRADIENT_TYPE, RADIAL_GRADIENT_TYPE);
+
+    public static final IJavaAttributeTypeValidator STROKE_TYPE                 = COLOR_TYPE;
+
+    private JavaAttributeTypes()
+    {
+    }
+
+    public static interface IJavaAttributeTypeValidator
+    {
+        public String getTypeName();
+
+        public boolean isIgnored();
+
+        public void validate(Object jval, JavaValidationContext ctx) throws JavaValidationException;
+    }
+
+    public static abstract class AbstractJavaAttributeTypeValidator implements IJavaAttributeTypeValidator
+    {
+        private final String m_typeName;
+
+        protected AbstractJavaAttributeTypeValidator(final String typeName)
+        {
+            m_typeName = typeName;
+        }
+
+        @Override
+        public boolean isIgnored()
+        {
+            return false;
+        }
+
+        @Override
+        public String getTypeName()
+        {
+            return m_typeName;
+        }
+    }
+
+    public static class NumberValidator extends AbstractJavaAttributeTypeValidator
+    {
+        public NumberValidator()
+        {
+            super("Number");
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if ((false == (jval instanceof Double)) || (((Double) jval).isInfinite()) || (((Double) jval).isNaN()))
+            {
+                ctx.addBadTypeError(getTypeName());
+            }
+        }
+    }
+
+    public static class StringValidator extends AbstractJavaAttributeTypeValidator
+    {
+        public StringValidator()
+        {
+            super("String");
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof String))
+            {
+                ctx.addBadTypeError(getTypeName());
+            }
+        }
+    }
+
+    public static class BooleanValidator extends AbstractJavaAttributeTypeValidator
+    {
+        public BooleanValidator()
+        {
+            super("Boolean");
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof Boolean))
+            {
+                ctx.addBadTypeError(getTypeName());
+            }
+        }
+    }
+
+    public static class IgnoreTypeValidator extends AbstractJavaAttributeTypeValidator
+    {
+        public IgnoreTypeValidator()
+        {
+            super("Ignore");
+        }
+
+        @Override
+        public boolean isIgnored()
+        {
+            return true;
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+        }
+    }
+
+    public static class ColorValidator extends AbstractJavaAttributeTypeValidator
+    {
+        private static final String[] SPECIAL_COLOR_NAMES = { "transparent", "currentcolor", "inherit" };
+
+        private static final String   I                   = "(?:[0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])";
+
+        private static final String   F                   = "(?:[-+]?\\d+(\\.\\d+)?)";
+
+        private static final String   P                   = "(?:" + F + "%)";
+
+        private static final String   IP                  = "(?:" + I + "|" + P + ")";
+
+        private static final String   A                   = F;
+
+        private static final String   RGB                 = "\\s*" + IP + "\\s*,\\s*" + IP + "\\s*,\\s*" + IP + "\\s*";
+
+        private static final String   HSL                 = "\\s*" + F + "\\s*,\\s*" + P + "\\s*,\\s*" + P + "\\s*";
+
+        private static final String   COLOR               = "#[0-9A-Fa-f]{3}|#[0-9A-Fa-f]{6}|rgb\\(" + RGB + "\\)|rgba\\(" + RGB + "\\s*,\\s*" + A + "\\)|hsl\\(" + HSL + "\\)|hsla\\(" + HSL + "\\s*,\\s*" + A + "\\)";
+
+        private static final Pattern  COLOR_RE            = Pattern.compile("^(?:" + COLOR + ")$");
+
+        public ColorValidator()
+        {
+            super("Color");
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof String))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            final String str = ((String) jval).toLowerCase();
+
+            if ((false == Arrays.asList(SPECIAL_COLOR_NAMES).contains(str)) && (null == ColorName.lookup(str)) && (false == COLOR_RE.matcher(str).matches()))
+            {
+                ctx.addBadValueError(getTypeName(), jval);
+            }
+        }
+    }
+
+    public static class URLValidator extends AbstractJavaAttributeTypeValidator
+    {
+        public URLValidator()
+        {
+            super("URL");
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof String))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            final String url = ((String) jval).trim();
+
+            if ((url.isEmpty()) || (url.startsWith("#")))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            if (url.startsWith("data:"))
+            {
+                return;
+            }
+            // UriUtils.fromString() on the client turns any URL with an unsafe scheme into "#"
+
+            if (false == isSafeUri(url))
+            {
+                ctx.addBadTypeError(getTypeName());
+            }
+        }
+
+        private static boolean isSafeUri(final String url)
+        {
+            final int colon = url.indexOf(':');
+
+            if (colon < 0)
+            {
+                return true;
+            }
+            final String scheme = url.substring(0, colon);
+
+            if ((scheme.indexOf('/') >= 0) || (scheme.indexOf('#') >= 0))
+            {
+                return true;
+            }
+            final String lower = scheme.toLowerCase();
+
+            return ("http".equals(lower) || "https".equals(lower) || "ftp".equals(lower) || "mailto".equals(lower));
+        }
+    }
+
+    public static class EnumValidator<T extends Enum<T> & EnumWithValue> extends AbstractJavaAttributeTypeValidator
+    {
+        private final List<T> m_values;
+
+        public EnumValidator(final String typeName, final T[] values)
+        {
+            super(typeName);
+
+            m_values = Arrays.asList(values);
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof String))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            for (final T value : m_values)
+            {
+                if (jval.equals(value.getValue()))
+                {
+                    return;
+                }
+            }
+            ctx.addBadValueError(getTypeName(), jval);
+        }
+    }
+
+    public static class ArrayValidator extends AbstractJavaAttributeTypeValidator
+    {
+        private final IJavaAttributeTypeValidator m_elementTypeValidator;
+
+        public ArrayValidator(final IJavaAttributeTypeValidator elementTypeValidator)
+        {
+            this("Array", elementTypeValidator);
+        }
+
+        public ArrayValidator(final String typeName, final IJavaAttributeTypeValidator elementTypeValidator)
+        {
+            super(typeName);
+
+            m_elementTypeValidator = Objects.requireNonNull(elementTypeValidator);
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof List))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            final List<?> list = (List<?>) jval;
+
+            final int size = list.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                ctx.pushIndex(i);
+
+                m_elementTypeValidator.validate(list.get(i), ctx);
+
+                ctx.pop();// index
+            }
+        }
+    }
+
+    public static class TransformValidator extends ArrayValidator
+    {
+        public TransformValidator()
+        {
+            super(NUMBER_TYPE);
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            super.validate(jval, ctx);
+
+            if (jval instanceof List)
+            {
+                final List<?> list = (List<?>) jval;
+
+                if (list.size() != 6)
+                {
+                    ctx.addBadArraySizeError(6, list.size());
+                }
+                else
+                {
+                    for (int i = 0; i < 6; i++)
+                    {
+                        ctx.pushIndex(i);
+
+                        if (false == (list.get(i) instanceof Double))
+                        {
+                            ctx.addBadTypeError(NUMBER_TYPE.getTypeName());
+                        }
+                        ctx.pop();// i
+                    }
+                }
+            }
+        }
+    }
+
+    public static class ObjectValidator extends AbstractJavaAttributeTypeValidator
+    {
+        private final String                                   m_fixedType;
+
+        private final List<String>                             m_requiredAttributes = new ArrayList<>();
+
+        private final Map<String, IJavaAttributeTypeValidator> m_attributes         = new LinkedHashMap<>();
+
+        public ObjectValidator(final String typeName)
+        {
+            this(typeName, null);
+        }
+
+        /**
+         * @param typeName
+         * @param fixedType the value the "type" attribute must have, or null
+         */
+        public ObjectValidator(final String typeName, final String fixedType)
+        {
+            super(typeName);
+
+            m_fixedType = fixedType;
+        }
+
+        public ObjectValidator addAttribute(final String attrName, final IJavaAttributeTypeValidator type, final boolean required)
+        {
+            m_attributes.put(attrName, type);
+
+            if (required)
+            {
+                m_requiredAttributes.add(attrName);
+            }
+            return this;
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof Map))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            final Map<?, ?> jobj = (Map<?, ?>) jval;
+
+            for (final String attrName : m_requiredAttributes)
+            {
+                ctx.push(attrName);
+
+                if (null == jobj.get(attrName))
+                {
+                    ctx.addRequiredError();// value is missing or null
+                }
+                ctx.pop();// attrName
+            }
+            for (final Map.Entry<?, ?> entry : jobj.entrySet())
+            {
+                final String attrName = (String) entry.getKey();
+
+                ctx.push(attrName);
+
+                final IJavaAttributeTypeValidator validator = m_attributes.get(attrName);
+
+                if (null == validator)
+                {
+                    ctx.addInvalidAttributeError(getTypeName());
+                }
+                else if (false == validator.isIgnored())
+                {
+                    validator.validate(entry.getValue(), ctx);
+                }
+                ctx.pop();// attrName
+            }
+            if (null != m_fixedType)
+            {
+                final Object aval = jobj.get("type");
+
+                if ((jobj.containsKey("type")) && (false == m_fixedType.equals(aval)))
+                {
+                    ctx.push("type");
+
+                    ctx.addRequiredAttributeValueError(m_fixedType);
+
+                    ctx.pop();// type
+                }
+            }
+        }
+    }
+
+    public static class MultiTypeValidator extends AbstractJavaAttributeTypeValidator
+    {
+        private final List<IJavaAttributeTypeValidator> m_types;
+
+        public MultiTypeValidator(final String typeName, final IJavaAttributeTypeValidator... types)
+        {
+            super(typeName);
+
+            m_types = Arrays.asList(types);
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            for (final IJavaAttributeTypeValidator type : m_types)
+            {
+                final JavaValidationContext test = new JavaValidationContext().setStopOnError(false);
+
+                type.validate(jval, test);
+
+                if (test.getErrorCount() == 0)
+                {
+                    return;// OK
+                }
+            }
+            ctx.addBadTypeError(getTypeName());
+        }
+    }
+
+    public static class SpriteBehaviorMapValidator extends AbstractJavaAttributeTypeValidator
+    {
+        public SpriteBehaviorMapValidator()
+        {
+            super("SpriteBehaviorMap");
+        }
+
+        @Override
+        public void validate(final Object jval, final JavaValidationContext ctx) throws JavaValidationException
+        {
+            if (false == (jval instanceof Map))
+            {
+                ctx.addBadTypeError(getTypeName());
+
+                return;
+            }
+            final Map<?, ?> jobj = (Map<?, ?>) jval;
+
+            if (jobj.isEmpty())
+            {
+                ctx.addBadTypeError(getTypeName() + ": empty behavior keys");
+
+                return;
+            }
+            for (final Object ikey : jobj.keySet())
+            {
+                final String akey = ((String) ikey).trim();
+
+                if (akey.isEmpty())
+                {
+                    ctx.addBadTypeError(getTypeName() + ": empty behavior name");
+
+                    return;
+                }
+                // the client looks the value up by the trimmed key
+
+                final Object ival = jobj.get(akey);
+
+                if (null == ival)
+                {
+                    ctx.addBadTypeError(getTypeName() + ": missing behavior array for " + akey);
+
+                    return;
+                }
+                if (false == (ival instanceof List))
+                {
+                    ctx.addBadTypeError(getTypeName() + ": invalid behavior array for " + akey);
+
+                    return;
+                }
+                final int size = ((List<?>) ival).size();
+
+                if (size < 2)
+                {
+                    ctx.addBadArraySizeError(2, size);
+
+                    return;
+                }
+                BOUNDING_BOX_ARRAY_TYPE.validate(ival, ctx);
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.json;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A strict JSON parser for the JVM that produces a plain Java tree: objects are {@link LinkedHashMap}s
+ * (keeping the document order of the keys), arrays are {@link ArrayList}s, numbers are {@link Double}s,
+ * and strings, booleans and null map to {@link String}, {@link Boolean} and <code>null</code>.
+ * <p>
+ * It accepts the same documents as the browser's <code>JSON.parse</code>, which backs JSONParser.parseStrict() on the client.
+ */
+public final class JavaJSONParser
+{
+    private final String m_text;
+
+    private final int    m_size;
+
+    private int          m_posn;
+
+    private JavaJSONParser(final String text)
+    {
+        m_text = text;
+
+        m_size = text.length();
+    }
+
+    /**
+     * Parses a JSON document.
+     *
+     * @param text
+     * @return the root value
+     * @throws IllegalArgumentException if the text is not valid JSON
+     */
+    public static final Object parse(final String text)
+    {
+        if (null == text)
+        {
+            throw new NullPointerException("null JSON text");
+        }
+        final JavaJSONParser parser = new JavaJSONParser(text);
+
+        final Object value = parser.value();
+
+        parser.space();
+
+        if (parser.m_posn < parser.m_size)
+        {
+            throw parser.error("unexpected trailing characters");
+        }
+        return value;
+    }
+
+    private final Object value()
+    {
+        space();
+
+        if (m_posn >= m_size)
+        {
+            throw error("unexpected end of input");
+        }
+        final char c = m_text.charAt(m_posn);
+
+        switch (c)
+        {
+            case '{':
+                return object();
+            case '[':
+                return array();
+            case '"':
+                return string();
+            case 't':
+                literal("true");
+
+                return Boolean.TRUE;
+            case 'f':
+                literal("false");
+
+                return Boolean.FALSE;
+            case 'n':
+                literal("null");
+
+                return null;
+            default:
+                if ((c == '-') || ((c >= '0') && (c <= '9')))
+                {
+                    return number();
+                }
+                throw error("unexpected character '" + c + "'");
+        }
+    }
+
+    private final Map<String, Object> object()
+    {
+        final LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+
+        m_posn++;
+
+        space();
+
+        if (peek() == '}')
+        {
+            m_posn++;
+
+            return map;
+        }
+        while (true)
+        {
+            space();
+
+            if (peek() != '"')
+            {
+                throw error("expected a string key");
+            }
+            final String key = string();
+
+            space();
+
+            expect(':');
+
+            map.put(key, value());
+
+            space();
+
+            final char c = next();
+
+            if (c == '}')
+            {
+                return map;
+            }
+            if (c != ',')
+            {
+                m_posn--;
+
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private final List<Object> array()
+    {
+        final ArrayList<Object> list = new ArrayList<>();
+
+        m_posn++;
+
+        space();
+
+        if (peek() == ']')
+        {
+            m_posn++;
+
+            return list;
+        }
+        while (true)
+        {
+            list.add(value());
+
+            space();
+
+            final char c = next();
+
+            if (c == ']')
+            {
+                return list;
+            }
+            if (c != ',')
+            {
+                m_posn--;
+
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private final String string()
+    {
+        m_posn++;
+
+        StringBuilder b = null;
+
+        int from = m_posn;
+
+        while (true)
+        {
+            if (m_posn >= m_size)
+            {
+                throw error("unterminated string");
+            }
+            final char c = m_text.charAt(m_posn);
+
+            if (c == '"')
+            {
+                final String s;
+
+                if (null == b)
+                {
+                    s = m_text.substring(from, m_posn);
+                }
+                else
+                {
+                    s = b.append(m_text, from, m_posn).toString();
+                }
+                m_posn++;
+
+                return s;
+            }
+            if (c < 0x20)
+            {
+                throw error("control character in string");
+            }
+            if (c == '\\')
+            {
+                if (null == b)
+                {
+                    b = new StringBuilder();
+                }
+                b.append(m_text, from, m_posn);
+
+                m_posn++;
+
+                b.append(escape());
+
+                from = m_posn;
+            }
+            else
+            {
+                m_posn++;
+            }
+        }
+    }
+
+    private final char escape()
+    {
+        final char c = next();
+
+        switch (c)
+        {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if ((m_posn + 4) > m_size)
+                {
+                    throw error("bad unicode escape");
+                }
+                int code = 0;
+
+                for (int i = 0; i < 4; i++)
+                {
+                    final int d = Character.digit(m_text.charAt(m_posn++), 16);
+
+                    if (d < 0)
+                    {
+                        m_posn--;
+
+                        throw error("bad unicode escape");
+                    }
+                    code = (code << 4) | d;
+                }
+                return (char) code;
+            default:
+                m_posn--;
+
+                throw error("bad escape character '" + c + "'");
+        }
+    }
+
+    private final Double number()
+    {
+        final int from = m_posn;
+
+        if (peek() == '-')
+        {
+            m_posn++;
+        }
+        if (peek() == '0')
+        {
+            m_posn++;
+        }
+        else if (false == digits())
+        {
+            throw error("bad number");
+        }
+        if (peek() == '.')
+        {
+            m_posn++;
+
+            if (false == digits())
+            {
+                throw error("bad number");
+            }
+        }
+        final char e = peek();
+
+        if ((e == 'e') || (e == 'E'))
+        {
+            m_posn++;
+
+            final char s = peek();
+
+            if ((s == '+') || (s == '-'))
+            {
+                m_posn++;
+            }
+            if (false == digits())
+            {
+                throw error("bad number");
+            }
+        }
+        return Double.valueOf(m_text.substring(from, m_posn));
+    }
+
+    private final boolean digits()
+    {
+        final int from = m_posn;
+
+        while ((m_posn < m_size) && (m_text.charAt(m_posn) >= '0') && (m_text.charAt(m_posn) <= '9'))
+        {
+            m_posn++;
+        }
+        return (m_posn > from);
+    }
+
+    private final void literal(final String word)
+    {
+        if (false == m_text.startsWith(word, m_posn))
+        {
+            throw error("unexpected token");
+        }
+        m_posn += word.length();
+    }
+
+    private final void expect(final char c)
+    {
+        if (next() != c)
+        {
+            m_posn--;
+
+            throw error("expected '" + c + "'");
+        }
+    }
+
+    private final char peek()
+    {
+        return (m_posn < m_size) ? m_text.charAt(m_posn) : 0;
+    }
+
+    private final char next()
+    {
+        if (m_posn >= m_size)
+        {
+            throw error("unexpected end of input");
+        }
+        return m_text.charAt(m_posn++);
+    }
+
+    private final void space()
+    {
+        while (m_posn < m_size)
+        {
+            final char c = m_text.charAt(m_posn);
+
+            if ((c == ' ') || (c == '\t') || (c == '\n') || (c == '\r'))
+            {
+                m_posn++;
+            }
+            else
+            {
+                break;
+            }
+        }
+    }
+
+    private final IllegalArgumentException error(final String message)
+    {
+        return new IllegalArgumentException("JSON " + message + " at position " + m_posn);
+    }
+}
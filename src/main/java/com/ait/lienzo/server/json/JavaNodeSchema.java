@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.json;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ait.lienzo.server.json.JavaAttributeTypes.IJavaAttributeTypeValidator;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+import com.ait.lienzo.shared.core.types.NodeType;
+import com.ait.lienzo.shared.core.types.ShapeType;
+
+/**
+ * The node types known to the {@link JavaSceneValidator}, with their attribute sheets.
+ * <p>
+ * The client builds its attribute sheets in the NodeFactory classes, which can not be loaded on the JVM,
+ * so {@link #getDefault()} restates the sheets of the built-in shapes, containers and image filters. JavaNodeSchemaTest
+ * reads the factory sources and fails when a restated sheet no longer matches its factory.
+ * Types for custom nodes can be added with {@link #addType(NodeSheet)}.
+ */
+public final class JavaNodeSchema
+{
+    private static final Map<String, IJavaAttributeTypeValidator> ATTRIBUTES = makeAttributes();
+
+    private static final String                                   NODE       = "id,name,visible,listening";
+
+    private static final String                                   PRIMITIVE  = NODE + ",x,y,alpha,fill,fillAlpha,stroke,strokeWidth,strokeAlpha,draggable,editable,scale,shear,rotation,offset,shadow,lineCap,lineJoin,miterLimit,dragConstraint,dragBounds,dragMode,dashArray,dashOffset";
+
+    private static final String                                   SHAPE      = PRIMITIVE + ",fillShapeForSelection,fillBoundsForSelection,selectionBoundsOffset,selectionStrokeOffset,eventPropagationMode";
+
+    private static final String                                   GROUP      = PRIMITIVE + ",eventPropagationMode";
+
+    private static final String                                   OFFSET     = SHAPE + ",headOffset,tailOffset";
+
+    private static final String                                   FILTER     = "active!";
+
+    private static final String                                   PACKAGE    = "com.ait.lienzo.client.core.shape.";
+
+    private static final JavaNodeSchema                           DEFAULT    = makeDefault();
+
+    private final Map<String, NodeSheet>                          m_types    = new HashMap<>();
+
+    public JavaNodeSchema()
+    {
+    }
+
+    public JavaNodeSchema(final JavaNodeSchema schema)
+    {
+        m_types.putAll(schema.m_types);
+    }
+
+    /**
+     * Returns a copy of the built-in schema, which can be extended without affecting other users.
+     */
+    public static final JavaNodeSchema getDefault()
+    {
+        return new JavaNodeSchema(DEFAULT);
+    }
+
+    public final JavaNodeSchema addType(final NodeSheet sheet)
+    {
+        m_types.put(sheet.getTypeName(), sheet);
+
+        return this;
+    }
+
+    public final NodeSheet getType(final String type)
+    {
+        return m_types.get(type);
+    }
+
+    public final Collection<String> getTypeNames()
+    {
+        return Collections.unmodifiableCollection(m_types.keySet());
+    }
+
+    /**
+     * Returns the validator of a built-in attribute, by property name, e.g. "strokeWidth".
+     */
+    public static final IJavaAttributeTypeValidator getAttributeType(final String property)
+    {
+        return ATTRIBUTES.get(property);
+    }
+
+    private static final JavaNodeSchema makeDefault()
+    {
+        final JavaNodeSchema schema = new JavaNodeSchema();
+
+        schema.addType(new NodeSheet(NodeType.VIEWPORT.getValue(), PACKAGE + "Viewport", NodeKind.VIEWPORT, NODE + ",transform!"));
+
+        schema.addType(new NodeSheet(NodeType.SCENE.getValue(), PACKAGE + "Scene", NodeKind.SCENE, NODE));
+
+        schema.addType(new NodeSheet(NodeType.LAYER.getValue(), PACKAGE + "Layer", NodeKind.LAYER, NODE + ",clearLayerBeforeDraw,transformable"));
+
+        schema.addType(new NodeSheet(NodeType.GRID_LAYER.getValue(), PACKAGE + "GridLayer", NodeKind.LAYER, NODE + ",clearLayerBeforeDraw,transformable"));
+
+        schema.addType(new NodeSheet(NodeType.GROUP.getValue(), PACKAGE + "Group", NodeKind.GROUP, GROUP));
+
+        shape(schema, ShapeType.ARC, "Arc", SHAPE + ",radius!,startAngle!,endAngle!,counterClockwise");
+
+        shape(schema, ShapeType.ARROW, "Arrow", SHAPE + ",points!,baseWidth!,headWidth!,arrowAngle!,baseAngle!,arrowType!");
+
+        shape(schema, ShapeType.BEZIER_CURVE, "BezierCurve", SHAPE + ",controlPoints!");
+
+        shape(schema, ShapeType.BOW, "Bow", SHAPE + ",innerRadius!,outerRadius!,startAngle!,endAngle!,counterClockwise");
+
+        shape(schema, ShapeType.CHORD, "Chord", SHAPE + ",radius!,startAngle!,endAngle!,counterClockwise");
+
+        shape(schema, ShapeType.CIRCLE, "Circle", SHAPE + ",radius!");
+
+        shape(schema, ShapeType.ELLIPSE, "Ellipse", SHAPE + ",width!,height!");
+
+        shape(schema, ShapeType.ELLIPTICAL_ARC, "EllipticalArc", SHAPE + ",radiusX!,radiusY!,startAngle!,endAngle!,counterClockwise");
+
+        shape(schema, ShapeType.ISOSCELES_TRAPEZOID, "IsoscelesTrapezoid", SHAPE + ",cornerRadius,topWidth!,bottomWidth!,height!");
+
+        shape(schema, ShapeType.LINE, "Line", OFFSET + ",points!");
+
+        shape(schema, ShapeType.MOVIE, "Movie", SHAPE + ",url!,loop,width,height,volume,autoPlay,showPoster,playbackRate").setFilterable(true);
+
+        shape(schema, ShapeType.MULTI_PATH, "MultiPath", SHAPE);
+
+        shape(schema, ShapeType.ORTHOGONAL_POLYLINE, "OrthogonalPolyLine", OFFSET + ",headDirection,tailDirection,correctionOffset,cornerRadius,controlPoints!");
+
+        shape(schema, ShapeType.PARALLELOGRAM, "Parallelogram", SHAPE + ",width!,height!,skew!,cornerRadius");
+
+        shape(schema, ShapeType.PICTURE, "Picture", SHAPE + ",url!,clippedImageStartX,clippedImageStartY,clippedImageWidth,clippedImageHeight,clippedImageDestinationWidth,clippedImageDestinationHeight,serializationMode,imageSelectionMode").setFilterable(true);
+
+        shape(schema, ShapeType.POLYGON, "Polygon", SHAPE + ",points!,cornerRadius");
+
+        shape(schema, ShapeType.POLYLINE, "PolyLine", OFFSET + ",points!,cornerRadius");
+
+        shape(schema, ShapeType.QUADRATIC_CURVE, "QuadraticCurve", SHAPE + ",controlPoints!");
+
+        shape(schema, ShapeType.RECTANGLE, "Rectangle", SHAPE + ",width!,height!,cornerRadius");
+
+        shape(schema, ShapeType.REGULAR_POLYGON, "RegularPolygon", SHAPE + ",radius!,sides!,cornerRadius");
+
+        shape(schema, ShapeType.RING, "Ring", SHAPE + ",innerRadius!,outerRadius!");
+
+        shape(schema, ShapeType.SLICE, "Slice", SHAPE + ",radius!,startAngle!,endAngle!,counterClockwise");
+
+        shape(schema, ShapeType.SPLINE, "Spline", SHAPE + ",curveFactor,angleFactor,lineFlatten,controlPoints!");
+
+        shape(schema, ShapeType.SPRITE, "Sprite", SHAPE + ",url!,tickRate!,spriteBehaviorMap!,spriteBehavior!,autoPlay,serializationMode");
+
+        shape(schema, ShapeType.STAR, "Star", SHAPE + ",cornerRadius,starPoints!,innerRadius!,outerRadius!");
+
+        shape(schema, ShapeType.SVG_PATH, "SVGPath", SHAPE + ",path!");
+
+        shape(schema, ShapeType.TEXT, "Text", SHAPE + ",text!,fontSize,fontStyle,fontFamily,textUnit,textAlign,textBaseline,width");
+
+        shape(schema, ShapeType.TRIANGLE, "Triangle", SHAPE + ",points!,cornerRadius");
+
+        filter(schema, ImageFilterType.AlphaScaleColorImageDataFilterType, FILTER + ",color!,inverted");
+
+        filter(schema, ImageFilterType.AverageGrayScaleImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.BrightnessImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.BumpImageDataFilterType, FILTER + ",matrix!");
+
+        filter(schema, ImageFilterType.ColorDeltaAlphaImageDataFilterType, FILTER + ",color!,value!");
+
+        filter(schema, ImageFilterType.ColorLuminosityImageDataFilterType, FILTER + ",color!");
+
+        filter(schema, ImageFilterType.ContrastImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.DiffusionImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.EdgeDetectImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.EmbossImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.ExposureImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.GainImageDataFilterType, FILTER + ",gain!,bias!");
+
+        filter(schema, ImageFilterType.GammaImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.GaussianBlurImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.HueImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.InvertColorImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.LightnessGrayScaleImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.LuminosityGrayScaleImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.PosterizeImageDataFilterType, FILTER + ",value!");
+
+        filter(schema, ImageFilterType.RGBIgnoreAlphaImageDataFilterType, FILTER + ",color!");
+
+        filter(schema, ImageFilterType.SharpenImageDataFilterType, FILTER + ",matrix!");
+
+        filter(schema, ImageFilterType.SolarizeImageDataFilterType, FILTER);
+
+        filter(schema, ImageFilterType.StackBlurImageDataFilterType, FILTER + ",value!");
+
+        schema.addType(new NodeSheet(ImageFilterType.ImageDataFilterChainType.getValue(), null, NodeKind.FILTER_CHAIN, FILTER));
+
+        return schema;
+    }
+
+    private static final NodeSheet shape(final JavaNodeSchema schema, final ShapeType type, final String name, final String attributes)
+    {
+        final NodeSheet sheet = new NodeSheet(type.getValue(), PACKAGE + name, NodeKind.SHAPE, attributes);
+
+        schema.addType(sheet);
+
+        return sheet;
+    }
+
+    private static final void filter(final JavaNodeSchema schema, final ImageFilterType type, final String attributes)
+    {
+        schema.addType(new NodeSheet(type.getValue(), null, NodeKind.FILTER, attributes));
+    }
+
+    private static final Map<String, IJavaAttributeTypeValidator> makeAttributes()
+    {
+        final HashMap<String, IJavaAttributeTypeValidator> map = new HashMap<>();
+
+        for (final String name : "width,height,minWidth,maxWidth,minHeight,maxHeight,cornerRadius,strokeWidth,x,y,alpha,fillAlpha,strokeAlpha,rotation,selectionBoundsOffset,selectionStrokeOffset,radius,radiusX,radiusY,fontSize,starPoints,dashOffset,sides,outerRadius,innerRadius,skew,startAngle,endAngle,clippedImageWidth,clippedImageHeight,clippedImageStartX,clippedImageStartY,clippedImageDestinationWidth,clippedImageDestinationHeight,playbackRate,volume,baseWidth,headWidth,arrowAngle,baseAngle,miterLimit,curveFactor,angleFactor,topWidth,bottomWidth,tickRate,value,gain,bias,headOffset,tailOffset,correctionOffset".split(","))
+        {
+            map.put(name, JavaAttributeTypes.NUMBER_TYPE);
+        }
+        for (final String name : "visible,listening,draggable,editable,fillShapeForSelection,fillBoundsForSelection,clearLayerBeforeDraw,transformable,counterClockwise,loop,autoPlay,showPoster,lineFlatten,active,inverted".split(","))
+        {
+            map.put(name, JavaAttributeTypes.BOOLEAN_TYPE);
+        }
+        for (final String name : "id,name,text,fontFamily,fontStyle,path,spriteBehavior".split(","))
+        {
+            map.put(name, JavaAttributeTypes.STRING_TYPE);
+        }
+        map.put("scale", JavaAttributeTypes.POINT2D_TYPE);
+
+        map.put("offset", JavaAttributeTypes.POINT2D_TYPE);
+
+        map.put("shear", JavaAttributeTypes.POINT2D_TYPE);
+
+        map.put("points", JavaAttributeTypes.POINT2D_ARRAY_TYPE);
+
+        map.put("controlPoints", JavaAttributeTypes.POINT2D_ARRAY_TYPE);
+
+        map.put("fill", JavaAttributeTypes.FILL_TYPE);
+
+        map.put("stroke", JavaAttributeTypes.STROKE_TYPE);
+
+        map.put("color", JavaAttributeTypes.COLOR_TYPE);
+
+        map.put("url", JavaAttributeTypes.URL_TYPE);
+
+        map.put("transform", JavaAttributeTypes.TRANSFORM_TYPE);
+
+        map.put("matrix", JavaAttributeTypes.NUMBER_ARRAY_TYPE);
+
+        map.put("dashArray", JavaAttributeTypes.DASH_ARRAY_TYPE);
+
+        map.put("shadow", JavaAttributeTypes.SHADOW_TYPE);
+
+        map.put("dragBounds", JavaAttributeTypes.DRAG_BOUNDS_TYPE);
+
+        map.put("spriteBehaviorMap", JavaAttributeTypes.BEHAVIOR_MAP_TYPE);
+
+        map.put("lineJoin", JavaAttributeTypes.LINE_JOIN_TYPE);
+
+        map.put("lineCap", JavaAttributeTypes.LINE_CAP_TYPE);
+
+        map.put("dragConstraint", JavaAttributeTypes.DRAG_CONSTRAINT_TYPE);
+
+        map.put("dragMode", JavaAttributeTypes.DRAG_MODE_TYPE);
+
+        map.put("textBaseline", JavaAttributeTypes.TEXT_BASELINE_TYPE);
+
+        map.put("textAlign", JavaAttributeTypes.TEXT_ALIGN_TYPE);
+
+        map.put("textUnit", JavaAttributeTypes.TEXT_UNIT_TYPE);
+
+        map.put("serializationMode", JavaAttributeTypes.SERIALIZATION_MODE_TYPE);
+
+        map.put("imageSelectionMode", JavaAttributeTypes.IMAGE_SELECTION_MODE_TYPE);
+
+        map.put("arrowType", JavaAttributeTypes.ARROW_TYPE);
+
+        map.put("headDirection", JavaAttributeTypes.DIRECTION_TYPE);
+
+        map.put("tailDirection", JavaAttributeTypes.DIRECTION_TYPE);
+
+        map.put("eventPropagationMode", JavaAttributeTypes.EVENT_PROPAGATION_MODE_TYPE);
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * How a node takes part in the tree: which children a container accepts, and whether a node is an image filter.
+     */
+    public static enum NodeKind
+    {
+        VIEWPORT, SCENE, LAYER, GROUP, SHAPE, FILTER, FILTER_CHAIN;
+
+        public final boolean isPrimitive()
+        {
+            return ((this == GROUP) || (this == SHAPE));
+        }
+
+        public final boolean isContainer()
+        {
+            return ((this == VIEWPORT) || (this == SCENE) || (this == LAYER) || (this == GROUP));
+        }
+
+        public final boolean isFilter()
+        {
+            return ((this == FILTER) || (this == FILTER_CHAIN));
+        }
+    }
+
+    public static final class NodeSheet
+    {
+        private final String                                   m_typeName;
+
+        private final String                                   m_className;
+
+        private final NodeKind                                 m_kind;
+
+        private boolean                                        m_filterable;
+
+        private final List<String>                             m_required   = new ArrayList<>();
+
+        private final Map<String, IJavaAttributeTypeValidator> m_attributes = new LinkedHashMap<>();
+
+        public NodeSheet(final String typeName, final String className, final NodeKind kind)
+        {
+            m_typeName = typeName;
+
+            m_className = className;
+
+            m_kind = kind;
+        }
+
+        /**
+         * @param attributes comma separated property names of built-in attributes, a trailing '!' marks a required attribute
+         */
+        public NodeSheet(final String typeName, final String className, final NodeKind kind, final String attributes)
+        {
+            this(typeName, className, kind);
+
+            for (String name : attributes.split(","))
+            {
+                final boolean required = name.endsWith("!");
+
+                if (required)
+                {
+                    name = name.substring(0, name.length() - 1);
+                }
+                final IJavaAttributeTypeValidator type = JavaNodeSchema.getAttributeType(name);
+
+                if (null == type)
+                {
+                    throw new IllegalArgumentException("unknown attribute " + name);
+                }
+                addAttribute(name, type, required);
+            }
+        }
+
+        /**
+         * Adds an attribute the same way AbstractFactory.addAttribute() does: the first type wins, and adding an attribute again
+         * as optional makes it optional.
+         */
+        public final NodeSheet addAttribute(final String name, final IJavaAttributeTypeValidator type, final boolean required)
+        {
+            if (false == m_attributes.containsKey(name))
+            {
+                m_attributes.put(name, type);
+            }
+            if (required)
+            {
+                if (false == m_required.contains(name))
+                {
+                    m_required.add(name);
+                }
+            }
+            else
+            {
+                m_required.remove(name);
+            }
+            return this;
+        }
+
+        public final String getTypeName()
+        {
+            return m_typeName;
+        }
+
+        /**
+         * Returns the client class name of the node, which the client uses in container errors.
+         */
+        public final String getClassName()
+        {
+            return m_className;
+        }
+
+        public final NodeKind getKind()
+        {
+            return m_kind;
+        }
+
+        /**
+         * Sets whether the node has an image filter chain in its "filter" property, like Picture and Movie.
+         */
+        public final NodeSheet setFilterable(final boolean filterable)
+        {
+            m_filterable = filterable;
+
+            return this;
+        }
+
+        public final boolean isFilterable()
+        {
+            return m_filterable;
+        }
+
+        public final List<String> getRequiredAttributes()
+        {
+            return m_required;
+        }
+
+        public final IJavaAttributeTypeValidator getAttributeType(final String name)
+        {
+            return m_attributes.get(name);
+        }
+
+        /**
+         * Returns the property names of the attributes, in the order they were added.
+         */
+        public final Collection<String> getAttributeNames()
+        {
+            return Collections.unmodifiableCollection(m_attributes.keySet());
+        }
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.ait.lienzo.client.core.shape.json.validators.ValidationError;
+import com.ait.lienzo.server.json.JavaAttributeTypes.IJavaAttributeTypeValidator;
+import com.ait.lienzo.server.json.JavaNodeSchema.NodeKind;
+import com.ait.lienzo.server.json.JavaNodeSchema.NodeSheet;
+
+/**
+ * Validates scene JSON on the JVM the way JSONDeserializer validates it in the browser, producing the same
+ * {@link ValidationError} messages and context strings, in the same order.
+ * <p>
+ * With a {@link ForkJoinPool}, the child lists of the top <code>forkDepth</code> container levels
+ * (by default the scene of a viewport, its layers, and the groups at the top of each layer) are split into
+ * tasks: each container child is a task, and each run of shapes between them is another. Every task records
+ * its errors in its own {@link JavaValidationContext}, and the lists are merged in document order, so the result
+ * does not depend on the number of threads. With stopOnError set, the merge stops at the first task that stopped,
+ * so the errors are the ones a sequential pass would report.
+ */
+public final class JavaSceneValidator
+{
+    public static final int      DEFAULT_FORK_DEPTH = 3;
+
+    private final JavaNodeSchema m_schema;
+
+    private final ForkJoinPool   m_pool;
+
+    private final int            m_forkDepth;
+
+    public JavaSceneValidator()
+    {
+        this(JavaNodeSchema.getDefault(), null, 0);
+    }
+
+    public JavaSceneValidator(final ForkJoinPool pool)
+    {
+        this(JavaNodeSchema.getDefault(), pool, DEFAULT_FORK_DEPTH);
+    }
+
+    /**
+     * @param schema the node types
+     * @param pool the pool to validate subtrees on, or null to validate on the calling thread
+     * @param forkDepth the number of container levels whose children are validated in parallel
+     */
+    public JavaSceneValidator(final JavaNodeSchema schema, final ForkJoinPool pool, final int forkDepth)
+    {
+        if (null == schema)
+        {
+            throw new NullPointerException("null schema");
+        }
+        m_schema = schema;
+
+        m_pool = pool;
+
+        m_forkDepth = (null == pool) ? 0 : Math.max(0, forkDepth);
+    }
+
+    /**
+     * Parses and validates a JSON string, like JSONDeserializer.fromString(String, ValidationContext) does on the client.
+     *
+     * @param string
+     * @param ctx
+     * @return the parsed root object, or null if validation stopped on an error
+     * @throws IllegalArgumentException if the string is not valid JSON
+     */
+    @SuppressWarnings("unchecked")
+    public final Map<String, Object> validate(String string, final JavaValidationContext ctx)
+    {
+        try
+        {
+            ctx.push("fromString");
+
+            if ((null == string) || ((string = string.trim()).isEmpty()))
+            {
+                ctx.addError("NULL JSON String");
+
+                return null;
+            }
+            final Object value = JavaJSONParser.parse(string);
+
+            if (null == value)
+            {
+                ctx.addError("NULL from JSONParser");
+
+                return null;
+            }
+            if (false == (value instanceof Map))
+            {
+                ctx.addError("Result is not a JSONObject");
+
+                return null;
+            }
+            final Map<String, Object> json = (Map<String, Object>) value;
+
+            validate(json, ctx);
+
+            return json;
+        }
+        catch (final JavaValidationException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Validates a parsed node, like JSONDeserializer.fromJSON(JSONObject, ValidationContext) does on the client.
+     *
+     * @param json
+     * @param ctx
+     * @throws JavaValidationException if stopOnError is set and an error was found
+     */
+    public final void validate(final Map<?, ?> json, final JavaValidationContext ctx) throws JavaValidationException
+    {
+        if (null == json)
+        {
+            return;
+        }
+        if (m_forkDepth < 1)
+        {
+            node(json, ctx, 0);
+
+            return;
+        }
+        final SubtreeTask task = new SubtreeTask(json, ctx, 0);
+
+        m_pool.invoke(task);
+
+        task.merge(ctx);
+    }
+
+    private final NodeSheet node(final Map<?, ?> json, final JavaValidationContext ctx, final int depth) throws JavaValidationException
+    {
+        NodeSheet sheet = null;
+
+        ctx.push("type");
+
+        if (false == json.containsKey("type"))
+        {
+            ctx.addRequiredError();
+        }
+        else
+        {
+            final Object type = json.get("type");
+
+            if (false == (type instanceof String))
+            {
+                ctx.addBadTypeError("String");
+            }
+            else
+            {
+                sheet = m_schema.getType((String) type);
+
+                if (null == sheet)
+                {
+                    ctx.addMissingNodeFactoryError((String) type);
+                }
+            }
+        }
+        ctx.pop();// type
+
+        if (null == sheet)
+        {
+            return null;
+        }
+        attributes(json, sheet, ctx);
+
+        if (sheet.getKind().isContainer())
+        {
+            children(json, sheet, ctx, depth);
+        }
+        else if (sheet.getKind() == NodeKind.FILTER_CHAIN)
+        {
+            filters(json, ctx, depth);
+        }
+        else if (sheet.isFilterable())
+        {
+            final Object filter = json.get("filter");
+
+            if (filter instanceof Map)
+            {
+                filters((Map<?, ?>) filter, ctx, depth);
+            }
+        }
+        return sheet;
+    }
+
+    private final void attributes(final Map<?, ?> json, final NodeSheet sheet, final JavaValidationContext ctx) throws JavaValidationException
+    {
+        if (false == json.containsKey("attributes"))
+        {
+            return;// OK - 'attributes' is optional
+        }
+        ctx.push("attributes");
+
+        final Object aval = json.get("attributes");
+
+        if (false == (aval instanceof Map))
+        {
+            ctx.addBadTypeError("Object");
+
+            ctx.pop();// attributes
+
+            return;
+        }
+        final Map<?, ?> aobj = (Map<?, ?>) aval;
+
+        for (final String name : sheet.getRequiredAttributes())
+        {
+            ctx.push(name);
+
+            if (null == aobj.get(name))
+            {
+                ctx.addRequiredError();// value is missing or null
+            }
+            ctx.pop();// name
+        }
+        for (final Map.Entry<?, ?> entry : aobj.entrySet())
+        {
+            final String name = (String) entry.getKey();
+
+            ctx.push(name);
+
+            final IJavaAttributeTypeValidator type = sheet.getAttributeType(name);
+
+            if (null == type)
+            {
+                ctx.addInvalidAttributeError(sheet.getTypeName());
+            }
+            else
+            {
+                type.validate(entry.getValue(), ctx);
+            }
+            ctx.pop();// name
+        }
+        ctx.pop();// attributes
+    }
+
+    private final void children(final Map<?, ?> json, final NodeSheet sheet, final JavaValidationContext ctx, final int depth) throws JavaValidationException
+    {
+        if (false == json.containsKey("children"))
+        {
+            return;// OK - 'children' is optional
+        }
+        ctx.push("children");
+
+        final Object cval = json.get("children");
+
+        if (false == (cval instanceof List))
+        {
+            ctx.addBadTypeError("Array");
+        }
+        else
+        {
+            final List<?> list = (List<?>) cval;
+
+            final int size = list.size();
+
+            if ((depth < m_forkDepth) && (size > 1))
+            {
+                fork(list, sheet, ctx, depth);
+            }
+            else
+            {
+                children(list, 0, size, sheet, ctx, depth);
+            }
+        }
+        ctx.pop();// children
+    }
+
+    private final void children(final List<?> list, final int from, final int to, final NodeSheet sheet, final JavaValidationContext ctx, final int depth) throws JavaValidationException
+    {
+        for (int i = from; i < to; i++)
+        {
+            ctx.pushIndex(i);
+
+            final Object cval = list.get(i);
+
+            if (false == (cval instanceof Map))
+            {
+                ctx.addBadTypeError("Object");
+            }
+            else
+            {
+                final NodeSheet child = node((Map<?, ?>) cval, ctx, depth + 1);
+
+                if (null != child)
+                {
+                    accept(sheet, child, ctx);
+                }
+            }
+            ctx.pop();// index
+        }
+    }
+
+    private final void fork(final List<?> list, final NodeSheet sheet, final JavaValidationContext ctx, final int depth) throws JavaValidationException
+    {
+        final ArrayList<ChildrenTask> tasks = new ArrayList<>();
+
+        final int size = list.size();
+
+        int from = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            final Object cval = list.get(i);
+
+            if ((cval instanceof Map) && (((Map<?, ?>) cval).get("children") instanceof List))
+            {
+                if (from < i)
+                {
+                    tasks.add(new ChildrenTask(list, from, i, sheet, ctx, depth));
+                }
+                tasks.add(new ChildrenTask(list, i, i + 1, sheet, ctx, depth));
+
+                from = i + 1;
+            }
+        }
+        if (from < size)
+        {
+            tasks.add(new ChildrenTask(list, from, size, sheet, ctx, depth));
+        }
+        if (tasks.size() < 2)
+        {
+            children(list, 0, size, sheet, ctx, depth);
+
+            return;
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        for (final ChildrenTask task : tasks)
+        {
+            task.merge(ctx);
+        }
+    }
+
+    // mirrors IContainerFactory.addNodeForContainer(), which records the error but does not stop on it
+
+    private final void accept(final NodeSheet parent, final NodeSheet child, final JavaValidationContext ctx)
+    {
+        try
+        {
+            if (child.getKind().isFilter())
+            {
+                ctx.addBadTypeError("Node");
+            }
+            else if (parent.getKind() == NodeKind.VIEWPORT)
+            {
+                if (child.getKind() != NodeKind.SCENE)
+                {
+                    ctx.addBadTypeError(child.getClassName() + " is not a Scene");
+                }
+            }
+            else if (parent.getKind() == NodeKind.SCENE)
+            {
+                if (child.getKind() != NodeKind.LAYER)
+                {
+                    ctx.addBadTypeError(child.getClassName() + " is not a Layer");
+                }
+            }
+            else if (false == child.getKind().isPrimitive())
+            {
+                ctx.addBadTypeError(child.getClassName() + " is not a Primitive");
+            }
+        }
+        catch (final JavaValidationException e)
+        {
+            return;
+        }
+    }
+
+    private final void filters(final Map<?, ?> json, final JavaValidationContext ctx, final int depth) throws JavaValidationException
+    {
+        if (false == json.containsKey("filters"))
+        {
+            return;// OK - 'filters' is optional
+        }
+        ctx.push("filters");
+
+        final Object fval = json.get("filters");
+
+        if (false == (fval instanceof List))
+        {
+            ctx.addBadTypeError("Array");
+        }
+        else
+        {
+            final List<?> list = (List<?>) fval;
+
+            final int size = list.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                ctx.pushIndex(i);
+
+                final Object cval = list.get(i);
+
+                if (false == (cval instanceof Map))
+                {
+                    ctx.addBadTypeError("Object");
+                }
+                else
+                {
+                    final NodeSheet filter = node((Map<?, ?>) cval, ctx, depth + 1);
+
+                    if ((null != filter) && (false == filter.getKind().isFilter()))
+                    {
+                        ctx.addBadTypeError("ImageDataFilter");
+                    }
+                }
+                ctx.pop();// index
+            }
+        }
+        ctx.pop();// filters
+    }
+
+    private abstract class AbstractValidateTask extends RecursiveAction
+    {
+        private static final long             serialVersionUID = 1L;
+
+        protected final JavaValidationContext m_context;
+
+        private boolean                       m_stopped;
+
+        protected AbstractValidateTask(final JavaValidationContext parent)
+        {
+            m_context = new JavaValidationContext(parent);
+        }
+
+        protected abstract void validate() throws JavaValidationException;
+
+        @Override
+        protected final void compute()
+        {
+            try
+            {
+                validate();
+            }
+            catch (final JavaValidationException e)
+            {
+                m_stopped = true;
+            }
+        }
+
+        /**
+         * Adds the errors to the parent context, and rethrows if this task stopped on an error.
+         */
+        final void merge(final JavaValidationContext parent) throws JavaValidationException
+        {
+            parent.addErrors(m_context.getErrors());
+
+            if (m_stopped)
+            {
+                throw new JavaValidationException(parent);
+            }
+        }
+    }
+
+    private final class SubtreeTask extends AbstractValidateTask
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<?, ?>   m_json;
+
+        private final int         m_depth;
+
+        SubtreeTask(final Map<?, ?> json, final JavaValidationContext parent, final int depth)
+        {
+            super(parent);
+
+            m_json = json;
+
+            m_depth = depth;
+        }
+
+        @Override
+        protected void validate() throws JavaValidationException
+        {
+            node(m_json, m_context, m_depth);
+        }
+    }
+
+    private final class ChildrenTask extends AbstractValidateTask
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<?>     m_list;
+
+        private final int         m_from;
+
+        private final int         m_to;
+
+        private final NodeSheet   m_sheet;
+
+        private final int         m_depth;
+
+        ChildrenTask(final List<?> list, final int from, final int to, final NodeSheet sheet, final JavaValidationContext parent, final int depth)
+        {
+            super(parent);
+
+            m_list = list;
+
+            m_from = from;
+
+            m_to = to;
+
+            m_sheet = sheet;
+
+            m_depth = depth;
+        }
+
+        @Override
+        protected void validate() throws JavaValidationException
+        {
+            children(m_list, m_from, m_to, m_sheet, m_context, m_depth);
+        }
+    }
+}
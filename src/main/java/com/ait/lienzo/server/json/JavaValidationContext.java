@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationError;
+
+/**
+ * The JVM counterpart of {@link ValidationContext}. It tracks the same context stack and builds the same
+ * {@link ValidationError} messages and context strings, using the default (English) message texts.
+ */
+public class JavaValidationContext
+{
+    public static final String          ATTRIBUTE_IS_REQUIRED         = "attribute is required";
+
+    public static final String          INVALID_VALUE_FOR_TYPE        = "invalid value for type {0} [{1}]";
+
+    public static final String          INVALID_TYPE                  = "value should be a {0}";
+
+    public static final String          ATTRIBUTE_IS_INVALID_FOR_TYPE = "attribute is invalid for type {0}";
+
+    public static final String          ATTRIBUTE_VALUE_MUST_BE_FIXED = "value must be [{0}]";
+
+    public static final String          MISSING_NODE_FACTORY          = "no NodeFactory is registered for type '{0}'";
+
+    public static final String          INVALID_ARRAY_SIZE            = "Invalid array size. Expected value is {0}. Actual value is {1}";
+
+    private boolean                     m_stopOnError;
+
+    private final List<Object>          m_stack                       = new ArrayList<>();
+
+    private final List<ValidationError> m_errors                      = new ArrayList<>();
+
+    public JavaValidationContext()
+    {
+    }
+
+    /**
+     * Creates a context for validating a subtree on its own, starting at the parent's current position.
+     *
+     * @param parent
+     */
+    public JavaValidationContext(final JavaValidationContext parent)
+    {
+        m_stopOnError = parent.m_stopOnError;
+
+        m_stack.addAll(parent.m_stack);
+    }
+
+    public void push(final String context)
+    {
+        m_stack.add(context);
+    }
+
+    public void pushIndex(final int index)
+    {
+        m_stack.add(Integer.valueOf(index));
+    }
+
+    public void pop()
+    {
+        m_stack.remove(m_stack.size() - 1);
+    }
+
+    protected void addError(final ValidationError e) throws JavaValidationException
+    {
+        m_errors.add(e);
+
+        if (m_stopOnError)
+        {
+            throw new JavaValidationException(this);
+        }
+    }
+
+    public void addError(final String msg) throws JavaValidationException
+    {
+        addError(new ValidationError(msg, joinContext(m_stack)));
+    }
+
+    public void addRequiredError() throws JavaValidationException
+    {
+        addError(ATTRIBUTE_IS_REQUIRED);
+    }
+
+    public void addBadValueError(final String type, final Object val) throws JavaValidationException
+    {
+        addError(format(INVALID_VALUE_FOR_TYPE, type, toJSONString(val)));
+    }
+
+    public void addBadTypeError(final String type) throws JavaValidationException
+    {
+        addError(format(INVALID_TYPE, type));
+    }
+
+    public void addInvalidAttributeError(final String type) throws JavaValidationException
+    {
+        addError(format(ATTRIBUTE_IS_INVALID_FOR_TYPE, type));
+    }
+
+    public void addRequiredAttributeValueError(final String val) throws JavaValidationException
+    {
+        addError(format(ATTRIBUTE_VALUE_MUST_BE_FIXED, val));
+    }
+
+    public void addMissingNodeFactoryError(final String type) throws JavaValidationException
+    {
+        addError(format(MISSING_NODE_FACTORY, type));
+    }
+
+    public void addBadArraySizeError(final int expectedSize, final int actualSize) throws JavaValidationException
+    {
+        addError(format(INVALID_ARRAY_SIZE, expectedSize, actualSize));
+    }
+
+    /**
+     * Appends the errors of a subtree context, in order, without checking stopOnError.
+     *
+     * @param errors
+     */
+    public void addErrors(final List<ValidationError> errors)
+    {
+        m_errors.addAll(errors);
+    }
+
+    public boolean isStopOnError()
+    {
+        return m_stopOnError;
+    }
+
+    public JavaValidationContext setStopOnError(final boolean stopOnError)
+    {
+        m_stopOnError = stopOnError;
+
+        return this;
+    }
+
+    public int getErrorCount()
+    {
+        return m_errors.size();
+    }
+
+    public List<ValidationError> getErrors()
+    {
+        return m_errors;
+    }
+
+    public String getDebugString()
+    {
+        final StringBuilder b = new StringBuilder();
+
+        boolean first = true;
+
+        for (final ValidationError e : m_errors)
+        {
+            if (first)
+            {
+                first = false;
+            }
+            else
+            {
+                b.append("\n");
+            }
+            b.append(e.getContext()).append(" - ").append(e.getMessage());
+        }
+        return b.toString();
+    }
+
+    private static String joinContext(final List<Object> stack)
+    {
+        final StringBuilder b = new StringBuilder();
+
+        for (final Object s : stack)
+        {
+            if (s instanceof Integer)
+            {
+                b.append("[").append(s).append("]");
+            }
+            else
+            {
+                b.append(".").append(s);
+            }
+        }
+        return b.toString();
+    }
+
+    // same as the client StringFormatter.format()
+
+    private static String format(final String format, final Object... params)
+    {
+        final StringBuilder b = new StringBuilder();
+
+        int p = 0;
+
+        while (true)
+        {
+            final int i = format.indexOf('{', p);
+
+            if (i == -1)
+            {
+                break;
+            }
+            final int j = format.indexOf('}', i + 1);
+
+            if (j == -1)
+            {
+                break;
+            }
+            b.append(format, p, i);
+
+            final int n = Integer.parseInt(format.substring(i + 1, j));
+
+            b.append(params[n]);
+
+            p = j + 1;
+        }
+        return b.append(format.substring(p)).toString();
+    }
+
+    // the client formats the GWT JSONValue, whose toString() is its JSON text
+
+    static String toJSONString(final Object val)
+    {
+        if (val instanceof String)
+        {
+            final String s = (String) val;
+
+            final StringBuilder b = new StringBuilder(s.length() + 2).append('"');
+
+            for (int i = 0; i < s.length(); i++)
+            {
+                final char c = s.charAt(i);
+
+                switch (c)
+                {
+                    case '"':
+                        b.append("\\\"");
+                        break;
+                    case '\\':
+                        b.append("\\\\");
+                        break;
+                    case '\b':
+                        b.append("\\b");
+                        break;
+                    case '\f':
+                        b.append("\\f");
+                        break;
+                    case '\n':
+                        b.append("\\n");
+                        break;
+                    case '\r':
+                        b.append("\\r");
+                        break;
+                    case '\t':
+                        b.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20)
+                        {
+                            b.append(String.format("\\u%04x", (int) c));
+                        }
+                        else
+                        {
+                            b.append(c);
+                        }
+                }
+            }
+            return b.append('"').toString();
+        }
+        return String.valueOf(val);
+    }
+}
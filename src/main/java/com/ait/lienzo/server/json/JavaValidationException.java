@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.json;
+
+public class JavaValidationException extends Exception
+{
+    private static final long           serialVersionUID = 1L;
+
+    private final JavaValidationContext m_context;
+
+    public JavaValidationException(final JavaValidationContext context)
+    {
+        super(context.getDebugString());
+
+        m_context = context;
+    }
+
+    public JavaValidationContext getContext()
+    {
+        return m_context;
+    }
+}
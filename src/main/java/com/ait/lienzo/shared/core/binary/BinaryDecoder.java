@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.shared.core.binary;
+
+import java.util.ArrayList;
+
+/**
+ * Reads a value tree written in the {@link BinaryFormat}. A decoder reads a single document and is not reusable.
+ *
+ * @param <V> the value type of the tree
+ */
+public final class BinaryDecoder<V>
+{
+    private final IBinaryValueModel<V> m_model;
+
+    private final ArrayList<String>    m_strings;
+
+    private byte[]                     m_bytes;
+
+    private int                        m_next;
+
+    public BinaryDecoder(final IBinaryValueModel<V> model)
+    {
+        m_model = model;
+
+        m_strings = new ArrayList<>(BinaryFormat.getDictionary());
+    }
+
+    /**
+     * Returns true if the bytes start with the {@link BinaryFormat#MAGIC} header.
+     */
+    public static final boolean isBinary(final byte[] bytes)
+    {
+        if ((null == bytes) || (bytes.length <= BinaryFormat.MAGIC.length))
+        {
+            return false;
+        }
+        for (int i = 0; i < BinaryFormat.MAGIC.length; i++)
+        {
+            if (bytes[i] != BinaryFormat.MAGIC[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the document.
+     *
+     * @throws IllegalArgumentException if the bytes are not a complete document of a supported version
+     */
+    public final V decode(final byte[] bytes)
+    {
+        if (false == isBinary(bytes))
+        {
+            throw new IllegalArgumentException("Not a Lienzo binary document");
+        }
+        m_bytes = bytes;
+
+        m_next = BinaryFormat.MAGIC.length;
+
+        final int version = readByte();
+
+        if (version != BinaryFormat.VERSION)
+        {
+            throw new IllegalArgumentException("Unsupported Lienzo binary version " + version);
+        }
+        final V value = readValue();
+
+        if (m_next != m_bytes.length)
+        {
+            throw new IllegalArgumentException("Unexpected data after Lienzo binary document at " + m_next);
+        }
+        return value;
+    }
+
+    private final V readValue()
+    {
+        final int tag = readByte();
+
+        switch (tag)
+        {
+            case BinaryFormat.TAG_NULL:
+                return m_model.makeNull();
+            case BinaryFormat.TAG_FALSE:
+                return m_model.makeBoolean(false);
+            case BinaryFormat.TAG_TRUE:
+                return m_model.makeBoolean(true);
+            case BinaryFormat.TAG_INT:
+                return m_model.makeNumber(readZigZag());
+            case BinaryFormat.TAG_DOUBLE:
+                return m_model.makeNumber(readDouble());
+            case BinaryFormat.TAG_STRING:
+                return m_model.makeString(readString());
+            case BinaryFormat.TAG_ARRAY:
+            {
+                final int size = readSize();
+
+                final V array = m_model.makeArray(size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    m_model.setAt(array, i, readValue());
+                }
+                return array;
+            }
+            case BinaryFormat.TAG_OBJECT:
+            {
+                final int size = readSize();
+
+                final V object = m_model.makeObject();
+
+                for (int i = 0; i < size; i++)
+                {
+                    final String key = readString();
+
+                    m_model.setValue(object, key, readValue());
+                }
+                return object;
+            }
+            case BinaryFormat.TAG_INTS:
+            {
+                final int size = readSize();
+
+                final V array = m_model.makeArray(size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    m_model.setAt(array, i, m_model.makeNumber(readZigZag()));
+                }
+                return array;
+            }
+            case BinaryFormat.TAG_DOUBLES:
+            {
+                final int size = readSize();
+
+                final V array = m_model.makeArray(size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    m_model.setAt(array, i, m_model.makeNumber(readDouble()));
+                }
+                return array;
+            }
+            case BinaryFormat.TAG_RECORDS:
+            {
+                final int size = readSize();
+
+                final String[] keys = new String[readSize()];
+
+                for (int k = 0; k < keys.length; k++)
+                {
+                    keys[k] = readString();
+                }
+                final V array = m_model.makeArray(size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    final V object = m_model.makeObject();
+
+                    for (int k = 0; k < keys.length; k++)
+                    {
+                        m_model.setValue(object, keys[k], readValue());
+                    }
+                    m_model.setAt(array, i, object);
+                }
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown Lienzo binary tag " + tag + " at " + (m_next - 1));
+        }
+    }
+
+    private final String readString()
+    {
+        final int ref = readVarint();
+
+        if (ref > 0)
+        {
+            if (ref > m_strings.size())
+            {
+                throw new IllegalArgumentException("Unknown Lienzo binary string reference " + ref + " at " + m_next);
+            }
+            return m_strings.get(ref - 1);
+        }
+        final int length = readSize();
+
+        final int stop = m_next + length;
+
+        final StringBuilder builder = new StringBuilder(length);
+
+        while (m_next < stop)
+        {
+            final int b = readByte();
+
+            if (b < 0x80)
+            {
+                builder.append((char) b);
+            }
+            else if (b < 0xE0)
+            {
+                builder.append((char) (((b & 0x1F) << 6) | readContinuation()));
+            }
+            else if (b < 0xF0)
+            {
+                builder.append((char) (((b & 0x0F) << 12) | (readContinuation() << 6) | readContinuation()));
+            }
+            else
+            {
+                final int c = ((b & 0x07) << 18) | (readContinuation() << 12) | (readContinuation() << 6) | readContinuation();
+
+                builder.append(Character.toChars(c));
+            }
+        }
+        final String value = builder.toString();
+
+        m_strings.add(value);
+
+        return value;
+    }
+
+    private final int readContinuation()
+    {
+        return (readByte() & 0x3F);
+    }
+
+    private final int readSize()
+    {
+        final int size = readVarint();
+
+        if ((size < 0) || (size > (m_bytes.length - m_next)))
+        {
+            throw new IllegalArgumentException("Bad Lienzo binary size " + size + " at " + m_next);
+        }
+        return size;
+    }
+
+    private final int readZigZag()
+    {
+        final int value = readVarint();
+
+        return ((value >>> 1) ^ -(value & 1));
+    }
+
+    private final int readVarint()
+    {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            final int b = readByte();
+
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Bad Lienzo binary varint at " + m_next);
+    }
+
+    private final double readDouble()
+    {
+        final long high = readInt() & 0xFFFFFFFFL;
+
+        final long low = readInt() & 0xFFFFFFFFL;
+
+        return Double.longBitsToDouble((high << 32) | low);
+    }
+
+    private final int readInt()
+    {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private final int readByte()
+    {
+        if (m_next >= m_bytes.length)
+        {
+            throw new IllegalArgumentException("Unexpected end of Lienzo binary document");
+        }
+        return (m_bytes[m_next++] & 0xFF);
+    }
+}
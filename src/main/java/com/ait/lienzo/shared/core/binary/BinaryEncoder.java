@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.shared.core.binary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Writes a value tree in the {@link BinaryFormat}. An encoder writes a single document and is not reusable.
+ *
+ * @param <V> the value type of the tree
+ */
+public final class BinaryEncoder<V>
+{
+    private final IBinaryValueModel<V>     m_model;
+
+    private final HashMap<String, Integer> m_strings = new HashMap<>();
+
+    private byte[]                         m_bytes   = new byte[1024];
+
+    private int                            m_size;
+
+    public BinaryEncoder(final IBinaryValueModel<V> model)
+    {
+        m_model = model;
+
+        for (final String name : BinaryFormat.getDictionary())
+        {
+            m_strings.put(name, m_strings.size() + 1);
+        }
+    }
+
+    public final byte[] encode(final V value)
+    {
+        for (final byte b : BinaryFormat.MAGIC)
+        {
+            writeByte(b);
+        }
+        writeByte(BinaryFormat.VERSION);
+
+        writeValue(value);
+
+        final byte[] bytes = new byte[m_size];
+
+        System.arraycopy(m_bytes, 0, bytes, 0, m_size);
+
+        return bytes;
+    }
+
+    private final void writeValue(final V value)
+    {
+        switch (kind(value))
+        {
+            case IBinaryValueModel.BOOLEAN:
+                writeByte(m_model.getBoolean(value) ? BinaryFormat.TAG_TRUE : BinaryFormat.TAG_FALSE);
+                break;
+            case IBinaryValueModel.NUMBER:
+                writeNumber(m_model.getNumber(value));
+                break;
+            case IBinaryValueModel.STRING:
+                writeByte(BinaryFormat.TAG_STRING);
+                writeString(m_model.getString(value));
+                break;
+            case IBinaryValueModel.ARRAY:
+                writeArray(value);
+                break;
+            case IBinaryValueModel.OBJECT:
+                writeObject(value);
+                break;
+            default:
+                writeByte(BinaryFormat.TAG_NULL);
+                break;
+        }
+    }
+
+    private final int kind(final V value)
+    {
+        if (null == value)
+        {
+            return IBinaryValueModel.NULL;
+        }
+        return m_model.getKind(value);
+    }
+
+    private final void writeNumber(final double value)
+    {
+        if (isInt(value))
+        {
+            writeByte(BinaryFormat.TAG_INT);
+
+            writeZigZag((int) value);
+        }
+        else
+        {
+            writeByte(BinaryFormat.TAG_DOUBLE);
+
+            writeDouble(value);
+        }
+    }
+
+    private final void writeObject(final V value)
+    {
+        final Collection<String> keys = m_model.getKeys(value);
+
+        writeByte(BinaryFormat.TAG_OBJECT);
+
+        writeVarint(keys.size());
+
+        for (final String key : keys)
+        {
+            writeString(key);
+
+            writeValue(m_model.getValue(value, key));
+        }
+    }
+
+    private final void writeArray(final V value)
+    {
+        final int size = m_model.getSize(value);
+
+        if (size > 1)
+        {
+            final int kind = kind(m_model.getAt(value, 0));
+
+            if (IBinaryValueModel.NUMBER == kind)
+            {
+                if (writeNumbers(value, size))
+                {
+                    return;
+                }
+            }
+            else if (IBinaryValueModel.OBJECT == kind)
+            {
+                if (writeRecords(value, size))
+                {
+                    return;
+                }
+            }
+        }
+        writeByte(BinaryFormat.TAG_ARRAY);
+
+        writeVarint(size);
+
+        for (int i = 0; i < size; i++)
+        {
+            writeValue(m_model.getAt(value, i));
+        }
+    }
+
+    private final boolean writeNumbers(final V value, final int size)
+    {
+        final double[] numbers = new double[size];
+
+        boolean ints = true;
+
+        for (int i = 0; i < size; i++)
+        {
+            final V item = m_model.getAt(value, i);
+
+            if (kind(item) != IBinaryValueModel.NUMBER)
+            {
+                return false;
+            }
+            numbers[i] = m_model.getNumber(item);
+
+            ints = (ints && isInt(numbers[i]));
+        }
+        writeByte(ints ? BinaryFormat.TAG_INTS : BinaryFormat.TAG_DOUBLES);
+
+        writeVarint(size);
+
+        for (int i = 0; i < size; i++)
+        {
+            if (ints)
+            {
+                writeZigZag((int) numbers[i]);
+            }
+            else
+            {
+                writeDouble(numbers[i]);
+            }
+        }
+        return true;
+    }
+
+    private final boolean writeRecords(final V value, final int size)
+    {
+        final List<String> keys = new ArrayList<>(m_model.getKeys(m_model.getAt(value, 0)));
+
+        if (keys.isEmpty())
+        {
+            return false;
+        }
+        for (int i = 1; i < size; i++)
+        {
+            final V item = m_model.getAt(value, i);
+
+            if ((kind(item) != IBinaryValueModel.OBJECT) || (false == sameKeys(keys, m_model.getKeys(item))))
+            {
+                return false;
+            }
+        }
+        writeByte(BinaryFormat.TAG_RECORDS);
+
+        writeVarint(size);
+
+        writeVarint(keys.size());
+
+        for (final String key : keys)
+        {
+            writeString(key);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            final V item = m_model.getAt(value, i);
+
+            for (final String key : keys)
+            {
+                writeValue(m_model.getValue(item, key));
+            }
+        }
+        return true;
+    }
+
+    private static final boolean sameKeys(final List<String> keys, final Collection<String> other)
+    {
+        if (keys.size() != other.size())
+        {
+            return false;
+        }
+        int i = 0;
+
+        for (final String key : other)
+        {
+            if (false == keys.get(i++).equals(key))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final boolean isInt(final double value)
+    {
+        return ((value == ((int) value)) && ((value != 0) || ((1 / value) > 0)));
+    }
+
+    private final void writeString(final String value)
+    {
+        final Integer ref = m_strings.get(value);
+
+        if (null != ref)
+        {
+            writeVarint(ref);
+
+            return;
+        }
+        m_strings.put(value, m_strings.size() + 1);
+
+        writeVarint(0);
+
+        writeVarint(utf8Length(value));
+
+        final int size = value.length();
+
+        for (int i = 0; i < size; i++)
+        {
+            int c = value.charAt(i);
+
+            if (c < 0x80)
+            {
+                writeByte(c);
+            }
+            else if (c < 0x800)
+            {
+                writeByte(0xC0 | (c >> 6));
+
+                writeByte(0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate((char) c) && ((i + 1) < size) && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                c = Character.toCodePoint((char) c, value.charAt(++i));
+
+                writeByte(0xF0 | (c >> 18));
+
+                writeByte(0x80 | ((c >> 12) & 0x3F));
+
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+
+                writeByte(0x80 | (c & 0x3F));
+            }
+            else
+            {
+                writeByte(0xE0 | (c >> 12));
+
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static final int utf8Length(final String value)
+    {
+        final int size = value.length();
+
+        int length = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            final char c = value.charAt(i);
+
+            if (c < 0x80)
+            {
+                length += 1;
+            }
+            else if (c < 0x800)
+            {
+                length += 2;
+            }
+            else if (Character.isHighSurrogate(c) && ((i + 1) < size) && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                length += 4;
+
+                i++;
+            }
+            else
+            {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private final void writeZigZag(final int value)
+    {
+        writeVarint((value << 1) ^ (value >> 31));
+    }
+
+    private final void writeVarint(int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            writeByte((value & 0x7F) | 0x80);
+
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private final void writeDouble(final double value)
+    {
+        final long bits = Double.doubleToLongBits(value);
+
+        final int high = (int) (bits >>> 32);
+
+        final int low = (int) bits;
+
+        for (int i = 24; i >= 0; i -= 8)
+        {
+            writeByte(high >>> i);
+        }
+        for (int i = 24; i >= 0; i -= 8)
+        {
+            writeByte(low >>> i);
+        }
+    }
+
+    private final void writeByte(final int value)
+    {
+        if (m_size == m_bytes.length)
+        {
+            final byte[] bytes = new byte[m_size * 2];
+
+            System.arraycopy(m_bytes, 0, bytes, 0, m_size);
+
+            m_bytes = bytes;
+        }
+        m_bytes[m_size++] = (byte) value;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.shared.core.binary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.ait.lienzo.shared.core.types.GroupType;
+import com.ait.lienzo.shared.core.types.NodeType;
+import com.ait.lienzo.shared.core.types.ShapeType;
+
+/**
+ * Constants of the Lienzo binary serialization format.
+ * <p>
+ * Version 1 layout:
+ * <pre>
+ * document := 'L' 'Z' 'B' version:byte value
+ * value    := tag:byte payload
+ *   TAG_NULL, TAG_FALSE, TAG_TRUE   no payload
+ *   TAG_INT      zigzag varint, for numbers that are exactly a 32 bit integer
+ *   TAG_DOUBLE   IEEE 754 float64, big endian
+ *   TAG_STRING   string
+ *   TAG_ARRAY    varint count, count values
+ *   TAG_OBJECT   varint count, count (string key, value) pairs
+ *   TAG_INTS     varint count, count zigzag varints: an array of integers
+ *   TAG_DOUBLES  varint count, count float64: an array of numbers
+ *   TAG_RECORDS  varint count, varint keys, keys strings, count * keys values:
+ *                an array of objects that all have the same keys in the same order,
+ *                such as the {x, y} points of a Point2DArray or the {command, points} entries of a PathPartList
+ * string   := varint ref
+ *   ref == 0     varint length, length bytes of UTF-8, and the string is appended to the dictionary
+ *   ref &gt; 0      the string at index ref - 1 of the dictionary
+ * </pre>
+ * The dictionary starts with {@link #getDictionary()}, which holds the structural keys and the type names of
+ * {@link NodeType}, {@link GroupType} and {@link ShapeType}, so those are written as a single byte code.
+ * Every other string, such as an attribute name, is written once per document and referenced after that.
+ * The seed dictionary of a version must never change; new names are simply written inline.
+ */
+public final class BinaryFormat
+{
+    public static final int           VERSION     = 1;
+
+    public static final byte[]        MAGIC       = {'L', 'Z', 'B'};
+
+    public static final int           TAG_NULL    = 0;
+
+    public static final int           TAG_FALSE   = 1;
+
+    public static final int           TAG_TRUE    = 2;
+
+    public static final int           TAG_INT     = 3;
+
+    public static final int           TAG_DOUBLE  = 4;
+
+    public static final int           TAG_STRING  = 5;
+
+    public static final int           TAG_ARRAY   = 6;
+
+    public static final int           TAG_OBJECT  = 7;
+
+    public static final int           TAG_INTS    = 8;
+
+    public static final int           TAG_DOUBLES = 9;
+
+    public static final int           TAG_RECORDS = 10;
+
+    private static final List<String> DICTIONARY  = makeDictionary();
+
+    private BinaryFormat()
+    {
+    }
+
+    /**
+     * Returns the seed dictionary of the current {@link #VERSION}.
+     */
+    public static final List<String> getDictionary()
+    {
+        return DICTIONARY;
+    }
+
+    private static final List<String> makeDictionary()
+    {
+        final ArrayList<String> list = new ArrayList<>();
+
+        add(list, "type", "attributes", "children", "meta", "storage", "filters", "items", "x", "y", "command", "points");
+
+        add(list, NodeType.SCENE.getValue(), NodeType.LAYER.getValue(), NodeType.GROUP.getValue(), NodeType.SHAPE.getValue(), NodeType.PROXY.getValue(), NodeType.VIEWPORT.getValue(), NodeType.GRID_LAYER.getValue(), GroupType.GROUP.getValue());
+
+        add(list, ShapeType.ARC.getValue(), ShapeType.ARROW.getValue(), ShapeType.BEZIER_CURVE.getValue(), ShapeType.CIRCLE.getValue(), ShapeType.ELLIPTICAL_ARC.getValue(), ShapeType.ELLIPSE.getValue(), ShapeType.LINE.getValue(), ShapeType.MOVIE.getValue());
+
+        add(list, ShapeType.PARALLELOGRAM.getValue(), ShapeType.PICTURE.getValue(), ShapeType.POLYGON.getValue(), ShapeType.POLYLINE.getValue(), ShapeType.ORTHOGONAL_POLYLINE.getValue(), ShapeType.QUADRATIC_CURVE.getValue(), ShapeType.RECTANGLE.getValue());
+
+        add(list, ShapeType.REGULAR_POLYGON.getValue(), ShapeType.SLICE.getValue(), ShapeType.STAR.getValue(), ShapeType.TEXT.getValue(), ShapeType.TRIANGLE.getValue(), ShapeType.SPLINE.getValue(), ShapeType.BOW.getValue(), ShapeType.RING.getValue());
+
+        add(list, ShapeType.CHORD.getValue(), ShapeType.ISOSCELES_TRAPEZOID.getValue(), ShapeType.SVG_PATH.getValue(), ShapeType.MULTI_PATH.getValue(), ShapeType.SPRITE.getValue());
+
+        return Collections.unmodifiableList(list);
+    }
+
+    private static final void add(final List<String> list, final String... names)
+    {
+        for (final String name : names)
+        {
+            if (false == list.contains(name))
+            {
+                list.add(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.ait.lienzo.shared.core.binary;
+
+import java.util.Collection;
+
+/**
+ * Adapts a JSON-like value tree (null, boolean, number, string, array and object values)
+ * to the {@link BinaryEncoder} and {@link BinaryDecoder}, so the same binary format
+ * can be read and written from GWT JSONValues in the browser and plain Java objects on the JVM.
+ *
+ * @param <V> the value type of the tree
+ */
+public interface IBinaryValueModel<V>
+{
+    public static final int NULL    = 0;
+
+    public static final int BOOLEAN = 1;
+
+    public static final int NUMBER  = 2;
+
+    public static final int STRING  = 3;
+
+    public static final int ARRAY   = 4;
+
+    public static final int OBJECT  = 5;
+
+    /**
+     * Returns one of {@link #NULL}, {@link #BOOLEAN}, {@link #NUMBER}, {@link #STRING}, {@link #ARRAY} or {@link #OBJECT}.
+     */
+    public int getKind(V value);
+
+    public boolean getBoolean(V value);
+
+    public double getNumber(V value);
+
+    public String getString(V value);
+
+    public int getSize(V array);
+
+    public V getAt(V array, int index);
+
+    /**
+     * Returns the keys of an object, in the order they should be written.
+     */
+    public Collection<String> getKeys(V object);
+
+    public V getValue(V object, String key);
+
+    public V makeNull();
+
+    public V makeBoolean(boolean value);
+
+    public V makeNumber(double value);
+
+    public V makeString(String value);
+
+    public V makeArray(int size);
+
+    public void setAt(V array, int index, V value);
+
+    public V makeObject();
+
+    public void setValue(V object, String key, V value);
+}
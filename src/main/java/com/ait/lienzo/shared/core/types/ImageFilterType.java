@@ -46,6 +46,8 @@ public class ImageFilterType implements IStringValued
 
     public static final ImageFilterType GammaImageDataFilterType               = new ImageFilterType("GammaImageDataFilter");
 
+    public static final ImageFilterType GaussianBlurImageDataFilterType        = new ImageFilterType("GaussianBlurImageDataFilter");
+
     public static final ImageFilterType HueImageDataFilterType                 = new ImageFilterType("HueImageDataFilter");
 
     public static final ImageFilterType ImageDataFilterChainType               = new ImageFilterType("ImageDataFilterChain");
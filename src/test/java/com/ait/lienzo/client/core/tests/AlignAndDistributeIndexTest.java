@@ -0,0 +1,159 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.wires.AlignAndDistributeIndex;
+
+public class AlignAndDistributeIndexTest
+{
+    @Test
+    public void testBucketsAddAndRemove()
+    {
+        final AlignAndDistributeIndex<String> index = new AlignAndDistributeIndex<String>();
+
+        index.add(10, "a");
+
+        index.add(10, "b");
+
+        index.add(-5, "c");
+
+        index.add(40, "d");
+
+        assertEquals(3, index.size());
+
+        assertEquals(Arrays.asList("a", "b"), index.get(10));
+
+        index.remove(10, "a");
+
+        assertEquals(Arrays.asList("b"), index.get(10));
+
+        index.remove(10, "b");
+
+        assertNull(index.get(10));
+
+        assertEquals(2, index.size());
+
+        // removing something that is not there is ignored
+        index.remove(11, "b");
+
+        assertEquals(Arrays.asList("c"), index.get(-5));
+
+        index.clear();
+
+        assertTrue(index.isEmpty());
+
+        assertNull(index.get(40));
+    }
+
+    @Test
+    public void testNearestOffsetPrefersNearestThenPositive()
+    {
+        final AlignAndDistributeIndex<String> index = new AlignAndDistributeIndex<String>();
+
+        index.add(100, "a");
+
+        index.add(110, "b");
+
+        assertEquals(0, index.getNearestOffset(100, 4), 0);
+
+        assertEquals(-3, index.getNearestOffset(103, 4), 0);
+
+        assertEquals(4, index.getNearestOffset(96, 4), 0);
+
+        assertTrue(Double.isNaN(index.getNearestOffset(95, 4)));
+
+        // 105 is 5 away from both, the positive offset wins as the probe loop tried +n before -n
+        assertEquals(5, index.getNearestOffset(105, 5), 0);
+
+        assertTrue(Double.isNaN(new AlignAndDistributeIndex<String>().getNearestOffset(0, 4)));
+    }
+
+    @Test
+    public void testMatchesHashMapProbing()
+    {
+        final Random random = new Random(7);
+
+        final AlignAndDistributeIndex<Integer> index = new AlignAndDistributeIndex<Integer>();
+
+        final Map<Double, LinkedList<Integer>> map = new HashMap<Double, LinkedList<Integer>>();
+
+        for (int i = 0; i < 3000; i++)
+        {
+            final double key = Math.round(random.nextDouble() * 20000);
+
+            index.add(key, i);
+
+            LinkedList<Integer> bucket = map.get(key);
+
+            if (null == bucket)
+            {
+                bucket = new LinkedList<Integer>();
+
+                map.put(key, bucket);
+            }
+            bucket.add(i);
+        }
+        assertEquals(map.size(), index.size());
+
+        for (int i = 0; i < 5000; i++)
+        {
+            final double pos = Math.round(random.nextDouble() * 20000);
+
+            final int circa = random.nextInt(8);
+
+            // the search AlignAndDistribute used to do, one pixel at a time
+
+            double expect = Double.NaN;
+
+            for (int off = 0; off <= circa; off++)
+            {
+                if (null != map.get(pos + off))
+                {
+                    expect = off;
+
+                    break;
+                }
+                if (null != map.get(pos - off))
+                {
+                    expect = -off;
+
+                    break;
+                }
+            }
+            final double offset = index.getNearestOffset(pos, circa);
+
+            assertEquals(expect, offset, 0);
+
+            if (false == Double.isNaN(offset))
+            {
+                assertEquals(map.get(pos + offset), index.get(pos + offset));
+            }
+        }
+    }
+}
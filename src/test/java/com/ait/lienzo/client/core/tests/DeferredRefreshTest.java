@@ -0,0 +1,139 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.wires.DeferredRefresh;
+
+/**
+ * Runs {@link DeferredRefresh} the way WiresMoveBatch commits: every end of a connector on a moved shape, and every X and Y
+ * change of a moved shape, asks for a refresh, and each connector and index entry must be refreshed once.
+ */
+public class DeferredRefreshTest
+{
+    @Test
+    public void testConnectorBetweenMovedShapesRefreshedOnce()
+    {
+        final Refreshes connectors = new Refreshes();
+
+        connectors.begin();
+
+        // shapes a and b are moved, "ab" connects them, "ac" connects a to a shape that does not move
+
+        for (final String shape : Arrays.asList("a", "b"))
+        {
+            for (final String connector : Arrays.asList("ab", shape + "c"))
+            {
+                if (false == connectors.defer(connector))
+                {
+                    connectors.refresh(connector);
+                }
+            }
+        }
+        assertTrue(connectors.m_done.isEmpty());
+
+        connectors.end();
+
+        assertEquals(Arrays.asList("ab", "ac", "bc"), connectors.m_done);
+    }
+
+    @Test
+    public void testIndexEntryRefreshedOncePerShape()
+    {
+        final Refreshes index = new Refreshes();
+
+        index.begin();
+
+        // setting the location sets X and then Y, and the batch adds every moved shape once more
+
+        for (final String shape : Arrays.asList("a", "b"))
+        {
+            assertTrue(index.defer(shape));
+
+            assertTrue(index.defer(shape));
+        }
+        assertTrue(index.defer("a"));
+
+        assertTrue(index.defer("b"));
+
+        index.end();
+
+        assertEquals(Arrays.asList("a", "b"), index.m_done);
+    }
+
+    @Test
+    public void testNotDeferredOutsideBatch()
+    {
+        final Refreshes refreshes = new Refreshes();
+
+        assertFalse(refreshes.isDeferring());
+
+        assertFalse(refreshes.defer("a"));
+
+        refreshes.begin();
+
+        assertTrue(refreshes.isDeferring());
+
+        refreshes.end();
+
+        assertFalse(refreshes.isDeferring());
+
+        assertTrue(refreshes.m_done.isEmpty());
+
+        assertFalse(refreshes.defer("a"));
+
+        // an item refreshed during end() that changes again is refreshed right away, not deferred
+
+        final Refreshes again = new Refreshes()
+        {
+            @Override
+            protected void refresh(final String item)
+            {
+                super.refresh(item);
+
+                assertFalse(defer(item + "!"));
+            }
+        };
+        again.begin();
+
+        again.defer("a");
+
+        again.end();
+
+        assertEquals(Arrays.asList("a"), again.m_done);
+    }
+
+    private static class Refreshes extends DeferredRefresh<String>
+    {
+        private final List<String> m_done = new ArrayList<>();
+
+        @Override
+        protected void refresh(final String item)
+        {
+            m_done.add(item);
+        }
+    }
+}
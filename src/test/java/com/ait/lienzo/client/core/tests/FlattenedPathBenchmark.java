@@ -0,0 +1,84 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.util.FlattenedPath;
+import com.ait.lienzo.client.core.util.FlattenedPath.Intersections;
+
+/**
+ * Times the batched {@link FlattenedPath#intersect(double[], Intersections)} against one ray at a time. Not matched by the surefire includes,
+ * run it with <code>mvn test -Dtest=FlattenedPathBenchmark</code>. FlattenedPathTest checks that both give the same hits.
+ */
+public class FlattenedPathBenchmark
+{
+    @Test
+    public void testBatchAgainstSingleRays()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(100, 100);
+
+        path.arcTo(150, 100, 150, 150, 50).arcTo(150, 200, 100, 200, 50).cubicTo(0, 250, 0, 50, 100, 100).close();
+
+        final int count = 360;
+
+        final double[] rays = new double[count * 4];
+
+        for (int a = 0; a < count; a++)
+        {
+            final double t = Math.toRadians(a);
+
+            rays[a * 4] = 100;
+
+            rays[(a * 4) + 1] = 150;
+
+            rays[(a * 4) + 2] = 100 + (300 * Math.cos(t));
+
+            rays[(a * 4) + 3] = 150 + (300 * Math.sin(t));
+        }
+        final int loop = 200;
+
+        long single = System.nanoTime();
+
+        int found = 0;
+
+        for (int n = 0; n < loop; n++)
+        {
+            for (int a = 0; a < count; a++)
+            {
+                found += path.intersect(rays[a * 4], rays[(a * 4) + 1], rays[(a * 4) + 2], rays[(a * 4) + 3]).size();
+            }
+        }
+        single = System.nanoTime() - single;
+
+        long batch = System.nanoTime();
+
+        final Intersections hits = new Intersections();
+
+        for (int n = 0; n < loop; n++)
+        {
+            path.intersect(rays, hits.clear());
+        }
+        batch = System.nanoTime() - batch;
+
+        assertEquals(found, hits.size() * loop);
+
+        System.out.println("FlattenedPath: " + path.size() + " points, " + (count * loop) + " rays, single " + (single / 1000000) + "ms, batch " + (batch / 1000000) + "ms");
+    }
+}
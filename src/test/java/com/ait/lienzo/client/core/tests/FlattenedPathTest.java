@@ -0,0 +1,506 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.util.FlattenedPath;
+import com.ait.lienzo.client.core.util.FlattenedPath.Intersections;
+
+public class FlattenedPathTest
+{
+    private static final double TOLERANCE = FlattenedPath.DEFAULT_TOLERANCE;
+
+    @Test
+    public void testPolygonMatchesLineLineIntersections()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(10, 10).lineTo(90, 20).lineTo(70, 80).lineTo(20, 60).close();
+
+        final double[] rays = new double[] { 0, 5, 100, 100, 50, 0, 50, 100, 0, 40, 100, 40, 0, 95, 100, 95 };
+
+        final Intersections hits = path.intersect(rays);
+
+        final double[] xy = path.getPoints();
+
+        for (int r = 0; r < (rays.length / 4); r++)
+        {
+            final List<double[]> expect = new ArrayList<double[]>();
+
+            for (int i = 1; i < path.size(); i++)
+            {
+                final double[] p = intersectLineLine(rays[r * 4], rays[(r * 4) + 1], rays[(r * 4) + 2], rays[(r * 4) + 3], xy[(i * 2) - 2], xy[(i * 2) - 1], xy[i * 2], xy[(i * 2) + 1]);
+
+                if (null != p)
+                {
+                    expect.add(p);
+                }
+            }
+            assertEquals(expect.size(), hits.getCount(r));
+
+            int k = 0;
+
+            for (int i = 0; i < hits.size(); i++)
+            {
+                if (hits.getRay(i) == r)
+                {
+                    assertEquals(expect.get(k)[0], hits.getX(i), 0);
+
+                    assertEquals(expect.get(k)[1], hits.getY(i), 0);
+
+                    k++;
+                }
+            }
+        }
+        assertEquals(0, hits.getCount(3));
+    }
+
+    @Test
+    public void testSharedVertexIsReportedOnce()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(0, 0).lineTo(10, 0).lineTo(10, 10).lineTo(0, 10).close();
+
+        final Intersections hits = path.intersect(-5, -5, 5, 5);
+
+        assertEquals(1, hits.size());
+
+        assertEquals(0, hits.getX(0), 0.000001);
+
+        assertEquals(0, hits.getY(0), 0.000001);
+    }
+
+    @Test
+    public void testSubPathsAreNotJoined()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(0, 0).lineTo(10, 0).moveTo(0, 10).lineTo(10, 10);
+
+        assertTrue(path.isMoveTo(2));
+
+        assertFalse(path.isMoveTo(1));
+
+        assertEquals(0, path.intersect(5, -1, 5, 20).getCount(0) - 2);
+
+        assertEquals(0, path.intersect(10.5, -1, 10.5, 20).size());
+    }
+
+    @Test
+    public void testCanvasArcToCircleWithinTolerance()
+    {
+        final double r = 50;
+
+        // the same four arcs PathPartList.circle(r) produces from (100, 100)
+
+        final FlattenedPath path = new FlattenedPath().moveTo(100, 100);
+
+        path.arcTo(150, 100, 150, 150, r).arcTo(150, 200, 100, 200, r).arcTo(50, 200, 50, 150, r).arcTo(50, 100, 100, 100, r).close();
+
+        for (int i = 0; i < path.size(); i++)
+        {
+            assertEquals(r, Math.hypot(path.getX(i) - 100, path.getY(i) - 150), 0.000001);
+        }
+        final double[] rays = new double[72 * 4];
+
+        for (int a = 0; a < 72; a++)
+        {
+            final double t = Math.toRadians(a * 5);
+
+            rays[a * 4] = 100;
+
+            rays[(a * 4) + 1] = 150;
+
+            rays[(a * 4) + 2] = 100 + (200 * Math.cos(t));
+
+            rays[(a * 4) + 3] = 150 + (200 * Math.sin(t));
+        }
+        final Intersections hits = path.intersect(rays);
+
+        for (int a = 0; a < 72; a++)
+        {
+            assertEquals(1, hits.getCount(a));
+        }
+        for (int i = 0; i < hits.size(); i++)
+        {
+            assertEquals(r, Math.hypot(hits.getX(i) - 100, hits.getY(i) - 150), TOLERANCE);
+        }
+        final double[] bounds = path.getBounds();
+
+        assertEquals(50, bounds[0], 0.000001);
+
+        assertEquals(100, bounds[1], 0.000001);
+
+        assertEquals(150, bounds[2], 0.000001);
+
+        assertEquals(200, bounds[3], 0.000001);
+    }
+
+    @Test
+    public void testCubicIntersectionWithinTolerance()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(0, 0).cubicTo(0, 200, 300, 200, 300, 0);
+
+        for (int y = 5; y < 150; y += 10)
+        {
+            final Intersections hits = path.intersect(-10, y, 310, y);
+
+            assertEquals(2, hits.size());
+
+            for (int i = 0; i < hits.size(); i++)
+            {
+                assertEquals(y, hits.getY(i), 0.000001);
+
+                double near = Double.POSITIVE_INFINITY;
+
+                for (int k = 0; k <= 10000; k++)
+                {
+                    final double t = k / 10000.0;
+
+                    near = Math.min(near, Math.hypot(cubic(0, 0, 300, 300, t) - hits.getX(i), cubic(0, 200, 200, 0, t) - y));
+                }
+                assertTrue(near <= TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testQuadraticAndEllipseStayOnCurve()
+    {
+        final FlattenedPath quad = new FlattenedPath().moveTo(0, 0).quadTo(100, 200, 200, 0);
+
+        assertTrue(quad.size() > 2);
+
+        for (int i = 0; i < quad.size(); i++)
+        {
+            final double t = quad.getX(i) / 200;
+
+            assertEquals(2 * (1 - t) * t * 200, quad.getY(i), 0.000001);
+        }
+        final double ps = Math.toRadians(30);
+
+        final FlattenedPath ellipse = new FlattenedPath().ellipseTo(0, 0, 80, 40, 0, Math.PI, ps);
+
+        for (int i = 0; i < ellipse.size(); i++)
+        {
+            final double x = (ellipse.getX(i) * Math.cos(ps)) + (ellipse.getY(i) * Math.sin(ps));
+
+            final double y = (ellipse.getY(i) * Math.cos(ps)) - (ellipse.getX(i) * Math.sin(ps));
+
+            assertEquals(1, ((x * x) / 6400) + ((y * y) / 1600), 0.000001);
+
+            assertTrue(y >= -0.000001);
+        }
+        assertEquals(80 * Math.cos(ps), ellipse.getX(0), 0.000001);
+
+        assertEquals(-80 * Math.cos(ps), ellipse.getCurrentX(), 0.000001);
+    }
+
+    @Test
+    public void testPartIndexesAndRejectedInput()
+    {
+        final FlattenedPath path = new FlattenedPath();
+
+        path.setPart(0).moveTo(0, 0);
+
+        path.setPart(1).cubicTo(0, 100, 100, 100, 100, 0);
+
+        assertEquals(0, path.getPart(0));
+
+        assertEquals(1, path.getPart(path.size() - 1));
+
+        try
+        {
+            path.intersect(new double[] { 0, 0, 1 });
+
+            assertTrue(false);
+        }
+        catch (final IllegalArgumentException e)
+        {
+        }
+        try
+        {
+            new FlattenedPath(0);
+
+            assertTrue(false);
+        }
+        catch (final IllegalArgumentException e)
+        {
+        }
+    }
+
+    @Test
+    public void testLengthAndPointAtLength()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(0, 0).lineTo(30, 0).lineTo(30, 40).moveTo(100, 100).lineTo(100, 110);
+
+        assertEquals(80, path.getLength(), 0);
+
+        final double[] out = new double[2];
+
+        assertTrue(path.getPointAtLength(15, out));
+
+        assertEquals(15, out[0], 0.000001);
+
+        assertEquals(0, out[1], 0.000001);
+
+        assertTrue(path.getPointAtLength(50, out));
+
+        assertEquals(30, out[0], 0.000001);
+
+        assertEquals(20, out[1], 0.000001);
+
+        assertTrue(path.getPointAtLength(75, out));
+
+        assertEquals(100, out[0], 0.000001);
+
+        assertEquals(105, out[1], 0.000001);
+
+        assertTrue(path.getPointAtLength(-10, out));
+
+        assertEquals(0, out[0], 0);
+
+        assertTrue(path.getPointAtLength(1000, out));
+
+        assertEquals(110, out[1], 0.000001);
+
+        assertTrue(path.getTangentAtLength(15, out));
+
+        assertEquals(1, out[0], 0.000001);
+
+        assertTrue(path.getTangentAtLength(50, out));
+
+        assertEquals(1, out[1], 0.000001);
+
+        // the length table is extended as points are appended
+
+        path.lineTo(110, 110);
+
+        assertEquals(90, path.getLength(), 0);
+
+        assertTrue(path.getTangentAtLength(85, out));
+
+        assertEquals(1, out[0], 0.000001);
+
+        assertFalse(new FlattenedPath().getPointAtLength(0, out));
+
+        assertFalse(new FlattenedPath().moveTo(5, 5).lineTo(5, 5).getTangentAtLength(0, out));
+    }
+
+    @Test
+    public void testCircleLengthWithinTolerance()
+    {
+        final double r = 50;
+
+        final FlattenedPath path = new FlattenedPath().moveTo(100, 100);
+
+        path.arcTo(150, 100, 150, 150, r).arcTo(150, 200, 100, 200, r).arcTo(50, 200, 50, 150, r).arcTo(50, 100, 100, 100, r).close();
+
+        final double length = path.getLength();
+
+        assertEquals(2 * Math.PI * r, length, 1);
+
+        final double[] out = new double[2];
+
+        for (int i = 0; i <= 100; i++)
+        {
+            assertTrue(path.getPointAtLength((length * i) / 100, out));
+
+            assertEquals(r, Math.hypot(out[0] - 100, out[1] - 150), TOLERANCE);
+        }
+        // a quarter of the way round from the top, going clockwise, is the right hand side
+
+        assertTrue(path.getPointAtLength(length / 4, out));
+
+        assertEquals(150, out[0], 0.1);
+
+        assertEquals(150, out[1], 0.1);
+
+        assertTrue(path.getTangentAtLength(length / 4, out));
+
+        assertEquals(0, out[0], 0.15);
+
+        assertEquals(1, out[1], 0.01);
+    }
+
+    @Test
+    public void testContainsUsesNonzeroWindingAndImplicitClose()
+    {
+        // not closed, filling closes it anyway
+
+        final FlattenedPath square = new FlattenedPath().moveTo(0, 0).lineTo(10, 0).lineTo(10, 10).lineTo(0, 10);
+
+        assertTrue(square.contains(5, 5));
+
+        assertFalse(square.contains(15, 5));
+
+        assertFalse(square.contains(5, -1));
+
+        // an inner square wound the same way stays filled, wound the other way it is a hole
+
+        final FlattenedPath same = new FlattenedPath().moveTo(0, 0).lineTo(30, 0).lineTo(30, 30).lineTo(0, 30).close().moveTo(10, 10).lineTo(20, 10).lineTo(20, 20).lineTo(10, 20).close();
+
+        assertTrue(same.contains(15, 15));
+
+        final FlattenedPath hole = new FlattenedPath().moveTo(0, 0).lineTo(30, 0).lineTo(30, 30).lineTo(0, 30).close().moveTo(10, 10).lineTo(10, 20).lineTo(20, 20).lineTo(20, 10).close();
+
+        assertFalse(hole.contains(15, 15));
+
+        assertTrue(hole.contains(5, 15));
+
+        final FlattenedPath circle = new FlattenedPath().ellipseTo(0, 0, 50, 50, 0, Math.PI * 2, 0);
+
+        assertTrue(circle.contains(0, 0));
+
+        assertTrue(circle.contains(35, 34));
+
+        assertFalse(circle.contains(36, 36));
+    }
+
+    @Test
+    public void testDistanceToOutline()
+    {
+        final FlattenedPath open = new FlattenedPath().moveTo(0, 0).lineTo(10, 0).lineTo(10, 10);
+
+        assertEquals(0, open.distanceTo(5, 0, false), 0);
+
+        assertEquals(3, open.distanceTo(5, -3, false), 0);
+
+        assertEquals(5, open.distanceTo(13, 14, false), 1e-12);
+
+        // the closing segment from (10, 10) back to (0, 0) only counts when asked for
+
+        assertEquals(5, open.distanceTo(0, 5, false), 0);
+
+        assertEquals(Math.sqrt(12.5), open.distanceTo(0, 5, true), 1e-12);
+
+        final FlattenedPath dot = new FlattenedPath().moveTo(3, 4);
+
+        assertEquals(5, dot.distanceTo(0, 0, false), 1e-12);
+
+        assertEquals(Double.POSITIVE_INFINITY, new FlattenedPath().distanceTo(0, 0, true), 0);
+
+        final FlattenedPath circle = new FlattenedPath().ellipseTo(0, 0, 50, 50, 0, Math.PI * 2, 0);
+
+        assertEquals(50, circle.distanceTo(0, 0, true), TOLERANCE);
+
+        assertEquals(10, circle.distanceTo(60, 0, true), TOLERANCE);
+    }
+
+    @Test
+    public void testIntersectsRectangle()
+    {
+        final FlattenedPath line = new FlattenedPath().moveTo(0, 0).lineTo(100, 100).moveTo(200, 0).lineTo(300, 0);
+
+        // crossing, without any vertex inside
+
+        assertTrue(line.intersects(40, 40, 60, 60));
+
+        assertTrue(line.intersects(240, -5, 260, 5));
+
+        // inside the bounds of the path, but away from the segments
+
+        assertFalse(line.intersects(60, 10, 90, 30));
+
+        // between the subpaths, which are not joined
+
+        assertFalse(line.intersects(120, -10, 180, 10));
+
+        // holding the whole path, and touching it at a vertex
+
+        assertTrue(line.intersects(-10, -10, 310, 110));
+
+        assertTrue(line.intersects(300, 0, 320, 20));
+
+        assertTrue(new FlattenedPath().moveTo(5, 5).intersects(0, 0, 10, 10));
+
+        assertFalse(new FlattenedPath().intersects(0, 0, 10, 10));
+    }
+
+    @Test
+    public void testBatchMatchesSingleRays()
+    {
+        final FlattenedPath path = new FlattenedPath().moveTo(100, 100);
+
+        path.arcTo(150, 100, 150, 150, 50).arcTo(150, 200, 100, 200, 50).cubicTo(0, 250, 0, 50, 100, 100).close();
+
+        final int count = 360;
+
+        final double[] rays = new double[count * 4];
+
+        for (int a = 0; a < count; a++)
+        {
+            final double t = Math.toRadians(a);
+
+            rays[a * 4] = 100;
+
+            rays[(a * 4) + 1] = 150;
+
+            rays[(a * 4) + 2] = 100 + (300 * Math.cos(t));
+
+            rays[(a * 4) + 3] = 150 + (300 * Math.sin(t));
+        }
+        final Intersections hits = path.intersect(rays, new Intersections());
+
+        int found = 0;
+
+        for (int a = 0; a < count; a++)
+        {
+            final int size = path.intersect(rays[a * 4], rays[(a * 4) + 1], rays[(a * 4) + 2], rays[(a * 4) + 3]).size();
+
+            assertEquals(size, hits.getCount(a));
+
+            found += size;
+        }
+        assertEquals(found, hits.size());
+
+        for (int a = 0; a < count; a++)
+        {
+            assertTrue(hits.getCount(a) > 0);
+        }
+    }
+
+    private static double cubic(final double p0, final double p1, final double p2, final double p3, final double t)
+    {
+        final double u = 1 - t;
+
+        return (u * u * u * p0) + (3 * u * u * t * p1) + (3 * u * t * t * p2) + (t * t * t * p3);
+    }
+
+    private static double[] intersectLineLine(final double ax0, final double ay0, final double ax1, final double ay1, final double bx0, final double by0, final double bx1, final double by1)
+    {
+        // the same arithmetic as Geometry.intersectLineLine
+
+        final double denominator = ((by1 - by0) * (ax1 - ax0)) - ((bx1 - bx0) * (ay1 - ay0));
+
+        if (denominator != 0)
+        {
+            final double a = (((bx1 - bx0) * (ay0 - by0)) - ((by1 - by0) * (ax0 - bx0))) / denominator;
+
+            final double b = (((ax1 - ax0) * (ay0 - by0)) - ((ay1 - ay0) * (ax0 - bx0))) / denominator;
+
+            if ((0 <= a) && (a <= 1) && (0 <= b) && (b <= 1))
+            {
+                return new double[] { ax0 + (a * (ax1 - ax0)), ay0 + (a * (ay1 - ay0)) };
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.HandledEventMask;
+
+/**
+ * Runs {@link HandledEventMask} the way Node and ContainerNode do: a handler added ORs in the bit of its type, a handler
+ * removed sets the mask again from the types still handled, and adding, removing or moving a child sets its parent.
+ */
+public class HandledEventMaskTest
+{
+    private static final int CLICK = HandledEventMask.makeTypeMask("click");
+
+    private static final int MOVE  = HandledEventMask.makeTypeMask("move");
+
+    private static final int DRAG  = HandledEventMask.makeTypeMask("drag");
+
+    @Test
+    public void testTypeMask()
+    {
+        assertEquals(CLICK, HandledEventMask.getTypeMask("click"));
+
+        assertEquals(CLICK, HandledEventMask.makeTypeMask("click"));
+
+        assertEquals(0, HandledEventMask.getTypeMask("never"));
+
+        assertEquals(0, HandledEventMask.getTypeMask(null));
+
+        assertNotEquals(CLICK, MOVE);
+
+        assertEquals(3, Integer.bitCount(CLICK | MOVE | DRAG));
+    }
+
+    @Test
+    public void testOtherEventsShareLastBit()
+    {
+        for (int i = HandledEventMask.getTypeCount(); i < 31; i++)
+        {
+            assertEquals(1, Integer.bitCount(HandledEventMask.makeTypeMask("own" + i)));
+        }
+        assertEquals(HandledEventMask.OTHER_EVENTS, HandledEventMask.makeTypeMask("other0"));
+
+        assertEquals(HandledEventMask.OTHER_EVENTS, HandledEventMask.makeTypeMask("other1"));
+
+        // a handler for one of them makes the others look handled too, which only costs a pick
+
+        final Group group = new Group();
+
+        final HandledEventMask shape = group.add(new HandledEventMask());
+
+        shape.setMask(HandledEventMask.getTypeMask("other0"));
+
+        assertTrue(group.isHandledInTree(HandledEventMask.getTypeMask("other1")));
+    }
+
+    @Test
+    public void testHandlerAddedAndRemoved()
+    {
+        final Group layer = new Group();
+
+        final Group group = layer.add(new Group());
+
+        final HandledEventMask shape = group.add(new HandledEventMask());
+
+        assertFalse(layer.isHandledInTree(CLICK));
+
+        shape.setMask(shape.getMask() | CLICK);
+
+        assertTrue(layer.isHandledInTree(CLICK));
+
+        assertTrue(group.isHandledInTree(CLICK));
+
+        assertFalse(layer.isHandledInTree(MOVE));
+
+        shape.setMask(shape.getMask() | MOVE);
+
+        assertTrue(layer.isHandledInTree(MOVE));
+
+        shape.setMask(MOVE);
+
+        assertFalse(layer.isHandledInTree(CLICK));
+
+        assertTrue(layer.isHandledInTree(MOVE));
+
+        shape.setMask(0);
+
+        assertFalse(layer.isHandledInTree(MOVE));
+
+        assertEquals(0, layer.getTreeMask());
+    }
+
+    @Test
+    public void testContainerOwnHandler()
+    {
+        final Group layer = new Group();
+
+        final Group group = layer.add(new Group());
+
+        group.add(new HandledEventMask()).setMask(CLICK);
+
+        group.setMask(DRAG);
+
+        assertEquals(CLICK | DRAG, layer.getTreeMask());
+
+        assertEquals(DRAG, group.getMask());
+
+        group.setMask(0);
+
+        assertEquals(CLICK, layer.getTreeMask());
+    }
+
+    @Test
+    public void testChildAddedAndRemoved()
+    {
+        final Group layer = new Group();
+
+        final Group group = layer.add(new Group());
+
+        assertEquals(0, layer.getTreeMask());
+
+        final HandledEventMask shape = new HandledEventMask();
+
+        shape.setMask(CLICK);
+
+        group.add(shape);
+
+        assertTrue(layer.isHandledInTree(CLICK));
+
+        group.remove(shape);
+
+        assertFalse(layer.isHandledInTree(CLICK));
+
+        assertEquals(null, shape.getParent());
+
+        // a handler added once removed does not reach the old parent
+
+        shape.setMask(MOVE);
+
+        assertFalse(layer.isHandledInTree(MOVE));
+
+        group.add(shape);
+
+        assertTrue(layer.isHandledInTree(MOVE));
+
+        layer.removeAll();
+
+        assertEquals(0, layer.getTreeMask());
+    }
+
+    @Test
+    public void testChildReparented()
+    {
+        final Group layer = new Group();
+
+        final Group from = layer.add(new Group());
+
+        final Group dest = layer.add(new Group());
+
+        final HandledEventMask shape = from.add(new HandledEventMask());
+
+        shape.setMask(CLICK);
+
+        assertTrue(from.isHandledInTree(CLICK));
+
+        assertFalse(dest.isHandledInTree(CLICK));
+
+        from.remove(shape);
+
+        dest.add(shape);
+
+        assertFalse(from.isHandledInTree(CLICK));
+
+        assertTrue(dest.isHandledInTree(CLICK));
+
+        assertTrue(layer.isHandledInTree(CLICK));
+
+        // a container moved with its children takes their masks with it
+
+        final Group other = new Group();
+
+        layer.remove(dest);
+
+        assertFalse(layer.isHandledInTree(CLICK));
+
+        other.add(dest);
+
+        assertTrue(other.isHandledInTree(CLICK));
+
+        shape.setMask(0);
+
+        assertFalse(other.isHandledInTree(CLICK));
+    }
+
+    @Test
+    public void testInvalidateStopsAtDirtyContainer()
+    {
+        final Group layer = new Group();
+
+        final Group group = layer.add(new Group());
+
+        final HandledEventMask shape = group.add(new HandledEventMask());
+
+        layer.getTreeMask();
+
+        assertFalse(layer.isDirty());
+
+        assertFalse(group.isDirty());
+
+        shape.setMask(CLICK);
+
+        assertTrue(layer.isDirty());
+
+        assertTrue(group.isDirty());
+
+        final int computed = layer.m_computed;
+
+        // the mask is computed once per change, however often it is read
+
+        assertEquals(CLICK, layer.getTreeMask());
+
+        assertEquals(CLICK, layer.getTreeMask());
+
+        assertEquals(computed + 1, layer.m_computed);
+
+        // the group is clean again, so a change below it dirties the layer once more
+
+        assertFalse(group.isDirty());
+
+        shape.setMask(0);
+
+        assertTrue(layer.isDirty());
+
+        // a second change while dirty stops at the group, and the mask still comes out right
+
+        group.m_invalidated = 0;
+
+        layer.m_invalidated = 0;
+
+        shape.setMask(MOVE);
+
+        assertEquals(1, group.m_invalidated);
+
+        assertEquals(0, layer.m_invalidated);
+
+        assertEquals(MOVE, layer.getTreeMask());
+    }
+
+    /**
+     * A container that keeps its children in a list, and links and unlinks them as ContainerNode add and remove do.
+     */
+    private static class Group extends HandledEventMask.Container
+    {
+        private final ArrayList<HandledEventMask> m_list = new ArrayList<>();
+
+        private int                               m_computed;
+
+        private int                               m_invalidated;
+
+        private <T extends HandledEventMask> T add(final T child)
+        {
+            child.setParent(this);
+
+            m_list.add(child);
+
+            return child;
+        }
+
+        private void remove(final HandledEventMask child)
+        {
+            child.setParent(null);
+
+            m_list.remove(child);
+        }
+
+        private void removeAll()
+        {
+            invalidate();
+
+            m_list.clear();
+        }
+
+        @Override
+        protected int size()
+        {
+            m_computed++;
+
+            return m_list.size();
+        }
+
+        @Override
+        protected HandledEventMask get(final int i)
+        {
+            return m_list.get(i);
+        }
+
+        @Override
+        public void invalidate()
+        {
+            m_invalidated++;
+
+            super.invalidate();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.image.filter.ImageDataFilterTileScheduler;
+import com.ait.lienzo.client.core.image.filter.ImageDataFilterTileScheduler.ITileProcessor;
+
+public class ImageDataFilterTileSchedulerTest
+{
+    private static final int WIDE = 37;
+
+    private static final int HIGH = 101;
+
+    @Test
+    public void testTiledBlurMatchesFullImage()
+    {
+        final int[] source = pixels(WIDE, HIGH);
+
+        final int[] expect = new int[source.length];
+
+        blur(source, expect, WIDE, 0, HIGH, 0, HIGH, 2);
+
+        final int[] result = new int[source.length];
+
+        final ImageDataFilterTileScheduler tiles = new ImageDataFilterTileScheduler(HIGH, 16, 2, new ITileProcessor()
+        {
+            @Override
+            public void process(final int tile, final int readStart, final int readEnd, final int writeStart, final int writeEnd)
+            {
+                blur(source, result, WIDE, readStart, readEnd, writeStart, writeEnd, 2);
+            }
+        });
+        assertEquals(7, tiles.getTileCount());
+
+        tiles.run();
+
+        assertTrue(tiles.isDone());
+
+        assertArrayEquals(expect, result);
+    }
+
+    @Test
+    public void testStepAndCancel()
+    {
+        final int[] count = new int[1];
+
+        final ImageDataFilterTileScheduler tiles = new ImageDataFilterTileScheduler(HIGH, 10, 0, new ITileProcessor()
+        {
+            @Override
+            public void process(final int tile, final int readStart, final int readEnd, final int writeStart, final int writeEnd)
+            {
+                assertEquals(readStart, writeStart);
+
+                assertEquals(readEnd, writeEnd);
+
+                count[0]++;
+            }
+        });
+        assertEquals(11, tiles.getTileCount());
+
+        assertTrue(tiles.step(3));
+
+        assertEquals(3, tiles.getCompletedCount());
+
+        tiles.cancel();
+
+        assertFalse(tiles.step(3));
+
+        assertTrue(tiles.isCancelled());
+
+        assertFalse(tiles.isDone());
+
+        assertEquals(3, count[0]);
+    }
+
+    @Test
+    public void testUntileableIsSingleTile()
+    {
+        final ImageDataFilterTileScheduler tiles = new ImageDataFilterTileScheduler(HIGH, 10, -1, new ITileProcessor()
+        {
+            @Override
+            public void process(final int tile, final int readStart, final int readEnd, final int writeStart, final int writeEnd)
+            {
+                assertEquals(0, readStart);
+
+                assertEquals(HIGH, readEnd);
+            }
+        });
+        assertEquals(1, tiles.getTileCount());
+
+        assertFalse(tiles.stepFor(0));
+
+        assertTrue(tiles.isDone());
+    }
+
+    private static int[] pixels(final int wide, final int high)
+    {
+        final Random rand = new Random(42);
+
+        final int[] data = new int[wide * high * 4];
+
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = rand.nextInt(256);
+        }
+        return data;
+    }
+
+    /**
+     * Box blur of rows [readStart, readEnd) of source, clamped to that band like a filter on a sub image would be, writing rows [writeStart, writeEnd) into target.
+     */
+    private static void blur(final int[] source, final int[] target, final int wide, final int readStart, final int readEnd, final int writeStart, final int writeEnd, final int radius)
+    {
+        for (int y = writeStart; y < writeEnd; y++)
+        {
+            for (int x = 0; x < wide; x++)
+            {
+                for (int c = 0; c < 4; c++)
+                {
+                    int sum = 0;
+
+                    for (int dy = -radius; dy <= radius; dy++)
+                    {
+                        final int iy = Math.min(readEnd - 1, Math.max(readStart, y + dy));
+
+                        for (int dx = -radius; dx <= radius; dx++)
+                        {
+                            final int ix = Math.min(wide - 1, Math.max(0, x + dx));
+
+                            sum += source[((iy * wide) + ix) * 4 + c];
+                        }
+                    }
+                    target[((y * wide) + x) * 4 + c] = sum / ((radius * 2 + 1) * (radius * 2 + 1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,500 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.json.JSONStreamReader;
+
+/**
+ * Streams documents through {@link JSONStreamReader} and compares the resulting trees with a whole-document parse.
+ * The GWT JSONParser behind JSONDeserializer.fromString is JSNI and cannot run on the JVM, so the reference tree
+ * comes from the small parser at the bottom of this class.
+ */
+public class JSONStreamReaderTest
+{
+    private static final String SCENE = "{\"type\":\"Layer\",\"attributes\":{\"id\":\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\u65e5\",\"alpha\":0.5},"
+            + "\"children\":[{\"type\":\"Group\",\"children\":[{\"type\":\"Rectangle\",\"attributes\":{\"x\":-1.5e2,\"visible\":true,\"name\":null}},"
+            + "{\"type\":\"Text\",\"attributes\":{\"text\":\"} ] { [ , :\\\"\"}}],\"attributes\":{\"listening\":false}},"
+            + "{\"type\":\"Circle\",\"attributes\":{\"radius\":10,\"dash\":[1,2,[3]],\"\u65e5\u672c\":\"\u00fc\"}}],"
+            + "\"meta\":{\"children\":[1,2]},\"version\":3}";
+
+    @Test
+    public void testStreamedTreeMatchesParsedTree()
+    {
+        for (final String json : documents())
+        {
+            final Object expected = new Parser(json).parse();
+
+            assertEquals(json, expected, read(json, true, Integer.MAX_VALUE));
+
+            assertEquals(json, expected, read(json, false, Integer.MAX_VALUE));
+
+            assertEquals(json, expected, read(json, true, 1));
+        }
+    }
+
+    @Test
+    public void testEscapedKeys()
+    {
+        final Map<?, ?> tree = (Map<?, ?>) read("{\"ch\\u0069ldren\":[{\"k\\\"ey\":1}],\"t\\u00e9\":\"x\"}", true, 1);
+
+        assertEquals("x", tree.get("t\u00e9"));
+
+        final List<?> children = (List<?>) tree.get("children");
+
+        assertEquals(1, children.size());
+
+        assertEquals(1.0, ((Map<?, ?>) children.get(0)).get("k\"ey"));
+    }
+
+    @Test
+    public void testChildrenAcrossSkipChunks()
+    {
+        final StringBuilder json = new StringBuilder("{\"children\":[");
+
+        int i = 0;
+
+        while (json.length() < (3 * JSONStreamReader.SKIP_CHUNK_SIZE))
+        {
+            if (i > 0)
+            {
+                json.append(',');
+            }
+            json.append("{\"id\":\"n").append(i++).append("\\\"]}\",\"children\":[{\"x\":").append(i).append("}]}");
+        }
+        json.append("],\"type\":\"Layer\"}");
+
+        final String text = json.toString();
+
+        final Visitor visitor = new Visitor(true);
+
+        final JSONStreamReader reader = new JSONStreamReader(text, visitor);
+
+        int steps = 0;
+
+        while (reader.step(1))
+        {
+            steps++;
+
+            assertTrue(reader.getPosition() <= reader.getLength());
+        }
+        assertTrue(steps > (2 * i));
+
+        assertNull(visitor.m_error);
+
+        assertEquals(new Parser(text).parse(), visitor.m_result);
+    }
+
+    @Test
+    public void testChildrenThatAreNotObjectsAreSkipped()
+    {
+        final Visitor visitor = new Visitor(true);
+
+        new JSONStreamReader("{\"children\":[{\"a\":1},2,\"s\",[{}],{\"b\":2}]}", visitor).run();
+
+        assertNull(visitor.m_error);
+
+        assertEquals(3, visitor.m_skipped);
+
+        assertEquals(2, ((List<?>) ((Map<?, ?>) visitor.m_result).get("children")).size());
+    }
+
+    @Test
+    public void testMalformedJSONIsReportedFromRunAndStep()
+    {
+        final String[] bad = { "", "  ", "[1]", "{\"a\":1", "{\"a\" 1}", "{\"a\":1,}", "{\"children\":[{\"a\":1}", "{\"children\":[{\"a\":1} {}]}", "{\"a\":1} x", "{\"\\q\":1}" };
+
+        for (final String json : bad)
+        {
+            Visitor visitor = new Visitor(true);
+
+            JSONStreamReader reader = new JSONStreamReader(json, visitor);
+
+            reader.run();
+
+            assertTrue(json, reader.isDone());
+
+            assertTrue(json, reader.isFailed());
+
+            assertNotNull(json, visitor.m_error);
+
+            assertNull(json, visitor.m_result);
+
+            visitor = new Visitor(true);
+
+            reader = new JSONStreamReader(json, visitor);
+
+            while (reader.step(1))
+            {
+                assertNull(json, visitor.m_error);
+            }
+            assertNotNull(json, visitor.m_error);
+        }
+    }
+
+    @Test
+    public void testCancel()
+    {
+        final Visitor visitor = new Visitor(true);
+
+        final JSONStreamReader reader = new JSONStreamReader(SCENE, visitor);
+
+        assertTrue(reader.step(2));
+
+        reader.cancel();
+
+        assertFalse(reader.step(1));
+
+        assertTrue(reader.isCancelled());
+
+        assertFalse(reader.isDone());
+
+        assertNull(visitor.m_result);
+    }
+
+    private static List<String> documents()
+    {
+        final List<String> list = new ArrayList<>();
+
+        list.add("{}");
+
+        list.add(" { \"a\" : [ ] , \"children\" : [ ] } ");
+
+        list.add("{\"children\":[{\"children\":[{\"children\":[{\"x\":1}]}]}],\"after\":\"children\"}");
+
+        list.add("{\"children\":[],\"children\":[{\"a\":1}]}");
+
+        list.add("{\"children\":5,\"b\":[\"children\"]}");
+
+        list.add("{\r\n\t\"s\":\"\\u0041\\u00DF\\uD83D\\uDE00\\b\\f\\r\",\n\"children\":[\n{\"t\":\"\u4e2d\u6587\"}\n]\n}");
+
+        list.add(SCENE);
+
+        return list;
+    }
+
+    private static Object read(final String json, final boolean stream, final int steps)
+    {
+        final Visitor visitor = new Visitor(stream);
+
+        final JSONStreamReader reader = new JSONStreamReader(json, visitor);
+
+        visitor.m_reader = reader;
+
+        while (reader.step(steps))
+        {
+            assertNull(visitor.m_result);
+        }
+        assertTrue(reader.isDone());
+
+        assertFalse(reader.isFailed());
+
+        assertNull(visitor.m_error);
+
+        return visitor.m_result;
+    }
+
+    private static final class Visitor implements JSONStreamReader.IObjectVisitor
+    {
+        private final boolean                       m_stream;
+
+        private final List<HashMap<String, Object>> m_stack = new ArrayList<>();
+
+        private JSONStreamReader                    m_reader;
+
+        private Object                              m_result;
+
+        private String                              m_error;
+
+        private int                                 m_skipped;
+
+        private int                                 m_begins;
+
+        private Visitor(final boolean stream)
+        {
+            m_stream = stream;
+        }
+
+        @Override
+        public void onBegin()
+        {
+            assertEquals(0, m_begins++);
+        }
+
+        @Override
+        public void onStart()
+        {
+            m_stack.add(new HashMap<String, Object>());
+        }
+
+        @Override
+        public void onMember(final String key, final String json)
+        {
+            assertFalse(m_stack.get(m_stack.size() - 1).containsKey(key));
+
+            m_stack.get(m_stack.size() - 1).put(key, new Parser(json).parse());
+        }
+
+        @Override
+        public boolean onObject(final boolean children)
+        {
+            if (children)
+            {
+                if (m_stream)
+                {
+                    m_stack.get(m_stack.size() - 1).put("children", new ArrayList<Object>());
+
+                    return true;
+                }
+                m_stack.get(m_stack.size() - 1).put("children", new Parser(m_reader.getChildren()).parse());
+            }
+            return false;
+        }
+
+        @Override
+        public void onIndex(final int index, final boolean object)
+        {
+            final List<?> children = (List<?>) m_stack.get(m_stack.size() - 1).get("children");
+
+            assertEquals(index, children.size() + m_skipped);
+
+            if (false == object)
+            {
+                m_skipped++;
+            }
+        }
+
+        @Override
+        public void onChildren()
+        {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onEnd()
+        {
+            final HashMap<String, Object> node = m_stack.remove(m_stack.size() - 1);
+
+            if (m_stack.isEmpty())
+            {
+                m_result = node;
+            }
+            else
+            {
+                ((List<Object>) m_stack.get(m_stack.size() - 1).get("children")).add(node);
+            }
+        }
+
+        @Override
+        public void onError(final String message)
+        {
+            assertNull(m_error);
+
+            m_error = message;
+        }
+    }
+
+    /**
+     * Minimal strict JSON parser to objects, lists, strings, doubles, booleans and null.
+     */
+    private static final class Parser
+    {
+        private final String m_text;
+
+        private int          m_pos;
+
+        private Parser(final String text)
+        {
+            m_text = text;
+        }
+
+        private Object parse()
+        {
+            final Object value = value();
+
+            space();
+
+            assertEquals(m_text.length(), m_pos);
+
+            return value;
+        }
+
+        private void space()
+        {
+            while ((m_pos < m_text.length()) && (" \t\r\n".indexOf(m_text.charAt(m_pos)) >= 0))
+            {
+                m_pos++;
+            }
+        }
+
+        private char next()
+        {
+            space();
+
+            return m_text.charAt(m_pos);
+        }
+
+        private void expect(final char c)
+        {
+            assertEquals(c, next());
+
+            m_pos++;
+        }
+
+        private Object value()
+        {
+            final char c = next();
+
+            if (c == '{')
+            {
+                m_pos++;
+
+                final HashMap<String, Object> map = new HashMap<>();
+
+                if (next() == '}')
+                {
+                    m_pos++;
+
+                    return map;
+                }
+                while (true)
+                {
+                    assertEquals('"', next());
+
+                    final String key = string();
+
+                    expect(':');
+
+                    final Object value = value();
+
+                    // the first "children" array wins, as in the reader
+
+                    if ((false == "children".equals(key)) || (false == map.containsKey(key)) || (false == (map.get(key) instanceof List)))
+                    {
+                        map.put(key, value);
+                    }
+                    if (next() == '}')
+                    {
+                        m_pos++;
+
+                        return map;
+                    }
+                    expect(',');
+                }
+            }
+            if (c == '[')
+            {
+                m_pos++;
+
+                final List<Object> list = new ArrayList<>();
+
+                if (next() == ']')
+                {
+                    m_pos++;
+
+                    return list;
+                }
+                while (true)
+                {
+                    list.add(value());
+
+                    if (next() == ']')
+                    {
+                        m_pos++;
+
+                        return list;
+                    }
+                    expect(',');
+                }
+            }
+            if (c == '"')
+            {
+                return string();
+            }
+            if (m_text.startsWith("true", m_pos))
+            {
+                m_pos += 4;
+
+                return Boolean.TRUE;
+            }
+            if (m_text.startsWith("false", m_pos))
+            {
+                m_pos += 5;
+
+                return Boolean.FALSE;
+            }
+            if (m_text.startsWith("null", m_pos))
+            {
+                m_pos += 4;
+
+                return null;
+            }
+            final int from = m_pos;
+
+            while ((m_pos < m_text.length()) && ("+-.eE0123456789".indexOf(m_text.charAt(m_pos)) >= 0))
+            {
+                m_pos++;
+            }
+            return Double.valueOf(m_text.substring(from, m_pos));
+        }
+
+        private String string()
+        {
+            final StringBuilder builder = new StringBuilder();
+
+            m_pos++;
+
+            while (true)
+            {
+                char c = m_text.charAt(m_pos++);
+
+                if (c == '"')
+                {
+                    return builder.toString();
+                }
+                if (c == '\\')
+                {
+                    c = m_text.charAt(m_pos++);
+
+                    if (c == 'u')
+                    {
+                        c = (char) Integer.parseInt(m_text.substring(m_pos, m_pos + 4), 16);
+
+                        m_pos += 4;
+                    }
+                    else
+                    {
+                        c = "\"\\/\b\f\n\r\t".charAt("\"\\/bfnrt".indexOf(c));
+                    }
+                }
+                builder.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.wires.OrthogonalRouter;
+import com.ait.lienzo.shared.core.types.Direction;
+
+/**
+ * Times the {@link OrthogonalRouter} on a large graph. Not matched by the surefire includes, run it with
+ * <code>mvn test -Dtest=OrthogonalRouterBenchmark</code>.
+ */
+public class OrthogonalRouterBenchmark
+{
+    @Test
+    public void testLargeGraph()
+    {
+        final Random random = new Random(11);
+
+        final OrthogonalRouter router = new OrthogonalRouter(10, 20);
+
+        final Map<String, double[]> shapes = new HashMap<String, double[]>();
+
+        final int cols = 40;
+
+        final int rows = 25;
+
+        for (int c = 0; c < cols; c++)
+        {
+            for (int r = 0; r < rows; r++)
+            {
+                final double x = (c * 160) + random.nextInt(40);
+
+                final double y = (r * 120) + random.nextInt(30);
+
+                final double[] box = new double[] { x, y, x + 60 + random.nextInt(30), y + 40 + random.nextInt(20) };
+
+                shapes.put("s" + ((c * rows) + r), box);
+
+                router.setObstacle("s" + ((c * rows) + r), box[0], box[1], box[2], box[3]);
+            }
+        }
+        final Direction[] sides = new Direction[] { Direction.EAST, Direction.SOUTH, Direction.WEST, Direction.NORTH };
+
+        for (int i = 0; i < 2000; i++)
+        {
+            final int c = random.nextInt(cols);
+
+            final int r = random.nextInt(rows);
+
+            final int tc = Math.max(0, Math.min(cols - 1, (c + random.nextInt(7)) - 3));
+
+            final int tr = Math.max(0, Math.min(rows - 1, (r + random.nextInt(7)) - 3));
+
+            if ((tc == c) && (tr == r))
+            {
+                continue;
+            }
+            final String source = "s" + ((c * rows) + r);
+
+            final String target = "s" + ((tc * rows) + tr);
+
+            final Direction sd = sides[random.nextInt(4)];
+
+            final Direction td = sides[random.nextInt(4)];
+
+            final double[] sp = OrthogonalRouterTest.side(shapes.get(source), sd);
+
+            final double[] tp = OrthogonalRouterTest.side(shapes.get(target), td);
+
+            router.setRoute("c" + i, source, sp[0], sp[1], sd, target, tp[0], tp[1], td);
+        }
+        long time = System.nanoTime();
+
+        router.update();
+
+        final long initial = System.nanoTime() - time;
+
+        final int routes = router.getRoutedCount();
+
+        for (int i = 0; i < 2000; i++)
+        {
+            final double[] route = router.getRoute("c" + i);
+
+            if (null != route)
+            {
+                OrthogonalRouterTest.assertValid(route, shapes);
+            }
+        }
+        // move one shape, only the routes near it are routed again
+
+        final double[] box = shapes.get("s500");
+
+        box[0] += 15;
+
+        box[2] += 15;
+
+        router.setObstacle("s500", box[0], box[1], box[2], box[3]);
+
+        time = System.nanoTime();
+
+        router.update();
+
+        final long moved = System.nanoTime() - time;
+
+        assertTrue(router.getRoutedCount() < (routes / 10));
+
+        System.out.println("OrthogonalRouter: " + shapes.size() + " shapes, " + routes + " routes in " + (initial / 1000000) + "ms, " + router.getRoutedCount() + " routed again after a move in " + (moved / 1000000) + "ms");
+    }
+}
@@ -0,0 +1,242 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.wires.OrthogonalRouter;
+import com.ait.lienzo.shared.core.types.Direction;
+
+public class OrthogonalRouterTest
+{
+    @Test
+    public void testStraightRouteWithoutObstacles()
+    {
+        final OrthogonalRouter router = new OrthogonalRouter(10, 20);
+
+        router.setRoute("r", null, 0, 0, Direction.EAST, null, 100, 0, Direction.WEST);
+
+        assertArrayEquals(new double[] { 0, 0, 100, 0 }, router.getRoute("r"), 0);
+    }
+
+    @Test
+    public void testRoutesAroundObstacle()
+    {
+        final OrthogonalRouter router = new OrthogonalRouter(10, 20);
+
+        final Map<String, double[]> shapes = new HashMap<String, double[]>();
+
+        shapes.put("a", new double[] { -40, -20, 0, 20 });
+
+        shapes.put("b", new double[] { 100, -20, 140, 20 });
+
+        shapes.put("block", new double[] { 40, -30, 60, 40 });
+
+        for (final Map.Entry<String, double[]> e : shapes.entrySet())
+        {
+            router.setObstacle(e.getKey(), e.getValue()[0], e.getValue()[1], e.getValue()[2], e.getValue()[3]);
+        }
+        router.setRoute("r", "a", 0, 0, Direction.EAST, "b", 100, 0, Direction.WEST);
+
+        final double[] route = router.getRoute("r");
+
+        assertValid(route, shapes);
+
+        assertEquals(0, route[0], 0);
+
+        assertEquals(100, route[route.length - 2], 0);
+
+        // out of a, over the top of the block, which is shorter than going under it, and into b
+
+        assertEquals(4, bends(route));
+
+        assertEquals(-40, min(route, 1), 0);
+    }
+
+    @Test
+    public void testBendPenaltyPrefersFewerBends()
+    {
+        final Map<String, double[]> shapes = new HashMap<String, double[]>();
+
+        shapes.put("a", new double[] { -20, -20, 0, 20 });
+
+        shapes.put("b", new double[] { 180, 180, 220, 220 });
+
+        final OrthogonalRouter router = new OrthogonalRouter(10, 20);
+
+        router.setObstacle("a", -20, -20, 0, 20);
+
+        router.setObstacle("b", 180, 180, 220, 220);
+
+        // leaving east and arriving from the north needs only one bend
+
+        router.setRoute("r", "a", 0, 0, Direction.EAST, "b", 200, 180, Direction.NORTH);
+
+        final double[] route = router.getRoute("r");
+
+        assertValid(route, shapes);
+
+        assertEquals(1, bends(route));
+
+        assertArrayEquals(new double[] { 0, 0, 200, 0, 200, 180 }, route, 0);
+    }
+
+    @Test
+    public void testContainerOfEndsDoesNotBlock()
+    {
+        final OrthogonalRouter router = new OrthogonalRouter(10, 20);
+
+        router.setObstacle("parent", 0, 0, 400, 200);
+
+        router.setObstacle("a", 20, 80, 60, 120);
+
+        router.setObstacle("b", 300, 80, 340, 120);
+
+        router.setRoute("r", "a", 60, 100, Direction.EAST, "b", 300, 100, Direction.WEST);
+
+        assertArrayEquals(new double[] { 60, 100, 300, 100 }, router.getRoute("r"), 0);
+    }
+
+    @Test
+    public void testOnlyAffectedRoutesAreRoutedAgain()
+    {
+        final OrthogonalRouter router = new OrthogonalRouter(10, 20);
+
+        router.setObstacle("a", -40, -20, 0, 20);
+
+        router.setObstacle("b", 100, -20, 140, 20);
+
+        router.setObstacle("far", 1000, 1000, 1040, 1040);
+
+        router.setRoute("r", "a", 0, 0, Direction.EAST, "b", 100, 0, Direction.WEST);
+
+        assertEquals(1, router.update().size());
+
+        assertEquals(0, router.getDirtyCount());
+
+        // unchanged requests and far away moves do not dirty the route
+
+        router.setRoute("r", "a", 0, 0, Direction.EAST, "b", 100, 0, Direction.WEST);
+
+        router.setObstacle("far", 2000, 1000, 2040, 1040);
+
+        assertEquals(0, router.getDirtyCount());
+
+        assertTrue(router.update().isEmpty());
+
+        assertEquals(0, router.getRoutedCount());
+
+        // moving it onto the route dirties it, and the new route goes around
+
+        router.setObstacle("far", 40, -30, 60, 40);
+
+        assertTrue(router.isDirty("r"));
+
+        final ArrayList<String> changed = router.update();
+
+        assertEquals(1, router.getRoutedCount());
+
+        assertEquals(1, changed.size());
+
+        assertEquals(4, bends(router.getRoute("r")));
+
+        // and moving it away again restores the straight route, as the detour touched it
+
+        router.setObstacle("far", 2000, 1000, 2040, 1040);
+
+        assertTrue(router.isDirty("r"));
+
+        router.update();
+
+        assertArrayEquals(new double[] { 0, 0, 100, 0 }, router.getRoute("r"), 0);
+
+        assertTrue(router.removeRoute("r"));
+
+        assertFalse(router.removeRoute("r"));
+
+        assertEquals(0, router.getRouteCount());
+    }
+
+    static double[] side(final double[] box, final Direction d)
+    {
+        final double cx = (box[0] + box[2]) / 2;
+
+        final double cy = (box[1] + box[3]) / 2;
+
+        switch (d)
+        {
+            case EAST:
+                return new double[] { box[2], cy };
+            case WEST:
+                return new double[] { box[0], cy };
+            case SOUTH:
+                return new double[] { cx, box[3] };
+            default:
+                return new double[] { cx, box[1] };
+        }
+    }
+
+    static void assertValid(final double[] route, final Map<String, double[]> shapes)
+    {
+        for (int i = 2; i < route.length; i += 2)
+        {
+            final double x0 = route[i - 2];
+
+            final double y0 = route[i - 1];
+
+            final double x1 = route[i];
+
+            final double y1 = route[i + 1];
+
+            assertTrue("segment is not orthogonal", (x0 == x1) || (y0 == y1));
+
+            for (final Map.Entry<String, double[]> e : shapes.entrySet())
+            {
+                final double[] b = e.getValue();
+
+                final boolean crosses = (Math.min(x0, x1) < b[2]) && (Math.max(x0, x1) > b[0]) && (Math.min(y0, y1) < b[3]) && (Math.max(y0, y1) > b[1]);
+
+                assertFalse("route crosses " + e.getKey(), crosses);
+            }
+        }
+    }
+
+    private static int bends(final double[] route)
+    {
+        return Math.max(0, (route.length / 2) - 2);
+    }
+
+    private static double min(final double[] route, final int offset)
+    {
+        double min = Double.POSITIVE_INFINITY;
+
+        for (int i = offset; i < route.length; i += 2)
+        {
+            min = Math.min(min, route[i]);
+        }
+        return min;
+    }
+}
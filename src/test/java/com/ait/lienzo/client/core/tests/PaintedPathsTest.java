@@ -0,0 +1,174 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.wires.picker.PaintedPaths;
+import com.ait.lienzo.client.core.util.FlattenedPath;
+
+/**
+ * Checks the analytic answers of {@link PaintedPaths}, which the incremental picker gives while its bitmap is stale,
+ * against a bitmap of the same paths painted the way the picker paints its color map: in order, filled or not, closed,
+ * and stroked with round joins. Pixels within a pixel and a half of an edge are left out, as the two may round them differently.
+ */
+public class PaintedPathsTest
+{
+    private static final int    SIZE   = 240;
+
+    private static final double MARGIN = 1.5;
+
+    @Test
+    public void testPickMatchesBitmap()
+    {
+        final FlattenedPath body = new FlattenedPath().moveTo(40, 40);
+
+        body.arcTo(160, 40, 160, 160, 20).arcTo(160, 160, 40, 160, 20).cubicTo(80, 120, 80, 80, 40, 40).close();
+
+        final FlattenedPath triangle = new FlattenedPath().moveTo(0, 0).lineTo(30, 0).lineTo(15, 25).close();
+
+        final FlattenedPath line = new FlattenedPath().moveTo(0, 0).lineTo(60, 30);
+
+        final double[][] offsets = new double[][] { { 10, 10 }, { 150, 150 }, { 90, 20 }, { 10, 10 }, { 10, 10 } };
+
+        final double[] widths = new double[] { 2, 2, 6, 24, 12 };
+
+        final boolean[] fills = new boolean[] { true, true, false, false, false };
+
+        // body, two supplementary paths, hotspot and border, as the picker draws them
+
+        final List<List<FlattenedPath>> paths = Arrays.asList(Arrays.asList(body), Arrays.asList(triangle), Arrays.asList(line), Arrays.asList(body), Arrays.asList(body));
+
+        final PaintedPaths paint = new PaintedPaths();
+
+        final BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+
+        final Graphics2D g = image.createGraphics();
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+        for (int i = 0; i < paths.size(); i++)
+        {
+            paint.add(paths.get(i), offsets[i][0], offsets[i][1], widths[i], fills[i]);
+
+            g.setColor(new Color(i + 1, 0, 0));
+
+            for (final FlattenedPath flat : paths.get(i))
+            {
+                final Path2D shape = toShape(flat, offsets[i][0], offsets[i][1]);
+
+                if (fills[i])
+                {
+                    g.fill(shape);
+                }
+                g.setStroke(new BasicStroke((float) widths[i], BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND));
+
+                g.draw(shape);
+            }
+        }
+        g.dispose();
+
+        final int[] seen = new int[paths.size() + 1];
+
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                final double px = x + 0.5;
+
+                final double py = y + 0.5;
+
+                if (isNearEdge(paths, offsets, widths, fills, px, py))
+                {
+                    continue;
+                }
+                final int pixel = ((image.getRGB(x, y) >> 16) & 0xff) - 1;
+
+                assertEquals("at " + x + "," + y, pixel, paint.pick(px, py));
+
+                seen[pixel + 1]++;
+            }
+        }
+        for (int i = 0; i < seen.length; i++)
+        {
+            assertTrue("nothing seen of " + (i - 1), seen[i] > 0);
+        }
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        assertEquals(-1, new PaintedPaths().pick(10, 10));
+
+        assertEquals(-1, new PaintedPaths().add(Arrays.asList(new FlattenedPath()), 0, 0, 4, true).pick(0, 0));
+    }
+
+    private static boolean isNearEdge(final List<List<FlattenedPath>> paths, final double[][] offsets, final double[] widths, final boolean[] fills, final double x, final double y)
+    {
+        for (int i = 0; i < paths.size(); i++)
+        {
+            for (final FlattenedPath flat : paths.get(i))
+            {
+                final double d = flat.distanceTo(x - offsets[i][0], y - offsets[i][1], true);
+
+                if ((Math.abs(d - (widths[i] / 2)) < MARGIN) || (fills[i] && (d < MARGIN)))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Path2D toShape(final FlattenedPath flat, final double dx, final double dy)
+    {
+        final Path2D.Double shape = new Path2D.Double();
+
+        for (int i = 0; i < flat.size(); i++)
+        {
+            if ((i > 0) && flat.isMoveTo(i))
+            {
+                shape.closePath();
+            }
+            if ((i == 0) || flat.isMoveTo(i))
+            {
+                shape.moveTo(flat.getX(i) + dx, flat.getY(i) + dy);
+            }
+            else
+            {
+                shape.lineTo(flat.getX(i) + dx, flat.getY(i) + dy);
+            }
+        }
+        shape.closePath();
+
+        return shape;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.SharedAttributeValues;
+import com.ait.lienzo.client.core.shape.SharedAttributeValues.IValueStore;
+
+/**
+ * Runs {@link SharedAttributeValues} the way Attributes does, over a map whose lists stand in for points, gradients and dash arrays.
+ */
+public class SharedAttributeValuesTest
+{
+    @Test
+    public void testFirstCopyCopiesEverything()
+    {
+        final Values node = values();
+
+        final Values copy = node.copy();
+
+        assertEquals(node.m_map, copy.m_map);
+
+        assertNotSame(node.m_map.get("points"), copy.m_map.get("points"));
+
+        assertNotSame(node.m_map.get("dash"), copy.m_map.get("dash"));
+
+        node.getList("points").add(7);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), copy.getList("points"));
+    }
+
+    @Test
+    public void testCopySharesUntilHandedOut()
+    {
+        final Values node = values().copy();
+
+        final Values copy = node.copy();
+
+        assertEquals(node.m_map, copy.m_map);
+
+        assertSame(node.m_map.get("points"), copy.m_map.get("points"));
+
+        assertTrue(node.isShared("points"));
+
+        assertTrue(copy.isShared("points"));
+
+        copy.getList("points").add(9);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), node.getList("points"));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 9), copy.getList("points"));
+
+        assertFalse(node.isShared("points"));
+
+        // the other values are still shared
+
+        assertSame(node.m_map.get("dash"), copy.m_map.get("dash"));
+
+        node.getList("dash").clear();
+
+        assertEquals(Arrays.asList(5, 5), copy.getList("dash"));
+    }
+
+    @Test
+    public void testEditOriginalDoesNotChangeCopy()
+    {
+        final Values node = values().copy();
+
+        final Values copy = node.copy();
+
+        final List<Integer> points = node.getList("points");
+
+        points.add(11);
+
+        node.put("x", 20);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), copy.getList("points"));
+
+        assertEquals(10, copy.m_map.get("x"));
+
+        // the last node to share a value takes it without a copy
+
+        assertSame(copy.m_map.get("points"), copy.getList("points"));
+
+        // a value handed out may still be changed by whoever holds it, so it is copied for the next copy
+
+        final Values next = node.copy();
+
+        assertNotSame(points, next.m_map.get("points"));
+
+        points.add(12);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 11), next.getList("points"));
+    }
+
+    @Test
+    public void testPutReleasesShare()
+    {
+        final Values node = values().copy();
+
+        final Values copy = node.copy();
+
+        final Object dash = node.m_map.get("dash");
+
+        copy.put("dash", new ArrayList<>(Arrays.asList(1)));
+
+        assertFalse(node.isShared("dash"));
+
+        assertSame(dash, node.getList("dash"));
+
+        copy.remove("points");
+
+        assertFalse(node.isShared("points"));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), node.getList("points"));
+    }
+
+    @Test
+    public void testSharedByMany()
+    {
+        final Values node = values().copy();
+
+        final Values a = node.copy();
+
+        final Values b = node.copy();
+
+        a.getList("points").add(0);
+
+        assertTrue(node.isShared("points"));
+
+        assertTrue(b.isShared("points"));
+
+        assertSame(node.m_map.get("points"), b.m_map.get("points"));
+
+        b.getList("points").add(1);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), node.getList("points"));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 0), a.getList("points"));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 1), b.getList("points"));
+    }
+
+    private static Values values()
+    {
+        final Values node = new Values(new LinkedHashMap<String, Object>(), null);
+
+        node.put("x", 10);
+
+        node.put("points", new ArrayList<>(Arrays.asList(1, 2, 3, 4)));
+
+        node.put("dash", new ArrayList<>(Arrays.asList(5, 5)));
+
+        return node;
+    }
+
+    /**
+     * The map is the attributes, and the lists the object values. Calls SharedAttributeValues where Attributes does.
+     */
+    private static final class Values implements IValueStore<Object>
+    {
+        private final Map<String, Object>     m_map;
+
+        private SharedAttributeValues<Object> m_share;
+
+        private Values(final Map<String, Object> map, final SharedAttributeValues<Object> share)
+        {
+            m_map = map;
+
+            m_share = share;
+        }
+
+        private boolean isShared(final String name)
+        {
+            return ((null != m_share) && (m_share.isShared(name)));
+        }
+
+        private Values copy()
+        {
+            if (null == m_share)
+            {
+                m_share = new SharedAttributeValues<Object>(this, true);
+            }
+            final Values copy = new Values(new LinkedHashMap<>(m_map), null);
+
+            copy.m_share = m_share.copy(copy);
+
+            return copy;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Integer> getList(final String name)
+        {
+            if (null != m_share)
+            {
+                m_share.own(name);
+            }
+            return (List<Integer>) m_map.get(name);
+        }
+
+        private void put(final String name, final Object value)
+        {
+            if (null != m_share)
+            {
+                m_share.release(name, value instanceof List);
+            }
+            m_map.put(name, value);
+        }
+
+        private void remove(final String name)
+        {
+            if (null != m_share)
+            {
+                m_share.release(name, false);
+            }
+            m_map.remove(name);
+        }
+
+        @Override
+        public Collection<String> getObjectNames()
+        {
+            final ArrayList<String> names = new ArrayList<>();
+
+            for (final Map.Entry<String, Object> entry : m_map.entrySet())
+            {
+                if (entry.getValue() instanceof List)
+                {
+                    names.add(entry.getKey());
+                }
+            }
+            return names;
+        }
+
+        @Override
+        public Object get(final String name)
+        {
+            return m_map.get(name);
+        }
+
+        @Override
+        public void set(final String name, final Object value)
+        {
+            m_map.put(name, value);
+        }
+
+        @Override
+        public Object copy(final Object value)
+        {
+            return new ArrayList<>((List<?>) value);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.util.IncrementalRectangleQuery;
+import com.ait.lienzo.client.core.util.SpatialIndex;
+
+public class SpatialIndexTest
+{
+    @Test
+    public void testPutMoveAndRemove()
+    {
+        final SpatialIndex<String> index = new SpatialIndex<String>(10);
+
+        index.put("a", 0, 0, 5, 5);
+
+        index.put("b", 20, 20, 45, 25);
+
+        assertEquals(2, index.size());
+
+        assertEquals(set("a"), index.query(1, 1, new HashSet<String>()));
+
+        assertEquals(set("b"), index.query(44, 21, new HashSet<String>()));
+
+        assertEquals(set("a", "b"), index.query(5, 5, 20, 20, new HashSet<String>()));
+
+        index.put("a", 100, 100, 110, 110);
+
+        assertEquals(2, index.size());
+
+        assertTrue(index.query(1, 1, new HashSet<String>()).isEmpty());
+
+        assertEquals(set("a"), index.query(105, 105, new HashSet<String>()));
+
+        assertEquals(100, index.getBounds("a")[0], 0);
+
+        assertTrue(index.remove("a"));
+
+        assertFalse(index.remove("a"));
+
+        assertFalse(index.contains("a"));
+
+        assertNull(index.getBounds("a"));
+
+        assertTrue(index.query(105, 105, new HashSet<String>()).isEmpty());
+
+        index.clear();
+
+        assertTrue(index.isEmpty());
+
+        assertTrue(index.query(-1000, -1000, 1000, 1000, new HashSet<String>()).isEmpty());
+    }
+
+    @Test
+    public void testItemsAreReportedOnce()
+    {
+        final SpatialIndex<String> index = new SpatialIndex<String>(10);
+
+        index.put("wide", -35, -5, 95, 5);
+
+        index.put("huge", -100000, -100000, 100000, 100000);
+
+        final List<String> hits = index.query(-50, -50, 50, 50, new ArrayList<String>());
+
+        assertEquals(2, hits.size());
+
+        assertEquals(set("wide", "huge"), new HashSet<String>(hits));
+    }
+
+    @Test
+    public void testRejectsInvalidInput()
+    {
+        final SpatialIndex<String> index = new SpatialIndex<String>();
+
+        try
+        {
+            index.put("a", 10, 0, 0, 10);
+
+            assertTrue(false);
+        }
+        catch (final IllegalArgumentException e)
+        {
+        }
+        try
+        {
+            index.put(null, 0, 0, 10, 10);
+
+            assertTrue(false);
+        }
+        catch (final NullPointerException e)
+        {
+        }
+        try
+        {
+            new SpatialIndex<String>(0);
+
+            assertTrue(false);
+        }
+        catch (final IllegalArgumentException e)
+        {
+        }
+    }
+
+    @Test
+    public void testQueriesMatchLinearScan()
+    {
+        final Random random = new Random(7);
+
+        final SpatialIndex<Integer> index = new SpatialIndex<Integer>(32);
+
+        final double[][] boxes = new double[500][];
+
+        for (int i = 0; i < boxes.length; i++)
+        {
+            boxes[i] = box(random);
+
+            index.put(i, boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+        }
+        // move half of them, so the cells they left must have been cleaned up
+
+        for (int i = 0; i < boxes.length; i += 2)
+        {
+            boxes[i] = box(random);
+
+            index.put(i, boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+        }
+        for (int q = 0; q < 200; q++)
+        {
+            final double[] query = box(random);
+
+            final Set<Integer> expect = new HashSet<Integer>();
+
+            for (int i = 0; i < boxes.length; i++)
+            {
+                if ((boxes[i][0] <= query[2]) && (boxes[i][2] >= query[0]) && (boxes[i][1] <= query[3]) && (boxes[i][3] >= query[1]))
+                {
+                    expect.add(i);
+                }
+            }
+            final List<Integer> hits = index.query(query[0], query[1], query[2], query[3], new ArrayList<Integer>());
+
+            assertEquals(expect.size(), hits.size());
+
+            assertEquals(expect, new HashSet<Integer>(hits));
+        }
+    }
+
+    @Test
+    public void testIncrementalRectangleQuery()
+    {
+        final SpatialIndex<Integer> index = new SpatialIndex<Integer>(16);
+
+        final Random random = new Random(11);
+
+        final double[][] boxes = new double[2000][];
+
+        for (int i = 0; i < boxes.length; i++)
+        {
+            boxes[i] = box(random);
+
+            index.put(i, boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+        }
+        // hit when the centre of the box is in the rectangle, which is monotonic but stricter than the boxes meeting
+
+        final IncrementalRectangleQuery<Integer> query = new IncrementalRectangleQuery<Integer>(index, new IncrementalRectangleQuery.HitTester<Integer>()
+        {
+            @Override
+            public boolean isHit(final Integer item, final double minx, final double miny, final double maxx, final double maxy)
+            {
+                final double x = (boxes[item][0] + boxes[item][2]) / 2;
+
+                final double y = (boxes[item][1] + boxes[item][3]) / 2;
+
+                return ((x >= minx) && (x <= maxx) && (y >= miny) && (y <= maxy));
+            }
+        });
+        final Set<Integer> live = new HashSet<Integer>();
+
+        // a rubber band growing from the origin, then shrinking back
+
+        for (int step = 1; step <= 80; step++)
+        {
+            final double size = (step <= 40) ? (step * 20) : ((80 - step) * 20) + 1;
+
+            final List<Integer> added = new ArrayList<Integer>();
+
+            final List<Integer> removed = new ArrayList<Integer>();
+
+            query.update(0, 0, size, size, added, removed);
+
+            live.addAll(added);
+
+            live.removeAll(removed);
+
+            final Set<Integer> expect = new HashSet<Integer>();
+
+            for (int i = 0; i < boxes.length; i++)
+            {
+                final double x = (boxes[i][0] + boxes[i][2]) / 2;
+
+                final double y = (boxes[i][1] + boxes[i][3]) / 2;
+
+                if ((x >= 0) && (x <= size) && (y >= 0) && (y <= size))
+                {
+                    expect.add(i);
+                }
+            }
+            assertEquals(expect, live);
+
+            assertEquals(expect, query.getHits());
+
+            // only the candidates whose state can change are tested, never every item
+
+            assertTrue(query.getTestedCount() < boxes.length);
+        }
+        query.reset();
+
+        assertTrue(query.getHits().isEmpty());
+    }
+
+    private static double[] box(final Random random)
+    {
+        final double x = (random.nextDouble() * 2000) - 1000;
+
+        final double y = (random.nextDouble() * 2000) - 1000;
+
+        final double w = (random.nextInt(10) == 0) ? (random.nextDouble() * 1500) : (random.nextDouble() * 100);
+
+        final double h = random.nextDouble() * 100;
+
+        return new double[] { x, y, x + w, y + h };
+    }
+
+    private static Set<String> set(final String... items)
+    {
+        final Set<String> set = new HashSet<String>();
+
+        for (final String item : items)
+        {
+            set.add(item);
+        }
+        return set;
+    }
+}
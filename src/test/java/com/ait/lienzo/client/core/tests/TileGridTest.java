@@ -0,0 +1,76 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.util.TileGrid;
+
+public class TileGridTest
+{
+    @Test
+    public void testTilesCoverImageOnce()
+    {
+        final int wide = 1000;
+
+        final int high = 700;
+
+        final TileGrid grid = new TileGrid(wide, high, 256);
+
+        assertEquals(4, grid.getColumnCount());
+
+        assertEquals(3, grid.getRowCount());
+
+        assertEquals(12, grid.getTileCount());
+
+        final int[] hits = new int[wide * high];
+
+        for (int t = 0; t < grid.getTileCount(); t++)
+        {
+            for (int y = grid.getY(t); y < (grid.getY(t) + grid.getHeight(t)); y++)
+            {
+                for (int x = grid.getX(t); x < (grid.getX(t) + grid.getWidth(t)); x++)
+                {
+                    hits[(y * wide) + x]++;
+                }
+            }
+        }
+        for (int i = 0; i < hits.length; i++)
+        {
+            assertEquals(1, hits[i]);
+        }
+        assertEquals(232, grid.getWidth(11));
+
+        assertEquals(188, grid.getHeight(11));
+    }
+
+    @Test
+    public void testEmptyImage()
+    {
+        final TileGrid grid = new TileGrid(0, 500, 128);
+
+        assertEquals(0, grid.getTileCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadTileSize()
+    {
+        new TileGrid(10, 10, 0);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.server.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.ait.lienzo.server.image.filter.ImageDataBuffer;
+import com.ait.lienzo.server.image.filter.JavaConvolveImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaDiffusionImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaEdgeDetectImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaEmbossImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaGaussianBlurImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterChain;
+import com.ait.lienzo.server.image.filter.JavaImageDataFilterOps;
+import com.ait.lienzo.server.image.filter.JavaPixelImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaStackBlurImageDataFilter;
+import com.ait.lienzo.server.image.filter.JavaTableImageDataFilter;
+import com.ait.lienzo.shared.core.types.ImageFilterType;
+
+public class JavaImageDataFilterTest
+{
+    private static final double[] SEPARABLE = {1 / 16.0, 2 / 16.0, 1 / 16.0, 2 / 16.0, 4 / 16.0, 2 / 16.0, 1 / 16.0, 2 / 16.0, 1 / 16.0};
+
+    private static List<JavaImageDataFilter> filters()
+    {
+        final List<JavaImageDataFilter> list = new ArrayList<JavaImageDataFilter>();
+
+        list.add(JavaPixelImageDataFilter.alphaScaleColor(10, 200, 30, true));
+        list.add(JavaPixelImageDataFilter.averageGrayScale());
+        list.add(JavaPixelImageDataFilter.brightness(0.3));
+        list.add(JavaConvolveImageDataFilter.bump());
+        list.add(JavaPixelImageDataFilter.colorDeltaAlpha(120, 120, 120, 40));
+        list.add(JavaPixelImageDataFilter.colorLuminosity(255, 0, 128));
+        list.add(JavaTableImageDataFilter.contrast(1.5));
+        list.add(new JavaDiffusionImageDataFilter(4, new Random(7)));
+        list.add(new JavaEdgeDetectImageDataFilter());
+        list.add(new JavaEmbossImageDataFilter());
+        list.add(JavaTableImageDataFilter.exposure(2));
+        list.add(JavaTableImageDataFilter.gain(0.3, 0.6));
+        list.add(JavaTableImageDataFilter.gamma(1.4));
+        list.add(new JavaGaussianBlurImageDataFilter(4.5));
+        list.add(JavaPixelImageDataFilter.hue(0.25));
+        list.add(new JavaImageDataFilterChain(JavaPixelImageDataFilter.invertColor(), new JavaStackBlurImageDataFilter(3)));
+        list.add(JavaPixelImageDataFilter.invertColor());
+        list.add(JavaPixelImageDataFilter.lightnessGrayScale());
+        list.add(JavaPixelImageDataFilter.luminosityGrayScale());
+        list.add(JavaTableImageDataFilter.posterize(6));
+        list.add(JavaPixelImageDataFilter.rgbIgnoreAlpha(1, 2, 3));
+        list.add(JavaConvolveImageDataFilter.sharpen());
+        list.add(JavaConvolveImageDataFilter.sharpen(SEPARABLE));
+        list.add(JavaTableImageDataFilter.solarize());
+        list.add(new JavaStackBlurImageDataFilter(12));
+
+        return list;
+    }
+
+    private static ImageDataBuffer image(final int wide, final int high, final long seed)
+    {
+        final Random rand = new Random(seed);
+
+        final ImageDataBuffer image = new ImageDataBuffer(wide, high);
+
+        final int[] data = image.getData();
+
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = rand.nextInt(256);
+        }
+        return image;
+    }
+
+    @Test
+    public void testEveryFilterTypeIsCovered() throws Exception
+    {
+        final Set<ImageFilterType> types = new HashSet<ImageFilterType>();
+
+        for (final Field field : ImageFilterType.class.getFields())
+        {
+            if ((Modifier.isStatic(field.getModifiers())) && (field.getType() == ImageFilterType.class))
+            {
+                types.add((ImageFilterType) field.get(null));
+            }
+        }
+        final Set<ImageFilterType> have = new HashSet<ImageFilterType>();
+
+        for (final JavaImageDataFilter filter : filters())
+        {
+            have.add(filter.getType());
+        }
+        assertEquals(types, have);
+    }
+
+    @Test
+    public void testParallelMatchesSequential()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try
+        {
+            final ImageDataBuffer source = image(213, 157, 42);
+
+            final List<JavaImageDataFilter> sequential = filters();
+
+            final List<JavaImageDataFilter> parallel = filters();
+
+            for (int i = 0; i < sequential.size(); i++)
+            {
+                final ImageDataBuffer expect = sequential.get(i).filter(source, true);
+
+                final ImageDataBuffer result = parallel.get(i).filter(source, true, pool);
+
+                assertArrayEquals(sequential.get(i).getType().getValue(), expect.getData(), result.getData());
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testClampMatchesCanvasPixelArray()
+    {
+        assertEquals(0, JavaImageDataFilterOps.clamp(Double.NaN));
+        assertEquals(0, JavaImageDataFilterOps.clamp(-3.7));
+        assertEquals(255, JavaImageDataFilterOps.clamp(300));
+        assertEquals(128, JavaImageDataFilterOps.clamp(127.5));
+        assertEquals(126, JavaImageDataFilterOps.clamp(126.5));
+        assertEquals(127, JavaImageDataFilterOps.clamp(126.51));
+        assertEquals(-2, JavaImageDataFilterOps.toInt32(-2.7));
+    }
+
+    @Test
+    public void testKnownValues()
+    {
+        final ImageDataBuffer source = image(16, 9, 3);
+
+        final ImageDataBuffer invert = JavaPixelImageDataFilter.invertColor().filter(source, true);
+
+        for (int i = 0; i < source.getLength(); i++)
+        {
+            final int expect = ((i % 4) == 3) ? source.getData()[i] : 255 - source.getData()[i];
+
+            assertEquals(expect, invert.getData()[i]);
+        }
+        final ImageDataBuffer same = new JavaConvolveImageDataFilter(ImageFilterType.SharpenImageDataFilterType, 0, 0, 0, 0, 1, 0, 0, 0, 0).filter(source, false);
+
+        assertArrayEquals(source.getData(), same.getData());
+
+        for (int radius = 1; radius <= 2; radius++)
+        {
+            final ImageDataBuffer flat = new ImageDataBuffer(20, 20);
+
+            Arrays.fill(flat.getData(), 77);
+
+            assertArrayEquals(flat.copy().getData(), new JavaStackBlurImageDataFilter(radius).filter(flat, false).getData());
+        }
+    }
+
+    @Test
+    public void testSeparableMatchesFullConvolve()
+    {
+        final ImageDataBuffer source = image(37, 23, 5);
+
+        final ImageDataBuffer expect = source.create();
+
+        JavaImageDataFilterOps.filterConvolve(source.getData(), expect.getData(), SEPARABLE, source.getWidth(), source.getHeight(), 0, source.getHeight());
+
+        assertArrayEquals(expect.getData(), JavaConvolveImageDataFilter.sharpen(SEPARABLE).filter(source, true).getData());
+
+        assertNull(JavaImageDataFilterOps.separate(JavaConvolveImageDataFilter.SHARPEN_HARD));
+
+        assertNull(JavaImageDataFilterOps.separate(JavaConvolveImageDataFilter.BUMP));
+    }
+
+    @Test
+    public void testGaussianBlur()
+    {
+        assertArrayEquals(new int[] {0, 0, 0}, JavaGaussianBlurImageDataFilter.getBoxRadii(0, 3));
+
+        assertArrayEquals(new int[] {0, 0, 1}, JavaGaussianBlurImageDataFilter.getBoxRadii(1, 3));
+
+        assertArrayEquals(new int[] {4, 4, 5}, JavaGaussianBlurImageDataFilter.getBoxRadii(5, 3));
+
+        final ImageDataBuffer flat = new ImageDataBuffer(20, 20);
+
+        Arrays.fill(flat.getData(), 77);
+
+        assertArrayEquals(flat.copy().getData(), new JavaGaussianBlurImageDataFilter(3).filter(flat, false).getData());
+    }
+
+    @Test
+    public void testInactiveAndCopy()
+    {
+        final ImageDataBuffer source = image(8, 8, 11);
+
+        final int[] before = source.copy().getData();
+
+        final JavaImageDataFilter filter = JavaPixelImageDataFilter.invertColor();
+
+        filter.filter(source, true);
+
+        assertArrayEquals(before, source.getData());
+
+        filter.setActive(false);
+
+        assertSame(source, filter.filter(source, false));
+
+        assertArrayEquals(before, source.getData());
+    }
+
+    @Test
+    public void testPackedRoundTrip()
+    {
+        final ImageDataBuffer source = image(7, 5, 19);
+
+        assertArrayEquals(source.getData(), ImageDataBuffer.fromPackedARGB(7, 5, source.toPackedARGB()).getData());
+
+        assertArrayEquals(source.getData(), ImageDataBuffer.fromBytes(7, 5, source.toBytes()).getData());
+
+        assertTrue(source.toPackedARGB().length == 35);
+    }
+}
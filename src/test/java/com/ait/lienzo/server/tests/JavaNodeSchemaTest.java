@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2018 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.lienzo.server.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.ait.lienzo.server.json.JavaAttributeTypes;
+import com.ait.lienzo.server.json.JavaAttributeTypes.IJavaAttributeTypeValidator;
+import com.ait.lienzo.server.json.JavaNodeSchema;
+import com.ait.lienzo.server.json.JavaNodeSchema.NodeSheet;
+import com.ait.tooling.common.api.types.IStringValued;
+
+/**
+ * Checks the sheets of {@link JavaNodeSchema#getDefault()} against the client sources, so they can not drift when an attribute or node type is added.
+ * <p>
+ * Attribute and the factories can not be loaded on the JVM, as Attribute reads its labels through GWT.create(), so the
+ * Attribute constants, the AttributeType enum names and the addAttribute() calls of every node and image filter factory
+ * are read from the source files.
+ */
+public class JavaNodeSchemaTest
+{
+    private static final File    CLIENT    = new File("src/main/java/com/ait/lienzo/client/core");
+
+    private static final String  TYPES     = "com.ait.lienzo.shared.core.types.";
+
+    private static final Pattern ATTRIBUTE = Pattern.compile("public\\s+static\\s+final\\s+Attribute\\s+(\\w+)\\s*=\\s*new\\s+Attribute\\(\\s*\"(\\w+)\"[^;]*?AttributeType\\.(\\w+)");
+
+    private static final Pattern ENUMS     = Pattern.compile("(\\w+)\\s*=\\s*new\\s+AttributeType\\(\\s*new\\s+EnumValidator<\\w*>\\(\\s*\"(\\w+)\"");
+
+    private static final Pattern FACTORY   = Pattern.compile("((?:\\w+\\s+)*)class\\s+(\\w+Factory)\\b([^{]*)\\{");
+
+    private static final Pattern EXTENDS   = Pattern.compile("\\bextends\\s+(\\w+)");
+
+    private static final Pattern CALLS     = Pattern.compile("addAttribute\\(\\s*Attribute\\.(\\w+)\\s*(?:,\\s*(true|false)\\s*)?\\)|\\b(ShapeType|NodeType|ImageFilterType|GroupType)\\.(\\w+)");
+
+    @Test
+    public void testAttributeTypesMatchClient() throws Exception
+    {
+        final Map<String, String[]> attributes = attributes();
+
+        assertFalse(attributes.isEmpty());
+
+        for (final Map.Entry<String, String[]> entry : attributes.entrySet())
+        {
+            final String property = entry.getValue()[0];
+
+            final IJavaAttributeTypeValidator type = JavaNodeSchema.getAttributeType(property);
+
+            if (null != type)
+            {
+                assertSame("Attribute." + entry.getKey(), javaType(entry.getValue()[1]), type);
+            }
+        }
+        final Matcher matcher = ENUMS.matcher(read(new File(CLIENT, "AttributeType.java")));
+
+        int count = 0;
+
+        while (matcher.find())
+        {
+            assertEquals("AttributeType." + matcher.group(1), matcher.group(2), javaType(matcher.group(1)).getTypeName());
+
+            count++;
+        }
+        assertTrue(count > 0);
+    }
+
+    @Test
+    public void testSheetsMatchFactories() throws Exception
+    {
+        final Map<String, String[]> attributes = attributes();
+
+        final Map<String, Factory> factories = factories();
+
+        final JavaNodeSchema schema = JavaNodeSchema.getDefault();
+
+        final HashSet<String> types = new HashSet<>();
+
+        for (final Factory factory : factories.values())
+        {
+            if ((factory.m_abstract) || (false == factory.isNode(factories)))
+            {
+                continue;
+            }
+            assertNotNull(factory.m_name + " has no type", factory.m_type);
+
+            final String name = factory.m_type;
+
+            types.add(name);
+
+            final NodeSheet sheet = schema.getType(name);
+
+            assertNotNull("no sheet for " + name, sheet);
+
+            final LinkedHashMap<String, String> sheets = new LinkedHashMap<>();
+
+            final ArrayList<String> required = new ArrayList<>();
+
+            factory.apply(factories, attributes, sheets, required);
+
+            assertEquals(name, new ArrayList<>(sheets.keySet()), new ArrayList<>(sheet.getAttributeNames()));
+
+            assertEquals(name, required, sheet.getRequiredAttributes());
+
+            for (final Map.Entry<String, String> entry : sheets.entrySet())
+            {
+                assertSame(name + "." + entry.getKey(), javaType(entry.getValue()), sheet.getAttributeType(entry.getKey()));
+            }
+        }
+        assertEquals(types, new HashSet<>(schema.getTypeNames()));
+    }
+
+    private static IJavaAttributeTypeValidator javaType(final String name) throws Exception
+    {
+        return (IJavaAttributeTypeValidator) JavaAttributeTypes.class.getField(name).get(null);
+    }
+
+    /**
+     * Returns the Attribute constants by field name, as { property, AttributeType field name }.
+     */
+    private static Map<String, String[]> attributes() throws IOException
+    {
+        final Map<String, String[]> map = new HashMap<>();
+
+        final Matcher matcher = ATTRIBUTE.matcher(read(new File(CLIENT, "Attribute.java")));
+
+        while (matcher.find())
+        {
+            map.put(matcher.group(1), new String[] { matcher.group(2), matcher.group(3) });
+        }
+        return map;
+    }
+
+    private static Map<String, Factory> factories() throws Exception
+    {
+        final Map<String, Factory> map = new HashMap<>();
+
+        final ArrayList<File> files = new ArrayList<>();
+
+        list(CLIENT, files);
+
+        for (final File file : files)
+        {
+            final String text = read(file);
+
+            final Matcher matcher = FACTORY.matcher(text);
+
+            while (matcher.find())
+            {
+                final Factory factory = new Factory(matcher.group(2), matcher.group(1).contains("abstract"));
+
+                // drop the type parameters, whose bounds also use extends
+
+                String header = matcher.group(3);
+
+                String plain = header.replaceAll("<[^<>]*>", "");
+
+                while (false == plain.equals(header))
+                {
+                    header = plain;
+
+                    plain = header.replaceAll("<[^<>]*>", "");
+                }
+                final Matcher base = EXTENDS.matcher(header);
+
+                if (base.find())
+                {
+                    factory.m_base = base.group(1);
+                }
+                final String body = block(text, matcher.end() - 1);
+
+                final Matcher ctor = Pattern.compile("\\b" + factory.m_name + "\\s*\\([^)]*\\)\\s*\\{").matcher(body);
+
+                while (ctor.find())
+                {
+                    final Matcher calls = CALLS.matcher(block(body, ctor.end() - 1));
+
+                    while (calls.find())
+                    {
+                        if (null != calls.group(1))
+                        {
+                            factory.m_calls.add(new String[] { calls.group(1), calls.group(2) });
+                        }
+                        else if (null == factory.m_type)
+                        {
+                            factory.m_type = ((IStringValued) Class.forName(TYPES + calls.group(3)).getField(calls.group(4)).get(null)).getValue();
+                        }
+                    }
+                }
+                assertFalse("duplicate " + factory.m_name, map.containsKey(factory.m_name));
+
+                map.put(factory.m_name, factory);
+            }
+        }
+        return map;
+    }
+
+    private static void list(final File dir, final List<File> files)
+    {
+        final File[] list = dir.listFiles();
+
+        assertNotNull(dir.getPath(), list);
+
+        for (final File file : list)
+        {
+            if (file.isDirectory())
+            {
+                list(file, files);
+            }
+            else if (file.getName().endsWith(".java"))
+            {
+                files.add(file);
+            }
+        }
+    }
+
+    private static String read(final File file) throws IOException
+    {
+        return strip(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the text of the block that opens at <code>from</code>, without its braces.
+     */
+    private static String block(final String text, final int from)
+    {
+        int depth = 0;
+
+        for (int i = from; i < text.length(); i++)
+        {
+            final char c = text.charAt(i);
+
+            if (c == '{')
+            {
+                depth++;
+            }
+            else if ((c == '}') && (--depth == 0))
+            {
+                return text.substring(from + 1, i);
+            }
+        }
+        throw new IllegalStateException("unbalanced braces");
+    }
+
+    /**
+     * Removes comments, and blanks out char literals and string literals with braces in them,
+     * so those braces do not confuse {@link #block(String, int)}.
+     */
+    private static String strip(final String text)
+    {
+        final StringBuilder builder = new StringBuilder(text.length());
+
+        int i = 0;
+
+        while (i < text.length())
+        {
+            final char c = text.charAt(i);
+
+            if (text.startsWith("//", i))
+            {
+                while ((i < text.length()) && (text.charAt(i) != '\n'))
+                {
+                    i++;
+                }
+            }
+            else if (text.startsWith("/*", i))
+            {
+                final int end = text.indexOf("*/", i + 2);
+
+                i = (end < 0) ? text.length() : end + 2;
+
+                builder.append(' ');
+            }
+            else if ((c == '"') || (c == '\''))
+            {
+                final int from = i++;
+
+                while ((i < text.length()) && (text.charAt(i) != c))
+                {
+                    i += (text.charAt(i) == '\\') ? 2 : 1;
+                }
+                i++;
+
+                final String literal = text.substring(from, Math.min(i, text.length()));
+
+                builder.append(((c == '"') && (literal.indexOf('{') < 0) && (literal.indexOf('}') < 0)) ? literal : "\"\"");
+            }
+            else
+            {
+                builder.append(c);
+
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class Factory
+    {
+        private final String         m_name;
+
+        private final boolean        m_abstract;
+
+        private final List<String[]> m_calls = new ArrayList<>();
+
+        private String               m_base;
+
+        private String               m_type;
+
+        private Factory(final String name, final boolean abstr)
+        {
+            m_name = name;
+
+            m_abstract = abstr;
+        }
+
+        private boolean isNode(final Map<String, Factory> factories)
+        {
+            if (("NodeFactory".equals(m_name)) || ("ImageDataFilterFactory".equals(m_name)))
+            {
+                return true;
+            }
+            final Factory base = factories.get(m_base);
+
+            return ((null != base) && (base.isNode(factories)));
+        }
+
+        /**
+         * Adds the attributes of the base factories and then of this one, the same way AbstractFactory.addAttribute() does.
+         */
+        private void apply(final Map<String, Factory> factories, final Map<String, String[]> attributes, final Map<String, String> sheet, final List<String> required)
+        {
+            final Factory base = factories.get(m_base);
+
+            if (null != base)
+            {
+                base.apply(factories, attributes, sheet, required);
+            }
+            for (final String[] call : m_calls)
+            {
+                final String[] attribute = attributes.get(call[0]);
+
+                assertNotNull(m_name + " uses unknown Attribute." + call[0], attribute);
+
+                final String property = attribute[0];
+
+                if (false == sheet.containsKey(property))
+                {
+                    sheet.put(property, attribute[1]);
+                }
+                if ("true".equals(call[1]))
+                {
+                    if (false == required.contains(property))
+                    {
+                        required.add(property);
+                    }
+                }
+                else
+                {
+                    required.remove(property);
+                }
+            }
+        }
+    }
+}
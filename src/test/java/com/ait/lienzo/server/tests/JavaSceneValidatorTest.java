@@ -0,0 +1,160 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+
+package com.ait.lienzo.server.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.ait.lienzo.client.core.shape.json.validators.ValidationError;
+import com.ait.lienzo.server.json.JavaJSONParser;
+import com.ait.lienzo.server.json.JavaSceneValidator;
+import com.ait.lienzo.server.json.JavaValidationContext;
+
+public class JavaSceneValidatorTest
+{
+    private static final String VALID = "{\"type\":\"Viewport\",\"attributes\":{\"transform\":[1,0,0,1,0,0]},\"children\":[{\"type\":\"Scene\",\"children\":[" + "{\"type\":\"Layer\",\"attributes\":{\"id\":\"base\",\"clearLayerBeforeDraw\":true},\"children\":[" + "{\"type\":\"Rectangle\",\"attributes\":{\"x\":10,\"y\":20,\"width\":100,\"height\":50,\"fill\":\"rgba(10,20,30,0.5)\",\"stroke\":\"red\",\"lineCap\":\"round\"}}," + "{\"type\":\"Group\",\"attributes\":{\"x\":5},\"children\":[{\"type\":\"Circle\",\"attributes\":{\"radius\":4,\"fill\":{\"type\":\"LinearGradient\",\"start\":{\"x\":0,\"y\":0},\"end\":{\"x\":1,\"y\":1},\"colorStops\":[{\"stop\":0,\"color\":\"#fff\"},{\"stop\":1,\"color\":\"black\"}]}}}]}," + "{\"type\":\"Picture\",\"attributes\":{\"url\":\"http://www.example.com/a.png\"},\"filter\":{\"active\":true,\"filters\":[{\"type\":\"GammaImageDataFilter\",\"attributes\":{\"active\":true,\"value\":2}}]}}" + "]}]}]}";
+
+    private static final String BROKEN = "{\"type\":\"Scene\",\"children\":[" + "{\"type\":\"Layer\",\"children\":[" + "{\"type\":\"Circle\",\"attributes\":{\"fill\":7,\"lineCap\":\"flat\"}}," + "{\"type\":\"Group\",\"children\":[{\"type\":\"Layer\"},{\"type\":\"Blob\"},{\"type\":\"Text\",\"attributes\":{\"text\":\"a\",\"size\":3}}]}," + "{\"type\":\"Rectangle\",\"attributes\":{\"width\":1,\"height\":\"2\"}}" + "]}," + "{\"type\":\"Layer\",\"attributes\":{\"transform\":[1,0,0,1,0,0]},\"children\":[{\"type\":\"Picture\",\"attributes\":{\"url\":\"javascript:alert(1)\"},\"filter\":{\"filters\":[{\"type\":\"Circle\",\"attributes\":{\"radius\":1}}]}}]}," + "{\"type\":\"Circle\",\"attributes\":{\"radius\":1}}" + "]}";
+
+    private static List<String> errors(final JavaValidationContext ctx)
+    {
+        final List<String> list = new ArrayList<String>();
+
+        for (final ValidationError e : ctx.getErrors())
+        {
+            list.add(e.getContext() + " - " + e.getMessage());
+        }
+        return list;
+    }
+
+    private static JavaValidationContext validate(final JavaSceneValidator validator, final String json, final boolean stop)
+    {
+        final JavaValidationContext ctx = new JavaValidationContext().setStopOnError(stop);
+
+        validator.validate(json, ctx);
+
+        return ctx;
+    }
+
+    @Test
+    public void testValidScene()
+    {
+        final JavaValidationContext ctx = new JavaValidationContext();
+
+        assertNotNull(new JavaSceneValidator().validate(VALID, ctx));
+
+        assertEquals(ctx.getDebugString(), 0, ctx.getErrorCount());
+    }
+
+    @Test
+    public void testErrorsMatchClientMessages()
+    {
+        final List<String> list = errors(validate(new JavaSceneValidator(), BROKEN, false));
+
+        final List<String> wants = new ArrayList<String>();
+
+        wants.add(".fromString.children[0].children[0].attributes.radius - attribute is required");
+        wants.add(".fromString.children[0].children[0].attributes.fill - value should be a Color or Gradient");
+        wants.add(".fromString.children[0].children[0].attributes.lineCap - invalid value for type LineCap [\"flat\"]");
+        wants.add(".fromString.children[0].children[1].children[0] - value should be a com.ait.lienzo.client.core.shape.Layer is not a Primitive");
+        wants.add(".fromString.children[0].children[1].children[1].type - no NodeFactory is registered for type 'Blob'");
+        wants.add(".fromString.children[0].children[1].children[2].attributes.size - attribute is invalid for type Text");
+        wants.add(".fromString.children[0].children[2].attributes.height - value should be a Number");
+        wants.add(".fromString.children[1].attributes.transform - attribute is invalid for type Layer");
+        wants.add(".fromString.children[1].children[0].attributes.url - value should be a URL");
+        wants.add(".fromString.children[1].children[0].filters[0] - value should be a ImageDataFilter");
+        wants.add(".fromString.children[2] - value should be a com.ait.lienzo.client.core.shape.Circle is not a Layer");
+
+        assertEquals(wants, list);
+    }
+
+    @Test
+    public void testParallelMatchesSequential()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try
+        {
+            final JavaSceneValidator parallel = new JavaSceneValidator(pool);
+
+            final JavaSceneValidator sequential = new JavaSceneValidator();
+
+            final StringBuilder b = new StringBuilder("{\"type\":\"Scene\",\"children\":[");
+
+            for (int l = 0; l < 8; l++)
+            {
+                b.append((l > 0) ? "," : "").append("{\"type\":\"Layer\",\"children\":[");
+
+                for (int g = 0; g < 20; g++)
+                {
+                    b.append((g > 0) ? "," : "").append("{\"type\":\"Group\",\"children\":[");
+
+                    for (int s = 0; s < 25; s++)
+                    {
+                        final boolean bad = (((l * 31) + (g * 7) + s) % 13) == 0;
+
+                        b.append((s > 0) ? "," : "").append("{\"type\":\"Circle\",\"attributes\":{\"radius\":").append(bad ? "\"x\"" : String.valueOf(s)).append("}}");
+                    }
+                    b.append("]},{\"type\":\"Rectangle\",\"attributes\":{\"width\":1}}");
+                }
+                b.append("]}");
+            }
+            final String json = b.append("]}").toString();
+
+            final List<String> full = errors(validate(sequential, json, false));
+
+            assertTrue(full.size() > 100);
+
+            assertEquals(full, errors(validate(parallel, json, false)));
+
+            final List<String> stop = errors(validate(parallel, json, true));
+
+            assertEquals(errors(validate(sequential, json, true)), stop);
+
+            assertEquals(full.get(0), stop.get(0));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStopOnError()
+    {
+        final JavaValidationContext ctx = new JavaValidationContext().setStopOnError(true);
+
+        assertNull(new JavaSceneValidator().validate(BROKEN, ctx));
+
+        assertEquals(1, ctx.getErrorCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParserRejectsTrailingComma()
+    {
+        JavaJSONParser.parse("{\"type\":\"Scene\",\"children\":[1,]}");
+    }
+}
@@ -0,0 +1,343 @@
+/*
+   Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+
+package com.ait.lienzo.shared.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ait.lienzo.shared.core.binary.BinaryDecoder;
+import com.ait.lienzo.shared.core.binary.BinaryEncoder;
+import com.ait.lienzo.shared.core.binary.BinaryFormat;
+import com.ait.lienzo.shared.core.binary.IBinaryValueModel;
+import com.ait.lienzo.shared.core.types.NodeType;
+import com.ait.lienzo.shared.core.types.ShapeType;
+
+public class BinaryFormatTest
+{
+    private static final ObjectModel MODEL = new ObjectModel();
+
+    private static Map<String, Object> node(final String type, final Object... attributes)
+    {
+        final Map<String, Object> node = new LinkedHashMap<String, Object>();
+
+        final Map<String, Object> attr = new LinkedHashMap<String, Object>();
+
+        for (int i = 0; i < attributes.length; i += 2)
+        {
+            attr.put((String) attributes[i], attributes[i + 1]);
+        }
+        node.put("type", type);
+
+        node.put("attributes", attr);
+
+        return node;
+    }
+
+    private static Map<String, Object> point(final double x, final double y)
+    {
+        final Map<String, Object> point = new LinkedHashMap<String, Object>();
+
+        point.put("x", x);
+
+        point.put("y", y);
+
+        return point;
+    }
+
+    private static Map<String, Object> scene()
+    {
+        final Map<String, Object> layer = node(NodeType.LAYER.getValue(), "id", "main", "clearLayerBeforeDraw", true, "transformable", false);
+
+        final List<Object> children = new ArrayList<Object>();
+
+        for (int i = 0; i < 50; i++)
+        {
+            final List<Object> points = new ArrayList<Object>();
+
+            for (int j = 0; j < 10; j++)
+            {
+                points.add(point(i * 10.25 + j, -j * 0.1));
+            }
+            children.add(node(ShapeType.POLYLINE.getValue(), "x", i * 3.0, "y", -1.0 * i, "points", points, "strokeColor", "#ff00ee", "strokeWidth", 1.5, "alpha", 0.25));
+
+            children.add(node(ShapeType.TEXT.getValue(), "text", "label é中😀 \"" + i + "\"", "fontSize", 12.0, "listening", null));
+        }
+        final List<Object> path = new ArrayList<Object>();
+
+        for (int i = 0; i < 5; i++)
+        {
+            final Map<String, Object> part = new LinkedHashMap<String, Object>();
+
+            part.put("command", (double) i);
+
+            part.put("points", new ArrayList<Object>(Arrays.<Object> asList(1.0 * i, 2.5, -3.0, Double.MAX_VALUE, Double.MIN_VALUE)));
+
+            path.add(part);
+        }
+        children.add(node(ShapeType.SVG_PATH.getValue(), "path", path, "dashArray", new ArrayList<Object>(Arrays.<Object> asList(5.0, 10.0, -0.0)), "empty", new ArrayList<Object>()));
+
+        layer.put("children", children);
+
+        layer.put("meta", new LinkedHashMap<String, Object>());
+
+        return layer;
+    }
+
+    @Test
+    public void testRoundTripMatchesJSON()
+    {
+        final Map<String, Object> scene = scene();
+
+        final byte[] bytes = new BinaryEncoder<Object>(MODEL).encode(scene);
+
+        assertTrue(BinaryDecoder.isBinary(bytes));
+
+        assertEquals(BinaryFormat.VERSION, bytes[BinaryFormat.MAGIC.length]);
+
+        final Object back = new BinaryDecoder<Object>(MODEL).decode(bytes);
+
+        assertEquals(scene, back);
+
+        assertEquals(toJSON(scene), toJSON(back));
+
+        assertTrue(bytes.length < ((toJSON(scene).length() * 2) / 3));
+    }
+
+    @Test
+    public void testSeedDictionaryIsStable()
+    {
+        final List<String> dictionary = BinaryFormat.getDictionary();
+
+        assertEquals(0, dictionary.indexOf("type"));
+
+        assertEquals(dictionary.size(), new HashSet<String>(dictionary).size());
+
+        assertTrue(dictionary.contains(ShapeType.SPRITE.getValue()));
+
+        final byte[] bytes = new BinaryEncoder<Object>(MODEL).encode(NodeType.LAYER.getValue());
+
+        assertEquals(6, bytes.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnknownVersion()
+    {
+        final byte[] bytes = new BinaryEncoder<Object>(MODEL).encode(scene());
+
+        bytes[BinaryFormat.MAGIC.length] = (byte) (BinaryFormat.VERSION + 1);
+
+        new BinaryDecoder<Object>(MODEL).decode(bytes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTruncated()
+    {
+        final byte[] bytes = new BinaryEncoder<Object>(MODEL).encode(scene());
+
+        new BinaryDecoder<Object>(MODEL).decode(Arrays.copyOf(bytes, bytes.length - 3));
+    }
+
+    @Test
+    public void testIsBinary()
+    {
+        assertFalse(BinaryDecoder.isBinary(null));
+
+        assertFalse(BinaryDecoder.isBinary("{\"type\":\"Layer\"}".getBytes()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String toJSON(final Object value)
+    {
+        if (null == value)
+        {
+            return "null";
+        }
+        if (value instanceof String)
+        {
+            return "\"" + ((String) value).replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+        if (value instanceof Map)
+        {
+            final StringBuilder builder = new StringBuilder("{");
+
+            for (final Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet())
+            {
+                if (builder.length() > 1)
+                {
+                    builder.append(',');
+                }
+                builder.append(toJSON(entry.getKey())).append(':').append(toJSON(entry.getValue()));
+            }
+            return builder.append('}').toString();
+        }
+        if (value instanceof List)
+        {
+            final StringBuilder builder = new StringBuilder("[");
+
+            for (final Object item : (List<Object>) value)
+            {
+                if (builder.length() > 1)
+                {
+                    builder.append(',');
+                }
+                builder.append(toJSON(item));
+            }
+            return builder.append(']').toString();
+        }
+        if (value instanceof Number)
+        {
+            final double d = ((Number) value).doubleValue();
+
+            return (d == Math.rint(d)) && (Math.abs(d) < 1e15) ? Long.toString((long) d) : Double.toString(d);
+        }
+        return value.toString();
+    }
+
+    private static final class ObjectModel implements IBinaryValueModel<Object>
+    {
+        @Override
+        public int getKind(final Object value)
+        {
+            if (value instanceof Number)
+            {
+                return NUMBER;
+            }
+            if (value instanceof String)
+            {
+                return STRING;
+            }
+            if (value instanceof Boolean)
+            {
+                return BOOLEAN;
+            }
+            if (value instanceof List)
+            {
+                return ARRAY;
+            }
+            if (value instanceof Map)
+            {
+                return OBJECT;
+            }
+            return NULL;
+        }
+
+        @Override
+        public boolean getBoolean(final Object value)
+        {
+            return (Boolean) value;
+        }
+
+        @Override
+        public double getNumber(final Object value)
+        {
+            return ((Number) value).doubleValue();
+        }
+
+        @Override
+        public String getString(final Object value)
+        {
+            return (String) value;
+        }
+
+        @Override
+        public int getSize(final Object array)
+        {
+            return ((List<?>) array).size();
+        }
+
+        @Override
+        public Object getAt(final Object array, final int index)
+        {
+            return ((List<?>) array).get(index);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Collection<String> getKeys(final Object object)
+        {
+            return ((Map<String, Object>) object).keySet();
+        }
+
+        @Override
+        public Object getValue(final Object object, final String key)
+        {
+            return ((Map<?, ?>) object).get(key);
+        }
+
+        @Override
+        public Object makeNull()
+        {
+            return null;
+        }
+
+        @Override
+        public Object makeBoolean(final boolean value)
+        {
+            return value;
+        }
+
+        @Override
+        public Object makeNumber(final double value)
+        {
+            return value;
+        }
+
+        @Override
+        public Object makeString(final String value)
+        {
+            return value;
+        }
+
+        @Override
+        public Object makeArray(final int size)
+        {
+            return new ArrayList<Object>(size);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void setAt(final Object array, final int index, final Object value)
+        {
+            ((List<Object>) array).add(index, value);
+        }
+
+        @Override
+        public Object makeObject()
+        {
+            return new LinkedHashMap<String, Object>();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void setValue(final Object object, final String key, final Object value)
+        {
+            ((Map<String, Object>) object).put(key, value);
+        }
+    }
+}